@@ -0,0 +1,93 @@
+package com.servexa.appointment.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Creates the pg_trgm indexes behind appointment search. Hibernate's {@code ddl-auto} cannot
+ * express GIN operator classes or generated columns, so they are applied here on startup.
+ * Every statement is idempotent, so a restart does not repeat work. On a plain table the
+ * indexes are built {@code CONCURRENTLY} so writes are not blocked; Postgres does not allow that
+ * on a partitioned table (see the branch partitioning migration), where they are created on the
+ * parent, which builds them on every partition and on partitions attached later.
+ */
+@Component
+@Slf4j
+public class SearchIndexInitializer implements ApplicationRunner {
+
+    private static final String[] SCHEMA_STATEMENTS = {
+            "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+            // Digits-only copy of the phone number so "0771 234" and "(077) 1234" both match "0771234"
+            "ALTER TABLE appointments ADD COLUMN IF NOT EXISTS phone_digits TEXT " +
+                    "GENERATED ALWAYS AS (regexp_replace(phone_number, '[^0-9]', '', 'g')) STORED"
+    };
+
+    private static final String[] INDEX_STATEMENTS = {
+            "CREATE INDEX %s IF NOT EXISTS idx_appointments_full_name_trgm " +
+                    "ON appointments USING gin (full_name gin_trgm_ops)",
+            "CREATE INDEX %s IF NOT EXISTS idx_appointments_phone_digits_trgm " +
+                    "ON appointments USING gin (phone_digits gin_trgm_ops)",
+            "CREATE INDEX %s IF NOT EXISTS idx_appointments_vehicle_type_trgm " +
+                    "ON appointments USING gin (vehicle_type gin_trgm_ops)",
+            "CREATE INDEX %s IF NOT EXISTS idx_appointments_additional_note_trgm " +
+                    "ON appointments USING gin (additional_note gin_trgm_ops)"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${appointment.search.create-indexes:true}")
+    private boolean createIndexes;
+
+    public SearchIndexInitializer(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!createIndexes) {
+            return;
+        }
+        int failed = 0;
+        for (String statement : SCHEMA_STATEMENTS) {
+            failed += execute(statement);
+        }
+        String concurrently = isPartitioned() ? "" : "CONCURRENTLY";
+        for (String statement : INDEX_STATEMENTS) {
+            failed += execute(String.format(statement, concurrently));
+        }
+        if (failed == 0) {
+            log.info("Appointment search indexes are in place");
+        } else {
+            log.warn("{} search index setup steps failed, search may fall back to sequential scans", failed);
+        }
+    }
+
+    // Each step is attempted on its own so one failure does not leave the remaining indexes unbuilt
+    private int execute(String statement) {
+        try {
+            jdbcTemplate.execute(statement);
+            return 0;
+        } catch (DataAccessException e) {
+            log.warn("Search index setup step failed ({}): {}", statement, e.getMostSpecificCause().getMessage());
+            return 1;
+        }
+    }
+
+    private boolean isPartitioned() {
+        try {
+            Boolean partitioned = jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = 'appointments'::regclass)",
+                    Boolean.class);
+            return Boolean.TRUE.equals(partitioned);
+        } catch (DataAccessException e) {
+            return false;
+        }
+    }
+}
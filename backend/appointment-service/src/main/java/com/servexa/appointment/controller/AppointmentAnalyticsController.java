@@ -0,0 +1,50 @@
+package com.servexa.appointment.controller;
+
+import com.servexa.appointment.dto.AppointmentRollupResponse;
+import com.servexa.appointment.dto.StageDurationResponse;
+import com.servexa.appointment.service.AppointmentAnalyticsService;
+import com.servexa.appointment.service.AppointmentTimelineService;
+import com.servexa.common.dto.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/appointments/analytics")
+@RequiredArgsConstructor
+public class AppointmentAnalyticsController {
+
+    private final AppointmentAnalyticsService analyticsService;
+    private final AppointmentTimelineService timelineService;
+
+    @GetMapping("/rollups")
+    public ResponseEntity<ApiResponse<List<AppointmentRollupResponse>>> getRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String groupBy,
+            @RequestParam(required = false) String serviceType,
+            @RequestParam(required = false) String employeeId) {
+        List<AppointmentRollupResponse> rollups = analyticsService.getRollups(from, to, groupBy, serviceType, employeeId);
+        return ResponseEntity.ok(ApiResponse.success(rollups, "Appointment rollups fetched successfully"));
+    }
+
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<ApiResponse<Integer>> rebuildRollups(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        int buckets = analyticsService.rebuild(from, to);
+        return ResponseEntity.ok(ApiResponse.success(buckets, "Appointment rollups rebuilt"));
+    }
+
+    @GetMapping("/stage-durations")
+    public ResponseEntity<ApiResponse<List<StageDurationResponse>>> getStageDurations(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        List<StageDurationResponse> durations = timelineService.getStageDurations(from, to);
+        return ResponseEntity.ok(ApiResponse.success(durations, "Stage durations fetched successfully"));
+    }
+}
@@ -1,9 +1,20 @@
 package com.servexa.appointment.controller;
 
+import com.servexa.appointment.dto.AppointmentBatchResponse;
 import com.servexa.appointment.dto.AppointmentRequest;
 import com.servexa.appointment.dto.AppointmentResponse;
+import com.servexa.appointment.dto.AppointmentTimelineEntry;
+import com.servexa.appointment.dto.BookingTicketResponse;
+import com.servexa.appointment.dto.EmployeeJobResponse;
+import com.servexa.appointment.dto.RescheduleRequest;
+import com.servexa.appointment.service.AppointmentRescheduleService;
 import com.servexa.appointment.service.AppointmentService;
+import com.servexa.appointment.service.AppointmentTimelineService;
+import com.servexa.appointment.service.BookingAdmissionService;
+import com.servexa.appointment.service.BookingAdmissionService.BookingPendingException;
+import com.servexa.appointment.service.EmployeeScheduleService;
 import com.servexa.common.dto.ApiResponse;
+import com.servexa.common.exception.BadRequestException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,12 +31,17 @@ import java.util.List;
 public class AppointmentController {
 
         private final AppointmentService appointmentService;
+        private final EmployeeScheduleService employeeScheduleService;
+        private final AppointmentTimelineService appointmentTimelineService;
+        private final BookingAdmissionService bookingAdmissionService;
+        private final AppointmentRescheduleService appointmentRescheduleService;
 
         @PostMapping
         public ResponseEntity<ApiResponse<AppointmentResponse>> createAppointment(
                         @Valid @RequestBody AppointmentRequest request) {
                 log.info("Creating new appointment for customer: {}", request.getCustomerId());
-                AppointmentResponse response = appointmentService.createAppointment(request);
+                // Runs on the booking workers; see handleBookingPending for when it does not finish in time
+                AppointmentResponse response = bookingAdmissionService.bookAndWait(request);
 
                 return ResponseEntity.status(HttpStatus.CREATED)
                                 .body(ApiResponse.<AppointmentResponse>builder()
@@ -62,6 +78,19 @@ public class AppointmentController {
                                 .build());
         }
 
+        @PostMapping("/batch")
+        public ResponseEntity<ApiResponse<AppointmentBatchResponse>> getAppointmentsByIds(@RequestBody List<String> ids) {
+                if (ids.size() > 500) {
+                        throw new BadRequestException("At most 500 appointment IDs can be requested at once");
+                }
+                AppointmentBatchResponse response = appointmentService.getAppointmentsByIds(ids);
+
+                return ResponseEntity.ok(ApiResponse.<AppointmentBatchResponse>builder()
+                                .success(true)
+                                .data(response)
+                                .build());
+        }
+
         @GetMapping("/customer/{customerId}")
         public ResponseEntity<ApiResponse<List<AppointmentResponse>>> getCustomerAppointments(
                         @PathVariable String customerId) {
@@ -84,6 +113,29 @@ public class AppointmentController {
                                 .build());
         }
 
+        @GetMapping("/employee/{employeeId}/queue")
+        public ResponseEntity<ApiResponse<List<EmployeeJobResponse>>> getEmployeeJobQueue(
+                        @PathVariable String employeeId,
+                        @RequestParam(defaultValue = "10") int limit) {
+                List<EmployeeJobResponse> jobs = employeeScheduleService.getNextJobs(employeeId, limit);
+
+                return ResponseEntity.ok(ApiResponse.<List<EmployeeJobResponse>>builder()
+                                .success(true)
+                                .data(jobs)
+                                .build());
+        }
+
+        @GetMapping("/employee/{employeeId}/today")
+        public ResponseEntity<ApiResponse<List<EmployeeJobResponse>>> getEmployeeTodaysJobs(
+                        @PathVariable String employeeId) {
+                List<EmployeeJobResponse> jobs = employeeScheduleService.getTodaysJobs(employeeId);
+
+                return ResponseEntity.ok(ApiResponse.<List<EmployeeJobResponse>>builder()
+                                .success(true)
+                                .data(jobs)
+                                .build());
+        }
+
         @GetMapping("/unassigned")
         public ResponseEntity<ApiResponse<List<AppointmentResponse>>> getUnassignedAppointments() {
                 List<AppointmentResponse> appointments = appointmentService.getUnassignedAppointments();
@@ -107,6 +159,19 @@ public class AppointmentController {
                                 .build());
         }
 
+        @PutMapping("/{id}/reschedule")
+        public ResponseEntity<ApiResponse<AppointmentResponse>> rescheduleAppointment(
+                        @PathVariable String id,
+                        @Valid @RequestBody RescheduleRequest request) {
+                AppointmentResponse response = appointmentRescheduleService.reschedule(id, request.getBookingDateTime());
+
+                return ResponseEntity.ok(ApiResponse.<AppointmentResponse>builder()
+                                .success(true)
+                                .message("Appointment rescheduled successfully")
+                                .data(response)
+                                .build());
+        }
+
         @PutMapping("/{id}/assign")
         public ResponseEntity<ApiResponse<AppointmentResponse>> assignEmployee(
                         @PathVariable String id,
@@ -120,6 +185,16 @@ public class AppointmentController {
                                 .build());
         }
 
+        @GetMapping("/{id}/timeline")
+        public ResponseEntity<ApiResponse<List<AppointmentTimelineEntry>>> getAppointmentTimeline(@PathVariable String id) {
+                List<AppointmentTimelineEntry> timeline = appointmentTimelineService.getTimeline(id);
+
+                return ResponseEntity.ok(ApiResponse.<List<AppointmentTimelineEntry>>builder()
+                                .success(true)
+                                .data(timeline)
+                                .build());
+        }
+
         @GetMapping("/health")
         public ResponseEntity<ApiResponse<String>> health() {
                 return ResponseEntity.ok(ApiResponse.<String>builder()
@@ -128,4 +203,14 @@ public class AppointmentController {
                                 .data("OK")
                                 .build());
         }
+
+        @ExceptionHandler(BookingPendingException.class)
+        public ResponseEntity<ApiResponse<BookingTicketResponse>> handleBookingPending(BookingPendingException ex) {
+                return ResponseEntity.status(HttpStatus.ACCEPTED)
+                                .body(ApiResponse.<BookingTicketResponse>builder()
+                                                .success(true)
+                                                .message("Appointment booking is queued")
+                                                .data(ex.getTicket())
+                                                .build());
+        }
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.servexa.appointment.controller;
+
+import com.servexa.appointment.service.AppointmentExportService;
+import com.servexa.appointment.service.AppointmentExportService.Format;
+import com.servexa.common.branch.BranchContext;
+import com.servexa.common.exception.BadRequestException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+@RestController
+@RequestMapping("/api/appointments/export")
+@RequiredArgsConstructor
+@Slf4j
+public class AppointmentExportController {
+
+    private final AppointmentExportService exportService;
+
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> exportAppointments(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        Format exportFormat = parseFormat(format);
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+
+        String extension = exportFormat == Format.NDJSON ? "ndjson" : "csv";
+        String filename = "appointments-" + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE)
+                + "." + extension + (gzip ? ".gz" : "");
+        MediaType contentType = gzip
+                ? MediaType.parseMediaType("application/gzip")
+                : exportFormat == Format.NDJSON
+                        ? MediaType.parseMediaType("application/x-ndjson")
+                        : MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+        // Captured here: the body is written on another thread, outside this request's branch
+        String branchId = BranchContext.current();
+        log.info("Starting appointment export: branch={}, format={}, from={}, to={}, status={}, gzip={}",
+                branchId, exportFormat, from, to, status, gzip);
+        StreamingResponseBody body = out -> exportService.export(branchId, exportFormat, from, to, status, gzip, out);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(contentType)
+                .body(body);
+    }
+
+    private Format parseFormat(String format) {
+        try {
+            return Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unsupported export format: " + format + " (expected csv or ndjson)");
+        }
+    }
+}
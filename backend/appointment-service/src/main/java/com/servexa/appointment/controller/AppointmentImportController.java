@@ -0,0 +1,34 @@
+package com.servexa.appointment.controller;
+
+import com.servexa.appointment.dto.AppointmentImportResult;
+import com.servexa.appointment.service.AppointmentImportService;
+import com.servexa.common.dto.ApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/appointments/import")
+@RequiredArgsConstructor
+@Slf4j
+public class AppointmentImportController {
+
+    private final AppointmentImportService importService;
+
+    // Body is read as a stream of newline-delimited JSON appointments, never buffered whole
+    @PostMapping(consumes = {"application/x-ndjson", "application/json"})
+    public ResponseEntity<ApiResponse<AppointmentImportResult>> importAppointments(HttpServletRequest request)
+            throws IOException {
+        log.info("Starting bulk appointment import ({} bytes)", request.getContentLengthLong());
+        AppointmentImportResult result = importService.importAppointments(request.getInputStream());
+        String message = result.getStoppedAtRecord() == null
+                ? "Appointments imported successfully"
+                : "Import stopped at malformed record " + result.getStoppedAtRecord()
+                        + "; records before it were imported";
+        return ResponseEntity.ok(ApiResponse.success(result, message));
+    }
+}
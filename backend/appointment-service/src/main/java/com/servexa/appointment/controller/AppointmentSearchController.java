@@ -0,0 +1,25 @@
+package com.servexa.appointment.controller;
+
+import com.servexa.appointment.dto.AppointmentSearchResponse;
+import com.servexa.appointment.service.AppointmentSearchService;
+import com.servexa.common.dto.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/appointments/search")
+@RequiredArgsConstructor
+public class AppointmentSearchController {
+
+    private final AppointmentSearchService searchService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<AppointmentSearchResponse>> search(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        AppointmentSearchResponse response = searchService.search(query, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(response, "Search completed successfully"));
+    }
+}
@@ -0,0 +1,29 @@
+package com.servexa.appointment.controller;
+
+import com.servexa.appointment.service.AppointmentEventStreamService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/appointments/stream")
+@RequiredArgsConstructor
+public class AppointmentStreamController {
+
+    private final AppointmentEventStreamService streamService;
+
+    @GetMapping(value = "/customer/{customerId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCustomerAppointments(
+            @PathVariable String customerId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return streamService.subscribeCustomer(customerId, lastEventId);
+    }
+
+    @GetMapping(value = "/employee/{employeeId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEmployeeAppointments(
+            @PathVariable String employeeId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return streamService.subscribeEmployee(employeeId, lastEventId);
+    }
+}
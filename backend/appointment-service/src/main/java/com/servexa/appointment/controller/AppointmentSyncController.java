@@ -0,0 +1,34 @@
+package com.servexa.appointment.controller;
+
+import com.servexa.appointment.dto.AppointmentChangesResponse;
+import com.servexa.appointment.service.AppointmentSyncService;
+import com.servexa.common.dto.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/appointments")
+@RequiredArgsConstructor
+public class AppointmentSyncController {
+
+    private final AppointmentSyncService syncService;
+
+    @GetMapping("/customer/{customerId}/changes")
+    public ResponseEntity<ApiResponse<AppointmentChangesResponse>> getCustomerChanges(
+            @PathVariable String customerId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "500") int limit) {
+        AppointmentChangesResponse changes = syncService.getCustomerChanges(customerId, cursor, limit);
+        return ResponseEntity.ok(ApiResponse.success(changes, "Appointment changes fetched successfully"));
+    }
+
+    @GetMapping("/employee/{employeeId}/changes")
+    public ResponseEntity<ApiResponse<AppointmentChangesResponse>> getEmployeeChanges(
+            @PathVariable String employeeId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "500") int limit) {
+        AppointmentChangesResponse changes = syncService.getEmployeeChanges(employeeId, cursor, limit);
+        return ResponseEntity.ok(ApiResponse.success(changes, "Appointment changes fetched successfully"));
+    }
+}
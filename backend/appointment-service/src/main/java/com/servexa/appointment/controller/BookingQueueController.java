@@ -0,0 +1,32 @@
+package com.servexa.appointment.controller;
+
+import com.servexa.appointment.dto.AppointmentRequest;
+import com.servexa.appointment.dto.BookingTicketResponse;
+import com.servexa.appointment.service.BookingAdmissionService;
+import com.servexa.common.dto.ApiResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/appointments/queue")
+@RequiredArgsConstructor
+public class BookingQueueController {
+
+    private final BookingAdmissionService bookingAdmissionService;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<BookingTicketResponse>> enqueueBooking(@Valid @RequestBody AppointmentRequest request) {
+        BookingTicketResponse ticket = bookingAdmissionService.submit(request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success(ticket, "Appointment booking is queued"));
+    }
+
+    @GetMapping("/{ticketId}")
+    public ResponseEntity<ApiResponse<BookingTicketResponse>> getTicket(@PathVariable String ticketId) {
+        BookingTicketResponse ticket = bookingAdmissionService.getTicket(ticketId);
+        return ResponseEntity.ok(ApiResponse.success(ticket, "Booking status fetched successfully"));
+    }
+}
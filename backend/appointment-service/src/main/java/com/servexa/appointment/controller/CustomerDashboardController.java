@@ -0,0 +1,28 @@
+package com.servexa.appointment.controller;
+
+import com.servexa.appointment.dto.CustomerDashboardResponse;
+import com.servexa.appointment.service.CustomerDashboardService;
+import com.servexa.common.dto.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/appointments/dashboard")
+@RequiredArgsConstructor
+@CrossOrigin
+public class CustomerDashboardController {
+
+    private final CustomerDashboardService dashboardService;
+
+    @GetMapping("/customer/{customerId}")
+    public ResponseEntity<ApiResponse<CustomerDashboardResponse>> getCustomerDashboard(
+            @PathVariable String customerId,
+            @RequestHeader(value = "Authorization", required = false) String authorization) {
+        CustomerDashboardResponse dashboard = dashboardService.getDashboard(customerId, authorization);
+        String message = dashboard.isComplete()
+                ? "Customer dashboard fetched successfully"
+                : "Customer dashboard fetched without: " + String.join(", ", dashboard.getUnavailableSections());
+        return ResponseEntity.ok(ApiResponse.success(dashboard, message));
+    }
+}
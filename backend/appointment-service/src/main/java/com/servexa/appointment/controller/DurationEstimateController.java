@@ -0,0 +1,36 @@
+package com.servexa.appointment.controller;
+
+import com.servexa.appointment.dto.DurationEstimateResponse;
+import com.servexa.appointment.service.DurationEstimateService;
+import com.servexa.common.dto.ApiResponse;
+import com.servexa.common.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/appointments/duration-estimates")
+@RequiredArgsConstructor
+public class DurationEstimateController {
+
+    private final DurationEstimateService durationEstimateService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<DurationEstimateResponse>>> getAllEstimates() {
+        List<DurationEstimateResponse> estimates = durationEstimateService.getAll();
+        return ResponseEntity.ok(ApiResponse.success(estimates, "Duration estimates fetched successfully"));
+    }
+
+    @GetMapping("/lookup")
+    public ResponseEntity<ApiResponse<DurationEstimateResponse>> getEstimate(
+            @RequestParam String serviceType,
+            @RequestParam(required = false) String vehicleType) {
+        DurationEstimateResponse estimate = durationEstimateService.estimate(serviceType, vehicleType);
+        if (estimate == null) {
+            throw new ResourceNotFoundException("Not enough completed appointments to estimate: " + serviceType);
+        }
+        return ResponseEntity.ok(ApiResponse.success(estimate, "Duration estimate fetched successfully"));
+    }
+}
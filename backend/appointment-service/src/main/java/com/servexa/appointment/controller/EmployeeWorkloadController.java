@@ -0,0 +1,29 @@
+package com.servexa.appointment.controller;
+
+import com.servexa.appointment.dto.WorkloadReportResponse;
+import com.servexa.appointment.service.EmployeeWorkloadService;
+import com.servexa.common.dto.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/appointments/workload")
+@RequiredArgsConstructor
+public class EmployeeWorkloadController {
+
+    private final EmployeeWorkloadService workloadService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<WorkloadReportResponse>> getWorkload(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) List<String> employeeIds) {
+        WorkloadReportResponse report = workloadService.getWorkload(from, to, employeeIds);
+        return ResponseEntity.ok(ApiResponse.success(report, "Employee workload fetched successfully"));
+    }
+}
@@ -0,0 +1,56 @@
+package com.servexa.appointment.controller;
+
+import com.servexa.appointment.dto.MaintenancePlanRequest;
+import com.servexa.appointment.dto.MaintenancePlanResponse;
+import com.servexa.appointment.dto.UpcomingOccurrenceResponse;
+import com.servexa.appointment.service.MaintenancePlanService;
+import com.servexa.common.dto.ApiResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/appointments/maintenance-plans")
+@RequiredArgsConstructor
+public class MaintenancePlanController {
+
+    private final MaintenancePlanService maintenancePlanService;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<MaintenancePlanResponse>> createPlan(@Valid @RequestBody MaintenancePlanRequest request) {
+        MaintenancePlanResponse response = maintenancePlanService.createPlan(request);
+        return new ResponseEntity<>(
+                ApiResponse.success(response, "Maintenance plan created successfully"),
+                HttpStatus.CREATED
+        );
+    }
+
+    @GetMapping("/customer/{customerId}")
+    public ResponseEntity<ApiResponse<List<MaintenancePlanResponse>>> getPlansByCustomerId(@PathVariable String customerId) {
+        List<MaintenancePlanResponse> plans = maintenancePlanService.getPlansByCustomerId(customerId);
+        return ResponseEntity.ok(ApiResponse.success(plans, "Maintenance plans fetched successfully"));
+    }
+
+    @GetMapping("/customer/{customerId}/upcoming")
+    public ResponseEntity<ApiResponse<List<UpcomingOccurrenceResponse>>> getUpcoming(
+            @PathVariable String customerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate start = from != null ? from : LocalDate.now();
+        LocalDate end = to != null ? to : start.plusMonths(6);
+        List<UpcomingOccurrenceResponse> occurrences = maintenancePlanService.getUpcoming(customerId, start, end);
+        return ResponseEntity.ok(ApiResponse.success(occurrences, "Upcoming services fetched successfully"));
+    }
+
+    @DeleteMapping("/{planId}")
+    public ResponseEntity<ApiResponse<MaintenancePlanResponse>> cancelPlan(@PathVariable String planId) {
+        MaintenancePlanResponse response = maintenancePlanService.cancelPlan(planId);
+        return ResponseEntity.ok(ApiResponse.success(response, "Maintenance plan cancelled successfully"));
+    }
+}
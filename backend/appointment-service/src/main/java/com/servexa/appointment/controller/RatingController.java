@@ -0,0 +1,45 @@
+package com.servexa.appointment.controller;
+
+import com.servexa.appointment.dto.RatingRequest;
+import com.servexa.appointment.dto.RatingResponse;
+import com.servexa.appointment.dto.RatingSummaryResponse;
+import com.servexa.appointment.service.RatingService;
+import com.servexa.common.dto.ApiResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/appointments/ratings")
+@RequiredArgsConstructor
+public class RatingController {
+
+    private final RatingService ratingService;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<RatingResponse>> submitRating(@Valid @RequestBody RatingRequest request) {
+        RatingResponse rating = ratingService.submit(request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success(rating, "Rating submitted successfully"));
+    }
+
+    @GetMapping("/employee/{employeeId}")
+    public ResponseEntity<ApiResponse<RatingSummaryResponse>> getEmployeeRating(@PathVariable String employeeId) {
+        RatingSummaryResponse summary = ratingService.getEmployeeSummary(employeeId);
+        return ResponseEntity.ok(ApiResponse.success(summary, "Employee rating fetched successfully"));
+    }
+
+    @GetMapping("/service-type/{serviceType}")
+    public ResponseEntity<ApiResponse<RatingSummaryResponse>> getServiceTypeRating(@PathVariable String serviceType) {
+        RatingSummaryResponse summary = ratingService.getServiceTypeSummary(serviceType);
+        return ResponseEntity.ok(ApiResponse.success(summary, "Service type rating fetched successfully"));
+    }
+
+    @GetMapping("/customer/{customerId}")
+    public ResponseEntity<ApiResponse<RatingSummaryResponse>> getCustomerRating(@PathVariable String customerId) {
+        RatingSummaryResponse summary = ratingService.getCustomerSummary(customerId);
+        return ResponseEntity.ok(ApiResponse.success(summary, "Customer rating fetched successfully"));
+    }
+}
@@ -0,0 +1,53 @@
+package com.servexa.appointment.controller;
+
+import com.servexa.appointment.dto.ServiceCatalogEntryResponse;
+import com.servexa.appointment.dto.ServiceCatalogRequest;
+import com.servexa.appointment.service.ServiceCatalogService;
+import com.servexa.appointment.service.ServiceCatalogService.Snapshot;
+import com.servexa.common.dto.ApiResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/appointments/catalog")
+@RequiredArgsConstructor
+public class ServiceCatalogController {
+
+    private final ServiceCatalogService catalogService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<ServiceCatalogEntryResponse>>> getCatalog(WebRequest request) {
+        // Read once so the body and the ETag come from the same version
+        Snapshot snapshot = catalogService.getSnapshot();
+        if (request.checkNotModified(snapshot.getEtag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.getEtag())
+                .body(ApiResponse.success(snapshot.getEntries(), "Service catalog fetched successfully"));
+    }
+
+    @GetMapping("/{serviceType}")
+    public ResponseEntity<ApiResponse<ServiceCatalogEntryResponse>> getEntry(@PathVariable String serviceType) {
+        ServiceCatalogEntryResponse entry = catalogService.getEntry(serviceType);
+        return ResponseEntity.ok(ApiResponse.success(entry, "Catalog entry fetched successfully"));
+    }
+
+    @PutMapping("/{serviceType}")
+    public ResponseEntity<ApiResponse<ServiceCatalogEntryResponse>> upsertEntry(@PathVariable String serviceType,
+                                                                               @Valid @RequestBody ServiceCatalogRequest request) {
+        ServiceCatalogEntryResponse entry = catalogService.upsert(serviceType, request);
+        return ResponseEntity.ok(ApiResponse.success(entry, "Catalog entry saved successfully"));
+    }
+
+    @DeleteMapping("/{serviceType}")
+    public ResponseEntity<ApiResponse<Void>> deactivateEntry(@PathVariable String serviceType) {
+        catalogService.deactivate(serviceType);
+        return ResponseEntity.ok(ApiResponse.success(null, "Catalog entry deactivated"));
+    }
+}
@@ -0,0 +1,52 @@
+package com.servexa.appointment.controller;
+
+import com.servexa.appointment.dto.WaitlistEntryResponse;
+import com.servexa.appointment.dto.WaitlistRequest;
+import com.servexa.appointment.service.WaitlistService;
+import com.servexa.common.dto.ApiResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/appointments/waitlist")
+@RequiredArgsConstructor
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<WaitlistEntryResponse>> joinWaitlist(@Valid @RequestBody WaitlistRequest request) {
+        WaitlistEntryResponse entry = waitlistService.join(request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success(entry, "Added to waitlist successfully"));
+    }
+
+    @GetMapping("/customer/{customerId}")
+    public ResponseEntity<ApiResponse<List<WaitlistEntryResponse>>> getCustomerEntries(@PathVariable String customerId) {
+        List<WaitlistEntryResponse> entries = waitlistService.getEntriesByCustomerId(customerId);
+        return ResponseEntity.ok(ApiResponse.success(entries, "Waitlist entries fetched successfully"));
+    }
+
+    @PostMapping("/{id}/accept")
+    public ResponseEntity<ApiResponse<WaitlistEntryResponse>> acceptOffer(@PathVariable String id) {
+        WaitlistEntryResponse entry = waitlistService.accept(id);
+        return ResponseEntity.ok(ApiResponse.success(entry, "Waitlist offer accepted"));
+    }
+
+    @PostMapping("/{id}/decline")
+    public ResponseEntity<ApiResponse<WaitlistEntryResponse>> declineOffer(@PathVariable String id) {
+        WaitlistEntryResponse entry = waitlistService.decline(id);
+        return ResponseEntity.ok(ApiResponse.success(entry, "Waitlist offer declined"));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse<Void>> leaveWaitlist(@PathVariable String id) {
+        waitlistService.leave(id);
+        return ResponseEntity.ok(ApiResponse.success(null, "Removed from waitlist"));
+    }
+}
@@ -0,0 +1,19 @@
+package com.servexa.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentBatchResponse {
+
+    // In the order the IDs were requested, each ID at most once
+    private List<AppointmentResponse> appointments;
+    private List<String> notFound;
+}
@@ -0,0 +1,26 @@
+package com.servexa.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of the appointment change feed. Clients upsert {@code appointments}, drop
+ * {@code deletedIds} and send {@code cursor} back on the next call. When {@code fullResync} is
+ * set, {@code appointments} is the complete current list and replaces the client's copy.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentChangesResponse {
+
+    private List<AppointmentResponse> appointments;
+    private List<String> deletedIds;
+    private long cursor;
+    private boolean hasMore;
+    private boolean fullResync;
+}
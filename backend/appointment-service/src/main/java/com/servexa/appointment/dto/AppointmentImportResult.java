@@ -0,0 +1,25 @@
+package com.servexa.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentImportResult {
+
+    private long received;
+    private long imported;
+    private long rejected;
+    private long vehicleLookups;
+    // First malformed record; the stream was not read past it. Null when the whole body was read
+    private Long stoppedAtRecord;
+    private long elapsedMs;
+    private double rowsPerSecond;
+    private List<String> errors;
+}
@@ -0,0 +1,31 @@
+package com.servexa.appointment.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class AppointmentImportRow {
+
+    private String customerId;
+    private String fullName;
+    private String phoneNumber;
+    private String vehicleId;
+    private String vehicleType;
+    private String serviceType;
+    private LocalDateTime bookingDateTime;
+    private String additionalNote;
+    private String paymentMethod;
+    private Integer duration;
+    private String status;
+    private String assignedEmployeeId;
+    private LocalDateTime createdAt;
+}
@@ -42,6 +42,6 @@ public class AppointmentRequest {
     @NotBlank(message = "Payment method is required")
     private String paymentMethod;
 
-    @NotNull(message = "Duration is required")
+    // Defaults to the catalog duration for the service type when omitted
     private Integer duration;
 }
\ No newline at end of file
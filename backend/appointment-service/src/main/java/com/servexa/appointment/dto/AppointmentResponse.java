@@ -1,10 +1,12 @@
 package com.servexa.appointment.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
@@ -14,6 +16,7 @@ import java.time.LocalDateTime;
 public class AppointmentResponse {
 
     private String id;
+    private String branchId;
     private String customerId;
     private String fullName;
     private String phoneNumber;
@@ -21,12 +24,17 @@ public class AppointmentResponse {
     private String vehicleType;
     private String serviceType;
     private LocalDateTime bookingDateTime;
+    // Only loaded for detail views and employee job lists
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String additionalNote;
     private String paymentMethod;
     private String status;
     private Boolean isAssigned;
     private String assignedEmployeeId;
     private Integer duration;
+    private LocalDateTime startedAt;
+    private BigDecimal price;
+    private String maintenancePlanId;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
\ No newline at end of file
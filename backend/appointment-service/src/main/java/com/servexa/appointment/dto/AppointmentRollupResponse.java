@@ -0,0 +1,22 @@
+package com.servexa.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentRollupResponse {
+
+    private String bucket;
+    private Long bookedCount;
+    private Long completedCount;
+    private Long cancelledCount;
+    private Double completionRate;
+    private Double cancellationRate;
+    private Double averageDuration;
+    private Double averageCompletedDuration;
+}
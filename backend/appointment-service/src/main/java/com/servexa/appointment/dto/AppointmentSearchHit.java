@@ -0,0 +1,28 @@
+package com.servexa.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentSearchHit {
+
+    private String id;
+    private String customerId;
+    private String fullName;
+    private String phoneNumber;
+    private String vehicleId;
+    private String vehicleType;
+    private String serviceType;
+    private LocalDateTime bookingDateTime;
+    private String status;
+    private String assignedEmployeeId;
+    private String additionalNote;
+    private double score;
+}
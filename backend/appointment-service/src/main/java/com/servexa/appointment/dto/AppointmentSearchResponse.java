@@ -0,0 +1,22 @@
+package com.servexa.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentSearchResponse {
+
+    private String query;
+    private int size;
+    private boolean hasNext;
+    // Pass back as 'cursor' to fetch the page after this one; null on the last page
+    private String nextCursor;
+    private List<AppointmentSearchHit> results;
+}
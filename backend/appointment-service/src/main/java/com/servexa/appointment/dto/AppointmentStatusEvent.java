@@ -0,0 +1,26 @@
+package com.servexa.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentStatusEvent {
+
+    private String type;
+    private String appointmentId;
+    private String customerId;
+    private String status;
+    private String previousStatus;
+    private String assignedEmployeeId;
+    private String previousEmployeeId;
+    private String serviceType;
+    private LocalDateTime bookingDateTime;
+    private LocalDateTime occurredAt;
+}
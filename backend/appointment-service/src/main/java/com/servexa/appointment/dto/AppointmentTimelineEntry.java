@@ -0,0 +1,22 @@
+package com.servexa.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentTimelineEntry {
+
+    private String eventType;
+    private String fromStatus;
+    private String toStatus;
+    private String employeeId;
+    private LocalDateTime occurredAt;
+    private Long secondsSincePrevious;
+}
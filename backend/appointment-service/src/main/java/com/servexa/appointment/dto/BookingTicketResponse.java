@@ -0,0 +1,29 @@
+package com.servexa.appointment.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingTicketResponse {
+
+    private String ticketId;
+    private String customerId;
+    // QUEUED, PROCESSING, BOOKED or FAILED
+    private String status;
+    // Bookings ahead of this one, counting itself; only while QUEUED
+    private Long position;
+    private Long estimatedWaitMs;
+    private AppointmentResponse appointment;
+    private String error;
+    private LocalDateTime submittedAt;
+    private LocalDateTime completedAt;
+}
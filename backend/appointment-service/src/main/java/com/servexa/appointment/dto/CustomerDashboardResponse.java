@@ -0,0 +1,31 @@
+package com.servexa.appointment.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Everything the customer dashboard shows, assembled in one response. Sections whose source did
+ * not answer in time are left null and listed in {@code unavailableSections}, so the page can
+ * render what it has and retry the rest. Instances are cached and shared between requests.
+ */
+@Getter
+@Builder
+public class CustomerDashboardResponse {
+
+    private final String customerId;
+    private final JsonNode profile;
+    private final JsonNode vehicles;
+    private final List<AppointmentResponse> appointments;
+    private final CustomerStatisticsResponse statistics;
+    private final Long unreadNotifications;
+    private final List<String> unavailableSections;
+    private final LocalDateTime generatedAt;
+
+    public boolean isComplete() {
+        return unavailableSections == null || unavailableSections.isEmpty();
+    }
+}
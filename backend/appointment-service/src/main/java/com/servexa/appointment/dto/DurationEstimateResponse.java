@@ -0,0 +1,20 @@
+package com.servexa.appointment.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Learned duration for a service type, optionally narrowed to a vehicle model. Instances are
+ * precomputed when sketches are merged and shared by every lookup.
+ */
+@Getter
+@Builder
+public class DurationEstimateResponse {
+
+    private final String serviceType;
+    // Null when the estimate covers every vehicle
+    private final String vehicleModel;
+    private final int p50Minutes;
+    private final int p90Minutes;
+    private final long sampleCount;
+}
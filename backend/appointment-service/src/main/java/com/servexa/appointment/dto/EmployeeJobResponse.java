@@ -0,0 +1,23 @@
+package com.servexa.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmployeeJobResponse {
+
+    private String id;
+    private String fullName;
+    private String vehicleType;
+    private String serviceType;
+    private LocalDateTime bookingDateTime;
+    private Integer duration;
+    private String status;
+}
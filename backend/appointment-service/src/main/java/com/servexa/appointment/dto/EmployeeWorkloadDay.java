@@ -0,0 +1,24 @@
+package com.servexa.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmployeeWorkloadDay {
+
+    private LocalDate date;
+    private long assignedCount;
+    private long inProgressCount;
+    private long completedCount;
+    private long bookedMinutes;
+    private double utilization;
+    // Busy fraction of each slot between the working day's start and end
+    private double[] slots;
+}
@@ -0,0 +1,23 @@
+package com.servexa.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmployeeWorkloadResponse {
+
+    private String employeeId;
+    private long assignedCount;
+    private long inProgressCount;
+    private long completedCount;
+    private long bookedMinutes;
+    private double utilization;
+    private List<EmployeeWorkloadDay> days;
+}
@@ -0,0 +1,50 @@
+package com.servexa.appointment.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MaintenancePlanRequest {
+
+    @NotBlank(message = "Customer ID is required")
+    private String customerId;
+
+    @NotBlank(message = "Full name is required")
+    private String fullName;
+
+    @NotBlank(message = "Phone number is required")
+    @Pattern(regexp = "^[0-9+\\-\\s\\(\\)]+$", message = "Phone number must contain only digits, spaces, parentheses, plus sign, and hyphens")
+    private String phoneNumber;
+
+    @NotNull(message = "Vehicle ID is required")
+    private String vehicleId;
+
+    private String vehicleType;
+
+    @NotBlank(message = "Service type is required")
+    private String serviceType;
+
+    @NotBlank(message = "Payment method is required")
+    private String paymentMethod;
+
+    @NotNull(message = "Duration is required")
+    private Integer duration;
+
+    private String additionalNote;
+
+    @NotBlank(message = "Recurrence rule is required")
+    private String recurrenceRule;
+
+    @NotNull(message = "Start date and time is required")
+    private LocalDateTime startDateTime;
+}
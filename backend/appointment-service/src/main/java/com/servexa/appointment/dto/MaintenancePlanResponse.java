@@ -0,0 +1,27 @@
+package com.servexa.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MaintenancePlanResponse {
+
+    private String id;
+    private String customerId;
+    private String vehicleId;
+    private String vehicleType;
+    private String serviceType;
+    private Integer duration;
+    private String recurrenceRule;
+    private LocalDateTime startDateTime;
+    private LocalDateTime expandedUntil;
+    private boolean active;
+    private LocalDateTime createdAt;
+}
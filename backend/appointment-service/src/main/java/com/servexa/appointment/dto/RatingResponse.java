@@ -0,0 +1,24 @@
+package com.servexa.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RatingResponse {
+
+    private String id;
+    private String appointmentId;
+    private String customerId;
+    private String employeeId;
+    private String serviceType;
+    private Integer rating;
+    private String comment;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,18 @@
+package com.servexa.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RatingSummaryResponse {
+
+    private String scope;
+    private String key;
+    private long ratingCount;
+    private Double averageRating;
+}
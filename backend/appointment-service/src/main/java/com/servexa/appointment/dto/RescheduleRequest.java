@@ -0,0 +1,21 @@
+package com.servexa.appointment.dto;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RescheduleRequest {
+
+    @NotNull(message = "New booking date and time is required")
+    @Future(message = "New booking date and time must be in the future")
+    private LocalDateTime bookingDateTime;
+}
@@ -0,0 +1,24 @@
+package com.servexa.appointment.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable view of a catalog entry. Instances are shared by every reader of a catalog snapshot.
+ */
+@Getter
+@Builder
+public class ServiceCatalogEntryResponse {
+
+    private final String serviceType;
+    private final String displayName;
+    private final Integer defaultDuration;
+    private final String bayType;
+    private final Integer baysRequired;
+    private final BigDecimal price;
+    private final boolean active;
+    private final LocalDateTime updatedAt;
+}
@@ -0,0 +1,42 @@
+package com.servexa.appointment.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ServiceCatalogRequest {
+
+    @NotBlank(message = "Display name is required")
+    private String displayName;
+
+    @NotNull(message = "Default duration is required")
+    @Min(value = 5, message = "Default duration must be at least 5 minutes")
+    @Max(value = 720, message = "Default duration must not exceed 720 minutes")
+    private Integer defaultDuration;
+
+    @NotBlank(message = "Bay type is required")
+    private String bayType;
+
+    @NotNull(message = "Bays required is required")
+    @Min(value = 0, message = "Bays required must not be negative")
+    private Integer baysRequired;
+
+    @NotNull(message = "Price is required")
+    @DecimalMin(value = "0.00", message = "Price must not be negative")
+    private BigDecimal price;
+
+    @Builder.Default
+    private boolean active = true;
+}
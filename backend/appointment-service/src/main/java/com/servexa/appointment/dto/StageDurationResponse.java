@@ -0,0 +1,20 @@
+package com.servexa.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StageDurationResponse {
+
+    private String serviceType;
+    private String stage;
+    private long count;
+    private double p50Minutes;
+    private double p95Minutes;
+    private double maxMinutes;
+}
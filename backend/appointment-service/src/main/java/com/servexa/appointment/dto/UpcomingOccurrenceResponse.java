@@ -0,0 +1,26 @@
+package com.servexa.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UpcomingOccurrenceResponse {
+
+    // Null for virtual occurrences that have not been expanded into appointments yet
+    private String appointmentId;
+    private String maintenancePlanId;
+    private String vehicleId;
+    private String vehicleType;
+    private String serviceType;
+    private LocalDateTime bookingDateTime;
+    private Integer duration;
+    private String status;
+    private boolean virtual;
+}
@@ -0,0 +1,28 @@
+package com.servexa.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WaitlistEntryResponse {
+
+    private String id;
+    private String branchId;
+    private String customerId;
+    private String vehicleId;
+    private String serviceType;
+    private LocalDate desiredDate;
+    private String status;
+    private LocalDateTime offeredSlot;
+    private LocalDateTime offerExpiresAt;
+    private String appointmentId;
+    private LocalDateTime createdAt;
+}
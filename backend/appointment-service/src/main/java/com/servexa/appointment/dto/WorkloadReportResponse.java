@@ -0,0 +1,26 @@
+package com.servexa.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WorkloadReportResponse {
+
+    private LocalDate from;
+    private LocalDate to;
+    private LocalTime dayStart;
+    private LocalTime dayEnd;
+    private int slotMinutes;
+    private LocalDateTime generatedAt;
+    private List<EmployeeWorkloadResponse> employees;
+}
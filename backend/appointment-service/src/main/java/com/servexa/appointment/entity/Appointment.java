@@ -1,22 +1,37 @@
 package com.servexa.appointment.entity;
 
+import com.servexa.common.branch.BranchContext;
 import com.servexa.common.entity.BaseEntity;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+        @Index(name = "idx_appointments_branch_employee_booking", columnList = "branch_id, assigned_employee_id, booking_date_time"),
+        @Index(name = "idx_appointments_branch_status_booking", columnList = "branch_id, status, booking_date_time"),
+        @Index(name = "idx_appointments_status_booking", columnList = "status, booking_date_time")
+}, uniqueConstraints = {
+        // Unique keys on a partitioned table must include the partition key
+        @UniqueConstraint(name = "uk_appointments_plan_occurrence", columnNames = {"branch_id", "maintenance_plan_id", "booking_date_time"})
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Appointment extends BaseEntity {
 
+    // Workshop branch that owns the booking; also the partition key of the appointments table
+    @Column(name = "branch_id", nullable = false, length = 32)
+    @ColumnDefault("'main'")
+    private String branchId;
+
     @Column(nullable = false)
     private String customerId;
 
@@ -35,7 +50,7 @@ public class Appointment extends BaseEntity {
     @Column(nullable = false)
     private String serviceType;
 
-    @Column(nullable = false)
+    @Column(name = "booking_date_time", nullable = false)
     private LocalDateTime bookingDateTime;
 
     @Column(columnDefinition = "TEXT")
@@ -50,9 +65,30 @@ public class Appointment extends BaseEntity {
     @Column(nullable = false)
     private Boolean isAssigned = false;
 
-    @Column
+    @Column(name = "assigned_employee_id")
     private String assignedEmployeeId;
 
     @Column(nullable = false)
     private Integer duration;
+
+    // When work actually began (first move to IN_PROGRESS); completion minus this feeds the duration estimates
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    // List price copied at booking (or at completion for older rows); never repriced afterwards
+    @Column(precision = 10, scale = 2)
+    private BigDecimal price;
+
+    // Set on occurrences expanded from a recurring maintenance plan
+    @Column(name = "maintenance_plan_id")
+    private String maintenancePlanId;
+
+    // The column default only applies to inserts that leave branch_id out, and Hibernate always writes it
+    @Override
+    protected void onCreate() {
+        super.onCreate();
+        if (branchId == null) {
+            branchId = BranchContext.current();
+        }
+    }
 }
\ No newline at end of file
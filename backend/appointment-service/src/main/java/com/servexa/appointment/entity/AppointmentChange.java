@@ -0,0 +1,48 @@
+package com.servexa.appointment.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the appointment change feed. Each change to an appointment appends a row for
+ * every audience (the customer, the assigned employee) whose view of it changed; {@code seq} is
+ * the sync cursor. A {@code DELETE} row is a tombstone: the appointment left that audience's
+ * list, e.g. after being reassigned to another employee or archived.
+ */
+@Entity
+@Table(name = "appointment_changes", indexes = {
+        @Index(name = "idx_appointment_changes_scope_seq", columnList = "scope, scope_key, seq"),
+        @Index(name = "idx_appointment_changes_changed_at", columnList = "changed_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+
+    // CUSTOMER or EMPLOYEE
+    @Column(nullable = false, length = 16, updatable = false)
+    private String scope;
+
+    @Column(name = "scope_key", nullable = false, updatable = false)
+    private String scopeKey;
+
+    @Column(name = "appointment_id", nullable = false, updatable = false)
+    private String appointmentId;
+
+    // UPSERT or DELETE
+    @Column(name = "change_type", nullable = false, length = 8, updatable = false)
+    private String changeType;
+
+    @Column(name = "changed_at", nullable = false, updatable = false)
+    private LocalDateTime changedAt;
+}
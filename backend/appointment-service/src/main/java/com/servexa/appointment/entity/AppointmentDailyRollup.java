@@ -0,0 +1,44 @@
+package com.servexa.appointment.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-day, per-service-type, per-employee counters describing the current state of the
+ * appointments booked in that bucket. Maintained incrementally from appointment events and
+ * periodically recomputed from the appointments table.
+ */
+@Entity
+@Table(name = "appointment_daily_rollups")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentDailyRollup {
+
+    @EmbeddedId
+    private AppointmentDailyRollupId id;
+
+    @Column(name = "booked_count", nullable = false)
+    private long bookedCount;
+
+    @Column(name = "completed_count", nullable = false)
+    private long completedCount;
+
+    @Column(name = "cancelled_count", nullable = false)
+    private long cancelledCount;
+
+    @Column(name = "duration_sum", nullable = false)
+    private long durationSum;
+
+    @Column(name = "completed_duration_sum", nullable = false)
+    private long completedDurationSum;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,27 @@
+package com.servexa.appointment.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentDailyRollupId implements Serializable {
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    @Column(name = "service_type", nullable = false)
+    private String serviceType;
+
+    // Empty string rather than NULL so unassigned work can be part of the primary key
+    @Column(name = "employee_id", nullable = false)
+    private String employeeId;
+}
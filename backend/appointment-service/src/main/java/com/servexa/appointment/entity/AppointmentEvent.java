@@ -0,0 +1,50 @@
+package com.servexa.appointment.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the append-only appointment history. Rows are only ever inserted, in batches by
+ * {@code AppointmentEventWriter}; the appointment itself keeps just its current status.
+ */
+@Entity
+@Table(name = "appointment_events", indexes = {
+        @Index(name = "idx_appointment_events_appointment", columnList = "appointment_id, occurred_at"),
+        @Index(name = "idx_appointment_events_type_time", columnList = "event_type, occurred_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "appointment_id", nullable = false, updatable = false)
+    private String appointmentId;
+
+    @Column(name = "event_type", nullable = false, updatable = false)
+    private String eventType;
+
+    @Column(name = "from_status", updatable = false)
+    private String fromStatus;
+
+    @Column(name = "to_status", nullable = false, updatable = false)
+    private String toStatus;
+
+    @Column(name = "employee_id", updatable = false)
+    private String employeeId;
+
+    @Column(name = "service_type", updatable = false)
+    private String serviceType;
+
+    @Column(name = "occurred_at", nullable = false, updatable = false)
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,43 @@
+package com.servexa.appointment.entity;
+
+import com.servexa.common.entity.BaseEntity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * A customer's rating of a completed appointment. The employee and service type are copied from
+ * the appointment when the rating is submitted, so aggregates never join back to appointments.
+ */
+@Entity
+@Table(name = "appointment_ratings", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_appointment_ratings_appointment", columnNames = "appointment_id")
+})
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentRating extends BaseEntity {
+
+    @Column(name = "appointment_id", nullable = false)
+    private String appointmentId;
+
+    @Column(nullable = false)
+    private String customerId;
+
+    @Column
+    private String employeeId;
+
+    @Column(nullable = false)
+    private String serviceType;
+
+    @Column(nullable = false)
+    private Integer rating;
+
+    @Column(columnDefinition = "TEXT")
+    private String comment;
+}
@@ -0,0 +1,90 @@
+package com.servexa.appointment.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A finished appointment moved out of the hot {@code appointments} table by the archive job.
+ * Rows keep their original id, branch and timestamps and are never updated afterwards.
+ */
+@Entity
+@Table(name = "appointments_archive", indexes = {
+        @Index(name = "idx_appointments_archive_customer", columnList = "customer_id"),
+        @Index(name = "idx_appointments_archive_booking", columnList = "booking_date_time")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedAppointment {
+
+    @Id
+    @Column(name = "id", nullable = false)
+    private String id;
+
+    @Column(name = "branch_id", nullable = false, length = 32)
+    private String branchId;
+
+    @Column(name = "customer_id", nullable = false)
+    private String customerId;
+
+    @Column(name = "full_name", nullable = false)
+    private String fullName;
+
+    @Column(name = "phone_number", nullable = false)
+    private String phoneNumber;
+
+    @Column(name = "vehicle_id")
+    private String vehicleId;
+
+    @Column(name = "vehicle_type")
+    private String vehicleType;
+
+    @Column(name = "service_type", nullable = false)
+    private String serviceType;
+
+    @Column(name = "booking_date_time", nullable = false)
+    private LocalDateTime bookingDateTime;
+
+    @Column(name = "additional_note", columnDefinition = "TEXT")
+    private String additionalNote;
+
+    @Column(name = "payment_method", nullable = false)
+    private String paymentMethod;
+
+    @Column(nullable = false)
+    private String status;
+
+    @Column(name = "is_assigned", nullable = false)
+    private Boolean isAssigned;
+
+    @Column(name = "assigned_employee_id")
+    private String assignedEmployeeId;
+
+    @Column
+    private Integer duration;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal price;
+
+    @Column(name = "maintenance_plan_id")
+    private String maintenancePlanId;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
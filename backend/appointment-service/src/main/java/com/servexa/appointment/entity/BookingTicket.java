@@ -0,0 +1,56 @@
+package com.servexa.appointment.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Shared record of a queued booking, so a ticket accepted by one replica can be polled through
+ * any other. The queue itself stays in the memory of the accepting replica; this row only
+ * carries the outcome.
+ */
+@Entity
+@Table(name = "booking_tickets", indexes = {
+        @Index(name = "idx_booking_tickets_customer_fingerprint", columnList = "customer_id, fingerprint"),
+        @Index(name = "idx_booking_tickets_submitted", columnList = "submitted_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingTicket {
+
+    @Id
+    @Column(name = "id", nullable = false, updatable = false)
+    private String id;
+
+    @Column(name = "customer_id", nullable = false)
+    private String customerId;
+
+    @Column(name = "branch_id")
+    private String branchId;
+
+    // SHA-256 of the booking request, to recognise a resubmission of the same booking
+    @Column(name = "fingerprint", nullable = false, length = 64)
+    private String fingerprint;
+
+    // QUEUED, BOOKED or FAILED; PROCESSING is only tracked by the accepting replica
+    @Column(name = "status", nullable = false)
+    private String status;
+
+    @Column(name = "appointment_id")
+    private String appointmentId;
+
+    @Column(name = "error", length = 1000)
+    private String error;
+
+    @Column(name = "submitted_at", nullable = false)
+    private LocalDateTime submittedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
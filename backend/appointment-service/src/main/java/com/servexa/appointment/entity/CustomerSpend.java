@@ -0,0 +1,37 @@
+package com.servexa.appointment.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Running total of what a customer has been charged for completed appointments, including
+ * appointments that have since been archived. Maintained incrementally on the COMPLETED
+ * transition and periodically reconciled against the appointments themselves.
+ */
+@Entity
+@Table(name = "customer_spend")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerSpend {
+
+    @Id
+    @Column(name = "customer_id")
+    private String customerId;
+
+    @Column(name = "total_spent", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalSpent;
+
+    @Column(name = "completed_count", nullable = false)
+    private long completedCount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
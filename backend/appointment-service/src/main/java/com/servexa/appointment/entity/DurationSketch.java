@@ -0,0 +1,36 @@
+package com.servexa.appointment.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persisted quantile sketch of actual service durations (in minutes) for one estimate key:
+ * a service type, or a service type and vehicle model. Nodes merge their pending samples into
+ * the stored sketch, so the row holds the combined history of every node.
+ */
+@Entity
+@Table(name = "duration_sketches")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DurationSketch {
+
+    @Id
+    @Column(name = "sketch_key")
+    private String sketchKey;
+
+    @Column(nullable = false)
+    private byte[] sketch;
+
+    @Column(name = "sample_count", nullable = false)
+    private long sampleCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
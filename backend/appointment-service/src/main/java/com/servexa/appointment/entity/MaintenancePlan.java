@@ -0,0 +1,71 @@
+package com.servexa.appointment.entity;
+
+import com.servexa.common.entity.BaseEntity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/**
+ * A recurring service for one vehicle. Only occurrences inside the rolling expansion horizon are
+ * stored as {@link Appointment} rows; {@code expandedUntil} marks how far that has happened and
+ * later occurrences are derived from {@code recurrenceRule} when queried.
+ */
+@Entity
+@Table(name = "maintenance_plans", indexes = {
+        @Index(name = "idx_maintenance_plans_customer", columnList = "customer_id"),
+        @Index(name = "idx_maintenance_plans_expanded_until", columnList = "expanded_until")
+})
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MaintenancePlan extends BaseEntity {
+
+    // Occurrences are booked into the branch the plan was created for
+    @Column(name = "branch_id", nullable = false, length = 32)
+    @ColumnDefault("'main'")
+    private String branchId;
+
+    @Column(name = "customer_id", nullable = false)
+    private String customerId;
+
+    @Column(nullable = false)
+    private String fullName;
+
+    @Column(nullable = false)
+    private String phoneNumber;
+
+    @Column(name = "vehicle_id", nullable = false)
+    private String vehicleId;
+
+    @Column
+    private String vehicleType;
+
+    @Column(nullable = false)
+    private String serviceType;
+
+    @Column(nullable = false)
+    private String paymentMethod;
+
+    @Column(nullable = false)
+    private Integer duration;
+
+    @Column(columnDefinition = "TEXT")
+    private String additionalNote;
+
+    @Column(nullable = false)
+    private String recurrenceRule;
+
+    @Column(nullable = false)
+    private LocalDateTime startDateTime;
+
+    @Column(name = "expanded_until")
+    private LocalDateTime expandedUntil;
+}
@@ -0,0 +1,34 @@
+package com.servexa.appointment.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running rating sum and count for one employee, service type or customer. Averages are derived
+ * from these counters on read; the ratings table itself is never aggregated.
+ */
+@Entity
+@Table(name = "rating_aggregates")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RatingAggregate {
+
+    @EmbeddedId
+    private RatingAggregateId id;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "rating_count", nullable = false)
+    private long ratingCount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,23 @@
+package com.servexa.appointment.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingAggregateId implements Serializable {
+
+    // EMPLOYEE, SERVICE_TYPE or CUSTOMER
+    @Column(name = "scope", nullable = false)
+    private String scope;
+
+    @Column(name = "scope_key", nullable = false)
+    private String scopeKey;
+}
@@ -0,0 +1,51 @@
+package com.servexa.appointment.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A bookable service: how long it takes, which bay it needs and what it costs. Appointments copy
+ * the price and duration when they are booked, so later catalog edits never change existing
+ * bookings.
+ */
+@Entity
+@Table(name = "service_catalog")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ServiceCatalogEntry {
+
+    // Normalised to lower case, matching how service types are compared elsewhere
+    @Id
+    @Column(name = "service_type")
+    private String serviceType;
+
+    @Column(name = "display_name", nullable = false)
+    private String displayName;
+
+    @Column(name = "default_duration", nullable = false)
+    private Integer defaultDuration;
+
+    // e.g. LIFT, ALIGNMENT, WASH or GENERAL
+    @Column(name = "bay_type", nullable = false)
+    private String bayType;
+
+    @Column(name = "bays_required", nullable = false)
+    private Integer baysRequired;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal price;
+
+    @Column(nullable = false)
+    private boolean active;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,77 @@
+package com.servexa.appointment.entity;
+
+import com.servexa.common.entity.BaseEntity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A customer waiting for a cancelled slot on a given day and service type at one branch. The table is the
+ * waitlist itself: WAITING rows are the queue, OFFERED rows are open offers, everything else is
+ * history.
+ */
+@Entity
+@Table(name = "waitlist_entries", indexes = {
+        @Index(name = "idx_waitlist_entries_status_date", columnList = "status, branch_id, desired_date"),
+        @Index(name = "idx_waitlist_entries_customer", columnList = "customer_id")
+})
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WaitlistEntry extends BaseEntity {
+
+    // Only cancellations at the branch the customer joined for are offered to them
+    @Column(name = "branch_id", nullable = false, length = 32)
+    @ColumnDefault("'main'")
+    private String branchId;
+
+    @Column(name = "customer_id", nullable = false)
+    private String customerId;
+
+    @Column(nullable = false)
+    private String fullName;
+
+    @Column(nullable = false)
+    private String phoneNumber;
+
+    @Column(name = "vehicle_id", nullable = false)
+    private String vehicleId;
+
+    @Column
+    private String vehicleType;
+
+    @Column(nullable = false)
+    private String serviceType;
+
+    @Column(nullable = false)
+    private String paymentMethod;
+
+    @Column(nullable = false)
+    private Integer duration;
+
+    @Column(name = "desired_date", nullable = false)
+    private LocalDate desiredDate;
+
+    // WAITING, OFFERED, ACCEPTED, DECLINED, EXPIRED or CANCELLED
+    @Column(nullable = false)
+    @Builder.Default
+    private String status = "WAITING";
+
+    @Column
+    private LocalDateTime offeredSlot;
+
+    @Column
+    private LocalDateTime offerExpiresAt;
+
+    @Column
+    private String appointmentId;
+}
@@ -0,0 +1,78 @@
+package com.servexa.appointment.event;
+
+import com.servexa.appointment.dto.AppointmentResponse;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by {@code AppointmentService} whenever an appointment is created or changes state.
+ * Carries the state after the change plus the fields needed to undo the previous state, so
+ * listeners can maintain derived views incrementally without re-reading the appointment.
+ */
+@Getter
+@Builder
+public class AppointmentChangedEvent {
+
+    public enum Type {
+        CREATED,
+        ASSIGNED,
+        STATUS_CHANGED,
+        RESCHEDULED
+    }
+
+    private final Type type;
+    private final AppointmentResponse appointment;
+    private final String previousStatus;
+    private final String previousEmployeeId;
+    private final LocalDateTime previousBookingDateTime;
+    private final LocalDateTime occurredAt;
+
+    public String getAppointmentId() {
+        return appointment.getId();
+    }
+
+    public static AppointmentChangedEvent created(AppointmentResponse appointment) {
+        return AppointmentChangedEvent.builder()
+                .type(Type.CREATED)
+                .appointment(appointment)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    public static AppointmentChangedEvent assigned(AppointmentResponse appointment, String previousStatus,
+                                                   String previousEmployeeId) {
+        return AppointmentChangedEvent.builder()
+                .type(Type.ASSIGNED)
+                .appointment(appointment)
+                .previousStatus(previousStatus)
+                .previousEmployeeId(previousEmployeeId)
+                .previousBookingDateTime(appointment.getBookingDateTime())
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    public static AppointmentChangedEvent statusChanged(AppointmentResponse appointment, String previousStatus) {
+        return AppointmentChangedEvent.builder()
+                .type(Type.STATUS_CHANGED)
+                .appointment(appointment)
+                .previousStatus(previousStatus)
+                .previousEmployeeId(appointment.getAssignedEmployeeId())
+                .previousBookingDateTime(appointment.getBookingDateTime())
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    public static AppointmentChangedEvent rescheduled(AppointmentResponse appointment,
+                                                      LocalDateTime previousBookingDateTime) {
+        return AppointmentChangedEvent.builder()
+                .type(Type.RESCHEDULED)
+                .appointment(appointment)
+                .previousStatus(appointment.getStatus())
+                .previousEmployeeId(appointment.getAssignedEmployeeId())
+                .previousBookingDateTime(previousBookingDateTime)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.servexa.appointment.repository;
+
+import com.servexa.appointment.entity.AppointmentChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AppointmentChangeRepository extends JpaRepository<AppointmentChange, Long> {
+
+    // Served by idx_appointment_changes_scope_seq
+    @Query("SELECT c FROM AppointmentChange c WHERE c.scope = :scope AND c.scopeKey = :scopeKey " +
+           "AND c.seq > :after AND c.changedAt <= :settledBefore ORDER BY c.seq")
+    List<AppointmentChange> findChangesAfter(@Param("scope") String scope,
+                                             @Param("scopeKey") String scopeKey,
+                                             @Param("after") long after,
+                                             @Param("settledBefore") LocalDateTime settledBefore,
+                                             Pageable page);
+
+    @Query("SELECT MAX(c.seq) FROM AppointmentChange c WHERE c.changedAt <= :settledBefore")
+    Long findHighWaterMark(@Param("settledBefore") LocalDateTime settledBefore);
+
+    @Query("SELECT MIN(c.seq) FROM AppointmentChange c")
+    Long findLowestSeq();
+
+    // Keeps the newest entry so MIN(seq) still marks where the retained feed starts
+    @Modifying
+    @Query("DELETE FROM AppointmentChange c WHERE c.changedAt < :cutoff " +
+           "AND c.seq < (SELECT MAX(m.seq) FROM AppointmentChange m)")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
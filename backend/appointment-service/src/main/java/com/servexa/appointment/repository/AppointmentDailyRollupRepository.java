@@ -0,0 +1,134 @@
+package com.servexa.appointment.repository;
+
+import com.servexa.appointment.entity.AppointmentDailyRollup;
+import com.servexa.appointment.entity.AppointmentDailyRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AppointmentDailyRollupRepository extends JpaRepository<AppointmentDailyRollup, AppointmentDailyRollupId> {
+
+    interface RollupTotals {
+        String getBucket();
+        Long getBooked();
+        Long getCompleted();
+        Long getCancelled();
+        Long getDurationSum();
+        Long getCompletedDurationSum();
+    }
+
+    @Modifying
+    @Query(value = "INSERT INTO appointment_daily_rollups " +
+            "(bucket_date, service_type, employee_id, booked_count, completed_count, cancelled_count, " +
+            "duration_sum, completed_duration_sum, updated_at) " +
+            "VALUES (:bucketDate, :serviceType, :employeeId, :booked, :completed, :cancelled, " +
+            ":durationSum, :completedDurationSum, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (bucket_date, service_type, employee_id) DO UPDATE SET " +
+            "booked_count = appointment_daily_rollups.booked_count + EXCLUDED.booked_count, " +
+            "completed_count = appointment_daily_rollups.completed_count + EXCLUDED.completed_count, " +
+            "cancelled_count = appointment_daily_rollups.cancelled_count + EXCLUDED.cancelled_count, " +
+            "duration_sum = appointment_daily_rollups.duration_sum + EXCLUDED.duration_sum, " +
+            "completed_duration_sum = appointment_daily_rollups.completed_duration_sum + EXCLUDED.completed_duration_sum, " +
+            "updated_at = CURRENT_TIMESTAMP",
+            nativeQuery = true)
+    void applyDelta(@Param("bucketDate") LocalDate bucketDate,
+                    @Param("serviceType") String serviceType,
+                    @Param("employeeId") String employeeId,
+                    @Param("booked") long booked,
+                    @Param("completed") long completed,
+                    @Param("cancelled") long cancelled,
+                    @Param("durationSum") long durationSum,
+                    @Param("completedDurationSum") long completedDurationSum);
+
+    // Incremental upserts hold a day shared and a rebuild holds it exclusively, so a rebuild only
+    // waits for (and stalls) writers touching the one day it is recomputing
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock_shared(hashtext('appointment_daily_rollups'), :epochDay)",
+            nativeQuery = true)
+    Integer lockDayForUpdate(@Param("epochDay") int epochDay);
+
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtext('appointment_daily_rollups'), :epochDay)",
+            nativeQuery = true)
+    Integer lockDayForRebuild(@Param("epochDay") int epochDay);
+
+    @Query(value = "SELECT TO_CHAR(bucket_date, 'YYYY-MM-DD') FROM appointment_daily_rollups " +
+            "WHERE bucket_date >= :from AND bucket_date < :to " +
+            "UNION SELECT TO_CHAR(booking_date_time, 'YYYY-MM-DD') FROM appointments " +
+            "WHERE booking_date_time >= :fromTime AND booking_date_time < :toTime " +
+            "UNION SELECT TO_CHAR(booking_date_time, 'YYYY-MM-DD') FROM appointments_archive " +
+            "WHERE booking_date_time >= :fromTime AND booking_date_time < :toTime",
+            nativeQuery = true)
+    List<String> findDaysWithData(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                  @Param("fromTime") LocalDateTime fromTime, @Param("toTime") LocalDateTime toTime);
+
+    @Modifying
+    @Query(value = "DELETE FROM appointment_daily_rollups WHERE bucket_date >= :from AND bucket_date < :to",
+            nativeQuery = true)
+    int deleteRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Archived appointments still count; a chunk moves between the tables in one transaction, so
+    // this single statement sees every row exactly once
+    @Modifying
+    @Query(value = "INSERT INTO appointment_daily_rollups " +
+            "(bucket_date, service_type, employee_id, booked_count, completed_count, cancelled_count, " +
+            "duration_sum, completed_duration_sum, updated_at) " +
+            "SELECT CAST(booking_date_time AS DATE), service_type, COALESCE(assigned_employee_id, ''), COUNT(*), " +
+            "SUM(CASE WHEN status = 'COMPLETED' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN status = 'CANCELLED' THEN 1 ELSE 0 END), " +
+            "SUM(duration), " +
+            "SUM(CASE WHEN status = 'COMPLETED' THEN duration ELSE 0 END), " +
+            "CURRENT_TIMESTAMP " +
+            "FROM (SELECT booking_date_time, service_type, assigned_employee_id, status, duration " +
+            "FROM appointments WHERE booking_date_time >= :from AND booking_date_time < :to " +
+            "UNION ALL SELECT booking_date_time, service_type, assigned_employee_id, status, duration " +
+            "FROM appointments_archive WHERE booking_date_time >= :from AND booking_date_time < :to) a " +
+            "GROUP BY CAST(booking_date_time AS DATE), service_type, COALESCE(assigned_employee_id, '')",
+            nativeQuery = true)
+    int recomputeRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query(value = "DELETE FROM appointment_daily_rollups WHERE booked_count = 0", nativeQuery = true)
+    int deleteEmptyBuckets();
+
+    @Query("SELECT CAST(r.id.bucketDate AS String) AS bucket, SUM(r.bookedCount) AS booked, " +
+           "SUM(r.completedCount) AS completed, SUM(r.cancelledCount) AS cancelled, " +
+           "SUM(r.durationSum) AS durationSum, SUM(r.completedDurationSum) AS completedDurationSum " +
+           "FROM AppointmentDailyRollup r " +
+           "WHERE r.id.bucketDate >= :from AND r.id.bucketDate <= :to " +
+           "AND (:serviceType IS NULL OR r.id.serviceType = :serviceType) " +
+           "AND (:employeeId IS NULL OR r.id.employeeId = :employeeId) " +
+           "GROUP BY r.id.bucketDate ORDER BY r.id.bucketDate")
+    List<RollupTotals> totalsByDay(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                   @Param("serviceType") String serviceType,
+                                   @Param("employeeId") String employeeId);
+
+    @Query("SELECT r.id.serviceType AS bucket, SUM(r.bookedCount) AS booked, " +
+           "SUM(r.completedCount) AS completed, SUM(r.cancelledCount) AS cancelled, " +
+           "SUM(r.durationSum) AS durationSum, SUM(r.completedDurationSum) AS completedDurationSum " +
+           "FROM AppointmentDailyRollup r " +
+           "WHERE r.id.bucketDate >= :from AND r.id.bucketDate <= :to " +
+           "AND (:serviceType IS NULL OR r.id.serviceType = :serviceType) " +
+           "AND (:employeeId IS NULL OR r.id.employeeId = :employeeId) " +
+           "GROUP BY r.id.serviceType ORDER BY r.id.serviceType")
+    List<RollupTotals> totalsByServiceType(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                           @Param("serviceType") String serviceType,
+                                           @Param("employeeId") String employeeId);
+
+    @Query("SELECT r.id.employeeId AS bucket, SUM(r.bookedCount) AS booked, " +
+           "SUM(r.completedCount) AS completed, SUM(r.cancelledCount) AS cancelled, " +
+           "SUM(r.durationSum) AS durationSum, SUM(r.completedDurationSum) AS completedDurationSum " +
+           "FROM AppointmentDailyRollup r " +
+           "WHERE r.id.bucketDate >= :from AND r.id.bucketDate <= :to " +
+           "AND (:serviceType IS NULL OR r.id.serviceType = :serviceType) " +
+           "AND (:employeeId IS NULL OR r.id.employeeId = :employeeId) " +
+           "GROUP BY r.id.employeeId ORDER BY r.id.employeeId")
+    List<RollupTotals> totalsByEmployee(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                        @Param("serviceType") String serviceType,
+                                        @Param("employeeId") String employeeId);
+}
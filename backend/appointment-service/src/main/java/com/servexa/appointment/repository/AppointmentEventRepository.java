@@ -0,0 +1,13 @@
+package com.servexa.appointment.repository;
+
+import com.servexa.appointment.entity.AppointmentEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AppointmentEventRepository extends JpaRepository<AppointmentEvent, Long> {
+
+    List<AppointmentEvent> findByAppointmentIdOrderByOccurredAtAscIdAsc(String appointmentId);
+}
@@ -0,0 +1,10 @@
+package com.servexa.appointment.repository;
+
+/**
+ * List projection for an employee's jobs, which also carries the customer's note so the job
+ * list can show what was asked for without a detail request per job.
+ */
+public interface AppointmentJobView extends AppointmentSummary {
+
+    String getAdditionalNote();
+}
@@ -0,0 +1,11 @@
+package com.servexa.appointment.repository;
+
+import com.servexa.appointment.entity.AppointmentRating;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AppointmentRatingRepository extends JpaRepository<AppointmentRating, String> {
+
+    boolean existsByAppointmentId(String appointmentId);
+}
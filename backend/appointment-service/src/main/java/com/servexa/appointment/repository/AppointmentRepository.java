@@ -1,11 +1,17 @@
 package com.servexa.appointment.repository;
 
 import com.servexa.appointment.entity.Appointment;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, String> {
@@ -20,5 +26,55 @@ public interface AppointmentRepository extends JpaRepository<Appointment, String
 
     List<Appointment> findByIsAssignedFalse();
     
+    // List views read projections; entities are loaded only for detail views and writes.
+    // Staff-facing lists are scoped to one branch so they prune to that branch's partition.
+    List<AppointmentSummary> findSummariesByBranchId(String branchId);
+
+    List<AppointmentSummary> findSummariesByCustomerId(String customerId);
+
+    List<AppointmentSummary> findSummariesByBranchIdAndStatus(String branchId, String status);
+
+    List<AppointmentSummary> findSummariesByBranchIdAndIsAssigned(String branchId, Boolean isAssigned);
+
+    List<AppointmentJobView> findJobViewsByBranchIdAndAssignedEmployeeId(String branchId, String employeeId);
+
+    // Full primary key, so the lookup is pruned to the branch's partition
+    Optional<Appointment> findByBranchIdAndId(String branchId, String id);
+
     List<Appointment> findByBookingDateTimeBetweenAndStatusNot(LocalDateTime start, LocalDateTime end, String status);
+
+    List<Appointment> findByCustomerIdAndBookingDateTimeGreaterThanEqualAndBookingDateTimeLessThanOrderByBookingDateTime(
+            String customerId, LocalDateTime from, LocalDateTime to);
+
+    List<Appointment> findByMaintenancePlanIdAndStatusAndBookingDateTimeAfter(String maintenancePlanId, String status,
+                                                                                LocalDateTime after);
+
+    // Served by idx_appointments_branch_employee_booking; in-progress jobs are kept even if booked before "from"
+    @Query("SELECT a FROM Appointment a WHERE a.branchId = :branchId AND a.assignedEmployeeId = :employeeId " +
+           "AND a.status NOT IN :closedStatuses " +
+           "AND (a.bookingDateTime >= :from OR a.status = 'IN_PROGRESS') " +
+           "ORDER BY a.bookingDateTime ASC")
+    List<Appointment> findOpenJobsForEmployee(@Param("branchId") String branchId,
+                                              @Param("employeeId") String employeeId,
+                                              @Param("closedStatuses") Collection<String> closedStatuses,
+                                              @Param("from") LocalDateTime from);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Appointment a WHERE a.branchId = :branchId AND a.id = :id")
+    Optional<Appointment> findByBranchIdAndIdForUpdate(@Param("branchId") String branchId, @Param("id") String id);
+
+    // Serialises slot checks on one employee's day across replicas; released when the transaction ends
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtext('appointment_employee_day'), hashtext(:key))",
+           nativeQuery = true)
+    Integer lockEmployeeDay(@Param("key") String key);
+
+    // Candidates for a slot overlap check; the caller compares end times, which JPQL cannot compute
+    @Query("SELECT a FROM Appointment a WHERE a.branchId = :branchId AND a.assignedEmployeeId = :employeeId " +
+           "AND a.status NOT IN :closedStatuses " +
+           "AND a.bookingDateTime >= :from AND a.bookingDateTime < :to")
+    List<Appointment> findEmployeeBookingsBetween(@Param("branchId") String branchId,
+                                                  @Param("employeeId") String employeeId,
+                                                  @Param("closedStatuses") Collection<String> closedStatuses,
+                                                  @Param("from") LocalDateTime from,
+                                                  @Param("to") LocalDateTime to);
 }
\ No newline at end of file
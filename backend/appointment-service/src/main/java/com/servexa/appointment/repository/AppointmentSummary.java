@@ -0,0 +1,50 @@
+package com.servexa.appointment.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Closed projection for appointment list views. Queries returning it select only these columns
+ * and yield plain tuples rather than managed entities, so list reads neither load the TEXT
+ * {@code additional_note} nor register snapshots in the persistence context.
+ */
+public interface AppointmentSummary {
+
+    String getId();
+
+    String getBranchId();
+
+    String getCustomerId();
+
+    String getFullName();
+
+    String getPhoneNumber();
+
+    String getVehicleId();
+
+    String getVehicleType();
+
+    String getServiceType();
+
+    LocalDateTime getBookingDateTime();
+
+    String getPaymentMethod();
+
+    String getStatus();
+
+    Boolean getIsAssigned();
+
+    String getAssignedEmployeeId();
+
+    Integer getDuration();
+
+    LocalDateTime getStartedAt();
+
+    BigDecimal getPrice();
+
+    String getMaintenancePlanId();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
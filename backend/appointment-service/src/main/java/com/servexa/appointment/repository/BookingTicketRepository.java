@@ -0,0 +1,53 @@
+package com.servexa.appointment.repository;
+
+import com.servexa.appointment.entity.BookingTicket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface BookingTicketRepository extends JpaRepository<BookingTicket, String> {
+
+    // A still-queued booking with the same request, possibly accepted by another replica
+    Optional<BookingTicket> findFirstByCustomerIdAndFingerprintAndStatus(String customerId, String fingerprint,
+                                                                         String status);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE BookingTicket t SET t.status = :status, t.appointmentId = :appointmentId, t.error = :error, " +
+           "t.completedAt = :completedAt WHERE t.id = :id")
+    int complete(@Param("id") String id,
+                 @Param("status") String status,
+                 @Param("appointmentId") String appointmentId,
+                 @Param("error") String error,
+                 @Param("completedAt") LocalDateTime completedAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE BookingTicket t SET t.status = 'FAILED', t.error = :error, t.completedAt = :now " +
+           "WHERE t.status = 'QUEUED' AND t.id IN :ids")
+    int failQueued(@Param("ids") Collection<String> ids,
+                   @Param("error") String error,
+                   @Param("now") LocalDateTime now);
+
+    // Queued rows whose replica died without finishing or failing them
+    @Transactional
+    @Modifying
+    @Query("UPDATE BookingTicket t SET t.status = 'FAILED', t.error = :error, t.completedAt = :now " +
+           "WHERE t.status = 'QUEUED' AND t.submittedAt < :submittedBefore")
+    int failQueuedBefore(@Param("submittedBefore") LocalDateTime submittedBefore,
+                         @Param("error") String error,
+                         @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM BookingTicket t WHERE t.completedAt < :cutoff")
+    int deleteCompletedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
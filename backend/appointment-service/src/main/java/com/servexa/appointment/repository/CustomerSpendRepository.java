@@ -0,0 +1,82 @@
+package com.servexa.appointment.repository;
+
+import com.servexa.appointment.entity.CustomerSpend;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CustomerSpendRepository extends JpaRepository<CustomerSpend, String> {
+
+    interface SpendTotals {
+        String getCustomerId();
+        BigDecimal getTotalSpent();
+        Long getCompletedCount();
+    }
+
+    @Modifying
+    @Query(value = "INSERT INTO customer_spend (customer_id, total_spent, completed_count, updated_at) " +
+            "VALUES (:customerId, :amount, :completed, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (customer_id) DO UPDATE SET " +
+            "total_spent = customer_spend.total_spent + EXCLUDED.total_spent, " +
+            "completed_count = customer_spend.completed_count + EXCLUDED.completed_count, " +
+            "updated_at = CURRENT_TIMESTAMP",
+            nativeQuery = true)
+    void applyDelta(@Param("customerId") String customerId,
+                    @Param("amount") BigDecimal amount,
+                    @Param("completed") long completed);
+
+    @Modifying
+    @Query(value = "INSERT INTO customer_spend (customer_id, total_spent, completed_count, updated_at) " +
+            "VALUES (:customerId, :totalSpent, :completed, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (customer_id) DO UPDATE SET " +
+            "total_spent = EXCLUDED.total_spent, " +
+            "completed_count = EXCLUDED.completed_count, " +
+            "updated_at = CURRENT_TIMESTAMP",
+            nativeQuery = true)
+    void overwrite(@Param("customerId") String customerId,
+                   @Param("totalSpent") BigDecimal totalSpent,
+                   @Param("completed") long completed);
+
+    // Per-customer transaction locks. A delta waits only while its own customer's batch is being
+    // recomputed, so it is neither lost nor double counted; other customers' completions carry on
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtext('customer_spend'), hashtext(:customerId))",
+            nativeQuery = true)
+    Integer lockCustomer(@Param("customerId") String customerId);
+
+    // Takes the whole batch's locks in one round trip, in a stable order
+    @Query(value = "SELECT COUNT(*) FROM (SELECT pg_advisory_xact_lock(hashtext('customer_spend'), hashtext(id)) " +
+            "FROM unnest(ARRAY[:customerIds]) AS id ORDER BY id) locks",
+            nativeQuery = true)
+    Long lockCustomers(@Param("customerIds") Collection<String> customerIds);
+
+    // Includes customers whose completed history has been archived entirely
+    @Query(value = "SELECT customer_id FROM (" +
+            "SELECT customer_id FROM customer_spend UNION " +
+            "SELECT customer_id FROM appointments WHERE status = 'COMPLETED' UNION " +
+            "SELECT customer_id FROM appointments_archive WHERE status = 'COMPLETED') customers " +
+            "WHERE customer_id > :after ORDER BY customer_id LIMIT :limit",
+            nativeQuery = true)
+    List<String> findCustomerIdsAfter(@Param("after") String after, @Param("limit") int limit);
+
+    // Hot and archived appointments in one statement: an archive chunk moves rows between the
+    // tables in a single transaction, so each row is counted exactly once. Unsnapshotted rows
+    // (imports, pre-pricing history) are valued at today's list price
+    @Query(value = "SELECT a.customer_id AS customerId, " +
+            "SUM(COALESCE(a.price, sc.price, :defaultPrice)) AS totalSpent, COUNT(*) AS completedCount " +
+            "FROM (SELECT customer_id, service_type, price FROM appointments " +
+            "WHERE status = 'COMPLETED' AND customer_id IN (:customerIds) " +
+            "UNION ALL SELECT customer_id, service_type, price FROM appointments_archive " +
+            "WHERE status = 'COMPLETED' AND customer_id IN (:customerIds)) a " +
+            "LEFT JOIN service_catalog sc ON sc.service_type = LOWER(TRIM(a.service_type)) " +
+            "GROUP BY a.customer_id",
+            nativeQuery = true)
+    List<SpendTotals> sumCompleted(@Param("customerIds") Collection<String> customerIds,
+                                   @Param("defaultPrice") BigDecimal defaultPrice);
+}
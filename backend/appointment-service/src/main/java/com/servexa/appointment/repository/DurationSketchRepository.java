@@ -0,0 +1,20 @@
+package com.servexa.appointment.repository;
+
+import com.servexa.appointment.entity.DurationSketch;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface DurationSketchRepository extends JpaRepository<DurationSketch, String> {
+
+    // Serialises merges from different nodes into the same sketch
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM DurationSketch s WHERE s.sketchKey = :sketchKey")
+    Optional<DurationSketch> findForUpdate(@Param("sketchKey") String sketchKey);
+}
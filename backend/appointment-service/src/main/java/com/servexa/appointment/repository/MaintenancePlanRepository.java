@@ -0,0 +1,29 @@
+package com.servexa.appointment.repository;
+
+import com.servexa.appointment.entity.MaintenancePlan;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface MaintenancePlanRepository extends JpaRepository<MaintenancePlan, String> {
+
+    List<MaintenancePlan> findByCustomerIdAndIsActiveTrue(String customerId);
+
+    // Plans whose stored occurrences stop short of the horizon; expanded plans drop out of the result.
+    // Rows are claimed FOR UPDATE SKIP LOCKED so replicas running the job expand disjoint batches
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT p FROM MaintenancePlan p WHERE p.isActive = true " +
+           "AND (p.expandedUntil IS NULL OR p.expandedUntil < :horizon) ORDER BY p.id")
+    List<MaintenancePlan> findDueForExpansion(@Param("horizon") LocalDateTime horizon, Pageable pageable);
+}
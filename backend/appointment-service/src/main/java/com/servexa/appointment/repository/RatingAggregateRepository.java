@@ -0,0 +1,26 @@
+package com.servexa.appointment.repository;
+
+import com.servexa.appointment.entity.RatingAggregate;
+import com.servexa.appointment.entity.RatingAggregateId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RatingAggregateRepository extends JpaRepository<RatingAggregate, RatingAggregateId> {
+
+    @Modifying
+    @Query(value = "INSERT INTO rating_aggregates (scope, scope_key, rating_sum, rating_count, updated_at) " +
+            "VALUES (:scope, :scopeKey, :ratingSum, :ratingCount, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (scope, scope_key) DO UPDATE SET " +
+            "rating_sum = rating_aggregates.rating_sum + EXCLUDED.rating_sum, " +
+            "rating_count = rating_aggregates.rating_count + EXCLUDED.rating_count, " +
+            "updated_at = CURRENT_TIMESTAMP",
+            nativeQuery = true)
+    void applyDelta(@Param("scope") String scope,
+                    @Param("scopeKey") String scopeKey,
+                    @Param("ratingSum") long ratingSum,
+                    @Param("ratingCount") long ratingCount);
+}
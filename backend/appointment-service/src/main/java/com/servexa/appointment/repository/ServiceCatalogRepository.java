@@ -0,0 +1,15 @@
+package com.servexa.appointment.repository;
+
+import com.servexa.appointment.entity.ServiceCatalogEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ServiceCatalogRepository extends JpaRepository<ServiceCatalogEntry, String> {
+
+    // Cheap change detection: any insert, edit or delete moves the count or the latest update time
+    @Query(value = "SELECT CONCAT(COUNT(*), '@', COALESCE(CAST(MAX(updated_at) AS VARCHAR), '')) FROM service_catalog",
+            nativeQuery = true)
+    String fingerprint();
+}
@@ -0,0 +1,46 @@
+package com.servexa.appointment.repository;
+
+import com.servexa.appointment.entity.WaitlistEntry;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, String> {
+
+    List<WaitlistEntry> findByCustomerIdOrderByCreatedAtDesc(String customerId);
+
+    // Serialises accept, decline and expiry of the same offer
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM WaitlistEntry w WHERE w.id = :id")
+    Optional<WaitlistEntry> findByIdForUpdate(@Param("id") String id);
+
+    // Longest-waiting entry for a branch, day and service type, answered from the status/branch/date index.
+    // SKIP LOCKED lets cancellations handled on different replicas claim different candidates
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT w FROM WaitlistEntry w WHERE w.status = 'WAITING' AND w.branchId = :branchId " +
+           "AND w.desiredDate = :date AND LOWER(TRIM(w.serviceType)) = LOWER(:serviceType) ORDER BY w.createdAt, w.id")
+    List<WaitlistEntry> findNextWaitingForUpdate(@Param("branchId") String branchId,
+                                                 @Param("date") LocalDate date,
+                                                 @Param("serviceType") String serviceType,
+                                                 Pageable pageable);
+
+    // Offers past their hold time; rows another replica is already expiring are skipped
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT w FROM WaitlistEntry w WHERE w.status = 'OFFERED' AND w.offerExpiresAt <= :now " +
+           "ORDER BY w.offerExpiresAt")
+    List<WaitlistEntry> findExpiredOffersForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+}
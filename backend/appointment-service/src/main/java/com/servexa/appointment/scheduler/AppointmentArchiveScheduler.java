@@ -0,0 +1,30 @@
+package com.servexa.appointment.scheduler;
+
+import com.servexa.appointment.service.AppointmentArchiveService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AppointmentArchiveScheduler {
+
+    private final AppointmentArchiveService archiveService;
+    private final SingleRunnerLock singleRunnerLock;
+
+    // Nightly and off-peak: each chunk is a bulk delete on the hot table. One replica runs it
+    @Scheduled(cron = "${appointment.archive.cron:0 0 4 * * *}")
+    public void archiveOldAppointments() {
+        try {
+            singleRunnerLock.runExclusively("appointment-archive", () -> {
+                log.info("Running appointment archival");
+                int archived = archiveService.archiveExpired();
+                log.info("Completed appointment archival, moved {} appointments to the archive table", archived);
+            });
+        } catch (Exception e) {
+            log.error("Appointment archival failed", e);
+        }
+    }
+}
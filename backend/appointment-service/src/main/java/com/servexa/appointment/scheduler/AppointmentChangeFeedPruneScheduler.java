@@ -0,0 +1,25 @@
+package com.servexa.appointment.scheduler;
+
+import com.servexa.appointment.service.AppointmentChangeLog;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AppointmentChangeFeedPruneScheduler {
+
+    private final AppointmentChangeLog changeLog;
+
+    @Scheduled(cron = "${appointment.sync.prune-cron:0 45 4 * * *}")
+    public void pruneChangeFeed() {
+        log.info("Pruning appointment change feed");
+        try {
+            changeLog.pruneExpired();
+        } catch (Exception e) {
+            log.error("Appointment change feed pruning failed", e);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.servexa.appointment.scheduler;
 
+import com.servexa.appointment.dto.ServiceCatalogEntryResponse;
 import com.servexa.appointment.entity.Appointment;
 import com.servexa.appointment.repository.AppointmentRepository;
+import com.servexa.appointment.service.ServiceCatalogService;
 import com.servexa.common.client.NotificationClient;
 import com.servexa.common.client.NotificationClient.NotificationType;
 import com.servexa.common.client.NotificationClient.NotificationPriority;
@@ -22,6 +24,7 @@ public class AppointmentReminderScheduler {
     
     private final AppointmentRepository appointmentRepository;
     private final NotificationClient notificationClient;
+    private final ServiceCatalogService catalogService;
     
     // Run every hour to check for upcoming appointments
     @Scheduled(fixedRate = 3600000) // 1 hour in milliseconds
@@ -60,10 +63,15 @@ public class AppointmentReminderScheduler {
     
     private void sendReminder(Appointment appointment) {
         String title = "Appointment Reminder";
+        ServiceCatalogEntryResponse catalogEntry = catalogService.find(appointment.getServiceType());
+        String serviceName = catalogEntry != null ? catalogEntry.getDisplayName() : appointment.getServiceType();
+        Integer duration = appointment.getDuration() != null ? appointment.getDuration()
+                : catalogEntry != null ? catalogEntry.getDefaultDuration() : null;
         String message = String.format(
-            "Reminder: You have an appointment for %s tomorrow at %s. Don't forget to bring your vehicle registration.",
-            appointment.getServiceType(),
-            appointment.getBookingDateTime().format(DateTimeFormatter.ofPattern("hh:mm a"))
+            "Reminder: You have an appointment for %s tomorrow at %s%s. Don't forget to bring your vehicle registration.",
+            serviceName,
+            appointment.getBookingDateTime().format(DateTimeFormatter.ofPattern("hh:mm a")),
+            duration != null ? " (about " + duration + " minutes)" : ""
         );
         
         notificationClient.sendNotification(
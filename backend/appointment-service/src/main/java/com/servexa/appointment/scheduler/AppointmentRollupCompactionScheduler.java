@@ -0,0 +1,35 @@
+package com.servexa.appointment.scheduler;
+
+import com.servexa.appointment.service.AppointmentAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AppointmentRollupCompactionScheduler {
+
+    private final AppointmentAnalyticsService analyticsService;
+
+    @Value("${appointment.analytics.compaction-window-days:7}")
+    private int compactionWindowDays;
+
+    // Nightly: drop buckets emptied by reassignments and re-derive the recent window to heal any drift
+    @Scheduled(cron = "${appointment.analytics.compaction-cron:0 30 2 * * *}")
+    public void compactRollups() {
+        log.info("Running appointment rollup compaction");
+        try {
+            int removed = analyticsService.deleteEmptyBuckets();
+            LocalDate today = LocalDate.now();
+            analyticsService.rebuild(today.minusDays(compactionWindowDays), today.plusDays(1));
+            log.info("Completed appointment rollup compaction, removed {} empty buckets", removed);
+        } catch (Exception e) {
+            log.error("Appointment rollup compaction failed", e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.servexa.appointment.scheduler;
+
+import com.servexa.appointment.service.CustomerSpendService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerSpendReconciliationScheduler {
+
+    private final CustomerSpendService spendService;
+    private final SingleRunnerLock singleRunnerLock;
+
+    // Nightly, after archival; one replica runs it, so batches never contend with each other
+    @Scheduled(cron = "${appointment.spend.reconcile-cron:0 30 4 * * *}")
+    public void reconcileSpendTotals() {
+        try {
+            singleRunnerLock.runExclusively("customer-spend-reconcile", () -> {
+                log.info("Running customer spend reconciliation");
+                spendService.reconcile();
+            });
+        } catch (Exception e) {
+            log.error("Customer spend reconciliation failed", e);
+        }
+    }
+}
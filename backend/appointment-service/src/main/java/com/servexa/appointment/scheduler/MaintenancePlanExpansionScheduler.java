@@ -0,0 +1,31 @@
+package com.servexa.appointment.scheduler;
+
+import com.servexa.appointment.service.MaintenancePlanService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MaintenancePlanExpansionScheduler {
+
+    private final MaintenancePlanService maintenancePlanService;
+
+    // Runs nightly: rolls every active plan's materialised occurrences forward to the horizon
+    @Scheduled(cron = "${appointment.maintenance.expansion-cron:0 15 1 * * *}")
+    public void expandMaintenancePlans() {
+        log.info("Running maintenance plan expansion");
+        try {
+            int plans = 0;
+            int batch;
+            while ((batch = maintenancePlanService.expandNextBatch()) > 0) {
+                plans += batch;
+            }
+            log.info("Completed maintenance plan expansion for {} plans", plans);
+        } catch (Exception e) {
+            log.error("Maintenance plan expansion failed", e);
+        }
+    }
+}
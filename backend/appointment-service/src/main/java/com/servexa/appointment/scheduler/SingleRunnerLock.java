@@ -0,0 +1,68 @@
+package com.servexa.appointment.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Runs a scheduled job on one replica at a time. Every replica fires the same cron; the first to
+ * take the job's session-level {@code pg_try_advisory_lock} runs it and the others skip that
+ * round instead of waiting. The lock lives on a connection held for the length of the run, so
+ * it is also released if the pod dies mid-run and Postgres closes the session.
+ *
+ * <p>Against a database other than Postgres (the local H2 profile) the job simply runs.</p>
+ */
+@Component
+@Slf4j
+public class SingleRunnerLock {
+
+    private static final String TRY_LOCK_SQL = "SELECT pg_try_advisory_lock(hashtext('scheduled_job'), hashtext(?))";
+    private static final String UNLOCK_SQL = "SELECT pg_advisory_unlock(hashtext('scheduled_job'), hashtext(?))";
+
+    private final DataSource dataSource;
+
+    public SingleRunnerLock(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Runs {@code job} if no other replica is running the job of the same name. Returns whether
+     * it ran here.
+     */
+    public boolean runExclusively(String jobName, Runnable job) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!connection.isWrapperFor(PGConnection.class)) {
+                job.run();
+                return true;
+            }
+            if (!call(connection, TRY_LOCK_SQL, jobName)) {
+                log.info("Skipping {}; another replica is running it", jobName);
+                return false;
+            }
+            try {
+                job.run();
+                return true;
+            } finally {
+                call(connection, UNLOCK_SQL, jobName);
+            }
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Could not take the lock for " + jobName, e);
+        }
+    }
+
+    private static boolean call(Connection connection, String sql, String jobName) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, jobName);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+}
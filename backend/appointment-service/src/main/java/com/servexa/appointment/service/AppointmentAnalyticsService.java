@@ -0,0 +1,259 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.AppointmentResponse;
+import com.servexa.appointment.dto.AppointmentRollupResponse;
+import com.servexa.appointment.entity.AppointmentDailyRollup;
+import com.servexa.appointment.entity.AppointmentDailyRollupId;
+import com.servexa.appointment.event.AppointmentChangedEvent;
+import com.servexa.appointment.repository.AppointmentDailyRollupRepository;
+import com.servexa.appointment.repository.AppointmentDailyRollupRepository.RollupTotals;
+import com.servexa.common.exception.BadRequestException;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the daily appointment rollups and answers dashboard queries from them.
+ *
+ * <p>A rollup bucket holds the contribution of every appointment booked on that day for a given
+ * service type and employee. On each change the previous contribution of the appointment is
+ * subtracted and the new one added, in the same transaction as the change itself, so the
+ * rollups always equal a grouped query over the appointments and archived appointments.</p>
+ *
+ * <p>Rebuilds recompute one day per transaction from both tables, under a per-day advisory lock
+ * that incremental updates take in shared mode, so writers only wait while their own day is
+ * being recomputed. The local H2 profile has neither the advisory locks nor {@code ON CONFLICT},
+ * so there the locks are skipped and buckets are updated through the entity instead.</p>
+ */
+@Service
+@Slf4j
+public class AppointmentAnalyticsService {
+
+    private static final String UNASSIGNED = "";
+
+    private final AppointmentDailyRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    public AppointmentAnalyticsService(
+            AppointmentDailyRollupRepository rollupRepository,
+            PlatformTransactionManager transactionManager,
+            DataSource dataSource) {
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        AppointmentResponse appointment = event.getAppointment();
+        int duration = appointment.getDuration() != null ? appointment.getDuration() : 0;
+
+        Contribution after = new Contribution(appointment.getBookingDateTime(), appointment.getServiceType(),
+                appointment.getAssignedEmployeeId(), appointment.getStatus(), duration);
+
+        if (event.getType() == AppointmentChangedEvent.Type.CREATED) {
+            lockDays(after);
+            apply(after, 1);
+            return;
+        }
+
+        Contribution before = new Contribution(event.getPreviousBookingDateTime(), appointment.getServiceType(),
+                event.getPreviousEmployeeId(), event.getPreviousStatus(), duration);
+        if (before.equals(after)) {
+            return;
+        }
+        lockDays(before, after);
+        apply(before, -1);
+        apply(after, 1);
+    }
+
+    @Transactional(readOnly = true)
+    public List<AppointmentRollupResponse> getRollups(LocalDate from, LocalDate to, String groupBy,
+                                                      String serviceType, String employeeId) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+
+        List<RollupTotals> totals = switch (groupBy.toLowerCase()) {
+            case "day" -> rollupRepository.totalsByDay(from, to, serviceType, employeeId);
+            case "servicetype" -> rollupRepository.totalsByServiceType(from, to, serviceType, employeeId);
+            case "employee" -> rollupRepository.totalsByEmployee(from, to, serviceType, employeeId);
+            default -> throw new BadRequestException("Unsupported groupBy: " + groupBy
+                    + " (expected day, serviceType or employee)");
+        };
+
+        return totals.stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Recomputes the buckets for booking dates in [from, to) from the appointments and
+     * archived appointments. Passing nulls rebuilds every bucket, for backfills.
+     */
+    public int rebuild(LocalDate from, LocalDate to) {
+        LocalDate start = from != null ? from : LocalDate.of(1970, 1, 1);
+        LocalDate end = to != null ? to : LocalDate.of(9999, 1, 1);
+        if (!start.isBefore(end)) {
+            throw new BadRequestException("'from' must be before 'to'");
+        }
+
+        List<String> days = rollupRepository.findDaysWithData(start, end, start.atStartOfDay(), end.atStartOfDay());
+        int inserted = 0;
+        for (String day : days) {
+            LocalDate date = LocalDate.parse(day);
+            Integer written = transactionTemplate.execute(tx -> rebuildDay(date));
+            inserted += written != null ? written : 0;
+        }
+        log.info("Rebuilt appointment rollups for [{}, {}): {} days, wrote {} buckets", start, end, days.size(), inserted);
+        return inserted;
+    }
+
+    private int rebuildDay(LocalDate day) {
+        if (isPostgres()) {
+            rollupRepository.lockDayForRebuild((int) day.toEpochDay());
+        }
+        rollupRepository.deleteRange(day, day.plusDays(1));
+        return rollupRepository.recomputeRange(day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+    }
+
+    @Transactional
+    public int deleteEmptyBuckets() {
+        return rollupRepository.deleteEmptyBuckets();
+    }
+
+    // Sorted so two writers (or a writer and a rebuild) never take the same days in opposite order
+    private void lockDays(Contribution... contributions) {
+        if (!isPostgres()) {
+            return;
+        }
+        SortedSet<LocalDate> days = new TreeSet<>();
+        for (Contribution contribution : contributions) {
+            if (contribution.bookingDateTime != null && contribution.serviceType != null) {
+                days.add(contribution.bookingDateTime.toLocalDate());
+            }
+        }
+        for (LocalDate day : days) {
+            rollupRepository.lockDayForUpdate((int) day.toEpochDay());
+        }
+    }
+
+    private void apply(Contribution contribution, int sign) {
+        if (contribution.bookingDateTime == null || contribution.serviceType == null) {
+            return;
+        }
+        boolean completed = "COMPLETED".equalsIgnoreCase(contribution.status);
+        boolean cancelled = "CANCELLED".equalsIgnoreCase(contribution.status);
+        LocalDate bucketDate = contribution.bookingDateTime.toLocalDate();
+        String employeeId = contribution.employeeId != null ? contribution.employeeId : UNASSIGNED;
+        long duration = (long) sign * contribution.duration;
+        if (isPostgres()) {
+            rollupRepository.applyDelta(bucketDate, contribution.serviceType, employeeId, sign,
+                    completed ? sign : 0, cancelled ? sign : 0, duration, completed ? duration : 0);
+            return;
+        }
+
+        AppointmentDailyRollupId id = new AppointmentDailyRollupId(bucketDate, contribution.serviceType, employeeId);
+        AppointmentDailyRollup bucket = rollupRepository.findById(id)
+                .orElseGet(() -> AppointmentDailyRollup.builder().id(id).build());
+        bucket.setBookedCount(bucket.getBookedCount() + sign);
+        bucket.setCompletedCount(bucket.getCompletedCount() + (completed ? sign : 0));
+        bucket.setCancelledCount(bucket.getCancelledCount() + (cancelled ? sign : 0));
+        bucket.setDurationSum(bucket.getDurationSum() + duration);
+        bucket.setCompletedDurationSum(bucket.getCompletedDurationSum() + (completed ? duration : 0));
+        bucket.setUpdatedAt(LocalDateTime.now());
+        rollupRepository.save(bucket);
+    }
+
+    private boolean isPostgres() {
+        Boolean detected = postgres;
+        if (detected == null) {
+            detected = Boolean.TRUE.equals(jdbcTemplate.execute(
+                    (ConnectionCallback<Boolean>) connection -> connection.isWrapperFor(PGConnection.class)));
+            postgres = detected;
+        }
+        return detected;
+    }
+
+    private AppointmentRollupResponse toResponse(RollupTotals totals) {
+        long booked = valueOf(totals.getBooked());
+        long completed = valueOf(totals.getCompleted());
+        long cancelled = valueOf(totals.getCancelled());
+        return AppointmentRollupResponse.builder()
+                .bucket(totals.getBucket())
+                .bookedCount(booked)
+                .completedCount(completed)
+                .cancelledCount(cancelled)
+                .completionRate(ratio(completed, booked))
+                .cancellationRate(ratio(cancelled, booked))
+                .averageDuration(ratio(valueOf(totals.getDurationSum()), booked))
+                .averageCompletedDuration(ratio(valueOf(totals.getCompletedDurationSum()), completed))
+                .build();
+    }
+
+    private static long valueOf(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    private static Double ratio(long numerator, long denominator) {
+        return denominator == 0 ? null : (double) numerator / denominator;
+    }
+
+    private static final class Contribution {
+
+        private final LocalDateTime bookingDateTime;
+        private final String serviceType;
+        private final String employeeId;
+        private final String status;
+        private final int duration;
+
+        Contribution(LocalDateTime bookingDateTime, String serviceType, String employeeId, String status, int duration) {
+            this.bookingDateTime = bookingDateTime;
+            this.serviceType = serviceType;
+            this.employeeId = employeeId;
+            this.status = status != null ? status.toUpperCase() : null;
+            this.duration = duration;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Contribution that)) {
+                return false;
+            }
+            return duration == that.duration
+                    && Objects.equals(bookingDateTime != null ? bookingDateTime.toLocalDate() : null,
+                            that.bookingDateTime != null ? that.bookingDateTime.toLocalDate() : null)
+                    && Objects.equals(serviceType, that.serviceType)
+                    && Objects.equals(employeeId, that.employeeId)
+                    && Objects.equals(statusClass(status), statusClass(that.status));
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(serviceType, employeeId, statusClass(status), duration);
+        }
+
+        // Only COMPLETED and CANCELLED move counters; other status changes leave buckets untouched
+        private static String statusClass(String status) {
+            return "COMPLETED".equals(status) || "CANCELLED".equals(status) ? status : "OPEN";
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.AppointmentResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Moves finished appointments out of the hot {@code appointments} table into the cold
+ * {@code appointments_archive} table, so the hot table and its indexes only carry recent and
+ * open bookings while archived history stays in the shared database every replica reads.
+ *
+ * <p>Each chunk is copied and deleted in one transaction, so a row is always in exactly one of
+ * the two tables. The job runs on one replica at a time (see {@code SingleRunnerLock}). Daily
+ * rollup rebuilds and spend reconciliation read both tables, so archiving changes neither.</p>
+ */
+@Service
+@Slf4j
+public class AppointmentArchiveService {
+
+    private static final String ARCHIVABLE_STATUSES = "('COMPLETED', 'CANCELLED')";
+
+    private static final String COLUMNS =
+            "id, branch_id, customer_id, full_name, phone_number, vehicle_id, vehicle_type, service_type, " +
+            "booking_date_time, additional_note, payment_method, status, is_assigned, assigned_employee_id, " +
+            "duration, started_at, price, maintenance_plan_id, created_at, updated_at";
+
+    // Locks the chunk so a concurrent status change cannot slip in between the copy and the delete
+    private static final String SELECT_CHUNK_SQL =
+            "SELECT " + COLUMNS + " FROM appointments " +
+            "WHERE status IN " + ARCHIVABLE_STATUSES + " AND booking_date_time < :cutoff " +
+            "ORDER BY booking_date_time LIMIT :limit FOR UPDATE";
+
+    private static final String COPY_CHUNK_SQL =
+            "INSERT INTO appointments_archive (" + COLUMNS + ", archived_at) " +
+            "SELECT " + COLUMNS + ", CURRENT_TIMESTAMP FROM appointments WHERE id IN (:ids) " +
+            "ON CONFLICT DO NOTHING";
+
+    private static final String DELETE_CHUNK_SQL = "DELETE FROM appointments WHERE id IN (:ids)";
+
+    private static final String FIND_BY_CUSTOMER_SQL =
+            "SELECT " + COLUMNS + " FROM appointments_archive WHERE customer_id = :customerId " +
+            "ORDER BY booking_date_time DESC";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AppointmentChangeLog changeLog;
+    private final int maxAgeDays;
+    private final int chunkSize;
+
+    public AppointmentArchiveService(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            AppointmentChangeLog changeLog,
+            @Value("${appointment.archive.max-age-days:730}") int maxAgeDays,
+            @Value("${appointment.archive.chunk-size:2000}") int chunkSize) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.changeLog = changeLog;
+        this.maxAgeDays = maxAgeDays;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Archives every finished appointment booked more than {@code max-age-days} ago, one chunk
+     * at a time. Returns the number of appointments moved.
+     */
+    public int archiveExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(maxAgeDays);
+        int total = 0;
+        int archived;
+        while ((archived = archiveChunk(cutoff)) > 0) {
+            total += archived;
+        }
+        return total;
+    }
+
+    int archiveChunk(LocalDateTime cutoff) {
+        Integer moved = transactionTemplate.execute(tx -> {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("cutoff", Timestamp.valueOf(cutoff))
+                    .addValue("limit", chunkSize);
+            List<AppointmentResponse> rows = jdbcTemplate.query(SELECT_CHUNK_SQL, params, ROW_MAPPER);
+            if (rows.isEmpty()) {
+                return 0;
+            }
+
+            MapSqlParameterSource ids = new MapSqlParameterSource("ids",
+                    rows.stream().map(AppointmentResponse::getId).collect(Collectors.toList()));
+            int copied = jdbcTemplate.update(COPY_CHUNK_SQL, ids);
+            int deleted = jdbcTemplate.update(DELETE_CHUNK_SQL, ids);
+            changeLog.recordArchived(rows);
+            log.info("Archived {} appointments, copied {} and deleted {} from the hot table",
+                    rows.size(), copied, deleted);
+            return rows.size();
+        });
+        return moved != null ? moved : 0;
+    }
+
+    /**
+     * Archived appointments for a customer, most recent first.
+     */
+    public List<AppointmentResponse> findByCustomerId(String customerId) {
+        return jdbcTemplate.query(FIND_BY_CUSTOMER_SQL, new MapSqlParameterSource("customerId", customerId), ROW_MAPPER);
+    }
+
+    private static final RowMapper<AppointmentResponse> ROW_MAPPER = AppointmentArchiveService::mapRow;
+
+    private static AppointmentResponse mapRow(ResultSet rs, int rowNum) throws SQLException {
+        int duration = rs.getInt("duration");
+        boolean durationMissing = rs.wasNull();
+        return AppointmentResponse.builder()
+                .id(rs.getString("id"))
+                .branchId(rs.getString("branch_id"))
+                .customerId(rs.getString("customer_id"))
+                .fullName(rs.getString("full_name"))
+                .phoneNumber(rs.getString("phone_number"))
+                .vehicleId(rs.getString("vehicle_id"))
+                .vehicleType(rs.getString("vehicle_type"))
+                .serviceType(rs.getString("service_type"))
+                .bookingDateTime(toLocalDateTime(rs.getTimestamp("booking_date_time")))
+                .additionalNote(rs.getString("additional_note"))
+                .paymentMethod(rs.getString("payment_method"))
+                .status(rs.getString("status"))
+                .isAssigned(rs.getBoolean("is_assigned"))
+                .assignedEmployeeId(rs.getString("assigned_employee_id"))
+                .duration(durationMissing ? null : duration)
+                .startedAt(toLocalDateTime(rs.getTimestamp("started_at")))
+                .price(rs.getBigDecimal("price"))
+                .maintenancePlanId(rs.getString("maintenance_plan_id"))
+                .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+                .updatedAt(toLocalDateTime(rs.getTimestamp("updated_at")))
+                .build();
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
@@ -0,0 +1,160 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.AppointmentResponse;
+import com.servexa.appointment.entity.Appointment;
+import com.servexa.appointment.entity.AppointmentChange;
+import com.servexa.appointment.event.AppointmentChangedEvent;
+import com.servexa.appointment.repository.AppointmentChangeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Appends to the {@code appointment_changes} feed in the same transaction as the change itself,
+ * so a committed appointment change always has its feed entry and a rolled back one never does.
+ * Entries are written as one JDBC batch per transaction.
+ *
+ * <p>{@code changed_at} is stamped by the database, not by the replica writing the entry, and
+ * readers compare it with {@link #databaseNow()}; the settle window in
+ * {@link AppointmentSyncService} then does not depend on how far apart the replicas' clocks
+ * are.</p>
+ */
+@Service
+@Slf4j
+public class AppointmentChangeLog {
+
+    static final String SCOPE_CUSTOMER = "CUSTOMER";
+    static final String SCOPE_EMPLOYEE = "EMPLOYEE";
+    static final String UPSERT = "UPSERT";
+    static final String DELETE = "DELETE";
+
+    // clock_timestamp() is the time of the insert itself; LOCALTIMESTAMP would be the transaction
+    // start, which can be long before the entry's sequence number was taken
+    private static final String INSERT_SQL =
+            "INSERT INTO appointment_changes (scope, scope_key, appointment_id, change_type, changed_at) " +
+            "VALUES (?, ?, ?, ?, %s)";
+    private static final String POSTGRES_NOW = "CAST(clock_timestamp() AS TIMESTAMP)";
+    private static final String STANDARD_NOW = "LOCALTIMESTAMP";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AppointmentChangeRepository changeRepository;
+    private final int retentionDays;
+    private volatile String insertSql;
+
+    public AppointmentChangeLog(DataSource dataSource, AppointmentChangeRepository changeRepository,
+                                @Value("${appointment.sync.retention-days:30}") int retentionDays) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.changeRepository = changeRepository;
+        this.retentionDays = retentionDays;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        append(entriesFor(event));
+    }
+
+    /** Records appointments written without change events, such as bulk imports. */
+    public void recordUpserted(Collection<Appointment> appointments) {
+        List<AppointmentChange> entries = new ArrayList<>();
+        for (Appointment appointment : appointments) {
+            entries.add(entry(SCOPE_CUSTOMER, appointment.getCustomerId(), appointment.getId(), UPSERT));
+            if (appointment.getAssignedEmployeeId() != null) {
+                entries.add(entry(SCOPE_EMPLOYEE, appointment.getAssignedEmployeeId(), appointment.getId(), UPSERT));
+            }
+        }
+        append(entries);
+    }
+
+    /**
+     * Records appointments moved to the archive. Customers still see archived appointments in
+     * their history, so only the assigned employee gets a tombstone.
+     */
+    public void recordArchived(Collection<AppointmentResponse> appointments) {
+        List<AppointmentChange> entries = new ArrayList<>();
+        for (AppointmentResponse appointment : appointments) {
+            if (appointment.getAssignedEmployeeId() != null) {
+                entries.add(entry(SCOPE_EMPLOYEE, appointment.getAssignedEmployeeId(), appointment.getId(), DELETE));
+            }
+        }
+        append(entries);
+    }
+
+    /** The database's current time, on the same clock that stamps {@code changed_at}. */
+    public LocalDateTime databaseNow() {
+        return jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP", Timestamp.class).toLocalDateTime();
+    }
+
+    /**
+     * Drops feed entries older than {@code appointment.sync.retention-days}. The newest entry is
+     * always kept so clients with an older cursor can tell that entries were pruned.
+     */
+    @Transactional
+    public int pruneExpired() {
+        int deleted = changeRepository.deleteOlderThan(databaseNow().minusDays(retentionDays));
+        log.info("Pruned {} appointment change feed entries", deleted);
+        return deleted;
+    }
+
+    static List<AppointmentChange> entriesFor(AppointmentChangedEvent event) {
+        AppointmentResponse appointment = event.getAppointment();
+        String appointmentId = appointment.getId();
+
+        List<AppointmentChange> entries = new ArrayList<>(3);
+        entries.add(entry(SCOPE_CUSTOMER, appointment.getCustomerId(), appointmentId, UPSERT));
+        String employeeId = appointment.getAssignedEmployeeId();
+        if (employeeId != null) {
+            entries.add(entry(SCOPE_EMPLOYEE, employeeId, appointmentId, UPSERT));
+        }
+        String previousEmployeeId = event.getPreviousEmployeeId();
+        if (previousEmployeeId != null && !previousEmployeeId.equals(employeeId)) {
+            entries.add(entry(SCOPE_EMPLOYEE, previousEmployeeId, appointmentId, DELETE));
+        }
+        return entries;
+    }
+
+    private void append(List<AppointmentChange> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(insertSql(), entries, entries.size(), (statement, entry) -> {
+            statement.setString(1, entry.getScope());
+            statement.setString(2, entry.getScopeKey());
+            statement.setString(3, entry.getAppointmentId());
+            statement.setString(4, entry.getChangeType());
+        });
+    }
+
+    // clock_timestamp() is Postgres only; the local H2 profile falls back to the statement time
+    private String insertSql() {
+        String sql = insertSql;
+        if (sql == null) {
+            boolean postgres = Boolean.TRUE.equals(jdbcTemplate.execute(
+                    (ConnectionCallback<Boolean>) connection -> connection.isWrapperFor(PGConnection.class)));
+            sql = String.format(INSERT_SQL, postgres ? POSTGRES_NOW : STANDARD_NOW);
+            insertSql = sql;
+        }
+        return sql;
+    }
+
+    private static AppointmentChange entry(String scope, String scopeKey, String appointmentId, String changeType) {
+        return AppointmentChange.builder()
+                .scope(scope)
+                .scopeKey(scopeKey)
+                .appointmentId(appointmentId)
+                .changeType(changeType)
+                .build();
+    }
+}
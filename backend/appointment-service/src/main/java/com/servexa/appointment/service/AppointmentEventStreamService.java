@@ -0,0 +1,305 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.AppointmentResponse;
+import com.servexa.appointment.dto.AppointmentStatusEvent;
+import com.servexa.appointment.event.AppointmentChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Pushes appointment status changes to customers and employees over Server-Sent Events.
+ *
+ * <p>Committed changes are sent through {@link AppointmentStatusRelay}, which hands every event
+ * from every replica back to each instance in the same order and under the same cluster-wide
+ * id, so a subscriber sees all changes whichever replica it is connected to, and can resume with
+ * its {@code Last-Event-ID} on any of them.</p>
+ *
+ * <p>Each topic ({@code customer:<id>} or {@code employee:<id>}) is pinned to one of a few
+ * single-threaded dispatch lanes, so publishing never blocks the request that changed the
+ * appointment, events for a topic are delivered in order, and subscribe/replay cannot interleave
+ * with a concurrent dispatch. Emitters hold no servlet thread while idle, so a pod can keep tens
+ * of thousands of them open.</p>
+ */
+@Service
+@Slf4j
+public class AppointmentEventStreamService implements AppointmentStatusRelay.Receiver {
+
+    private static final String EVENT_NAME = "appointment-status";
+
+    private final AppointmentStatusRelay relay;
+    private final long emitterTimeoutMs;
+    private final int replayBufferSize;
+    private final long idleTopicRetentionMs;
+
+    private final Map<String, Topic> topics = new ConcurrentHashMap<>();
+    private final ExecutorService[] lanes;
+
+    // Highest relayed id seen; topics created later cannot replay anything at or before it
+    private volatile long lastEventId;
+    // Resuming from below this id crosses a relay outage and always needs a resync
+    private volatile long gapFloor;
+
+    public AppointmentEventStreamService(
+            AppointmentStatusRelay relay,
+            @Value("${appointment.stream.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+            @Value("${appointment.stream.replay-buffer-size:50}") int replayBufferSize,
+            @Value("${appointment.stream.idle-topic-retention-ms:600000}") long idleTopicRetentionMs,
+            @Value("${appointment.stream.dispatch-lanes:4}") int dispatchLanes) {
+        this.relay = relay;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.replayBufferSize = replayBufferSize;
+        this.idleTopicRetentionMs = idleTopicRetentionMs;
+        this.lanes = new ExecutorService[dispatchLanes];
+        for (int i = 0; i < dispatchLanes; i++) {
+            int lane = i;
+            this.lanes[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "appointment-sse-" + lane);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        relay.setReceiver(this);
+    }
+
+    public SseEmitter subscribeCustomer(String customerId, String lastEventId) {
+        return subscribe("customer:" + customerId, lastEventId);
+    }
+
+    public SseEmitter subscribeEmployee(String employeeId, String lastEventId) {
+        return subscribe("employee:" + employeeId, lastEventId);
+    }
+
+    private SseEmitter subscribe(String topicKey, String lastEventId) {
+        SseEmitter emitter = createEmitter(emitterTimeoutMs);
+        Long resumeAfter = parseEventId(lastEventId);
+
+        emitter.onCompletion(() -> unsubscribe(topicKey, emitter));
+        emitter.onTimeout(() -> unsubscribe(topicKey, emitter));
+        emitter.onError(error -> unsubscribe(topicKey, emitter));
+
+        dispatch(topicKey, () -> {
+            Topic topic = topics.computeIfAbsent(topicKey, key -> new Topic(this.lastEventId));
+            topic.emitters.add(emitter);
+            if (resumeAfter != null) {
+                replay(topicKey, topic, emitter, resumeAfter);
+            }
+        });
+        return emitter;
+    }
+
+    SseEmitter createEmitter(long timeoutMs) {
+        return new SseEmitter(timeoutMs);
+    }
+
+    @TransactionalEventListener
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        if (event.getType() == AppointmentChangedEvent.Type.CREATED) {
+            return;
+        }
+
+        AppointmentResponse appointment = event.getAppointment();
+        AppointmentStatusEvent payload = AppointmentStatusEvent.builder()
+                .type(event.getType().name())
+                .appointmentId(appointment.getId())
+                .customerId(appointment.getCustomerId())
+                .status(appointment.getStatus())
+                .previousStatus(event.getPreviousStatus())
+                .assignedEmployeeId(appointment.getAssignedEmployeeId())
+                .previousEmployeeId(event.getPreviousEmployeeId())
+                .serviceType(appointment.getServiceType())
+                .bookingDateTime(appointment.getBookingDateTime())
+                .occurredAt(event.getOccurredAt())
+                .build();
+        relay.publish(payload);
+    }
+
+    @Override
+    public void deliver(long eventId, AppointmentStatusEvent payload) {
+        lastEventId = Math.max(lastEventId, eventId);
+        publish("customer:" + payload.getCustomerId(), eventId, payload);
+        if (payload.getAssignedEmployeeId() != null) {
+            publish("employee:" + payload.getAssignedEmployeeId(), eventId, payload);
+        }
+        if (payload.getPreviousEmployeeId() != null
+                && !payload.getPreviousEmployeeId().equals(payload.getAssignedEmployeeId())) {
+            publish("employee:" + payload.getPreviousEmployeeId(), eventId, payload);
+        }
+    }
+
+    @Override
+    public void reset() {
+        // Events relayed while the listener was down were missed; resuming across the gap must resync
+        gapFloor = lastEventId + 1;
+        topics.forEach((topicKey, topic) -> dispatch(topicKey, topic.buffer::clear));
+    }
+
+    @Scheduled(fixedRateString = "${appointment.stream.heartbeat-ms:15000}")
+    public void sendHeartbeats() {
+        long now = System.currentTimeMillis();
+        topics.forEach((topicKey, topic) -> dispatch(topicKey, () -> {
+            if (topic.emitters.isEmpty()) {
+                if (now - topic.lastActivity > idleTopicRetentionMs) {
+                    topics.remove(topicKey, topic);
+                }
+                return;
+            }
+            for (SseEmitter emitter : topic.emitters) {
+                send(topicKey, topic, emitter, SseEmitter.event().comment("heartbeat"));
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ExecutorService lane : lanes) {
+            lane.shutdownNow();
+        }
+        topics.values().forEach(topic -> topic.emitters.forEach(SseEmitter::complete));
+    }
+
+    int subscriberCount(String topicKey) {
+        Topic topic = topics.get(topicKey);
+        return topic != null ? topic.emitters.size() : 0;
+    }
+
+    private void publish(String topicKey, long eventId, AppointmentStatusEvent payload) {
+        dispatch(topicKey, () -> {
+            Topic topic = topics.computeIfAbsent(topicKey, key -> new Topic(eventId - 1));
+            topic.append(eventId, payload, replayBufferSize);
+            for (SseEmitter emitter : topic.emitters) {
+                send(topicKey, topic, emitter, toSse(eventId, payload));
+            }
+        });
+    }
+
+    private void replay(String topicKey, Topic topic, SseEmitter emitter, long resumeAfter) {
+        if (resumeAfter < Math.max(topic.replayFloor, gapFloor)) {
+            // Events after the client's last id may have been evicted; tell it to refetch
+            send(topicKey, topic, emitter, SseEmitter.event().name("resync").data("resync"));
+            return;
+        }
+        for (BufferedEvent buffered : topic.eventsAfter(resumeAfter)) {
+            send(topicKey, topic, emitter, toSse(buffered.id, buffered.payload));
+        }
+    }
+
+    private void send(String topicKey, Topic topic, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping SSE subscriber on {}: {}", topicKey, e.getMessage());
+            topic.emitters.remove(emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void unsubscribe(String topicKey, SseEmitter emitter) {
+        Topic topic = topics.get(topicKey);
+        if (topic != null) {
+            topic.emitters.remove(emitter);
+            topic.lastActivity = System.currentTimeMillis();
+        }
+    }
+
+    private void dispatch(String topicKey, Runnable task) {
+        ExecutorService lane = lanes[Math.floorMod(topicKey.hashCode(), lanes.length)];
+        try {
+            lane.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.warn("SSE dispatch rejected for {}", topicKey);
+        }
+    }
+
+    private SseEmitter.SseEventBuilder toSse(long eventId, AppointmentStatusEvent payload) {
+        return SseEmitter.event()
+                .id(Long.toString(eventId))
+                .name(EVENT_NAME)
+                .data(payload);
+    }
+
+    private Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    private static class BufferedEvent {
+
+        private final long id;
+        private final AppointmentStatusEvent payload;
+
+        BufferedEvent(long id, AppointmentStatusEvent payload) {
+            this.id = id;
+            this.payload = payload;
+        }
+    }
+
+    /**
+     * Subscribers and replay history for one customer or employee. Only touched from the topic's
+     * dispatch lane, apart from emitter removal which is safe on the concurrent set.
+     */
+    private static class Topic {
+
+        private final Set<SseEmitter> emitters = ConcurrentHashMap.newKeySet();
+        private final Deque<BufferedEvent> buffer = new ArrayDeque<>();
+        private long replayFloor;
+        private volatile long lastActivity = System.currentTimeMillis();
+
+        Topic(long replayFloor) {
+            this.replayFloor = replayFloor;
+        }
+
+        void append(long eventId, AppointmentStatusEvent payload, int capacity) {
+            buffer.addLast(new BufferedEvent(eventId, payload));
+            while (buffer.size() > capacity) {
+                replayFloor = buffer.removeFirst().id;
+            }
+            lastActivity = System.currentTimeMillis();
+        }
+
+        /**
+         * Events after the given one in delivery (commit) order. Ids are allocated before commit,
+         * so across replicas they can arrive slightly out of numeric order; replaying by position
+         * keeps a late-committed lower id from being skipped.
+         */
+        List<BufferedEvent> eventsAfter(long eventId) {
+            List<BufferedEvent> missed = new ArrayList<>();
+            Iterator<BufferedEvent> iterator = buffer.iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().id == eventId) {
+                    iterator.forEachRemaining(missed::add);
+                    return missed;
+                }
+            }
+            for (BufferedEvent buffered : buffer) {
+                if (buffered.id > eventId) {
+                    missed.add(buffered);
+                }
+            }
+            return missed;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.AppointmentResponse;
+import com.servexa.appointment.entity.AppointmentEvent;
+import com.servexa.appointment.event.AppointmentChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends appointment changes to {@code appointment_events} off the request path. Committed
+ * changes are queued and a single writer thread inserts them as JDBC batches of up to
+ * {@code appointment.events.batch-size} rows, waiting at most
+ * {@code appointment.events.flush-interval-ms} to fill a batch.
+ *
+ * <p>When the queue is full the change is written on the caller's thread instead, so history
+ * is never dropped for being busy. Events still queued when the process dies are lost; the
+ * history is for SLA reporting and is not used to reconstruct appointment state.</p>
+ */
+@Service
+@Slf4j
+public class AppointmentEventWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO appointment_events " +
+            "(appointment_id, event_type, from_status, to_status, employee_id, service_type, occurred_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<AppointmentEvent> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    public AppointmentEventWriter(
+            DataSource dataSource,
+            @Value("${appointment.events.queue-capacity:10000}") int queueCapacity,
+            @Value("${appointment.events.batch-size:200}") int batchSize,
+            @Value("${appointment.events.flush-interval-ms:200}") long flushIntervalMs) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.writerThread = new Thread(this::drainLoop, "appointment-event-writer");
+        this.writerThread.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    @TransactionalEventListener
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        AppointmentEvent record = toRecord(event);
+        if (!queue.offer(record)) {
+            log.warn("Appointment event queue is full; writing event for {} synchronously", record.getAppointmentId());
+            write(List.of(record));
+        }
+    }
+
+    private void drainLoop() {
+        List<AppointmentEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AppointmentEvent first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    AppointmentEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Appointment event writer failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<AppointmentEvent> events) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (statement, event) -> {
+                statement.setString(1, event.getAppointmentId());
+                statement.setString(2, event.getEventType());
+                statement.setString(3, event.getFromStatus());
+                statement.setString(4, event.getToStatus());
+                statement.setString(5, event.getEmployeeId());
+                statement.setString(6, event.getServiceType());
+                statement.setTimestamp(7, Timestamp.valueOf(event.getOccurredAt()));
+            });
+            log.debug("Appended {} appointment events", events.size());
+        } catch (DataAccessException e) {
+            log.error("Failed to append {} appointment events", events.size(), e);
+        }
+    }
+
+    static AppointmentEvent toRecord(AppointmentChangedEvent event) {
+        AppointmentResponse appointment = event.getAppointment();
+        return AppointmentEvent.builder()
+                .appointmentId(appointment.getId())
+                .eventType(event.getType().name())
+                .fromStatus(event.getPreviousStatus())
+                .toStatus(appointment.getStatus())
+                .employeeId(appointment.getAssignedEmployeeId())
+                .serviceType(appointment.getServiceType())
+                .occurredAt(event.getOccurredAt())
+                .build();
+    }
+}
@@ -0,0 +1,337 @@
+package com.servexa.appointment.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.servexa.appointment.dto.AppointmentImportResult;
+import com.servexa.appointment.dto.AppointmentImportRow;
+import com.servexa.appointment.entity.Appointment;
+import com.servexa.common.branch.BranchContext;
+import com.servexa.common.dto.ApiResponse;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk import path for historical appointments migrated from legacy systems.
+ *
+ * <p>Rows are streamed from NDJSON and written in chunks: vehicle types for a chunk are resolved
+ * with one batched call to vehicle-service, then the chunk is persisted in its own transaction
+ * and flushed every {@code hibernate.jdbc.batch_size} rows so inserts go out as JDBC batches.
+ * Unlike {@link AppointmentService#createAppointment}, no notifications or change events are
+ * emitted; the analytics rollups for the imported date range are rebuilt once at the end and
+ * the imported rows are appended to the change feed with each chunk.</p>
+ *
+ * <p>A record that is not valid JSON ends the import: rows before it are still written, the
+ * rollups are rebuilt for everything committed, and the result reports where reading stopped so
+ * the caller can resubmit from that record.</p>
+ */
+@Service
+@Slf4j
+public class AppointmentImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    // vehicle-service rejects /api/vehicles/batch requests above this many ids
+    private static final int VEHICLE_BATCH_LIMIT = 1000;
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final AppointmentAnalyticsService analyticsService;
+    private final AppointmentChangeLog changeLog;
+
+    @Value("${vehicle.service.url:http://localhost:8084}")
+    private String vehicleServiceUrl;
+
+    @Value("${appointment.import.chunk-size:1000}")
+    private int chunkSize = 1000;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}")
+    private int jdbcBatchSize = 500;
+
+    public AppointmentImportService(EntityManager entityManager, PlatformTransactionManager transactionManager,
+                                    RestTemplate restTemplate, ObjectMapper objectMapper,
+                                    AppointmentAnalyticsService analyticsService, AppointmentChangeLog changeLog) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.analyticsService = analyticsService;
+        this.changeLog = changeLog;
+    }
+
+    public AppointmentImportResult importAppointments(InputStream input) throws IOException {
+        long started = System.nanoTime();
+        ImportRun run = new ImportRun();
+
+        try (MappingIterator<AppointmentImportRow> rows =
+                     objectMapper.readerFor(AppointmentImportRow.class).readValues(input)) {
+            List<AppointmentImportRow> chunk = new ArrayList<>(chunkSize);
+            long line = 0;
+            while (hasNext(rows, line + 1, run)) {
+                line++;
+                run.received++;
+                AppointmentImportRow row;
+                try {
+                    row = rows.nextValue();
+                } catch (JsonParseException e) {
+                    // The parser cannot resync past broken JSON; keep what came before and stop
+                    run.stop(line, e.getOriginalMessage());
+                    break;
+                } catch (JsonMappingException e) {
+                    run.reject(line, e.getOriginalMessage());
+                    continue;
+                }
+
+                String error = validate(row);
+                if (error != null) {
+                    run.reject(line, error);
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(chunk, run);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(chunk, run);
+            }
+        } finally {
+            if (run.firstDate != null) {
+                analyticsService.rebuild(run.firstDate, run.lastDate.plusDays(1));
+            }
+        }
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        double rowsPerSecond = run.imported * 1000.0 / elapsedMs;
+        log.info("Imported {} of {} appointments in {} ms ({} rows/sec, {} vehicle lookups)",
+                run.imported, run.received, elapsedMs, String.format("%.0f", rowsPerSecond), run.vehicleLookups);
+
+        return AppointmentImportResult.builder()
+                .received(run.received)
+                .imported(run.imported)
+                .rejected(run.rejected)
+                .vehicleLookups(run.vehicleLookups)
+                .stoppedAtRecord(run.stoppedAtRecord)
+                .elapsedMs(elapsedMs)
+                .rowsPerSecond(rowsPerSecond)
+                .errors(run.errors)
+                .build();
+    }
+
+    private boolean hasNext(MappingIterator<AppointmentImportRow> rows, long line, ImportRun run) throws IOException {
+        try {
+            return rows.hasNextValue();
+        } catch (JsonParseException e) {
+            run.received++;
+            run.stop(line, e.getOriginalMessage());
+            return false;
+        }
+    }
+
+    private void writeChunk(List<AppointmentImportRow> chunk, ImportRun run) {
+        resolveVehicleTypes(chunk, run);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                int pending = 0;
+                List<Appointment> persisted = new ArrayList<>(chunk.size());
+                for (AppointmentImportRow row : chunk) {
+                    Appointment appointment = toEntity(row, run.vehicleTypes);
+                    entityManager.persist(appointment);
+                    persisted.add(appointment);
+                    if (++pending >= jdbcBatchSize) {
+                        entityManager.flush();
+                        entityManager.clear();
+                        pending = 0;
+                    }
+                }
+                entityManager.flush();
+                entityManager.clear();
+                changeLog.recordUpserted(persisted);
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to import chunk of {} appointments", chunk.size(), e);
+            run.rejected += chunk.size();
+            run.addError("Chunk of " + chunk.size() + " rows failed: " + e.getMessage());
+            return;
+        }
+
+        run.imported += chunk.size();
+        for (AppointmentImportRow row : chunk) {
+            LocalDate date = row.getBookingDateTime().toLocalDate();
+            if (run.firstDate == null || date.isBefore(run.firstDate)) {
+                run.firstDate = date;
+            }
+            if (run.lastDate == null || date.isAfter(run.lastDate)) {
+                run.lastDate = date;
+            }
+        }
+    }
+
+    // One vehicle-service round trip per chunk (split at the batch limit); ids already resolved
+    // earlier in the run are skipped
+    private void resolveVehicleTypes(List<AppointmentImportRow> chunk, ImportRun run) {
+        List<Long> missing = new ArrayList<>(missingVehicleIds(chunk, run));
+        for (int from = 0; from < missing.size(); from += VEHICLE_BATCH_LIMIT) {
+            fetchVehicleTypes(missing.subList(from, Math.min(missing.size(), from + VEHICLE_BATCH_LIMIT)), run);
+        }
+    }
+
+    private Set<Long> missingVehicleIds(List<AppointmentImportRow> chunk, ImportRun run) {
+        Set<Long> missing = new LinkedHashSet<>();
+        for (AppointmentImportRow row : chunk) {
+            String vehicleId = row.getVehicleId().trim();
+            if (isBlank(row.getVehicleType()) && !run.vehicleTypes.containsKey(vehicleId)) {
+                try {
+                    missing.add(Long.parseLong(vehicleId));
+                } catch (NumberFormatException e) {
+                    run.vehicleTypes.put(vehicleId, null);
+                }
+            }
+        }
+        return missing;
+    }
+
+    private void fetchVehicleTypes(List<Long> missing, ImportRun run) {
+        run.vehicleLookups++;
+        try {
+            ApiResponse<List<VehicleDto>> response = restTemplate.exchange(
+                    vehicleServiceUrl + "/api/vehicles/batch",
+                    HttpMethod.POST,
+                    new HttpEntity<>(new ArrayList<>(missing)),
+                    new ParameterizedTypeReference<ApiResponse<List<VehicleDto>>>() {}
+            ).getBody();
+            if (response != null && response.getData() != null) {
+                for (VehicleDto vehicle : response.getData()) {
+                    run.vehicleTypes.put(vehicle.getId(),
+                            vehicle.getMake() + " " + vehicle.getModel() + " " + vehicle.getYear());
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Could not fetch vehicle details for {} vehicles", missing.size(), e);
+        }
+        missing.forEach(id -> run.vehicleTypes.putIfAbsent(String.valueOf(id), null));
+    }
+
+    private Appointment toEntity(AppointmentImportRow row, Map<String, String> vehicleTypes) {
+        String vehicleType = row.getVehicleType();
+        if (isBlank(vehicleType)) {
+            vehicleType = vehicleTypes.get(row.getVehicleId().trim());
+            if (vehicleType == null) {
+                vehicleType = "Vehicle ID: " + row.getVehicleId();
+            }
+        }
+
+        Appointment appointment = Appointment.builder()
+                .branchId(BranchContext.current())
+                .customerId(row.getCustomerId())
+                .fullName(row.getFullName())
+                .phoneNumber(row.getPhoneNumber())
+                .vehicleId(row.getVehicleId())
+                .vehicleType(vehicleType)
+                .serviceType(row.getServiceType())
+                .bookingDateTime(row.getBookingDateTime())
+                .additionalNote(row.getAdditionalNote())
+                .paymentMethod(row.getPaymentMethod())
+                .status(isBlank(row.getStatus()) ? "COMPLETED" : row.getStatus().toUpperCase())
+                .isAssigned(!isBlank(row.getAssignedEmployeeId()))
+                .assignedEmployeeId(isBlank(row.getAssignedEmployeeId()) ? null : row.getAssignedEmployeeId())
+                .duration(row.getDuration())
+                .build();
+        // Keep the legacy creation time; BaseEntity only fills it in when absent
+        appointment.setCreatedAt(row.getCreatedAt());
+        return appointment;
+    }
+
+    static String validate(AppointmentImportRow row) {
+        if (isBlank(row.getCustomerId())) {
+            return "Customer ID is required";
+        }
+        if (isBlank(row.getFullName())) {
+            return "Full name is required";
+        }
+        if (isBlank(row.getPhoneNumber())) {
+            return "Phone number is required";
+        }
+        if (isBlank(row.getVehicleId())) {
+            return "Vehicle ID is required";
+        }
+        if (isBlank(row.getServiceType())) {
+            return "Service type is required";
+        }
+        if (row.getBookingDateTime() == null) {
+            return "Booking date and time is required";
+        }
+        if (isBlank(row.getPaymentMethod())) {
+            return "Payment method is required";
+        }
+        if (row.getDuration() == null) {
+            return "Duration is required";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static class ImportRun {
+
+        private long received;
+        private long imported;
+        private long rejected;
+        private long vehicleLookups;
+        private LocalDate firstDate;
+        private LocalDate lastDate;
+        private Long stoppedAtRecord;
+        private final Map<String, String> vehicleTypes = new HashMap<>();
+        private final List<String> errors = new ArrayList<>();
+
+        void reject(long line, String reason) {
+            rejected++;
+            addError("Record " + line + ": " + reason);
+        }
+
+        void stop(long line, String reason) {
+            stoppedAtRecord = line;
+            reject(line, "malformed JSON, import stopped here: " + reason);
+        }
+
+        void addError(String error) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            }
+        }
+    }
+
+    @lombok.Data
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    static class VehicleDto {
+        private String id;
+        private String make;
+        private String model;
+        private Integer year;
+    }
+}
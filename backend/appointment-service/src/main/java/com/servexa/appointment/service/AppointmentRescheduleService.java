@@ -0,0 +1,224 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.AppointmentResponse;
+import com.servexa.appointment.entity.Appointment;
+import com.servexa.appointment.event.AppointmentChangedEvent;
+import com.servexa.appointment.repository.AppointmentRepository;
+import com.servexa.common.branch.BranchContext;
+import com.servexa.common.client.NotificationClient;
+import com.servexa.common.client.NotificationClient.NotificationPriority;
+import com.servexa.common.client.NotificationClient.NotificationType;
+import com.servexa.common.exception.BadRequestException;
+import com.servexa.common.exception.ResourceNotFoundException;
+import com.servexa.common.exception.ServiceUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Moves an appointment to a new time in one transaction: the assigned employee's new slot is
+ * checked for overlap and the old slot is released in the same commit, so the booking is never
+ * briefly absent and the customer gets a single notification instead of a cancel and a rebook.
+ *
+ * <p>Reschedules are serialized per branch and calendar day through a fixed array of lock
+ * stripes. A move holds the stripes of every day its check reads plus the day it leaves, taken
+ * in stripe order so two moves between the same days cannot deadlock, and keeps them until the
+ * transaction has committed. Stripes are in-process and only spare the database the contention
+ * between requests on the same instance. Across instances, the transaction takes a Postgres
+ * advisory lock on each (branch, employee, day) it checks, in key order, before reading the
+ * employee's bookings. The row lock on the moved appointment keeps two instances from moving
+ * the same appointment at once.</p>
+ */
+@Service
+@Slf4j
+public class AppointmentRescheduleService {
+
+    private static final Set<String> RESCHEDULABLE_STATUSES = Set.of("CREATED", "SCHEDULED", "ASSIGNED");
+
+    // Longest booking the overlap check looks back for; matches the duration estimator's bound
+    static final int MAX_DURATION_MINUTES = 24 * 60;
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentService appointmentService;
+    private final NotificationClient notificationClient;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock[] dayLocks;
+    private final long lockTimeoutMs;
+
+    public AppointmentRescheduleService(
+            AppointmentRepository appointmentRepository,
+            AppointmentService appointmentService,
+            NotificationClient notificationClient,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${appointment.reschedule.lock-stripes:64}") int lockStripes,
+            @Value("${appointment.reschedule.lock-timeout-ms:5000}") long lockTimeoutMs) {
+        this.appointmentRepository = appointmentRepository;
+        this.appointmentService = appointmentService;
+        this.notificationClient = notificationClient;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lockTimeoutMs = lockTimeoutMs;
+        this.dayLocks = new ReentrantLock[lockStripes];
+        for (int i = 0; i < lockStripes; i++) {
+            dayLocks[i] = new ReentrantLock();
+        }
+    }
+
+    public AppointmentResponse reschedule(String appointmentId, LocalDateTime newBookingDateTime) {
+        // Read outside the locks only to learn which days to lock; everything is re-checked inside
+        String branchId = BranchContext.current();
+        Appointment current = appointmentRepository.findByBranchIdAndId(branchId, appointmentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Appointment not found with ID: " + appointmentId));
+        LocalDateTime newEnd = newBookingDateTime.plusMinutes(current.getDuration());
+
+        List<ReentrantLock> held = lockDays(branchId, current.getBookingDateTime(),
+                newBookingDateTime.minusMinutes(MAX_DURATION_MINUTES), newEnd);
+        Moved moved;
+        try {
+            moved = transactionTemplate.execute(tx -> move(branchId, appointmentId, newBookingDateTime));
+        } finally {
+            for (int i = held.size() - 1; i >= 0; i--) {
+                held.get(i).unlock();
+            }
+        }
+
+        log.info("Rescheduled appointment {} from {} to {}", appointmentId, moved.previousBookingDateTime,
+                newBookingDateTime);
+        notifyCustomer(moved.response, moved.previousBookingDateTime);
+        return moved.response;
+    }
+
+    private Moved move(String branchId, String appointmentId, LocalDateTime newStart) {
+        Appointment appointment = appointmentRepository.findByBranchIdAndIdForUpdate(branchId, appointmentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Appointment not found with ID: " + appointmentId));
+        if (!RESCHEDULABLE_STATUSES.contains(appointment.getStatus().toUpperCase())) {
+            throw new BadRequestException("Appointments in status " + appointment.getStatus() + " cannot be rescheduled");
+        }
+        LocalDateTime previousStart = appointment.getBookingDateTime();
+        if (previousStart.equals(newStart)) {
+            throw new BadRequestException("Appointment is already booked for " + newStart);
+        }
+
+        LocalDateTime newEnd = newStart.plusMinutes(appointment.getDuration());
+        if (appointment.getAssignedEmployeeId() != null) {
+            LocalDateTime checkFrom = newStart.minusMinutes(MAX_DURATION_MINUTES);
+            for (String key : employeeDayKeys(appointment.getBranchId(), appointment.getAssignedEmployeeId(),
+                    previousStart, checkFrom, newEnd)) {
+                appointmentRepository.lockEmployeeDay(key);
+            }
+            List<Appointment> candidates = appointmentRepository.findEmployeeBookingsBetween(
+                    appointment.getBranchId(), appointment.getAssignedEmployeeId(),
+                    EmployeeScheduleService.CLOSED_STATUSES, checkFrom, newEnd);
+            for (Appointment other : candidates) {
+                if (!other.getId().equals(appointmentId)
+                        && overlaps(newStart, newEnd, other.getBookingDateTime(), other.getDuration())) {
+                    throw new BadRequestException("Employee " + appointment.getAssignedEmployeeId()
+                            + " is already booked at " + other.getBookingDateTime());
+                }
+            }
+        }
+
+        appointment.setBookingDateTime(newStart);
+        appointment = appointmentRepository.save(appointment);
+        AppointmentResponse response = appointmentService.mapToResponse(appointment);
+        eventPublisher.publishEvent(AppointmentChangedEvent.rescheduled(response, previousStart));
+        return new Moved(response, previousStart);
+    }
+
+    static boolean overlaps(LocalDateTime start, LocalDateTime end, LocalDateTime otherStart, Integer otherDuration) {
+        LocalDateTime otherEnd = otherStart.plusMinutes(otherDuration != null ? otherDuration : 0);
+        return otherStart.isBefore(end) && otherEnd.isAfter(start);
+    }
+
+    // Sorted, so two instances locking overlapping days take them in the same order
+    static SortedSet<String> employeeDayKeys(String branchId, String employeeId, LocalDateTime previousStart,
+                                             LocalDateTime checkFrom, LocalDateTime checkTo) {
+        SortedSet<String> keys = new TreeSet<>();
+        keys.add(branchId + "|" + employeeId + "|" + previousStart.toLocalDate());
+        for (LocalDate day = checkFrom.toLocalDate(); !day.isAfter(checkTo.toLocalDate()); day = day.plusDays(1)) {
+            keys.add(branchId + "|" + employeeId + "|" + day);
+        }
+        return keys;
+    }
+
+    private List<ReentrantLock> lockDays(String branchId, LocalDateTime previousStart,
+                                         LocalDateTime checkFrom, LocalDateTime checkTo) {
+        TreeSet<Integer> stripes = new TreeSet<>();
+        stripes.add(stripe(branchId, previousStart.toLocalDate()));
+        for (LocalDate day = checkFrom.toLocalDate(); !day.isAfter(checkTo.toLocalDate()); day = day.plusDays(1)) {
+            stripes.add(stripe(branchId, day));
+        }
+
+        List<ReentrantLock> held = new ArrayList<>(stripes.size());
+        try {
+            for (int stripe : stripes) {
+                ReentrantLock lock = dayLocks[stripe];
+                if (!lock.tryLock(lockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    throw new ServiceUnavailableException("Schedule is busy, please retry the reschedule", 1);
+                }
+                held.add(lock);
+            }
+            return held;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for the schedule", 1);
+        } catch (RuntimeException e) {
+            for (int i = held.size() - 1; i >= 0; i--) {
+                held.get(i).unlock();
+            }
+            throw e;
+        }
+    }
+
+    private int stripe(String branchId, LocalDate day) {
+        return Math.floorMod((branchId + "|" + day).hashCode(), dayLocks.length);
+    }
+
+    private void notifyCustomer(AppointmentResponse appointment, LocalDateTime previousBookingDateTime) {
+        try {
+            String message = String.format("Your appointment for %s has been moved from %s to %s.",
+                    appointment.getServiceType(),
+                    previousBookingDateTime.toString(),
+                    appointment.getBookingDateTime().toString());
+            notificationClient.sendNotification(
+                    appointment.getCustomerId(),
+                    "Appointment Rescheduled",
+                    message,
+                    NotificationType.APPOINTMENT_RESCHEDULED,
+                    NotificationPriority.HIGH,
+                    Map.of("appointmentId", appointment.getId(),
+                           "previousBookingDateTime", previousBookingDateTime.toString(),
+                           "bookingDateTime", appointment.getBookingDateTime().toString())
+            );
+        } catch (Exception e) {
+            log.error("Failed to send notification for rescheduled appointment: {}", appointment.getId(), e);
+        }
+    }
+
+    private static class Moved {
+
+        private final AppointmentResponse response;
+        private final LocalDateTime previousBookingDateTime;
+
+        Moved(AppointmentResponse response, LocalDateTime previousBookingDateTime) {
+            this.response = response;
+            this.previousBookingDateTime = previousBookingDateTime;
+        }
+    }
+}
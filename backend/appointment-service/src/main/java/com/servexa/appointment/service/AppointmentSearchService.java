@@ -0,0 +1,166 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.AppointmentSearchHit;
+import com.servexa.appointment.dto.AppointmentSearchResponse;
+import com.servexa.common.branch.BranchContext;
+import com.servexa.common.exception.BadRequestException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Ranked substring search over name, phone, vehicle and notes within the current branch, served
+ * by the pg_trgm GIN indexes created in {@code SearchIndexInitializer}.
+ *
+ * <p>Each field is filtered with {@code ILIKE '%term%'}, which the trigram indexes answer with a
+ * bitmap scan, and matches are ranked by trigram similarity with prefix and phone matches
+ * boosted. Pages are fetched by keyset on {@code (score, id)}: the cursor of a page carries
+ * the score and id of its last hit and the next page starts strictly after it, so deep pages
+ * cost the same as the first and rows do not repeat or go missing between pages. One extra row
+ * is fetched to report {@code hasNext}, so no count over the whole match set is needed.</p>
+ */
+@Service
+@Slf4j
+public class AppointmentSearchService {
+
+    // Shorter terms have no trigram to look up and would scan the table
+    static final int MIN_TERM_LENGTH = 3;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final String TEXT_SCORE =
+            "similarity(full_name, :term) + CASE WHEN full_name ILIKE :prefix THEN 0.5 ELSE 0 END, " +
+            "COALESCE(similarity(vehicle_type, :term), 0), " +
+            "COALESCE(word_similarity(:term, additional_note), 0) * 0.8";
+
+    private static final String TEXT_MATCH =
+            "full_name ILIKE :pattern OR vehicle_type ILIKE :pattern OR additional_note ILIKE :pattern";
+
+    // The phone branch is only added for digit queries so each variant gets its own plan and
+    // the planner can combine the per-column GIN indexes with a BitmapOr
+    private static final String PHONE_SCORE = TEXT_SCORE + ", CASE WHEN phone_digits LIKE :digitsPattern THEN 1.0 ELSE 0 END";
+    private static final String PHONE_MATCH = TEXT_MATCH + " OR phone_digits LIKE :digitsPattern";
+
+    private static final String TEXT_SEARCH_SQL = searchSql(TEXT_SCORE, TEXT_MATCH, false);
+    private static final String TEXT_SEARCH_AFTER_SQL = searchSql(TEXT_SCORE, TEXT_MATCH, true);
+    private static final String PHONE_SEARCH_SQL = searchSql(PHONE_SCORE, PHONE_MATCH, false);
+    private static final String PHONE_SEARCH_AFTER_SQL = searchSql(PHONE_SCORE, PHONE_MATCH, true);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public AppointmentSearchService(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    @Transactional(readOnly = true)
+    public AppointmentSearchResponse search(String query, String cursor, int size) {
+        String term = query == null ? "" : query.trim();
+        String digits = term.replaceAll("[^0-9]", "");
+        if (term.length() < MIN_TERM_LENGTH) {
+            throw new BadRequestException("Search term must be at least " + MIN_TERM_LENGTH + " characters");
+        }
+        Cursor after = Cursor.decode(cursor);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        String escaped = escapeLike(term);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("branchId", BranchContext.current())
+                .addValue("term", term)
+                .addValue("pattern", "%" + escaped + "%")
+                .addValue("prefix", escaped + "%")
+                .addValue("digitsPattern", "%" + digits + "%")
+                .addValue("limit", pageSize + 1);
+        if (after != null) {
+            params.addValue("afterScore", after.score).addValue("afterId", after.id);
+        }
+
+        // Only treat the query as a phone search when it is mostly digits
+        boolean phoneSearch = digits.length() >= MIN_TERM_LENGTH && digits.length() * 2 >= term.length();
+        String sql = phoneSearch
+                ? (after != null ? PHONE_SEARCH_AFTER_SQL : PHONE_SEARCH_SQL)
+                : (after != null ? TEXT_SEARCH_AFTER_SQL : TEXT_SEARCH_SQL);
+        List<AppointmentSearchHit> hits = jdbcTemplate.query(sql, params, (rs, rowNum) -> {
+            Timestamp bookingDateTime = rs.getTimestamp("booking_date_time");
+            return AppointmentSearchHit.builder()
+                    .id(rs.getString("id"))
+                    .customerId(rs.getString("customer_id"))
+                    .fullName(rs.getString("full_name"))
+                    .phoneNumber(rs.getString("phone_number"))
+                    .vehicleId(rs.getString("vehicle_id"))
+                    .vehicleType(rs.getString("vehicle_type"))
+                    .serviceType(rs.getString("service_type"))
+                    .bookingDateTime(bookingDateTime != null ? bookingDateTime.toLocalDateTime() : null)
+                    .status(rs.getString("status"))
+                    .assignedEmployeeId(rs.getString("assigned_employee_id"))
+                    .additionalNote(rs.getString("additional_note"))
+                    .score(rs.getDouble("score"))
+                    .build();
+        });
+
+        boolean hasNext = hits.size() > pageSize;
+        List<AppointmentSearchHit> results = hasNext ? hits.subList(0, pageSize) : hits;
+        AppointmentSearchHit last = hasNext ? results.get(results.size() - 1) : null;
+        return AppointmentSearchResponse.builder()
+                .query(term)
+                .size(pageSize)
+                .hasNext(hasNext)
+                .nextCursor(last != null ? new Cursor(last.getScore(), last.getId()).encode() : null)
+                .results(results)
+                .build();
+    }
+
+    // The score is cast to double precision so the value in a cursor compares exactly on the next page
+    private static String searchSql(String scores, String match, boolean afterCursor) {
+        return "SELECT * FROM (" +
+                "SELECT id, customer_id, full_name, phone_number, vehicle_id, vehicle_type, service_type, " +
+                "booking_date_time, status, assigned_employee_id, additional_note, " +
+                "CAST(GREATEST(" + scores + ") AS DOUBLE PRECISION) AS score " +
+                "FROM appointments WHERE branch_id = :branchId AND (" + match + ")) hits " +
+                (afterCursor ? "WHERE score < :afterScore OR (score = :afterScore AND id > :afterId) " : "") +
+                "ORDER BY score DESC, id " +
+                "LIMIT :limit";
+    }
+
+    static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Position after the last hit of a page, passed to clients as an opaque URL-safe token.
+     */
+    static final class Cursor {
+
+        private final double score;
+        private final String id;
+
+        Cursor(double score, String id) {
+            this.score = score;
+            this.id = id;
+        }
+
+        String encode() {
+            String raw = score + ":" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String token) {
+            if (token == null || token.isBlank()) {
+                return null;
+            }
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+                int separator = raw.indexOf(':');
+                return new Cursor(Double.parseDouble(raw.substring(0, separator)), raw.substring(separator + 1));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new BadRequestException("Invalid search cursor");
+            }
+        }
+    }
+}
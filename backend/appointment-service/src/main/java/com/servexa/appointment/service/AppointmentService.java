@@ -1,22 +1,34 @@
 package com.servexa.appointment.service;
 
+import com.servexa.appointment.dto.AppointmentBatchResponse;
 import com.servexa.appointment.dto.AppointmentRequest;
 import com.servexa.appointment.dto.AppointmentResponse;
+import com.servexa.appointment.dto.ServiceCatalogEntryResponse;
 import com.servexa.appointment.entity.Appointment;
+import com.servexa.appointment.event.AppointmentChangedEvent;
+import com.servexa.appointment.repository.AppointmentJobView;
 import com.servexa.appointment.repository.AppointmentRepository;
+import com.servexa.appointment.repository.AppointmentSummary;
+import com.servexa.common.branch.BranchContext;
 import com.servexa.common.client.NotificationClient;
 import com.servexa.common.client.NotificationClient.NotificationType;
 import com.servexa.common.client.NotificationClient.NotificationPriority;
+import com.servexa.common.exception.BadRequestException;
 import com.servexa.common.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.beans.factory.annotation.Value;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,6 +40,10 @@ public class AppointmentService {
     private final AppointmentRepository appointmentRepository;
     private final RestTemplate restTemplate;
     private final NotificationClient notificationClient;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AppointmentArchiveService appointmentArchiveService;
+    private final ServiceCatalogService catalogService;
+    private final DurationEstimateService durationEstimateService;
     
     @Value("${vehicle.service.url:http://localhost:8084}")
     private String vehicleServiceUrl;
@@ -35,6 +51,12 @@ public class AppointmentService {
     public AppointmentResponse createAppointment(AppointmentRequest request) {
         log.info("Creating new appointment for customer: {}", request.getCustomerId());
 
+        // Validated against the in-memory catalog snapshot; no database round trip
+        ServiceCatalogEntryResponse catalogEntry = catalogService.requireBookable(request.getServiceType());
+        if (request.getDuration() == null && catalogEntry == null) {
+            throw new BadRequestException("Duration is required");
+        }
+
         // Fetch vehicle details from vehicle service
         String vehicleType = request.getVehicleType();
         if (vehicleType == null || vehicleType.isEmpty()) {
@@ -53,7 +75,10 @@ public class AppointmentService {
             }
         }
 
+        Integer duration = resolveDuration(request, catalogEntry, vehicleType);
+
         Appointment appointment = Appointment.builder()
+                .branchId(BranchContext.current())
                 .customerId(request.getCustomerId())
                 .fullName(request.getFullName())
                 .phoneNumber(request.getPhoneNumber())
@@ -65,11 +90,14 @@ public class AppointmentService {
                 .paymentMethod(request.getPaymentMethod())
                 .status("CREATED")
                 .isAssigned(false)
-                .duration(request.getDuration())
+                .duration(duration)
+                .price(catalogEntry != null ? catalogEntry.getPrice() : catalogService.priceFor(request.getServiceType()))
                 .build();
 
         appointment = appointmentRepository.save(appointment);
         log.info("Appointment created successfully with ID: {}", appointment.getId());
+        AppointmentResponse response = mapToResponse(appointment);
+        eventPublisher.publishEvent(AppointmentChangedEvent.created(response));
         
         // Send notification to customer
         try {
@@ -93,35 +121,74 @@ public class AppointmentService {
             // Don't fail the appointment creation if notification fails
         }
 
-        return mapToResponse(appointment);
+        return response;
     }
 
+    @Transactional(readOnly = true)
     public AppointmentResponse getAppointmentById(String id) {
         log.info("Fetching appointment with ID: {}", id);
-        Appointment appointment = appointmentRepository.findById(id)
+        Appointment appointment = appointmentRepository.findByBranchIdAndId(BranchContext.current(), id)
                 .orElseThrow(() -> new ResourceNotFoundException("Appointment not found with ID: " + id));
         return mapToResponse(appointment);
     }
 
+    // Stays cross-branch: other services resolve appointment ids without a branch, so this probes
+    // idx_appointments_id on every partition instead of pruning to one
+    @Transactional(readOnly = true)
+    public AppointmentBatchResponse getAppointmentsByIds(List<String> ids) {
+        log.info("Fetching {} appointments by ID", ids.size());
+        Set<String> requested = new LinkedHashSet<>(ids);
+        Map<String, Appointment> found = appointmentRepository.findAllById(requested).stream()
+                .collect(Collectors.toMap(Appointment::getId, appointment -> appointment));
+
+        List<AppointmentResponse> appointments = new ArrayList<>(found.size());
+        List<String> notFound = new ArrayList<>();
+        for (String id : requested) {
+            Appointment appointment = found.get(id);
+            if (appointment != null) {
+                appointments.add(mapToResponse(appointment));
+            } else {
+                notFound.add(id);
+            }
+        }
+        return AppointmentBatchResponse.builder()
+                .appointments(appointments)
+                .notFound(notFound)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
     public List<AppointmentResponse> getAppointmentsByCustomerId(String customerId) {
         log.info("Fetching appointments for customer ID: {}", customerId);
-        return appointmentRepository.findByCustomerId(customerId)
+        List<AppointmentResponse> appointments = appointmentRepository.findSummariesByCustomerId(customerId)
                 .stream()
                 .map(this::mapToResponse)
-                .collect(Collectors.toList());
+                .collect(Collectors.toCollection(ArrayList::new));
+
+        // An archive chunk committing between the two reads can show a row in both; the hot copy wins
+        Set<String> hotIds = appointments.stream().map(AppointmentResponse::getId).collect(Collectors.toSet());
+        for (AppointmentResponse archived : appointmentArchiveService.findByCustomerId(customerId)) {
+            if (!hotIds.contains(archived.getId())) {
+                archived.setAdditionalNote(null);
+                appointments.add(archived);
+            }
+        }
+        return appointments;
     }
 
+    @Transactional(readOnly = true)
     public List<AppointmentResponse> getAppointmentsByEmployeeId(String employeeId) {
         log.info("Fetching appointments for employee ID: {}", employeeId);
-        return appointmentRepository.findByAssignedEmployeeId(employeeId)
+        return appointmentRepository.findJobViewsByBranchIdAndAssignedEmployeeId(BranchContext.current(), employeeId)
                 .stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<AppointmentResponse> getUnassignedAppointments() {
         log.info("Fetching unassigned appointments");
-        return appointmentRepository.findByIsAssigned(false)
+        return appointmentRepository.findSummariesByBranchIdAndIsAssigned(BranchContext.current(), false)
                 .stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
@@ -129,12 +196,20 @@ public class AppointmentService {
 
     public AppointmentResponse updateAppointmentStatus(String id, String status) {
         log.info("Updating appointment {} status to: {}", id, status);
-        Appointment appointment = appointmentRepository.findById(id)
+        Appointment appointment = appointmentRepository.findByBranchIdAndId(BranchContext.current(), id)
                 .orElseThrow(() -> new ResourceNotFoundException("Appointment not found with ID: " + id));
 
         String previousStatus = appointment.getStatus();
         appointment.setStatus(status);
+        if ("IN_PROGRESS".equalsIgnoreCase(status) && appointment.getStartedAt() == null) {
+            appointment.setStartedAt(LocalDateTime.now());
+        }
+        if ("COMPLETED".equalsIgnoreCase(status) && appointment.getPrice() == null) {
+            appointment.setPrice(catalogService.priceFor(appointment.getServiceType()));
+        }
         appointment = appointmentRepository.save(appointment);
+        AppointmentResponse response = mapToResponse(appointment);
+        eventPublisher.publishEvent(AppointmentChangedEvent.statusChanged(response, previousStatus));
         
         // Send notification based on status change
         try {
@@ -182,41 +257,57 @@ public class AppointmentService {
             log.error("Failed to send notification for appointment status update: {}", appointment.getId(), e);
         }
 
-        return mapToResponse(appointment);
+        return response;
     }
 
     public AppointmentResponse assignEmployee(String appointmentId, String employeeId) {
         log.info("Assigning employee {} to appointment {}", employeeId, appointmentId);
-        Appointment appointment = appointmentRepository.findById(appointmentId)
+        Appointment appointment = appointmentRepository.findByBranchIdAndId(BranchContext.current(), appointmentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Appointment not found with ID: " + appointmentId));
 
+        String previousStatus = appointment.getStatus();
+        String previousEmployeeId = appointment.getAssignedEmployeeId();
         appointment.setAssignedEmployeeId(employeeId);
         appointment.setIsAssigned(true);
         appointment.setStatus("ASSIGNED");
         appointment = appointmentRepository.save(appointment);
 
-        return mapToResponse(appointment);
+        AppointmentResponse response = mapToResponse(appointment);
+        eventPublisher.publishEvent(AppointmentChangedEvent.assigned(response, previousStatus, previousEmployeeId));
+        return response;
     }
 
+    @Transactional(readOnly = true)
     public List<AppointmentResponse> getAllAppointments() {
         log.info("Fetching all appointments");
-        List<Appointment> appointments = appointmentRepository.findAll();
+        List<AppointmentSummary> appointments = appointmentRepository.findSummariesByBranchId(BranchContext.current());
         return appointments.stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<AppointmentResponse> getAppointmentsByStatus(String status) {
         log.info("Fetching appointments with status: {}", status);
-        List<Appointment> appointments = appointmentRepository.findByStatus(status);
+        List<AppointmentSummary> appointments = appointmentRepository.findSummariesByBranchIdAndStatus(BranchContext.current(), status);
         return appointments.stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
-    private AppointmentResponse mapToResponse(Appointment appointment) {
+    // Learned completion times win over typed durations, which tend to be optimistic; the catalog default is the fallback
+    private Integer resolveDuration(AppointmentRequest request, ServiceCatalogEntryResponse catalogEntry, String vehicleType) {
+        Integer estimated = durationEstimateService.slotMinutes(request.getServiceType(), vehicleType);
+        if (estimated != null && estimated > 0) {
+            return estimated;
+        }
+        return request.getDuration() != null ? request.getDuration() : catalogEntry.getDefaultDuration();
+    }
+
+    AppointmentResponse mapToResponse(Appointment appointment) {
         return AppointmentResponse.builder()
                 .id(appointment.getId())
+                .branchId(appointment.getBranchId())
                 .customerId(appointment.getCustomerId())
                 .fullName(appointment.getFullName())
                 .phoneNumber(appointment.getPhoneNumber())
@@ -230,11 +321,39 @@ public class AppointmentService {
                 .isAssigned(appointment.getIsAssigned())
                 .assignedEmployeeId(appointment.getAssignedEmployeeId())
                 .duration(appointment.getDuration())
+                .startedAt(appointment.getStartedAt())
+                .price(appointment.getPrice())
+                .maintenancePlanId(appointment.getMaintenancePlanId())
                 .createdAt(appointment.getCreatedAt())
                 .updatedAt(appointment.getUpdatedAt())
                 .build();
     }
     
+    AppointmentResponse mapToResponse(AppointmentSummary appointment) {
+        return AppointmentResponse.builder()
+                .id(appointment.getId())
+                .branchId(appointment.getBranchId())
+                .customerId(appointment.getCustomerId())
+                .fullName(appointment.getFullName())
+                .phoneNumber(appointment.getPhoneNumber())
+                .vehicleId(appointment.getVehicleId())
+                .vehicleType(appointment.getVehicleType())
+                .serviceType(appointment.getServiceType())
+                .bookingDateTime(appointment.getBookingDateTime())
+                .additionalNote(appointment instanceof AppointmentJobView job ? job.getAdditionalNote() : null)
+                .paymentMethod(appointment.getPaymentMethod())
+                .status(appointment.getStatus())
+                .isAssigned(appointment.getIsAssigned())
+                .assignedEmployeeId(appointment.getAssignedEmployeeId())
+                .duration(appointment.getDuration())
+                .startedAt(appointment.getStartedAt())
+                .price(appointment.getPrice())
+                .maintenancePlanId(appointment.getMaintenancePlanId())
+                .createdAt(appointment.getCreatedAt())
+                .updatedAt(appointment.getUpdatedAt())
+                .build();
+    }
+
     // Inner class for vehicle response
     @lombok.Data
     @lombok.NoArgsConstructor
@@ -0,0 +1,209 @@
+package com.servexa.appointment.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.servexa.appointment.dto.AppointmentStatusEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Carries appointment status events between replicas over Postgres {@code LISTEN/NOTIFY}, so an
+ * SSE subscriber sees changes committed on any instance, not just the one it is connected to.
+ *
+ * <p>Every event is numbered from the shared {@code appointment_stream_event_seq} sequence as it
+ * is sent, and Postgres delivers notifications to every listener in commit order, so all replicas
+ * see the same events in the same order under the same ids and a {@code Last-Event-ID} issued by
+ * one replica is meaningful to the others. Notifications are sent after commit from a single
+ * background thread, which keeps the request thread free and the instance's own events in order.
+ * The listening connection is opened straight from the datasource URL rather than borrowed from
+ * the pool, since it is held for the life of the instance and would otherwise cost the pool a
+ * connection for good.
+ * When the listening connection drops, the receiver is told to {@link Receiver#reset() reset},
+ * since anything sent while it was down was missed.</p>
+ *
+ * <p>Against a database other than Postgres (the local H2 profile) events are delivered in-process
+ * with a local counter.</p>
+ */
+@Component
+@Slf4j
+public class AppointmentStatusRelay {
+
+    static final String CHANNEL = "appointment_status";
+
+    private static final String SEQUENCE = "appointment_stream_event_seq";
+    private static final String NOTIFY_SQL =
+            "SELECT pg_notify('" + CHANNEL + "', nextval('" + SEQUENCE + "') || ':' || ?)";
+
+    /** Consumer of relayed events, called once per event as it arrives on this instance. */
+    public interface Receiver {
+
+        void deliver(long eventId, AppointmentStatusEvent event);
+
+        void reset();
+    }
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final long pollTimeoutMs;
+    private final long reconnectDelayMs;
+
+    private final ExecutorService publisher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "appointment-relay-publish");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong localSequence = new AtomicLong(System.currentTimeMillis());
+
+    private volatile Receiver receiver;
+    private volatile boolean postgres;
+    private volatile boolean running;
+    private Thread listener;
+
+    public AppointmentStatusRelay(
+            DataSource dataSource,
+            ObjectMapper objectMapper,
+            @Value("${spring.datasource.url}") String url,
+            @Value("${spring.datasource.username:}") String username,
+            @Value("${spring.datasource.password:}") String password,
+            @Value("${appointment.stream.relay-poll-timeout-ms:5000}") long pollTimeoutMs,
+            @Value("${appointment.stream.relay-reconnect-delay-ms:2000}") long reconnectDelayMs) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.objectMapper = objectMapper;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.pollTimeoutMs = pollTimeoutMs;
+        this.reconnectDelayMs = reconnectDelayMs;
+    }
+
+    public void setReceiver(Receiver receiver) {
+        this.receiver = receiver;
+    }
+
+    @PostConstruct
+    public void start() {
+        try (Connection connection = dataSource.getConnection()) {
+            postgres = connection.isWrapperFor(PGConnection.class);
+        } catch (SQLException e) {
+            log.warn("Could not inspect the database for the status relay, assuming Postgres: {}", e.getMessage());
+            postgres = true;
+        }
+        if (!postgres) {
+            log.info("Appointment status relay is running in-process; events stay on this instance");
+            return;
+        }
+        try {
+            jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + SEQUENCE);
+        } catch (DataAccessException e) {
+            log.warn("Could not create {}: {}", SEQUENCE, e.getMostSpecificCause().getMessage());
+        }
+        running = true;
+        listener = new Thread(this::listenLoop, "appointment-relay-listen");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        publisher.shutdown();
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    public void publish(AppointmentStatusEvent event) {
+        if (!postgres) {
+            deliver(localSequence.incrementAndGet(), event);
+            return;
+        }
+        try {
+            publisher.execute(() -> send(event));
+        } catch (RejectedExecutionException e) {
+            log.warn("Status relay is shut down; dropping event for appointment {}", event.getAppointmentId());
+        }
+    }
+
+    private void send(AppointmentStatusEvent event) {
+        try {
+            jdbcTemplate.queryForObject(NOTIFY_SQL, Object.class, objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException | DataAccessException e) {
+            log.warn("Failed to relay status event for appointment {}: {}", event.getAppointmentId(), e.getMessage());
+        }
+    }
+
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                log.info("Listening for appointment status events on {}", CHANNEL);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeoutMs);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        receive(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Status relay connection lost, reconnecting in {} ms: {}", reconnectDelayMs, e.getMessage());
+                Receiver current = receiver;
+                if (current != null) {
+                    current.reset();
+                }
+                try {
+                    Thread.sleep(reconnectDelayMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    void receive(String payload) {
+        int separator = payload.indexOf(':');
+        try {
+            long eventId = Long.parseLong(payload.substring(0, separator));
+            deliver(eventId, objectMapper.readValue(payload.substring(separator + 1), AppointmentStatusEvent.class));
+        } catch (RuntimeException | JsonProcessingException e) {
+            log.warn("Ignoring malformed status notification: {}", e.getMessage());
+        }
+    }
+
+    private void deliver(long eventId, AppointmentStatusEvent event) {
+        Receiver current = receiver;
+        if (current != null) {
+            current.deliver(eventId, event);
+        }
+    }
+}
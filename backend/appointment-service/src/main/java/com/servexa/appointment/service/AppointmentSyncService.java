@@ -0,0 +1,135 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.AppointmentChangesResponse;
+import com.servexa.appointment.dto.AppointmentResponse;
+import com.servexa.appointment.entity.Appointment;
+import com.servexa.appointment.entity.AppointmentChange;
+import com.servexa.appointment.repository.AppointmentChangeRepository;
+import com.servexa.appointment.repository.AppointmentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Serves the appointment change feed so clients can stay current in O(changes) instead of
+ * refetching whole lists.
+ *
+ * <p>The cursor is the feed's {@code seq}. Sequence numbers are taken just before commit, so a
+ * transaction can commit after one holding a later number; entries younger than
+ * {@code appointment.sync.settle-ms} are therefore held back until every earlier number has
+ * either committed or rolled back. Entry age is measured on the database clock, which stamped the
+ * entries, so clock drift between replicas does not shorten the window. A client without a
+ * cursor, or whose cursor predates the retained feed, gets a full list with {@code fullResync}
+ * set.</p>
+ */
+@Service
+@Slf4j
+public class AppointmentSyncService {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final AppointmentChangeRepository changeRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentService appointmentService;
+    private final AppointmentChangeLog changeLog;
+    private final long settleMs;
+
+    public AppointmentSyncService(AppointmentChangeRepository changeRepository,
+                                  AppointmentRepository appointmentRepository,
+                                  AppointmentService appointmentService,
+                                  AppointmentChangeLog changeLog,
+                                  @Value("${appointment.sync.settle-ms:2000}") long settleMs) {
+        this.changeRepository = changeRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.appointmentService = appointmentService;
+        this.changeLog = changeLog;
+        this.settleMs = settleMs;
+    }
+
+    @Transactional(readOnly = true)
+    public AppointmentChangesResponse getCustomerChanges(String customerId, Long cursor, int limit) {
+        // Archived appointments stay in the customer's history, so a missing row is not a delete
+        return changes(AppointmentChangeLog.SCOPE_CUSTOMER, customerId, cursor, limit, false,
+                () -> appointmentService.getAppointmentsByCustomerId(customerId));
+    }
+
+    @Transactional(readOnly = true)
+    public AppointmentChangesResponse getEmployeeChanges(String employeeId, Long cursor, int limit) {
+        return changes(AppointmentChangeLog.SCOPE_EMPLOYEE, employeeId, cursor, limit, true,
+                () -> appointmentService.getAppointmentsByEmployeeId(employeeId));
+    }
+
+    private AppointmentChangesResponse changes(String scope, String scopeKey, Long cursor, int limit,
+                                               boolean missingIsDeleted, Supplier<List<AppointmentResponse>> fullList) {
+        LocalDateTime settledBefore = changeLog.databaseNow().minusNanos(settleMs * 1_000_000);
+        if (cursor == null || isPruned(cursor)) {
+            // Read the high-water mark first; anything changed while the list is read is resent next time
+            Long highWaterMark = changeRepository.findHighWaterMark(settledBefore);
+            return AppointmentChangesResponse.builder()
+                    .appointments(fullList.get())
+                    .deletedIds(List.of())
+                    .cursor(highWaterMark != null ? highWaterMark : 0L)
+                    .fullResync(true)
+                    .build();
+        }
+
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<AppointmentChange> page = changeRepository.findChangesAfter(scope, scopeKey, cursor, settledBefore,
+                PageRequest.of(0, boundedLimit + 1));
+        boolean hasMore = page.size() > boundedLimit;
+        if (hasMore) {
+            page = page.subList(0, boundedLimit);
+        }
+
+        // Only the latest change per appointment matters; re-inserting keeps the order of last change
+        Map<String, String> latest = new LinkedHashMap<>();
+        for (AppointmentChange change : page) {
+            latest.remove(change.getAppointmentId());
+            latest.put(change.getAppointmentId(), change.getChangeType());
+        }
+        List<String> upsertedIds = latest.entrySet().stream()
+                .filter(entry -> AppointmentChangeLog.UPSERT.equals(entry.getValue()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        Map<String, Appointment> current = upsertedIds.isEmpty() ? Map.of()
+                : appointmentRepository.findAllById(upsertedIds).stream()
+                        .collect(Collectors.toMap(Appointment::getId, Function.identity()));
+
+        List<AppointmentResponse> appointments = new ArrayList<>();
+        List<String> deletedIds = new ArrayList<>();
+        latest.forEach((appointmentId, changeType) -> {
+            Appointment appointment = current.get(appointmentId);
+            if (AppointmentChangeLog.UPSERT.equals(changeType) && appointment != null) {
+                appointments.add(appointmentService.mapToResponse(appointment));
+            } else if (AppointmentChangeLog.DELETE.equals(changeType) || missingIsDeleted) {
+                deletedIds.add(appointmentId);
+            }
+        });
+
+        long nextCursor = page.isEmpty() ? cursor : page.get(page.size() - 1).getSeq();
+        log.debug("Served {} changes for {} {} after cursor {}", page.size(), scope, scopeKey, cursor);
+        return AppointmentChangesResponse.builder()
+                .appointments(appointments)
+                .deletedIds(deletedIds)
+                .cursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    // Gaps left by rolled back transactions can trigger an unneeded resync, never a missed change
+    private boolean isPruned(long cursor) {
+        Long lowestSeq = changeRepository.findLowestSeq();
+        return lowestSeq != null && cursor < lowestSeq - 1;
+    }
+}
@@ -0,0 +1,189 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.AppointmentTimelineEntry;
+import com.servexa.appointment.dto.StageDurationResponse;
+import com.servexa.appointment.entity.AppointmentEvent;
+import com.servexa.appointment.repository.AppointmentEventRepository;
+import com.servexa.appointment.repository.AppointmentRepository;
+import com.servexa.appointment.util.QuantileSketch;
+import com.servexa.common.exception.BadRequestException;
+import com.servexa.common.exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reads the append-only appointment history: the ordered timeline of one appointment, and
+ * stage-duration percentiles per service type for appointments created in a date range.
+ *
+ * <p>Percentiles are computed in a single pass over a forward-only cursor, ordered by
+ * appointment, feeding each completed stage into a {@link QuantileSketch}. Memory is bounded by
+ * the number of service types, not by the number of appointments in the range.</p>
+ */
+@Service
+@Slf4j
+public class AppointmentTimelineService {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final long MAX_RANGE_DAYS = 366;
+    private static final double SKETCH_ACCURACY = 0.01;
+
+    private static final String STAGE_EVENTS_SQL =
+            "SELECT e.appointment_id, e.service_type, e.to_status, e.occurred_at " +
+            "FROM appointment_events e WHERE e.appointment_id IN (" +
+            "SELECT c.appointment_id FROM appointment_events c " +
+            "WHERE c.event_type = 'CREATED' AND c.occurred_at >= ? AND c.occurred_at < ?) " +
+            "ORDER BY e.appointment_id, e.occurred_at, e.id";
+
+    enum Stage {
+        CREATED_TO_ASSIGNED,
+        ASSIGNED_TO_IN_PROGRESS,
+        IN_PROGRESS_TO_COMPLETED,
+        CREATED_TO_COMPLETED
+    }
+
+    private final AppointmentEventRepository eventRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final JdbcTemplate cursorJdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public AppointmentTimelineService(AppointmentEventRepository eventRepository,
+                                      AppointmentRepository appointmentRepository,
+                                      DataSource dataSource,
+                                      PlatformTransactionManager transactionManager) {
+        this.eventRepository = eventRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.cursorJdbcTemplate = new JdbcTemplate(dataSource);
+        this.cursorJdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Transactional(readOnly = true)
+    public List<AppointmentTimelineEntry> getTimeline(String appointmentId) {
+        List<AppointmentEvent> events = eventRepository.findByAppointmentIdOrderByOccurredAtAscIdAsc(appointmentId);
+        if (events.isEmpty() && !appointmentRepository.existsById(appointmentId)) {
+            throw new ResourceNotFoundException("Appointment not found with ID: " + appointmentId);
+        }
+
+        List<AppointmentTimelineEntry> timeline = new ArrayList<>(events.size());
+        LocalDateTime previous = null;
+        for (AppointmentEvent event : events) {
+            timeline.add(AppointmentTimelineEntry.builder()
+                    .eventType(event.getEventType())
+                    .fromStatus(event.getFromStatus())
+                    .toStatus(event.getToStatus())
+                    .employeeId(event.getEmployeeId())
+                    .occurredAt(event.getOccurredAt())
+                    .secondsSincePrevious(previous == null ? null
+                            : Duration.between(previous, event.getOccurredAt()).getSeconds())
+                    .build());
+            previous = event.getOccurredAt();
+        }
+        return timeline;
+    }
+
+    public List<StageDurationResponse> getStageDurations(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+        if (Duration.between(from.atStartOfDay(), to.atStartOfDay()).toDays() >= MAX_RANGE_DAYS) {
+            throw new BadRequestException("Stage duration range is limited to " + MAX_RANGE_DAYS + " days");
+        }
+
+        StageAccumulator accumulator = new StageAccumulator();
+        readOnlyTransaction.executeWithoutResult(tx -> cursorJdbcTemplate.query(STAGE_EVENTS_SQL,
+                (RowCallbackHandler) rs -> accumulator.accept(
+                        rs.getString("appointment_id"),
+                        rs.getString("service_type"),
+                        rs.getString("to_status"),
+                        rs.getTimestamp("occurred_at").toLocalDateTime()),
+                Timestamp.valueOf(from.atStartOfDay()),
+                Timestamp.valueOf(to.plusDays(1).atStartOfDay())));
+        accumulator.finish();
+
+        log.debug("Computed stage durations over {} appointments", accumulator.appointments);
+        return accumulator.toResponses();
+    }
+
+    /**
+     * Consumes events ordered by appointment and folds each appointment's first arrival in every
+     * status into per-service-type sketches once the next appointment begins.
+     */
+    static class StageAccumulator {
+
+        private final Map<String, Map<Stage, QuantileSketch>> sketches = new TreeMap<>();
+        private String appointmentId;
+        private String serviceType;
+        private final Map<String, LocalDateTime> firstReached = new TreeMap<>();
+        private long appointments;
+
+        void accept(String eventAppointmentId, String eventServiceType, String toStatus, LocalDateTime occurredAt) {
+            if (!eventAppointmentId.equals(appointmentId)) {
+                finish();
+                appointmentId = eventAppointmentId;
+                appointments++;
+            }
+            if (eventServiceType != null) {
+                serviceType = eventServiceType;
+            }
+            firstReached.putIfAbsent(toStatus.toUpperCase(), occurredAt);
+        }
+
+        void finish() {
+            if (appointmentId != null && serviceType != null) {
+                record(Stage.CREATED_TO_ASSIGNED, "CREATED", "ASSIGNED");
+                record(Stage.ASSIGNED_TO_IN_PROGRESS, "ASSIGNED", "IN_PROGRESS");
+                record(Stage.IN_PROGRESS_TO_COMPLETED, "IN_PROGRESS", "COMPLETED");
+                record(Stage.CREATED_TO_COMPLETED, "CREATED", "COMPLETED");
+            }
+            appointmentId = null;
+            serviceType = null;
+            firstReached.clear();
+        }
+
+        private void record(Stage stage, String fromStatus, String toStatus) {
+            LocalDateTime start = firstReached.get(fromStatus);
+            LocalDateTime end = firstReached.get(toStatus);
+            if (start == null || end == null || end.isBefore(start)) {
+                return;
+            }
+            sketches.computeIfAbsent(serviceType, type -> new EnumMap<>(Stage.class))
+                    .computeIfAbsent(stage, s -> new QuantileSketch(SKETCH_ACCURACY))
+                    .add(Duration.between(start, end).getSeconds());
+        }
+
+        List<StageDurationResponse> toResponses() {
+            List<StageDurationResponse> responses = new ArrayList<>();
+            sketches.forEach((type, stages) -> stages.forEach((stage, sketch) ->
+                    responses.add(StageDurationResponse.builder()
+                            .serviceType(type)
+                            .stage(stage.name())
+                            .count(sketch.getCount())
+                            .p50Minutes(toMinutes(sketch.quantile(0.5)))
+                            .p95Minutes(toMinutes(sketch.quantile(0.95)))
+                            .maxMinutes(toMinutes(sketch.getMax()))
+                            .build())));
+            return responses;
+        }
+
+        private static double toMinutes(double seconds) {
+            return Math.round(seconds / 60.0 * 100) / 100.0;
+        }
+    }
+}
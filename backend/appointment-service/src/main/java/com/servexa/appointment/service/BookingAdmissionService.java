@@ -0,0 +1,542 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.AppointmentRequest;
+import com.servexa.appointment.dto.AppointmentResponse;
+import com.servexa.appointment.dto.BookingTicketResponse;
+import com.servexa.appointment.entity.BookingTicket;
+import com.servexa.appointment.repository.BookingTicketRepository;
+import com.servexa.common.branch.BranchContext;
+import com.servexa.common.exception.ResourceNotFoundException;
+import com.servexa.common.exception.ServiceUnavailableException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admission control for appointment booking.
+ *
+ * <p>Bookings are queued in a bounded queue and executed by a fixed number of worker threads, so
+ * at most {@code appointment.booking.workers} connections are ever held by booking, however many
+ * customers arrive at once. Requests beyond the queue capacity are rejected straight away with a
+ * 503 and a Retry-After hint instead of piling up on the connection pool. Resubmitting the same
+ * booking while it is pending returns the same ticket; a different booking by the same customer
+ * gets its own.</p>
+ *
+ * <p>The queue is fair between customers rather than between requests: each customer has their
+ * own FIFO and workers take one booking per customer in turn, and a customer may have at most
+ * {@code appointment.booking.max-per-customer} bookings queued or in progress. One customer
+ * submitting many bookings therefore cannot fill the queue or push everyone else to the back.</p>
+ *
+ * <p>The queue lives in memory on the node that accepted the booking, but every ticket is also
+ * written to {@code booking_tickets} so that a poll answered by another replica still finds it.
+ * Finished tickets are kept for {@code appointment.booking.ticket-retention-ms} for status
+ * polling.</p>
+ */
+@Service
+@Slf4j
+public class BookingAdmissionService {
+
+    public enum Status {
+        QUEUED,
+        PROCESSING,
+        BOOKED,
+        FAILED
+    }
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final AppointmentService appointmentService;
+    private final BookingTicketRepository ticketRepository;
+    private final int queueCapacity;
+    private final int maxPerCustomer;
+    private final int workerCount;
+    private final long syncWaitMs;
+    private final long ticketRetentionMs;
+
+    private final Map<String, QueuedBooking> tickets = new ConcurrentHashMap<>();
+    // Keyed by customer and request fingerprint
+    private final Map<String, QueuedBooking> pendingByRequest = new ConcurrentHashMap<>();
+
+    // Per-customer FIFOs, served round-robin in the order of turns. All guarded by queueLock
+    private final ReentrantLock queueLock = new ReentrantLock();
+    private final Condition notEmpty = queueLock.newCondition();
+    private final Map<String, ArrayDeque<QueuedBooking>> queuedByCustomer = new HashMap<>();
+    private final ArrayDeque<String> turns = new ArrayDeque<>();
+    // Queued plus in progress, per customer
+    private final Map<String, Integer> inFlightByCustomer = new HashMap<>();
+    private int queued;
+
+    // Moving average of booking time, for wait estimates
+    private final AtomicLong averageBookingMs = new AtomicLong(200);
+
+    private ExecutorService workers;
+
+    public BookingAdmissionService(AppointmentService appointmentService,
+                                   BookingTicketRepository ticketRepository,
+                                   @Value("${appointment.booking.queue-capacity:500}") int queueCapacity,
+                                   @Value("${appointment.booking.max-per-customer:3}") int maxPerCustomer,
+                                   @Value("${appointment.booking.workers:4}") int workerCount,
+                                   @Value("${appointment.booking.sync-wait-ms:5000}") long syncWaitMs,
+                                   @Value("${appointment.booking.ticket-retention-ms:600000}") long ticketRetentionMs) {
+        this.appointmentService = appointmentService;
+        this.ticketRepository = ticketRepository;
+        this.queueCapacity = queueCapacity;
+        this.maxPerCustomer = maxPerCustomer;
+        this.workerCount = workerCount;
+        this.syncWaitMs = syncWaitMs;
+        this.ticketRetentionMs = ticketRetentionMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "booking-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::runWorker);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+        List<QueuedBooking> abandoned = new ArrayList<>();
+        queueLock.lock();
+        try {
+            queuedByCustomer.values().forEach(abandoned::addAll);
+            queuedByCustomer.clear();
+            turns.clear();
+            queued = 0;
+        } finally {
+            queueLock.unlock();
+        }
+        if (abandoned.isEmpty()) {
+            return;
+        }
+        log.warn("Shutting down with {} bookings still queued", abandoned.size());
+        // Fail them in the shared table so clients polling another replica stop waiting
+        try {
+            ticketRepository.failQueued(abandoned.stream().map(booking -> booking.id).toList(),
+                    "Booking was not processed before the service shut down, please book again",
+                    LocalDateTime.now());
+        } catch (Exception e) {
+            log.warn("Could not mark {} abandoned bookings as failed: {}", abandoned.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Queues a booking and returns its ticket without waiting. If the same booking is already
+     * queued or in progress, that ticket is returned instead.
+     */
+    public BookingTicketResponse submit(AppointmentRequest request) {
+        String fingerprint = fingerprint(request);
+        BookingTicket elsewhere = findQueuedElsewhere(request, fingerprint);
+        if (elsewhere != null) {
+            return toResponse(elsewhere);
+        }
+        return toResponse(admit(request, fingerprint));
+    }
+
+    /**
+     * Queues a booking and waits up to {@code sync-wait-ms} for it. Returns the appointment when
+     * booked in time, rethrows the booking failure, or throws {@link BookingPendingException}
+     * carrying the ticket when the booking is still queued, here or on another replica.
+     */
+    public AppointmentResponse bookAndWait(AppointmentRequest request) {
+        String fingerprint = fingerprint(request);
+        BookingTicket elsewhere = findQueuedElsewhere(request, fingerprint);
+        if (elsewhere != null) {
+            throw new BookingPendingException(toResponse(elsewhere));
+        }
+        QueuedBooking booking = admit(request, fingerprint);
+        try {
+            return booking.result.get(syncWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new BookingPendingException(toResponse(booking));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Booking failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BookingPendingException(toResponse(booking));
+        }
+    }
+
+    public BookingTicketResponse getTicket(String ticketId) {
+        QueuedBooking booking = tickets.get(ticketId);
+        if (booking != null) {
+            return toResponse(booking);
+        }
+        // Accepted by another replica
+        return ticketRepository.findById(ticketId)
+                .map(this::toResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("Booking ticket not found with ID: " + ticketId));
+    }
+
+    @Scheduled(fixedDelayString = "${appointment.booking.ticket-sweep-ms:60000}")
+    public void evictFinishedTickets() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minus(Duration.ofMillis(ticketRetentionMs));
+        tickets.values().removeIf(booking -> booking.completedAt != null && booking.completedAt.isBefore(cutoff));
+        // A queue drains in seconds, so a row still queued after the retention period belongs to
+        // a replica that died with it
+        int stale = ticketRepository.failQueuedBefore(cutoff,
+                "Booking was not processed, please book again", now);
+        if (stale > 0) {
+            log.warn("Marked {} bookings abandoned by a stopped replica as failed", stale);
+        }
+        ticketRepository.deleteCompletedBefore(cutoff);
+    }
+
+    private BookingTicket findQueuedElsewhere(AppointmentRequest request, String fingerprint) {
+        if (pendingByRequest.containsKey(pendingKey(request.getCustomerId(), fingerprint))) {
+            return null;
+        }
+        return ticketRepository.findFirstByCustomerIdAndFingerprintAndStatus(request.getCustomerId(), fingerprint,
+                Status.QUEUED.name()).orElse(null);
+    }
+
+    private QueuedBooking admit(AppointmentRequest request, String fingerprint) {
+        QueuedBooking booking = new QueuedBooking(UUID.randomUUID().toString(), request, fingerprint);
+        QueuedBooking pending = pendingByRequest.putIfAbsent(booking.pendingKey(), booking);
+        if (pending != null) {
+            return pending;
+        }
+
+        // Reject before writing the ticket row when the queue is visibly full
+        String full = admissionError(request.getCustomerId());
+        if (full != null) {
+            throw reject(booking, full);
+        }
+        ticketRepository.save(BookingTicket.builder()
+                .id(booking.id)
+                .customerId(request.getCustomerId())
+                .branchId(booking.branchId)
+                .fingerprint(fingerprint)
+                .status(Status.QUEUED.name())
+                .submittedAt(booking.submittedAt)
+                .build());
+
+        String customerId = request.getCustomerId();
+        queueLock.lock();
+        try {
+            full = admissionError(customerId);
+            if (full == null) {
+                ArrayDeque<QueuedBooking> own = queuedByCustomer.computeIfAbsent(customerId, key -> new ArrayDeque<>());
+                if (own.isEmpty()) {
+                    turns.addLast(customerId);
+                }
+                own.addLast(booking);
+                queued++;
+                inFlightByCustomer.merge(customerId, 1, Integer::sum);
+                notEmpty.signal();
+            }
+        } finally {
+            queueLock.unlock();
+        }
+        if (full != null) {
+            ticketRepository.deleteById(booking.id);
+            throw reject(booking, full);
+        }
+        tickets.put(booking.id, booking);
+        return booking;
+    }
+
+    // Why a new booking by this customer cannot be queued right now, or null if it can
+    private String admissionError(String customerId) {
+        queueLock.lock();
+        try {
+            if (inFlightByCustomer.getOrDefault(customerId, 0) >= maxPerCustomer) {
+                return "You already have " + maxPerCustomer + " bookings in progress, please wait for one to finish";
+            }
+            return queued >= queueCapacity ? "Booking is at capacity, please retry shortly" : null;
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    private ServiceUnavailableException reject(QueuedBooking booking, String message) {
+        long retryAfterSeconds = Math.max(1, estimateWaitMs(queuedCount()) / 1000);
+        ServiceUnavailableException rejected = new ServiceUnavailableException(message, retryAfterSeconds);
+        // Callers that were deduplicated onto this ticket see the same rejection
+        booking.status = Status.FAILED;
+        booking.error = rejected.getMessage();
+        booking.result.completeExceptionally(rejected);
+        pendingByRequest.remove(booking.pendingKey(), booking);
+        return rejected;
+    }
+
+    private void runWorker() {
+        while (!Thread.currentThread().isInterrupted()) {
+            QueuedBooking booking;
+            try {
+                booking = take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            process(booking);
+        }
+    }
+
+    // Next booking of the customer whose turn it is; a customer with more queued goes to the back
+    private QueuedBooking take() throws InterruptedException {
+        queueLock.lockInterruptibly();
+        try {
+            while (queued == 0) {
+                notEmpty.await();
+            }
+            String customerId = turns.pollFirst();
+            ArrayDeque<QueuedBooking> own = queuedByCustomer.get(customerId);
+            QueuedBooking booking = own.pollFirst();
+            if (own.isEmpty()) {
+                queuedByCustomer.remove(customerId);
+            } else {
+                turns.addLast(customerId);
+            }
+            queued--;
+            // Marked under the lock so a concurrent position lookup never sees it queued but gone
+            booking.status = Status.PROCESSING;
+            return booking;
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    private void release(String customerId) {
+        queueLock.lock();
+        try {
+            inFlightByCustomer.computeIfPresent(customerId, (key, count) -> count > 1 ? count - 1 : null);
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    private int queuedCount() {
+        queueLock.lock();
+        try {
+            return queued;
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    /**
+     * Bookings that will be started before and including this one: everyone's first k, where k is
+     * this booking's place in its customer's FIFO, less one for customers whose turn comes after
+     * this customer's in the last round.
+     */
+    private long positionOf(QueuedBooking booking) {
+        String customerId = booking.request.getCustomerId();
+        queueLock.lock();
+        try {
+            ArrayDeque<QueuedBooking> own = queuedByCustomer.get(customerId);
+            if (own == null) {
+                return 1;
+            }
+            int place = 1;
+            for (QueuedBooking other : own) {
+                if (other == booking) {
+                    break;
+                }
+                place++;
+            }
+            long position = 0;
+            boolean afterOwnTurn = false;
+            for (String turn : turns) {
+                if (turn.equals(customerId)) {
+                    position += place;
+                    afterOwnTurn = true;
+                } else {
+                    position += Math.min(queuedByCustomer.get(turn).size(), afterOwnTurn ? place - 1 : place);
+                }
+            }
+            return Math.max(1, position);
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    void process(QueuedBooking booking) {
+        booking.status = Status.PROCESSING;
+        long started = System.nanoTime();
+        try {
+            // Workers serve every branch; book under the branch the request was submitted for
+            AppointmentResponse appointment = BranchContext.callAs(booking.branchId,
+                    () -> appointmentService.createAppointment(booking.request));
+            booking.appointment = appointment;
+            booking.status = Status.BOOKED;
+        } catch (Exception e) {
+            log.warn("Queued booking {} for customer {} failed: {}", booking.id, booking.request.getCustomerId(),
+                    e.getMessage());
+            booking.error = e.getMessage();
+            booking.status = Status.FAILED;
+            booking.failure = e;
+        } finally {
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            averageBookingMs.updateAndGet(average -> (average * 7 + elapsedMs) / 8);
+            booking.completedAt = LocalDateTime.now();
+            // The shared row is finished before the pending entry goes, so a resubmission always
+            // finds one of the two and cannot book the same slot twice
+            recordOutcome(booking);
+            pendingByRequest.remove(booking.pendingKey(), booking);
+            release(booking.request.getCustomerId());
+            if (booking.failure != null) {
+                booking.result.completeExceptionally(booking.failure);
+            } else {
+                booking.result.complete(booking.appointment);
+            }
+        }
+    }
+
+    private void recordOutcome(QueuedBooking booking) {
+        String error = booking.error;
+        if (error != null && error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+        try {
+            ticketRepository.complete(booking.id, booking.status.name(),
+                    booking.appointment != null ? booking.appointment.getId() : null, error, booking.completedAt);
+        } catch (Exception e) {
+            log.warn("Could not record the outcome of booking {}: {}", booking.id, e.getMessage());
+        }
+    }
+
+    private long estimateWaitMs(long position) {
+        return position * averageBookingMs.get() / Math.max(1, workerCount);
+    }
+
+    private BookingTicketResponse toResponse(QueuedBooking booking) {
+        Status status = booking.status;
+        Long position = null;
+        Long estimatedWaitMs = null;
+        if (status == Status.QUEUED) {
+            position = positionOf(booking);
+            estimatedWaitMs = estimateWaitMs(position);
+        }
+        return BookingTicketResponse.builder()
+                .ticketId(booking.id)
+                .customerId(booking.request.getCustomerId())
+                .status(status.name())
+                .position(position)
+                .estimatedWaitMs(estimatedWaitMs)
+                .appointment(booking.appointment)
+                .error(booking.error)
+                .submittedAt(booking.submittedAt)
+                .completedAt(booking.completedAt)
+                .build();
+    }
+
+    // A ticket from another replica: no queue position is known here
+    private BookingTicketResponse toResponse(BookingTicket ticket) {
+        AppointmentResponse[] appointment = new AppointmentResponse[1];
+        if (Status.BOOKED.name().equals(ticket.getStatus()) && ticket.getAppointmentId() != null) {
+            String branchId = ticket.getBranchId() != null ? ticket.getBranchId() : BranchContext.DEFAULT_BRANCH;
+            BranchContext.runAs(branchId,
+                    () -> appointment[0] = appointmentService.getAppointmentById(ticket.getAppointmentId()));
+        }
+        return BookingTicketResponse.builder()
+                .ticketId(ticket.getId())
+                .customerId(ticket.getCustomerId())
+                .status(ticket.getStatus())
+                .appointment(appointment[0])
+                .error(ticket.getError())
+                .submittedAt(ticket.getSubmittedAt())
+                .completedAt(ticket.getCompletedAt())
+                .build();
+    }
+
+    static String fingerprint(AppointmentRequest request) {
+        String canonical = String.join("\n", BranchContext.current(), request.getCustomerId(), request.getFullName(),
+                request.getPhoneNumber(), request.getVehicleId(), request.getVehicleType(), request.getServiceType(),
+                String.valueOf(request.getBookingDateTime()), request.getAdditionalNote(), request.getPaymentMethod(),
+                String.valueOf(request.getDuration()));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String pendingKey(String customerId, String fingerprint) {
+        return customerId + ":" + fingerprint;
+    }
+
+    static class QueuedBooking {
+
+        private final String id;
+        private final AppointmentRequest request;
+        private final String fingerprint;
+        private final String branchId = BranchContext.current();
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final CompletableFuture<AppointmentResponse> result = new CompletableFuture<>();
+        private volatile Status status = Status.QUEUED;
+        private volatile AppointmentResponse appointment;
+        private volatile String error;
+        private volatile Exception failure;
+        private volatile LocalDateTime completedAt;
+
+        QueuedBooking(String id, AppointmentRequest request, String fingerprint) {
+            this.id = id;
+            this.request = request;
+            this.fingerprint = fingerprint;
+        }
+
+        String pendingKey() {
+            return BookingAdmissionService.pendingKey(request.getCustomerId(), fingerprint);
+        }
+    }
+
+    /**
+     * Thrown by {@link #bookAndWait} when the booking is still queued after the synchronous wait.
+     * The booking is not cancelled; the client polls the ticket instead.
+     */
+    public static class BookingPendingException extends RuntimeException {
+
+        private final BookingTicketResponse ticket;
+
+        public BookingPendingException(BookingTicketResponse ticket) {
+            super("Booking is queued as ticket " + ticket.getTicketId());
+            this.ticket = ticket;
+        }
+
+        public BookingTicketResponse getTicket() {
+            return ticket;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.servexa.appointment.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.servexa.appointment.dto.AppointmentResponse;
+import com.servexa.appointment.dto.CustomerDashboardResponse;
+import com.servexa.appointment.dto.CustomerStatisticsResponse;
+import com.servexa.common.branch.BranchContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Backend-for-frontend view of the customer dashboard. The profile, vehicles and unread
+ * notification count are fetched from their services in parallel with the local appointment and
+ * statistics reads, each under its own timeout, so one page load costs one round trip bounded by
+ * the slowest timeout. A source that fails or times out leaves its section empty instead of
+ * failing the page.
+ *
+ * <p>Complete views are cached per customer and caller for {@code appointment.dashboard.cache-ttl-ms};
+ * concurrent requests for the same view share one in-flight fan-out. Partial views are served but
+ * not cached, so the next load retries the missing sources.</p>
+ */
+@Service
+@Slf4j
+public class CustomerDashboardService {
+
+    static final String PROFILE = "profile";
+    static final String VEHICLES = "vehicles";
+    static final String APPOINTMENTS = "appointments";
+    static final String STATISTICS = "statistics";
+    static final String NOTIFICATIONS = "notifications";
+
+    private static final int MAX_CACHED_VIEWS = 1024;
+
+    private final AppointmentService appointmentService;
+    private final CustomerStatisticsService statisticsService;
+    private final WebClient webClient;
+    private final String authServiceUrl;
+    private final String vehicleServiceUrl;
+    private final String notificationServiceUrl;
+    private final Duration remoteTimeout;
+    private final Duration localTimeout;
+    private final long cacheTtlMs;
+
+    private final Map<String, CachedDashboard> cache = new ConcurrentHashMap<>();
+
+    public CustomerDashboardService(
+            AppointmentService appointmentService,
+            CustomerStatisticsService statisticsService,
+            WebClient.Builder webClientBuilder,
+            @Value("${services.auth-service.url:http://localhost:8081}") String authServiceUrl,
+            @Value("${vehicle.service.url:http://localhost:8084}") String vehicleServiceUrl,
+            @Value("${services.notification-service.url:http://localhost:8085}") String notificationServiceUrl,
+            @Value("${appointment.dashboard.remote-timeout-ms:800}") long remoteTimeoutMs,
+            @Value("${appointment.dashboard.local-timeout-ms:1500}") long localTimeoutMs,
+            @Value("${appointment.dashboard.cache-ttl-ms:15000}") long cacheTtlMs) {
+        this.appointmentService = appointmentService;
+        this.statisticsService = statisticsService;
+        this.webClient = webClientBuilder.build();
+        this.authServiceUrl = authServiceUrl;
+        this.vehicleServiceUrl = vehicleServiceUrl;
+        this.notificationServiceUrl = notificationServiceUrl;
+        this.remoteTimeout = Duration.ofMillis(remoteTimeoutMs);
+        this.localTimeout = Duration.ofMillis(localTimeoutMs);
+        this.cacheTtlMs = cacheTtlMs;
+    }
+
+    public CustomerDashboardResponse getDashboard(String customerId, String authorization) {
+        // The profile and unread count belong to the caller's token, so it is part of the key
+        String cacheKey = customerId + "|" + (authorization != null ? authorization : "");
+        long now = System.currentTimeMillis();
+        evictExpired(now);
+
+        CachedDashboard entry = cache.compute(cacheKey, (key, existing) ->
+                existing != null && existing.expiresAt > now ? existing : new CachedDashboard());
+        if (entry.claim()) {
+            assemble(customerId, authorization).toFuture().whenComplete((dashboard, error) -> {
+                if (error != null || !dashboard.isComplete()) {
+                    cache.remove(cacheKey, entry);
+                } else {
+                    entry.expiresAt = System.currentTimeMillis() + cacheTtlMs;
+                }
+                entry.complete(dashboard, error);
+            });
+        }
+        return await(entry.future);
+    }
+
+    Mono<CustomerDashboardResponse> assemble(String customerId, String authorization) {
+        List<String> unavailable = Collections.synchronizedList(new ArrayList<>());
+        String branchId = BranchContext.current();
+
+        Mono<Optional<JsonNode>> profile = authorization == null
+                ? missing(PROFILE, unavailable)
+                : remote(PROFILE, authServiceUrl + "/api/auth/me", authorization, unavailable);
+        Mono<Optional<JsonNode>> vehicles = remote(VEHICLES,
+                vehicleServiceUrl + "/api/vehicles/customer/" + customerId, authorization, unavailable);
+        Mono<Optional<JsonNode>> unread = authorization == null
+                ? missing(NOTIFICATIONS, unavailable)
+                : remote(NOTIFICATIONS, notificationServiceUrl + "/api/notifications/me/unread-count",
+                        authorization, unavailable);
+        Mono<Optional<List<AppointmentResponse>>> appointments = local(APPOINTMENTS, branchId,
+                () -> appointmentService.getAppointmentsByCustomerId(customerId), unavailable);
+        Mono<Optional<CustomerStatisticsResponse>> statistics = local(STATISTICS, branchId,
+                () -> statisticsService.getCustomerStatistics(customerId), unavailable);
+
+        return Mono.zip(profile, vehicles, appointments, statistics, unread).map(sections -> {
+            JsonNode vehicleList = sections.getT2().orElse(null);
+            CustomerStatisticsResponse stats = sections.getT4().orElse(null);
+            if (stats != null && vehicleList != null && vehicleList.isArray()) {
+                // The list is already here; prefer it over the statistics' own vehicle lookup
+                stats.setTotalVehicles(vehicleList.size());
+            }
+            List<String> missingSections = new ArrayList<>(unavailable);
+            Collections.sort(missingSections);
+            return CustomerDashboardResponse.builder()
+                    .customerId(customerId)
+                    .profile(sections.getT1().orElse(null))
+                    .vehicles(vehicleList)
+                    .appointments(sections.getT3().orElse(null))
+                    .statistics(stats)
+                    .unreadNotifications(sections.getT5().map(JsonNode::asLong).orElse(null))
+                    .unavailableSections(missingSections)
+                    .generatedAt(LocalDateTime.now())
+                    .build();
+        });
+    }
+
+    private Mono<Optional<JsonNode>> remote(String section, String url, String authorization,
+                                            List<String> unavailable) {
+        return webClient.get()
+                .uri(url)
+                .headers(headers -> {
+                    if (authorization != null) {
+                        headers.set(HttpHeaders.AUTHORIZATION, authorization);
+                    }
+                })
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .map(body -> body.path("data"))
+                .filter(data -> !data.isMissingNode() && !data.isNull())
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .timeout(remoteTimeout)
+                .onErrorResume(error -> {
+                    log.warn("Dashboard section {} unavailable: {}", section, error.toString());
+                    return missing(section, unavailable);
+                });
+    }
+
+    private <T> Mono<Optional<T>> local(String section, String branchId, Callable<T> read, List<String> unavailable) {
+        return Mono.fromCallable(() -> Optional.ofNullable(BranchContext.callAs(branchId, read)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .timeout(localTimeout)
+                .onErrorResume(error -> {
+                    log.warn("Dashboard section {} unavailable: {}", section, error.toString());
+                    return missing(section, unavailable);
+                });
+    }
+
+    private static <T> Mono<Optional<T>> missing(String section, List<String> unavailable) {
+        unavailable.add(section);
+        return Mono.just(Optional.empty());
+    }
+
+    private CustomerDashboardResponse await(CompletableFuture<CustomerDashboardResponse> future) {
+        // Every section is already bounded by its own timeout; this only guards against a stuck zip
+        long limitMs = Math.max(remoteTimeout.toMillis(), localTimeout.toMillis()) + 1000;
+        try {
+            return future.get(limitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while assembling dashboard", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Failed to assemble dashboard", e);
+        }
+    }
+
+    private void evictExpired(long now) {
+        if (cache.size() >= MAX_CACHED_VIEWS) {
+            cache.values().removeIf(entry -> entry.expiresAt <= now);
+            if (cache.size() >= MAX_CACHED_VIEWS) {
+                cache.clear();
+            }
+        }
+    }
+
+    /**
+     * One cached or in-flight view. The first caller to {@link #claim()} an entry runs the fan-out;
+     * everyone else waits on the same future. In-flight entries never expire.
+     */
+    private static class CachedDashboard {
+
+        private final CompletableFuture<CustomerDashboardResponse> future = new CompletableFuture<>();
+        private volatile long expiresAt = Long.MAX_VALUE;
+        private boolean claimed;
+
+        synchronized boolean claim() {
+            if (claimed) {
+                return false;
+            }
+            claimed = true;
+            return true;
+        }
+
+        void complete(CustomerDashboardResponse dashboard, Throwable error) {
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(dashboard);
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.AppointmentResponse;
+import com.servexa.appointment.entity.CustomerSpend;
+import com.servexa.appointment.event.AppointmentChangedEvent;
+import com.servexa.appointment.repository.CustomerSpendRepository;
+import com.servexa.appointment.repository.CustomerSpendRepository.SpendTotals;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps a running spend total per customer so dashboards read one row instead of summing the
+ * customer's history.
+ *
+ * <p>The total moves by the appointment's snapshotted price whenever an appointment enters or
+ * leaves COMPLETED, in the same transaction as the status change. A batched reconciliation
+ * recomputes totals from the appointments and archived appointments tables and overwrites any
+ * drift; it runs on one replica at a time. Both sides take a per-customer advisory lock, so a
+ * batch only holds up completions for its own customers.</p>
+ */
+@Service
+@Slf4j
+public class CustomerSpendService {
+
+    private static final String COMPLETED = "COMPLETED";
+
+    private final CustomerSpendRepository spendRepository;
+    private final ServiceCatalogService catalogService;
+    private final TransactionTemplate transactionTemplate;
+    private final int reconcileBatchSize;
+
+    public CustomerSpendService(CustomerSpendRepository spendRepository,
+                                ServiceCatalogService catalogService,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${appointment.spend.reconcile-batch-size:500}") int reconcileBatchSize) {
+        this.spendRepository = spendRepository;
+        this.catalogService = catalogService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reconcileBatchSize = reconcileBatchSize;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        AppointmentResponse appointment = event.getAppointment();
+        boolean completedNow = COMPLETED.equalsIgnoreCase(appointment.getStatus());
+        boolean completedBefore = event.getType() != AppointmentChangedEvent.Type.CREATED
+                && COMPLETED.equalsIgnoreCase(event.getPreviousStatus());
+        if (completedNow == completedBefore) {
+            return;
+        }
+
+        int sign = completedNow ? 1 : -1;
+        BigDecimal amount = priceOf(appointment).multiply(BigDecimal.valueOf(sign));
+        spendRepository.lockCustomer(appointment.getCustomerId());
+        spendRepository.applyDelta(appointment.getCustomerId(), amount, sign);
+    }
+
+    @Transactional(readOnly = true)
+    public CustomerSpend getSpend(String customerId) {
+        return spendRepository.findById(customerId)
+                .orElseGet(() -> CustomerSpend.builder()
+                        .customerId(customerId)
+                        .totalSpent(BigDecimal.ZERO)
+                        .completedCount(0)
+                        .build());
+    }
+
+    /**
+     * Recomputes every customer's total in batches of {@code reconcile-batch-size}, each in its
+     * own short transaction. Returns the number of customers reconciled.
+     */
+    public int reconcile() {
+        String after = "";
+        int reconciled = 0;
+        List<String> customerIds;
+        while (!(customerIds = spendRepository.findCustomerIdsAfter(after, reconcileBatchSize)).isEmpty()) {
+            List<String> batch = customerIds;
+            transactionTemplate.executeWithoutResult(tx -> reconcileBatch(batch));
+            reconciled += batch.size();
+            after = batch.get(batch.size() - 1);
+        }
+        log.info("Reconciled spend totals for {} customers", reconciled);
+        return reconciled;
+    }
+
+    private void reconcileBatch(List<String> customerIds) {
+        spendRepository.lockCustomers(customerIds);
+
+        Map<String, Totals> totals = new HashMap<>();
+        customerIds.forEach(customerId -> totals.put(customerId, new Totals()));
+        for (SpendTotals completed : spendRepository.sumCompleted(customerIds, catalogService.getDefaultPrice())) {
+            Totals customerTotals = totals.get(completed.getCustomerId());
+            customerTotals.amount = customerTotals.amount.add(completed.getTotalSpent());
+            customerTotals.count += completed.getCompletedCount();
+        }
+
+        totals.forEach((customerId, customerTotals) ->
+                spendRepository.overwrite(customerId, customerTotals.amount, customerTotals.count));
+    }
+
+    private BigDecimal priceOf(AppointmentResponse appointment) {
+        return appointment.getPrice() != null ? appointment.getPrice() : catalogService.priceFor(appointment.getServiceType());
+    }
+
+    private static class Totals {
+
+        private BigDecimal amount = BigDecimal.ZERO;
+        private long count;
+    }
+}
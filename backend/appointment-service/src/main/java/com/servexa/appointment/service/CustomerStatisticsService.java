@@ -5,6 +5,7 @@ import com.servexa.appointment.entity.Appointment;
 import com.servexa.appointment.repository.AppointmentRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
@@ -17,7 +18,10 @@ public class CustomerStatisticsService {
 
     private final AppointmentRepository appointmentRepository;
     private final WebClient.Builder webClientBuilder;
+    private final CustomerSpendService customerSpendService;
+    private final RatingService ratingService;
 
+    @Transactional(readOnly = true)
     public CustomerStatisticsResponse getCustomerStatistics(String customerId) {
         List<Appointment> appointments = appointmentRepository.findByCustomerId(customerId);
         
@@ -36,12 +40,12 @@ public class CustomerStatisticsService {
         
         int totalServices = appointments.size();
         
-        // Calculate total spent from completed appointments
-        // For now, we'll use a placeholder value as the cost field is not in the entity
-        double totalSpent = pastServices * 100.0; // Placeholder: $100 per completed service
+        // Maintained incrementally on completion, so this is a primary-key read
+        double totalSpent = customerSpendService.getSpend(customerId).getTotalSpent().doubleValue();
         
-        // Calculate average rating - placeholder for now as rating is not in the entity
-        double averageRating = 4.5; // Placeholder value
+        // Average of the ratings this customer has given, from running counters
+        Double customerAverage = ratingService.getCustomerSummary(customerId).getAverageRating();
+        double averageRating = customerAverage != null ? customerAverage : 0.0;
         
         // Get vehicle count from vehicle service
         Integer vehicleCount = getVehicleCount(customerId).block();
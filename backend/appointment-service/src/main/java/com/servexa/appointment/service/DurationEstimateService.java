@@ -0,0 +1,210 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.AppointmentResponse;
+import com.servexa.appointment.dto.DurationEstimateResponse;
+import com.servexa.appointment.entity.DurationSketch;
+import com.servexa.appointment.event.AppointmentChangedEvent;
+import com.servexa.appointment.repository.DurationSketchRepository;
+import com.servexa.appointment.util.QuantileSketch;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Learns how long services actually take from the time between an appointment starting
+ * (IN_PROGRESS) and completing, per service type and per service type and vehicle model.
+ *
+ * <p>Completions are added to per-key pending {@link QuantileSketch}es. A periodic flush merges
+ * each pending sketch into its stored row under a row lock, so every node contributes to the same
+ * history, and recomputes the p50/p90 estimate for that key from the merged sketch. Lookups are
+ * one or two map reads of those precomputed estimates; no sketch is scanned on the booking path.
+ * Samples not yet flushed when the process dies are lost.</p>
+ */
+@Service
+@Slf4j
+public class DurationEstimateService {
+
+    private static final double SKETCH_ACCURACY = 0.02;
+    private static final long MAX_PLAUSIBLE_MINUTES = 24 * 60;
+    private static final Pattern TRAILING_YEAR = Pattern.compile("\\s+(19|20)\\d{2}$");
+
+    private final DurationSketchRepository sketchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long minSamples;
+
+    private final Map<String, QuantileSketch> pending = new ConcurrentHashMap<>();
+    private final Map<String, DurationEstimateResponse> estimates = new ConcurrentHashMap<>();
+
+    public DurationEstimateService(DurationSketchRepository sketchRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${appointment.duration-estimates.min-samples:20}") long minSamples) {
+        this.sketchRepository = sketchRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.minSamples = minSamples;
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${appointment.duration-estimates.reload-interval-ms:600000}",
+            initialDelayString = "${appointment.duration-estimates.reload-interval-ms:600000}")
+    public void reload() {
+        // Picks up merges made by other nodes since this node last flushed a key
+        for (DurationSketch stored : sketchRepository.findAll()) {
+            publish(stored.getSketchKey(), QuantileSketch.fromBytes(stored.getSketch()));
+        }
+        log.debug("Loaded {} duration estimates", estimates.size());
+    }
+
+    @TransactionalEventListener
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        AppointmentResponse appointment = event.getAppointment();
+        if (event.getType() != AppointmentChangedEvent.Type.STATUS_CHANGED
+                || !"COMPLETED".equalsIgnoreCase(appointment.getStatus())
+                || "COMPLETED".equalsIgnoreCase(event.getPreviousStatus())
+                || appointment.getStartedAt() == null) {
+            return;
+        }
+        long minutes = Duration.between(appointment.getStartedAt(), event.getOccurredAt()).toMinutes();
+        record(appointment.getServiceType(), appointment.getVehicleType(), minutes);
+    }
+
+    void record(String serviceType, String vehicleType, long minutes) {
+        // Jobs left open overnight or completed by mistake would skew the tail
+        if (serviceType == null || minutes < 1 || minutes > MAX_PLAUSIBLE_MINUTES) {
+            return;
+        }
+        String serviceKey = ServiceCatalogService.normalize(serviceType);
+        add(serviceKey, minutes);
+        String model = vehicleModel(vehicleType);
+        if (model != null) {
+            add(serviceKey + "|" + model, minutes);
+        }
+    }
+
+    /**
+     * Best learned estimate for the service on this vehicle: the vehicle model's own estimate
+     * when it has enough samples, otherwise the service type's, otherwise null.
+     */
+    public DurationEstimateResponse estimate(String serviceType, String vehicleType) {
+        if (serviceType == null) {
+            return null;
+        }
+        String serviceKey = ServiceCatalogService.normalize(serviceType);
+        String model = vehicleModel(vehicleType);
+        if (model != null) {
+            DurationEstimateResponse byModel = estimates.get(serviceKey + "|" + model);
+            if (byModel != null && byModel.getSampleCount() >= minSamples) {
+                return byModel;
+            }
+        }
+        DurationEstimateResponse byService = estimates.get(serviceKey);
+        return byService != null && byService.getSampleCount() >= minSamples ? byService : null;
+    }
+
+    /** Minutes to reserve for the service: the p90 so most jobs fit their slot, or null without enough history. */
+    public Integer slotMinutes(String serviceType, String vehicleType) {
+        DurationEstimateResponse estimate = estimate(serviceType, vehicleType);
+        return estimate != null ? estimate.getP90Minutes() : null;
+    }
+
+    public List<DurationEstimateResponse> getAll() {
+        List<DurationEstimateResponse> all = new ArrayList<>(estimates.values());
+        all.sort(Comparator.comparing(DurationEstimateResponse::getServiceType)
+                .thenComparing(DurationEstimateResponse::getVehicleModel, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return all;
+    }
+
+    @Scheduled(fixedDelayString = "${appointment.duration-estimates.flush-interval-ms:60000}")
+    public void flush() {
+        for (String key : List.copyOf(pending.keySet())) {
+            QuantileSketch delta = pending.remove(key);
+            if (delta == null) {
+                continue;
+            }
+            try {
+                QuantileSketch merged = transactionTemplate.execute(tx -> mergeIntoStored(key, delta));
+                publish(key, merged);
+            } catch (RuntimeException e) {
+                // Hand the samples back so the next flush retries them
+                pending.merge(key, delta, (current, returned) -> {
+                    current.merge(returned);
+                    return current;
+                });
+                log.error("Failed to flush duration sketch {}", key, e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private QuantileSketch mergeIntoStored(String key, QuantileSketch delta) {
+        DurationSketch stored = sketchRepository.findForUpdate(key).orElse(null);
+        QuantileSketch merged = new QuantileSketch(SKETCH_ACCURACY);
+        if (stored != null) {
+            merged.merge(QuantileSketch.fromBytes(stored.getSketch()));
+        } else {
+            stored = DurationSketch.builder().sketchKey(key).build();
+        }
+        merged.merge(delta);
+        stored.setSketch(merged.toBytes());
+        stored.setSampleCount(merged.getCount());
+        stored.setUpdatedAt(LocalDateTime.now());
+        sketchRepository.save(stored);
+        return merged;
+    }
+
+    private void add(String key, long minutes) {
+        // compute() runs under the map's bin lock, so it is atomic with the flush's remove()
+        pending.compute(key, (k, sketch) -> {
+            QuantileSketch target = sketch != null ? sketch : new QuantileSketch(SKETCH_ACCURACY);
+            target.add(minutes);
+            return target;
+        });
+    }
+
+    private void publish(String key, QuantileSketch sketch) {
+        if (sketch.getCount() == 0) {
+            return;
+        }
+        int separator = key.indexOf('|');
+        estimates.put(key, DurationEstimateResponse.builder()
+                .serviceType(separator < 0 ? key : key.substring(0, separator))
+                .vehicleModel(separator < 0 ? null : key.substring(separator + 1))
+                .p50Minutes((int) Math.ceil(sketch.quantile(0.5)))
+                .p90Minutes((int) Math.ceil(sketch.quantile(0.9)))
+                .sampleCount(sketch.getCount())
+                .build());
+    }
+
+    /**
+     * Make and model from a vehicle description such as "Toyota Corolla 2020", lower-cased and
+     * without the year. Placeholders written when the vehicle lookup failed give null.
+     */
+    static String vehicleModel(String vehicleType) {
+        if (vehicleType == null || vehicleType.isBlank()) {
+            return null;
+        }
+        String model = TRAILING_YEAR.matcher(vehicleType.trim().toLowerCase()).replaceFirst("");
+        if (model.startsWith("vehicle id:") || model.contains("|")) {
+            return null;
+        }
+        return model.replaceAll("\\s+", " ");
+    }
+}
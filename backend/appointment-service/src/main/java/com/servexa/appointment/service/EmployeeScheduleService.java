@@ -0,0 +1,237 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.AppointmentResponse;
+import com.servexa.appointment.dto.EmployeeJobResponse;
+import com.servexa.appointment.entity.Appointment;
+import com.servexa.appointment.event.AppointmentChangedEvent;
+import com.servexa.appointment.repository.AppointmentRepository;
+import com.servexa.common.branch.BranchContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Keeps an in-memory queue of open jobs per employee, ordered by booking time, so employee
+ * devices can ask for "today" or "next N" without pulling their whole appointment history.
+ * Queues are loaded lazily from the database on first access and then kept current from
+ * appointment change events.
+ *
+ * <p>Queues are held per branch, so a busy branch's employees never crowd out another
+ * branch's, and each branch's set can be dropped or moved on its own.</p>
+ *
+ * <p>Events only arrive for changes committed on this instance, so a queue is also reloaded once
+ * it is older than {@code appointment.schedule.queue-ttl-ms}; changes made through another
+ * replica show up within that window. A TTL of zero reads through to the database every time.</p>
+ *
+ * <p>Each employee's queue has a version, bumped by every event for that employee. A load is only
+ * cached if the version did not move while it ran; events and installs for the same employee go
+ * through {@code compute} on that employee's key, so neither can slip between the other's check
+ * and write. Changes to other employees never cost a load its cache slot.</p>
+ */
+@Service
+@Slf4j
+public class EmployeeScheduleService {
+
+    static final Set<String> CLOSED_STATUSES = Set.of("COMPLETED", "CANCELLED", "REJECTED");
+    private static final int MAX_LIMIT = 50;
+
+    private static final Comparator<EmployeeJobResponse> BY_BOOKING_TIME =
+            Comparator.comparing(EmployeeJobResponse::getBookingDateTime)
+                    .thenComparing(EmployeeJobResponse::getId);
+
+    private final AppointmentRepository appointmentRepository;
+    private final long queueTtlMs;
+
+    // branch id -> employee id -> queue
+    private final Map<String, Map<String, JobQueue>> queues = new ConcurrentHashMap<>();
+
+    // "branch|employee" -> number of events applied for that employee; one entry per employee seen
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+
+    public EmployeeScheduleService(AppointmentRepository appointmentRepository,
+                                   @Value("${appointment.schedule.queue-ttl-ms:30000}") long queueTtlMs) {
+        this.appointmentRepository = appointmentRepository;
+        this.queueTtlMs = queueTtlMs;
+    }
+
+    public List<EmployeeJobResponse> getNextJobs(String employeeId, int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return queueFor(BranchContext.current(), employeeId).head(boundedLimit, null);
+    }
+
+    public List<EmployeeJobResponse> getTodaysJobs(String employeeId) {
+        LocalDateTime endOfDay = LocalDate.now().plusDays(1).atStartOfDay();
+        return queueFor(BranchContext.current(), employeeId).head(MAX_LIMIT, endOfDay);
+    }
+
+    @TransactionalEventListener
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        AppointmentResponse appointment = event.getAppointment();
+        String branchId = branchOf(appointment);
+        String employeeId = appointment.getAssignedEmployeeId();
+        String previousEmployeeId = event.getPreviousEmployeeId();
+
+        if (previousEmployeeId != null && !previousEmployeeId.equals(employeeId)) {
+            apply(branchId, previousEmployeeId, queue -> queue.remove(appointment.getId()));
+        }
+
+        if (employeeId == null) {
+            return;
+        }
+
+        if (isOpen(appointment.getStatus())) {
+            EmployeeJobResponse job = toJob(appointment);
+            apply(branchId, employeeId, queue -> queue.upsert(job));
+        } else {
+            apply(branchId, employeeId, queue -> queue.remove(appointment.getId()));
+        }
+    }
+
+    // Drops finished days so cached queues stay proportional to open work, not history
+    @Scheduled(cron = "${appointment.schedule.prune-cron:0 5 0 * * *}")
+    public void pruneElapsedJobs() {
+        LocalDateTime startOfToday = LocalDate.now().atStartOfDay();
+        queues.values().forEach(branchQueues -> branchQueues.values().forEach(queue -> queue.pruneBefore(startOfToday)));
+        log.debug("Pruned employee job queues for {} branches", queues.size());
+    }
+
+    private JobQueue queueFor(String branchId, String employeeId) {
+        Map<String, JobQueue> branchQueues = queues.computeIfAbsent(branchId, key -> new ConcurrentHashMap<>());
+        JobQueue cached = branchQueues.get(employeeId);
+        if (cached != null && System.currentTimeMillis() - cached.loadedAt < queueTtlMs) {
+            return cached;
+        }
+
+        String versionKey = versionKey(branchId, employeeId);
+        long versionBeforeLoad = versions.getOrDefault(versionKey, 0L);
+        JobQueue loaded = load(branchId, employeeId);
+        JobQueue current = branchQueues.compute(employeeId, (key, present) -> {
+            if (versions.getOrDefault(versionKey, 0L) != versionBeforeLoad) {
+                // An event for this employee overlapped the load, which may have missed it
+                return present;
+            }
+            // Another reader may have refreshed the stale queue already; either copy is current
+            return present != null && present != cached ? present : loaded;
+        });
+        return current != null && current != cached ? current : loaded;
+    }
+
+    // Employees without a cached queue pick the change up on their next lazy load
+    private void apply(String branchId, String employeeId, Consumer<JobQueue> change) {
+        Map<String, JobQueue> branchQueues = queues.computeIfAbsent(branchId, key -> new ConcurrentHashMap<>());
+        branchQueues.compute(employeeId, (key, queue) -> {
+            versions.merge(versionKey(branchId, employeeId), 1L, Long::sum);
+            if (queue != null) {
+                change.accept(queue);
+            }
+            return queue;
+        });
+    }
+
+    private static String versionKey(String branchId, String employeeId) {
+        return branchId + "|" + employeeId;
+    }
+
+    private JobQueue load(String branchId, String employeeId) {
+        log.debug("Loading job queue for employee {} in branch {}", employeeId, branchId);
+        List<Appointment> openJobs = appointmentRepository.findOpenJobsForEmployee(
+                branchId, employeeId, CLOSED_STATUSES, LocalDate.now().atStartOfDay());
+        JobQueue queue = new JobQueue();
+        openJobs.forEach(appointment -> queue.upsert(toJob(appointment)));
+        return queue;
+    }
+
+    private static String branchOf(AppointmentResponse appointment) {
+        return appointment.getBranchId() != null ? appointment.getBranchId() : BranchContext.DEFAULT_BRANCH;
+    }
+
+    static boolean isOpen(String status) {
+        return status != null && !CLOSED_STATUSES.contains(status.toUpperCase());
+    }
+
+    private EmployeeJobResponse toJob(Appointment appointment) {
+        return EmployeeJobResponse.builder()
+                .id(appointment.getId())
+                .fullName(appointment.getFullName())
+                .vehicleType(appointment.getVehicleType())
+                .serviceType(appointment.getServiceType())
+                .bookingDateTime(appointment.getBookingDateTime())
+                .duration(appointment.getDuration())
+                .status(appointment.getStatus())
+                .build();
+    }
+
+    private EmployeeJobResponse toJob(AppointmentResponse appointment) {
+        return EmployeeJobResponse.builder()
+                .id(appointment.getId())
+                .fullName(appointment.getFullName())
+                .vehicleType(appointment.getVehicleType())
+                .serviceType(appointment.getServiceType())
+                .bookingDateTime(appointment.getBookingDateTime())
+                .duration(appointment.getDuration())
+                .status(appointment.getStatus())
+                .build();
+    }
+
+    /**
+     * Sorted set keyed by booking time with an id index, giving O(log n) insert, removal and
+     * head access. Guarded by its own monitor; contention is per employee.
+     */
+    static class JobQueue {
+
+        private final TreeSet<EmployeeJobResponse> ordered = new TreeSet<>(BY_BOOKING_TIME);
+        private final Map<String, EmployeeJobResponse> byId = new HashMap<>();
+        private final long loadedAt = System.currentTimeMillis();
+
+        synchronized void upsert(EmployeeJobResponse job) {
+            EmployeeJobResponse existing = byId.put(job.getId(), job);
+            if (existing != null) {
+                ordered.remove(existing);
+            }
+            ordered.add(job);
+        }
+
+        synchronized void remove(String appointmentId) {
+            EmployeeJobResponse existing = byId.remove(appointmentId);
+            if (existing != null) {
+                ordered.remove(existing);
+            }
+        }
+
+        synchronized List<EmployeeJobResponse> head(int limit, LocalDateTime before) {
+            List<EmployeeJobResponse> jobs = new ArrayList<>(Math.min(limit, ordered.size()));
+            for (EmployeeJobResponse job : ordered) {
+                if (jobs.size() >= limit || (before != null && !job.getBookingDateTime().isBefore(before))) {
+                    break;
+                }
+                jobs.add(job);
+            }
+            return jobs;
+        }
+
+        synchronized void pruneBefore(LocalDateTime cutoff) {
+            ordered.removeIf(job -> {
+                boolean elapsed = job.getBookingDateTime().isBefore(cutoff)
+                        && !"IN_PROGRESS".equalsIgnoreCase(job.getStatus());
+                if (elapsed) {
+                    byId.remove(job.getId());
+                }
+                return elapsed;
+            });
+        }
+    }
+}
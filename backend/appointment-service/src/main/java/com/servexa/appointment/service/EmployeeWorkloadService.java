@@ -0,0 +1,231 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.EmployeeWorkloadDay;
+import com.servexa.appointment.dto.EmployeeWorkloadResponse;
+import com.servexa.appointment.dto.WorkloadReportResponse;
+import com.servexa.common.branch.BranchContext;
+import com.servexa.common.exception.BadRequestException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-employee workload for a date range: job counts and booked minutes per day from one grouped
+ * query, plus a utilization heatmap of the working day in fixed slots.
+ *
+ * <p>Both queries are range scans on {@code idx_appointments_branch_employee_booking} within
+ * the caller's branch. The heatmap is built per employee-day with a difference array over the
+ * minutes of the working day; its prefix sum gives the busy minutes, and a second prefix sum over
+ * those lets every slot be read in O(1). Reports are cached per branch for
+ * {@code appointment.workload.cache-ttl-ms} so dashboards refreshing together share one
+ * computation.</p>
+ */
+@Service
+@Slf4j
+public class EmployeeWorkloadService {
+
+    private static final long MAX_RANGE_DAYS = 31;
+    private static final int MAX_CACHED_REPORTS = 256;
+
+    private static final String EXCLUDED_STATUSES = "('CANCELLED', 'REJECTED')";
+
+    private static final String TOTALS_SQL =
+            "SELECT assigned_employee_id, CAST(booking_date_time AS DATE) AS day, COUNT(*) AS assigned, " +
+            "SUM(CASE WHEN status = 'IN_PROGRESS' THEN 1 ELSE 0 END) AS in_progress, " +
+            "SUM(CASE WHEN status = 'COMPLETED' THEN 1 ELSE 0 END) AS completed, " +
+            "SUM(duration) AS booked_minutes " +
+            "FROM appointments WHERE branch_id = :branchId AND assigned_employee_id IS NOT NULL " +
+            "AND booking_date_time >= :from AND booking_date_time < :to " +
+            "AND status NOT IN " + EXCLUDED_STATUSES + " %s" +
+            "GROUP BY assigned_employee_id, CAST(booking_date_time AS DATE)";
+
+    private static final String INTERVALS_SQL =
+            "SELECT assigned_employee_id, booking_date_time, duration " +
+            "FROM appointments WHERE branch_id = :branchId AND assigned_employee_id IS NOT NULL " +
+            "AND booking_date_time >= :from AND booking_date_time < :to " +
+            "AND status NOT IN " + EXCLUDED_STATUSES + " %s";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Map<String, CachedReport> cache = new ConcurrentHashMap<>();
+
+    private final long cacheTtlMs;
+    private final LocalTime dayStart;
+    private final LocalTime dayEnd;
+    private final int slotMinutes;
+
+    public EmployeeWorkloadService(
+            DataSource dataSource,
+            @Value("${appointment.workload.cache-ttl-ms:30000}") long cacheTtlMs,
+            @Value("${appointment.workload.day-start:08:00}") String dayStart,
+            @Value("${appointment.workload.day-end:18:00}") String dayEnd,
+            @Value("${appointment.workload.slot-minutes:30}") int slotMinutes) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.cacheTtlMs = cacheTtlMs;
+        this.dayStart = LocalTime.parse(dayStart);
+        this.dayEnd = LocalTime.parse(dayEnd);
+        this.slotMinutes = slotMinutes;
+    }
+
+    @Transactional(readOnly = true)
+    public WorkloadReportResponse getWorkload(LocalDate from, LocalDate to, Collection<String> employeeIds) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new BadRequestException("Workload range is limited to " + MAX_RANGE_DAYS + " days");
+        }
+
+        TreeSet<String> employeeFilter = employeeIds == null ? new TreeSet<>() : new TreeSet<>(employeeIds);
+        String branchId = BranchContext.current();
+        String cacheKey = branchId + "|" + from + "|" + to + "|" + String.join(",", employeeFilter);
+        long now = System.currentTimeMillis();
+        CachedReport cached = cache.get(cacheKey);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.report;
+        }
+
+        WorkloadReportResponse report = compute(branchId, from, to, employeeFilter);
+        if (cache.size() >= MAX_CACHED_REPORTS) {
+            cache.values().removeIf(entry -> entry.expiresAt <= now);
+            if (cache.size() >= MAX_CACHED_REPORTS) {
+                cache.clear();
+            }
+        }
+        cache.put(cacheKey, new CachedReport(report, now + cacheTtlMs));
+        return report;
+    }
+
+    private WorkloadReportResponse compute(String branchId, LocalDate from, LocalDate to, Collection<String> employeeIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("branchId", branchId)
+                .addValue("from", Timestamp.valueOf(from.atStartOfDay()))
+                .addValue("to", Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+        String employeeClause = "";
+        if (!employeeIds.isEmpty()) {
+            employeeClause = "AND assigned_employee_id IN (:employeeIds) ";
+            params.addValue("employeeIds", employeeIds);
+        }
+
+        Map<String, Map<LocalDate, EmployeeWorkloadDay>> byEmployee = new TreeMap<>();
+        jdbcTemplate.query(String.format(TOTALS_SQL, employeeClause), params, rs -> {
+            EmployeeWorkloadDay day = EmployeeWorkloadDay.builder()
+                    .date(rs.getDate("day").toLocalDate())
+                    .assignedCount(rs.getLong("assigned"))
+                    .inProgressCount(rs.getLong("in_progress"))
+                    .completedCount(rs.getLong("completed"))
+                    .bookedMinutes(rs.getLong("booked_minutes"))
+                    .build();
+            byEmployee.computeIfAbsent(rs.getString("assigned_employee_id"), id -> new TreeMap<>())
+                    .put(day.getDate(), day);
+        });
+
+        int dayMinutes = (int) Duration.between(dayStart, dayEnd).toMinutes();
+        Map<String, Map<LocalDate, List<int[]>>> intervals = new TreeMap<>();
+        jdbcTemplate.query(String.format(INTERVALS_SQL, employeeClause), params, rs -> {
+            LocalDateTime start = rs.getTimestamp("booking_date_time").toLocalDateTime();
+            int startMinute = (int) Duration.between(dayStart, start.toLocalTime()).toMinutes();
+            intervals.computeIfAbsent(rs.getString("assigned_employee_id"), id -> new TreeMap<>())
+                    .computeIfAbsent(start.toLocalDate(), date -> new ArrayList<>())
+                    .add(new int[]{startMinute, startMinute + rs.getInt("duration")});
+        });
+
+        List<EmployeeWorkloadResponse> employees = new ArrayList<>();
+        byEmployee.forEach((employeeId, days) -> {
+            Map<LocalDate, List<int[]>> employeeIntervals = intervals.getOrDefault(employeeId, Map.of());
+            long busyMinutes = 0;
+            for (EmployeeWorkloadDay day : days.values()) {
+                long[] busyPrefix = busyMinutePrefix(employeeIntervals.getOrDefault(day.getDate(), List.of()), dayMinutes);
+                day.setSlots(slotUtilization(busyPrefix, slotMinutes));
+                day.setUtilization(dayMinutes == 0 ? 0 : (double) busyPrefix[dayMinutes] / dayMinutes);
+                busyMinutes += busyPrefix[dayMinutes];
+            }
+            long workingMinutes = (long) dayMinutes * (ChronoUnit.DAYS.between(from, to) + 1);
+            employees.add(EmployeeWorkloadResponse.builder()
+                    .employeeId(employeeId)
+                    .assignedCount(days.values().stream().mapToLong(EmployeeWorkloadDay::getAssignedCount).sum())
+                    .inProgressCount(days.values().stream().mapToLong(EmployeeWorkloadDay::getInProgressCount).sum())
+                    .completedCount(days.values().stream().mapToLong(EmployeeWorkloadDay::getCompletedCount).sum())
+                    .bookedMinutes(days.values().stream().mapToLong(EmployeeWorkloadDay::getBookedMinutes).sum())
+                    .utilization(workingMinutes == 0 ? 0 : (double) busyMinutes / workingMinutes)
+                    .days(new ArrayList<>(days.values()))
+                    .build());
+        });
+
+        log.debug("Computed workload for {} employees between {} and {}", employees.size(), from, to);
+        return WorkloadReportResponse.builder()
+                .from(from)
+                .to(to)
+                .dayStart(dayStart)
+                .dayEnd(dayEnd)
+                .slotMinutes(slotMinutes)
+                .generatedAt(LocalDateTime.now())
+                .employees(employees)
+                .build();
+    }
+
+    /**
+     * Prefix sums of busy minutes over the working day: element {@code m} is the number of busy
+     * minutes before minute {@code m}. Intervals are {@code [start, end)} in minutes from the
+     * start of the working day and are clipped to it; overlapping jobs count once.
+     */
+    static long[] busyMinutePrefix(List<int[]> intervals, int dayMinutes) {
+        int[] delta = new int[dayMinutes + 1];
+        for (int[] interval : intervals) {
+            int start = Math.max(0, interval[0]);
+            int end = Math.min(dayMinutes, interval[1]);
+            if (start < end) {
+                delta[start]++;
+                delta[end]--;
+            }
+        }
+
+        long[] busyPrefix = new long[dayMinutes + 1];
+        int running = 0;
+        for (int minute = 0; minute < dayMinutes; minute++) {
+            running += delta[minute];
+            busyPrefix[minute + 1] = busyPrefix[minute] + (running > 0 ? 1 : 0);
+        }
+        return busyPrefix;
+    }
+
+    static double[] slotUtilization(long[] busyPrefix, int slotMinutes) {
+        int dayMinutes = busyPrefix.length - 1;
+        int slotCount = (dayMinutes + slotMinutes - 1) / slotMinutes;
+        double[] slots = new double[slotCount];
+        for (int slot = 0; slot < slotCount; slot++) {
+            int start = slot * slotMinutes;
+            int end = Math.min(dayMinutes, start + slotMinutes);
+            slots[slot] = (double) (busyPrefix[end] - busyPrefix[start]) / (end - start);
+        }
+        return slots;
+    }
+
+    private static class CachedReport {
+
+        private final WorkloadReportResponse report;
+        private final long expiresAt;
+
+        CachedReport(WorkloadReportResponse report, long expiresAt) {
+            this.report = report;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
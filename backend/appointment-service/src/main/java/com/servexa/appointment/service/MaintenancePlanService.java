@@ -0,0 +1,242 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.MaintenancePlanRequest;
+import com.servexa.appointment.dto.MaintenancePlanResponse;
+import com.servexa.appointment.dto.UpcomingOccurrenceResponse;
+import com.servexa.appointment.entity.Appointment;
+import com.servexa.appointment.entity.MaintenancePlan;
+import com.servexa.appointment.event.AppointmentChangedEvent;
+import com.servexa.appointment.repository.AppointmentRepository;
+import com.servexa.appointment.repository.MaintenancePlanRepository;
+import com.servexa.appointment.util.RecurrenceRule;
+import com.servexa.common.branch.BranchContext;
+import com.servexa.common.exception.BadRequestException;
+import com.servexa.common.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Recurring maintenance plans. Occurrences within {@code appointment.maintenance.horizon-days}
+ * are materialised as ordinary appointments by the expansion job, so assignment, reminders and
+ * analytics treat them like any other booking; occurrences beyond the horizon exist only as
+ * the plan's rule and are computed on read. Occurrences already in the past when a plan is
+ * expanded are skipped rather than booked.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class MaintenancePlanService {
+
+    private final MaintenancePlanRepository planRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentService appointmentService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${appointment.maintenance.horizon-days:30}")
+    private int horizonDays = 30;
+
+    @Value("${appointment.maintenance.expansion-batch-size:200}")
+    private int expansionBatchSize = 200;
+
+    public MaintenancePlanResponse createPlan(MaintenancePlanRequest request) {
+        log.info("Creating maintenance plan for customer: {}", request.getCustomerId());
+        RecurrenceRule rule = parseRule(request.getRecurrenceRule());
+
+        MaintenancePlan plan = MaintenancePlan.builder()
+                .branchId(BranchContext.current())
+                .customerId(request.getCustomerId())
+                .fullName(request.getFullName())
+                .phoneNumber(request.getPhoneNumber())
+                .vehicleId(request.getVehicleId())
+                .vehicleType(request.getVehicleType())
+                .serviceType(request.getServiceType())
+                .paymentMethod(request.getPaymentMethod())
+                .duration(request.getDuration())
+                .additionalNote(request.getAdditionalNote())
+                .recurrenceRule(rule.toString())
+                .startDateTime(request.getStartDateTime())
+                .build();
+        plan = planRepository.save(plan);
+
+        expand(plan, rule, horizon());
+        log.info("Maintenance plan created successfully with ID: {}", plan.getId());
+        return mapToResponse(plan);
+    }
+
+    @Transactional(readOnly = true)
+    public List<MaintenancePlanResponse> getPlansByCustomerId(String customerId) {
+        log.info("Fetching maintenance plans for customer: {}", customerId);
+        return planRepository.findByCustomerIdAndIsActiveTrue(customerId)
+                .stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    public MaintenancePlanResponse cancelPlan(String planId) {
+        log.info("Cancelling maintenance plan: {}", planId);
+        MaintenancePlan plan = planRepository.findById(planId)
+                .orElseThrow(() -> new ResourceNotFoundException("Maintenance plan not found with ID: " + planId));
+        plan.setActive(false);
+
+        // Future occurrences nobody has picked up yet go with the plan
+        List<Appointment> pending = appointmentRepository.findByMaintenancePlanIdAndStatusAndBookingDateTimeAfter(
+                planId, "CREATED", LocalDateTime.now());
+        for (Appointment appointment : pending) {
+            appointment.setStatus("CANCELLED");
+            eventPublisher.publishEvent(AppointmentChangedEvent.statusChanged(
+                    appointmentService.mapToResponse(appointment), "CREATED"));
+        }
+        log.info("Cancelled maintenance plan {} and {} pending occurrences", planId, pending.size());
+        return mapToResponse(planRepository.save(plan));
+    }
+
+    /**
+     * Concrete appointments in {@code [from, to)} merged with the occurrences of the customer's
+     * active plans that lie beyond what has been expanded so far.
+     */
+    @Transactional(readOnly = true)
+    public List<UpcomingOccurrenceResponse> getUpcoming(String customerId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+        LocalDateTime windowStart = from.atStartOfDay();
+        LocalDateTime windowEnd = to.plusDays(1).atStartOfDay();
+
+        List<UpcomingOccurrenceResponse> occurrences = new ArrayList<>();
+        appointmentRepository
+                .findByCustomerIdAndBookingDateTimeGreaterThanEqualAndBookingDateTimeLessThanOrderByBookingDateTime(
+                        customerId, windowStart, windowEnd)
+                .forEach(appointment -> occurrences.add(UpcomingOccurrenceResponse.builder()
+                        .appointmentId(appointment.getId())
+                        .maintenancePlanId(appointment.getMaintenancePlanId())
+                        .vehicleId(appointment.getVehicleId())
+                        .vehicleType(appointment.getVehicleType())
+                        .serviceType(appointment.getServiceType())
+                        .bookingDateTime(appointment.getBookingDateTime())
+                        .duration(appointment.getDuration())
+                        .status(appointment.getStatus())
+                        .virtual(false)
+                        .build()));
+
+        LocalDateTime now = LocalDateTime.now();
+        for (MaintenancePlan plan : planRepository.findByCustomerIdAndIsActiveTrue(customerId)) {
+            LocalDateTime virtualStart = latest(windowStart, expansionStart(plan, now));
+            if (!virtualStart.isBefore(windowEnd)) {
+                continue;
+            }
+            RecurrenceRule rule = RecurrenceRule.parse(plan.getRecurrenceRule());
+            rule.occurrencesBetween(plan.getStartDateTime(), virtualStart, windowEnd)
+                    .forEach(bookingDateTime -> occurrences.add(UpcomingOccurrenceResponse.builder()
+                            .maintenancePlanId(plan.getId())
+                            .vehicleId(plan.getVehicleId())
+                            .vehicleType(plan.getVehicleType())
+                            .serviceType(plan.getServiceType())
+                            .bookingDateTime(bookingDateTime)
+                            .duration(plan.getDuration())
+                            .status("PLANNED")
+                            .virtual(true)
+                            .build()));
+        }
+
+        occurrences.sort(Comparator.comparing(UpcomingOccurrenceResponse::getBookingDateTime));
+        return occurrences;
+    }
+
+    /**
+     * Expands the next batch of plans that stop short of the horizon, returning how many were
+     * processed. Each call is its own transaction and holds row locks on its batch, which other
+     * instances skip; the job calls it until it returns zero.
+     */
+    public int expandNextBatch() {
+        LocalDateTime horizon = horizon();
+        List<MaintenancePlan> due = planRepository.findDueForExpansion(horizon, PageRequest.of(0, expansionBatchSize));
+        int created = 0;
+        for (MaintenancePlan plan : due) {
+            created += expand(plan, RecurrenceRule.parse(plan.getRecurrenceRule()), horizon);
+        }
+        planRepository.saveAll(due);
+        if (!due.isEmpty()) {
+            log.info("Expanded {} maintenance plans into {} appointments up to {}", due.size(), created, horizon);
+        }
+        return due.size();
+    }
+
+    private int expand(MaintenancePlan plan, RecurrenceRule rule, LocalDateTime horizon) {
+        LocalDateTime from = expansionStart(plan, LocalDateTime.now());
+        List<Appointment> appointments = rule.occurrencesBetween(plan.getStartDateTime(), from, horizon)
+                .stream()
+                .map(bookingDateTime -> Appointment.builder()
+                        .branchId(plan.getBranchId())
+                        .customerId(plan.getCustomerId())
+                        .fullName(plan.getFullName())
+                        .phoneNumber(plan.getPhoneNumber())
+                        .vehicleId(plan.getVehicleId())
+                        .vehicleType(plan.getVehicleType())
+                        .serviceType(plan.getServiceType())
+                        .bookingDateTime(bookingDateTime)
+                        .additionalNote(plan.getAdditionalNote())
+                        .paymentMethod(plan.getPaymentMethod())
+                        .status("CREATED")
+                        .isAssigned(false)
+                        .duration(plan.getDuration())
+                        .maintenancePlanId(plan.getId())
+                        .build())
+                .collect(Collectors.toList());
+
+        appointmentRepository.saveAll(appointments).forEach(appointment ->
+                eventPublisher.publishEvent(AppointmentChangedEvent.created(appointmentService.mapToResponse(appointment))));
+        plan.setExpandedUntil(horizon);
+        return appointments.size();
+    }
+
+    // Where unmaterialised occurrences begin; anything before now is never booked
+    private static LocalDateTime expansionStart(MaintenancePlan plan, LocalDateTime now) {
+        LocalDateTime expanded = plan.getExpandedUntil() != null ? plan.getExpandedUntil() : plan.getStartDateTime();
+        return latest(expanded, now);
+    }
+
+    private static LocalDateTime latest(LocalDateTime first, LocalDateTime second) {
+        return first.isAfter(second) ? first : second;
+    }
+
+    private LocalDateTime horizon() {
+        return LocalDate.now().plusDays(horizonDays + 1L).atStartOfDay();
+    }
+
+    private RecurrenceRule parseRule(String rule) {
+        try {
+            return RecurrenceRule.parse(rule);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+
+    private MaintenancePlanResponse mapToResponse(MaintenancePlan plan) {
+        return MaintenancePlanResponse.builder()
+                .id(plan.getId())
+                .customerId(plan.getCustomerId())
+                .vehicleId(plan.getVehicleId())
+                .vehicleType(plan.getVehicleType())
+                .serviceType(plan.getServiceType())
+                .duration(plan.getDuration())
+                .recurrenceRule(plan.getRecurrenceRule())
+                .startDateTime(plan.getStartDateTime())
+                .expandedUntil(plan.getExpandedUntil())
+                .active(plan.isActive())
+                .createdAt(plan.getCreatedAt())
+                .build();
+    }
+}
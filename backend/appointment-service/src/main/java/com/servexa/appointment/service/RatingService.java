@@ -0,0 +1,169 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.RatingRequest;
+import com.servexa.appointment.dto.RatingResponse;
+import com.servexa.appointment.dto.RatingSummaryResponse;
+import com.servexa.appointment.entity.Appointment;
+import com.servexa.appointment.entity.AppointmentRating;
+import com.servexa.appointment.entity.RatingAggregate;
+import com.servexa.appointment.entity.RatingAggregateId;
+import com.servexa.appointment.repository.AppointmentRatingRepository;
+import com.servexa.appointment.repository.AppointmentRepository;
+import com.servexa.appointment.repository.RatingAggregateRepository;
+import com.servexa.appointment.util.RatingAccumulator;
+import com.servexa.common.exception.BadRequestException;
+import com.servexa.common.exception.ResourceNotFoundException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+/**
+ * Accepts ratings for completed appointments and serves running averages per employee, service
+ * type and customer.
+ *
+ * <p>Submitting a rating inserts the rating row and then records it in a striped in-memory
+ * accumulator; the aggregate rows are only touched by the periodic flush, so concurrent ratings
+ * for a popular employee do not queue on the same database row. Reads add this node's unflushed
+ * deltas to the stored counters. Deltas not yet flushed when the process dies are lost, bounding
+ * drift to one flush interval of ratings.</p>
+ */
+@Service
+@Slf4j
+public class RatingService {
+
+    public static final String SCOPE_EMPLOYEE = "EMPLOYEE";
+    public static final String SCOPE_SERVICE_TYPE = "SERVICE_TYPE";
+    public static final String SCOPE_CUSTOMER = "CUSTOMER";
+
+    private final AppointmentRatingRepository ratingRepository;
+    private final RatingAggregateRepository aggregateRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final RatingAccumulator<RatingAggregateId> accumulator = new RatingAccumulator<>();
+
+    public RatingService(AppointmentRatingRepository ratingRepository,
+                         RatingAggregateRepository aggregateRepository,
+                         AppointmentRepository appointmentRepository,
+                         PlatformTransactionManager transactionManager) {
+        this.ratingRepository = ratingRepository;
+        this.aggregateRepository = aggregateRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public RatingResponse submit(RatingRequest request) {
+        Appointment appointment = appointmentRepository.findById(request.getAppointmentId())
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Appointment not found with ID: " + request.getAppointmentId()));
+        if (!appointment.getCustomerId().equals(request.getCustomerId())) {
+            throw new BadRequestException("Only the customer who booked the appointment can rate it");
+        }
+        if (!"COMPLETED".equalsIgnoreCase(appointment.getStatus())) {
+            throw new BadRequestException("Only completed appointments can be rated");
+        }
+        if (ratingRepository.existsByAppointmentId(appointment.getId())) {
+            throw new BadRequestException("Appointment has already been rated");
+        }
+
+        AppointmentRating rating;
+        try {
+            // Commits on its own, so the accumulator only ever sees persisted ratings
+            rating = ratingRepository.saveAndFlush(AppointmentRating.builder()
+                    .appointmentId(appointment.getId())
+                    .customerId(appointment.getCustomerId())
+                    .employeeId(appointment.getAssignedEmployeeId())
+                    .serviceType(appointment.getServiceType())
+                    .rating(request.getRating())
+                    .comment(request.getComment())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            throw new BadRequestException("Appointment has already been rated");
+        }
+
+        if (rating.getEmployeeId() != null) {
+            accumulator.record(new RatingAggregateId(SCOPE_EMPLOYEE, rating.getEmployeeId()), rating.getRating());
+        }
+        accumulator.record(new RatingAggregateId(SCOPE_SERVICE_TYPE, serviceTypeKey(rating.getServiceType())),
+                rating.getRating());
+        accumulator.record(new RatingAggregateId(SCOPE_CUSTOMER, rating.getCustomerId()), rating.getRating());
+        log.info("Recorded rating {} for appointment {}", rating.getRating(), appointment.getId());
+        return toResponse(rating);
+    }
+
+    public RatingSummaryResponse getEmployeeSummary(String employeeId) {
+        return summarize(new RatingAggregateId(SCOPE_EMPLOYEE, employeeId));
+    }
+
+    public RatingSummaryResponse getServiceTypeSummary(String serviceType) {
+        return summarize(new RatingAggregateId(SCOPE_SERVICE_TYPE, serviceTypeKey(serviceType)));
+    }
+
+    public RatingSummaryResponse getCustomerSummary(String customerId) {
+        return summarize(new RatingAggregateId(SCOPE_CUSTOMER, customerId));
+    }
+
+    @Scheduled(fixedDelayString = "${appointment.ratings.flush-interval-ms:5000}")
+    public void flush() {
+        Map<RatingAggregateId, long[]> drained = accumulator.drain();
+        if (drained.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(tx -> drained.forEach((id, totals) ->
+                    aggregateRepository.applyDelta(id.getScope(), id.getScopeKey(), totals[0], totals[1])));
+            log.debug("Flushed rating aggregates for {} keys", drained.size());
+        } catch (RuntimeException e) {
+            // Hand the deltas back so the next flush retries them
+            drained.forEach((id, totals) -> accumulator.add(id, totals[0], totals[1]));
+            log.error("Failed to flush rating aggregates for {} keys", drained.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private RatingSummaryResponse summarize(RatingAggregateId id) {
+        long sum = 0;
+        long count = 0;
+        RatingAggregate stored = aggregateRepository.findById(id).orElse(null);
+        if (stored != null) {
+            sum += stored.getRatingSum();
+            count += stored.getRatingCount();
+        }
+        long[] pending = accumulator.pending(id);
+        sum += pending[0];
+        count += pending[1];
+
+        return RatingSummaryResponse.builder()
+                .scope(id.getScope())
+                .key(id.getScopeKey())
+                .ratingCount(count)
+                .averageRating(count == 0 ? null : Math.round(sum * 100.0 / count) / 100.0)
+                .build();
+    }
+
+    private static String serviceTypeKey(String serviceType) {
+        return ServiceCatalogService.normalize(serviceType);
+    }
+
+    private RatingResponse toResponse(AppointmentRating rating) {
+        return RatingResponse.builder()
+                .id(rating.getId())
+                .appointmentId(rating.getAppointmentId())
+                .customerId(rating.getCustomerId())
+                .employeeId(rating.getEmployeeId())
+                .serviceType(rating.getServiceType())
+                .rating(rating.getRating())
+                .comment(rating.getComment())
+                .createdAt(rating.getCreatedAt())
+                .build();
+    }
+}
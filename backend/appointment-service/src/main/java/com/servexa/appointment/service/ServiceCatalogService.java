@@ -0,0 +1,238 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.ServiceCatalogEntryResponse;
+import com.servexa.appointment.dto.ServiceCatalogRequest;
+import com.servexa.appointment.entity.ServiceCatalogEntry;
+import com.servexa.appointment.repository.ServiceCatalogRepository;
+import com.servexa.common.exception.BadRequestException;
+import com.servexa.common.exception.ResourceNotFoundException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Owns the service catalog and serves it from an immutable in-memory snapshot.
+ *
+ * <p>Readers (booking validation, pricing, reminders, the catalog API) dereference one
+ * {@link AtomicReference} and never touch the database. A write rebuilds the whole snapshot
+ * after it commits and swaps it in atomically, so a reader sees either the old catalog or the
+ * new one, never a mix. Other nodes pick up changes by polling a cheap fingerprint query every
+ * {@code appointment.catalog.refresh-ms}.</p>
+ *
+ * <p>Each snapshot carries a strong ETag derived from its content, so every node serving the
+ * same catalog returns the same tag.</p>
+ */
+@Service
+@Slf4j
+public class ServiceCatalogService {
+
+    private final ServiceCatalogRepository catalogRepository;
+    private final BigDecimal defaultPrice;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+
+    public ServiceCatalogService(ServiceCatalogRepository catalogRepository,
+                                 @Value("${appointment.pricing.default-price:100.00}") BigDecimal defaultPrice) {
+        this.catalogRepository = catalogRepository;
+        this.defaultPrice = defaultPrice.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    @PostConstruct
+    public void reload() {
+        String fingerprint = catalogRepository.fingerprint();
+        List<ServiceCatalogEntry> entries = catalogRepository.findAll();
+        Snapshot loaded = Snapshot.of(entries, fingerprint);
+        Snapshot previous = snapshot.getAndSet(loaded);
+        if (!loaded.etag.equals(previous.etag)) {
+            log.info("Loaded service catalog with {} entries (etag {})", loaded.entries.size(), loaded.etag);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${appointment.catalog.refresh-ms:30000}")
+    public void refreshIfChanged() {
+        if (!Objects.equals(catalogRepository.fingerprint(), snapshot.get().fingerprint)) {
+            reload();
+        }
+    }
+
+    public Snapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /** The active catalog entry for {@code serviceType}, or null when it is not in the catalog. */
+    public ServiceCatalogEntryResponse find(String serviceType) {
+        if (serviceType == null) {
+            return null;
+        }
+        ServiceCatalogEntryResponse entry = snapshot.get().entries.get(normalize(serviceType));
+        return entry != null && entry.isActive() ? entry : null;
+    }
+
+    public ServiceCatalogEntryResponse getEntry(String serviceType) {
+        ServiceCatalogEntryResponse entry = snapshot.get().entries.get(normalize(serviceType));
+        if (entry == null) {
+            throw new ResourceNotFoundException("Service type not found in catalog: " + serviceType);
+        }
+        return entry;
+    }
+
+    /**
+     * Checks a requested service type against the catalog and returns its entry. While the
+     * catalog is empty any service type is accepted and null is returned, so deployments that
+     * have not set up a catalog keep booking free-form services.
+     */
+    public ServiceCatalogEntryResponse requireBookable(String serviceType) {
+        Snapshot current = snapshot.get();
+        if (current.entries.isEmpty()) {
+            return null;
+        }
+        ServiceCatalogEntryResponse entry = find(serviceType);
+        if (entry == null) {
+            throw new BadRequestException("Unknown or inactive service type: " + serviceType);
+        }
+        return entry;
+    }
+
+    public BigDecimal priceFor(String serviceType) {
+        ServiceCatalogEntryResponse entry = find(serviceType);
+        return entry != null ? entry.getPrice() : defaultPrice;
+    }
+
+    public BigDecimal getDefaultPrice() {
+        return defaultPrice;
+    }
+
+    @Transactional
+    public ServiceCatalogEntryResponse upsert(String serviceType, ServiceCatalogRequest request) {
+        if (serviceType == null || serviceType.isBlank()) {
+            throw new BadRequestException("Service type is required");
+        }
+        ServiceCatalogEntry saved = catalogRepository.save(ServiceCatalogEntry.builder()
+                .serviceType(normalize(serviceType))
+                .displayName(request.getDisplayName().trim())
+                .defaultDuration(request.getDefaultDuration())
+                .bayType(request.getBayType().trim().toUpperCase())
+                .baysRequired(request.getBaysRequired())
+                .price(request.getPrice().setScale(2, RoundingMode.HALF_UP))
+                .active(request.isActive())
+                .updatedAt(LocalDateTime.now())
+                .build());
+        log.info("Saved catalog entry '{}'", saved.getServiceType());
+        afterCommit(this::reload);
+        return toResponse(saved);
+    }
+
+    @Transactional
+    public void deactivate(String serviceType) {
+        ServiceCatalogEntry entry = catalogRepository.findById(normalize(serviceType))
+                .orElseThrow(() -> new ResourceNotFoundException("Service type not found in catalog: " + serviceType));
+        entry.setActive(false);
+        entry.setUpdatedAt(LocalDateTime.now());
+        catalogRepository.save(entry);
+        log.info("Deactivated catalog entry '{}'", entry.getServiceType());
+        afterCommit(this::reload);
+    }
+
+    static String normalize(String serviceType) {
+        return serviceType.trim().toLowerCase();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static ServiceCatalogEntryResponse toResponse(ServiceCatalogEntry entry) {
+        return ServiceCatalogEntryResponse.builder()
+                .serviceType(entry.getServiceType())
+                .displayName(entry.getDisplayName())
+                .defaultDuration(entry.getDefaultDuration())
+                .bayType(entry.getBayType())
+                .baysRequired(entry.getBaysRequired())
+                .price(entry.getPrice())
+                .active(entry.isActive())
+                .updatedAt(entry.getUpdatedAt())
+                .build();
+    }
+
+    /**
+     * One immutable version of the catalog: entries by normalised service type, in service type
+     * order, plus the ETag of that content.
+     */
+    public static final class Snapshot {
+
+        static final Snapshot EMPTY = of(List.of(), null);
+
+        private final Map<String, ServiceCatalogEntryResponse> entries;
+        private final List<ServiceCatalogEntryResponse> list;
+        private final String etag;
+        private final String fingerprint;
+
+        private Snapshot(Map<String, ServiceCatalogEntryResponse> entries, String etag, String fingerprint) {
+            this.entries = entries;
+            this.list = List.copyOf(entries.values());
+            this.etag = etag;
+            this.fingerprint = fingerprint;
+        }
+
+        static Snapshot of(List<ServiceCatalogEntry> catalog, String fingerprint) {
+            Map<String, ServiceCatalogEntryResponse> entries = new LinkedHashMap<>();
+            catalog.stream()
+                    .sorted((left, right) -> left.getServiceType().compareTo(right.getServiceType()))
+                    .forEach(entry -> entries.put(entry.getServiceType(), toResponse(entry)));
+
+            MessageDigest digest = sha256();
+            for (ServiceCatalogEntryResponse entry : entries.values()) {
+                String line = String.join("|", entry.getServiceType(), entry.getDisplayName(),
+                        String.valueOf(entry.getDefaultDuration()), entry.getBayType(),
+                        String.valueOf(entry.getBaysRequired()), entry.getPrice().toPlainString(),
+                        String.valueOf(entry.isActive())) + "\n";
+                digest.update(line.getBytes(StandardCharsets.UTF_8));
+            }
+            String etag = "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+            return new Snapshot(Collections.unmodifiableMap(entries), etag, fingerprint);
+        }
+
+        public List<ServiceCatalogEntryResponse> getEntries() {
+            return list;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        private static MessageDigest sha256() {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+    }
+}
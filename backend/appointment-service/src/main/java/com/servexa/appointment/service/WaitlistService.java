@@ -0,0 +1,258 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.AppointmentRequest;
+import com.servexa.appointment.dto.AppointmentResponse;
+import com.servexa.appointment.dto.ServiceCatalogEntryResponse;
+import com.servexa.appointment.dto.WaitlistEntryResponse;
+import com.servexa.appointment.dto.WaitlistRequest;
+import com.servexa.appointment.entity.WaitlistEntry;
+import com.servexa.appointment.event.AppointmentChangedEvent;
+import com.servexa.appointment.repository.WaitlistEntryRepository;
+import com.servexa.common.branch.BranchContext;
+import com.servexa.common.client.NotificationClient;
+import com.servexa.common.client.NotificationClient.NotificationPriority;
+import com.servexa.common.client.NotificationClient.NotificationType;
+import com.servexa.common.exception.BadRequestException;
+import com.servexa.common.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Refills cancelled capacity from a waitlist. Customers wait for a day and service type at the
+ * branch they joined from; a cancellation hands its slot to the longest-waiting customer of that
+ * branch, who holds the offer for
+ * {@code appointment.waitlist.hold-minutes}; declined or expired offers move straight on to the
+ * next in line.
+ *
+ * <p>The queue is {@code waitlist_entries} itself rather than per-instance memory, so every
+ * replica sees the same order. The head candidate is claimed with {@code FOR UPDATE SKIP LOCKED}
+ * on the status/date index: two cancellations of the same kind handled on different replicas
+ * offer their slots to different customers instead of racing for the same one. Expired offers
+ * are found the same way, so whichever replica sweeps first handles each of them once.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class WaitlistService {
+
+    private static final Set<String> LIVE_STATUSES = Set.of("WAITING", "OFFERED");
+    private static final int EXPIRY_BATCH_SIZE = 100;
+
+    private final WaitlistEntryRepository waitlistRepository;
+    private final AppointmentService appointmentService;
+    private final NotificationClient notificationClient;
+    private final ServiceCatalogService catalogService;
+
+    @Value("${appointment.waitlist.hold-minutes:15}")
+    private long holdMinutes = 15;
+
+    public WaitlistEntryResponse join(WaitlistRequest request) {
+        log.info("Adding customer {} to the {} waitlist for {}",
+                request.getCustomerId(), request.getServiceType(), request.getDesiredDate());
+        if (request.getDesiredDate().isBefore(LocalDate.now())) {
+            throw new BadRequestException("Desired date must not be in the past");
+        }
+        ServiceCatalogEntryResponse catalogEntry = catalogService.requireBookable(request.getServiceType());
+        Integer duration = request.getDuration();
+        if (duration == null && catalogEntry != null) {
+            duration = catalogEntry.getDefaultDuration();
+        }
+        if (duration == null) {
+            throw new BadRequestException("Duration is required");
+        }
+
+        WaitlistEntry entry = WaitlistEntry.builder()
+                .branchId(BranchContext.current())
+                .customerId(request.getCustomerId())
+                .fullName(request.getFullName())
+                .phoneNumber(request.getPhoneNumber())
+                .vehicleId(request.getVehicleId())
+                .vehicleType(request.getVehicleType())
+                .serviceType(request.getServiceType())
+                .paymentMethod(request.getPaymentMethod())
+                .duration(duration)
+                .desiredDate(request.getDesiredDate())
+                .status("WAITING")
+                .build();
+        return mapToResponse(waitlistRepository.save(entry));
+    }
+
+    @Transactional(readOnly = true)
+    public List<WaitlistEntryResponse> getEntriesByCustomerId(String customerId) {
+        return waitlistRepository.findByCustomerIdOrderByCreatedAtDesc(customerId)
+                .stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    public WaitlistEntryResponse accept(String entryId) {
+        WaitlistEntry entry = lockEntry(entryId);
+        if (!"OFFERED".equals(entry.getStatus())) {
+            throw new BadRequestException("Waitlist entry has no open offer");
+        }
+        if (!entry.getOfferExpiresAt().isAfter(LocalDateTime.now())) {
+            throw new BadRequestException("The offer for this slot has expired");
+        }
+
+        AppointmentRequest request = AppointmentRequest.builder()
+                .customerId(entry.getCustomerId())
+                .fullName(entry.getFullName())
+                .phoneNumber(entry.getPhoneNumber())
+                .vehicleId(entry.getVehicleId())
+                .vehicleType(entry.getVehicleType())
+                .serviceType(entry.getServiceType())
+                .bookingDateTime(entry.getOfferedSlot())
+                .paymentMethod(entry.getPaymentMethod())
+                .duration(entry.getDuration())
+                .build();
+        // The slot belongs to the branch the entry waits at, whatever branch the accepting request names
+        AppointmentResponse appointment;
+        try {
+            appointment = BranchContext.callAs(entry.getBranchId(), () -> appointmentService.createAppointment(request));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not book waitlist entry " + entryId, e);
+        }
+
+        entry.setStatus("ACCEPTED");
+        entry.setAppointmentId(appointment.getId());
+        log.info("Waitlist entry {} accepted slot {} as appointment {}",
+                entryId, entry.getOfferedSlot(), appointment.getId());
+        return mapToResponse(waitlistRepository.save(entry));
+    }
+
+    public WaitlistEntryResponse decline(String entryId) {
+        WaitlistEntry entry = lockEntry(entryId);
+        if (!"OFFERED".equals(entry.getStatus())) {
+            throw new BadRequestException("Waitlist entry has no open offer");
+        }
+        entry.setStatus("DECLINED");
+        waitlistRepository.save(entry);
+        offerSlot(entry.getBranchId(), entry.getServiceType(), entry.getOfferedSlot());
+        return mapToResponse(entry);
+    }
+
+    public void leave(String entryId) {
+        WaitlistEntry entry = lockEntry(entryId);
+        if (!LIVE_STATUSES.contains(entry.getStatus())) {
+            throw new BadRequestException("Waitlist entry is already closed");
+        }
+        boolean hadOffer = "OFFERED".equals(entry.getStatus());
+        entry.setStatus("CANCELLED");
+        waitlistRepository.save(entry);
+        if (hadOffer) {
+            offerSlot(entry.getBranchId(), entry.getServiceType(), entry.getOfferedSlot());
+        }
+    }
+
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        AppointmentResponse appointment = event.getAppointment();
+        String branchId = appointment.getBranchId() != null ? appointment.getBranchId() : BranchContext.DEFAULT_BRANCH;
+        if (event.getType() == AppointmentChangedEvent.Type.RESCHEDULED) {
+            // The old slot is free again once the move commits
+            LocalDateTime freedSlot = event.getPreviousBookingDateTime();
+            if (freedSlot != null && freedSlot.isAfter(LocalDateTime.now())) {
+                offerSlot(branchId, appointment.getServiceType(), freedSlot);
+            }
+            return;
+        }
+        if (event.getType() != AppointmentChangedEvent.Type.STATUS_CHANGED
+                || !"CANCELLED".equalsIgnoreCase(appointment.getStatus())
+                || "CANCELLED".equalsIgnoreCase(event.getPreviousStatus())
+                || !appointment.getBookingDateTime().isAfter(LocalDateTime.now())) {
+            return;
+        }
+        offerSlot(branchId, appointment.getServiceType(), appointment.getBookingDateTime());
+    }
+
+    @Scheduled(fixedDelayString = "${appointment.waitlist.expiry-sweep-ms:5000}")
+    public void expireOffers() {
+        List<WaitlistEntry> expired = waitlistRepository.findExpiredOffersForUpdate(
+                LocalDateTime.now(), PageRequest.of(0, EXPIRY_BATCH_SIZE));
+        for (WaitlistEntry entry : expired) {
+            log.info("Offer to waitlist entry {} for slot {} expired", entry.getId(), entry.getOfferedSlot());
+            entry.setStatus("EXPIRED");
+            waitlistRepository.save(entry);
+            offerSlot(entry.getBranchId(), entry.getServiceType(), entry.getOfferedSlot());
+        }
+    }
+
+    /**
+     * Offers {@code slot} to the longest-waiting entry for its branch, day and service type, if
+     * any. Must run inside a transaction so the offer is persisted under the candidate's row lock.
+     */
+    private void offerSlot(String branchId, String serviceType, LocalDateTime slot) {
+        List<WaitlistEntry> candidates = waitlistRepository.findNextWaitingForUpdate(
+                branchId, slot.toLocalDate(), serviceType.trim(), PageRequest.of(0, 1));
+        if (candidates.isEmpty()) {
+            log.debug("No waitlist for {} on {} at branch {}", serviceType, slot.toLocalDate(), branchId);
+            return;
+        }
+
+        WaitlistEntry entry = candidates.get(0);
+        entry.setStatus("OFFERED");
+        entry.setOfferedSlot(slot);
+        entry.setOfferExpiresAt(LocalDateTime.now().plusMinutes(holdMinutes));
+        waitlistRepository.save(entry);
+        log.info("Offered slot {} to waitlist entry {}", slot, entry.getId());
+        notifyOffer(entry);
+    }
+
+    private void notifyOffer(WaitlistEntry entry) {
+        try {
+            String message = String.format(
+                    "A %s slot opened up on %s. Accept it within %d minutes to confirm your booking.",
+                    entry.getServiceType(), entry.getOfferedSlot(), holdMinutes);
+            notificationClient.sendNotification(
+                    entry.getCustomerId(),
+                    "Waitlist Slot Available",
+                    message,
+                    NotificationType.APPOINTMENT_UPDATED,
+                    NotificationPriority.HIGH,
+                    Map.of("waitlistEntryId", entry.getId(),
+                           "slot", entry.getOfferedSlot().toString())
+            );
+        } catch (Exception e) {
+            log.error("Failed to send waitlist offer notification for entry: {}", entry.getId(), e);
+        }
+    }
+
+    private WaitlistEntry lockEntry(String entryId) {
+        return waitlistRepository.findByIdForUpdate(entryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Waitlist entry not found with id: " + entryId));
+    }
+
+    private WaitlistEntryResponse mapToResponse(WaitlistEntry entry) {
+        return WaitlistEntryResponse.builder()
+                .id(entry.getId())
+                .branchId(entry.getBranchId())
+                .customerId(entry.getCustomerId())
+                .vehicleId(entry.getVehicleId())
+                .serviceType(entry.getServiceType())
+                .desiredDate(entry.getDesiredDate())
+                .status(entry.getStatus())
+                .offeredSlot(entry.getOfferedSlot())
+                .offerExpiresAt(entry.getOfferExpiresAt())
+                .appointmentId(entry.getAppointmentId())
+                .createdAt(entry.getCreatedAt())
+                .build();
+    }
+}
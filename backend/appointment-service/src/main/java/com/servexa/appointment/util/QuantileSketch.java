@@ -0,0 +1,130 @@
+package com.servexa.appointment.util;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mergeable streaming quantile sketch with relative-error guarantees, after DDSketch. Positive
+ * values are counted in logarithmically sized buckets, so any quantile is returned within
+ * {@code relativeAccuracy} of the true value while memory grows only with the logarithm of the
+ * value range, not with the number of values added.
+ */
+public final class QuantileSketch {
+
+    // Values at or below this are counted as zero; well under one second for durations
+    private static final double MIN_INDEXABLE_VALUE = 1e-3;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    private final TreeMap<Integer, Long> buckets = new TreeMap<>();
+    private long zeroCount;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public QuantileSketch(double relativeAccuracy) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("Relative accuracy must be between 0 and 1");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    public void add(double value) {
+        if (value < 0 || Double.isNaN(value)) {
+            throw new IllegalArgumentException("Only non-negative values can be added: " + value);
+        }
+        if (value <= MIN_INDEXABLE_VALUE) {
+            zeroCount++;
+        } else {
+            buckets.merge((int) Math.ceil(Math.log(value) / logGamma), 1L, Long::sum);
+        }
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot merge sketches with different accuracy");
+        }
+        other.buckets.forEach((index, bucketCount) -> buckets.merge(index, bucketCount, Long::sum));
+        zeroCount += other.zeroCount;
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Returns the value at quantile {@code q} (0 to 1), or {@code NaN} if nothing was added.
+     */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1: " + q);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (q == 0) {
+            return min;
+        }
+        if (q == 1) {
+            return max;
+        }
+
+        long rank = (long) Math.floor(q * (count - 1));
+        long seen = zeroCount;
+        if (rank < seen) {
+            return 0;
+        }
+        for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+            seen += bucket.getValue();
+            if (rank < seen) {
+                double estimate = 2 * Math.pow(gamma, bucket.getKey()) / (gamma + 1);
+                return Math.max(min, Math.min(max, estimate));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Serialises the sketch: accuracy, counts and extremes, then one (index, count) pair per
+     * non-empty bucket. The size depends on the value range, not on how many values were added.
+     */
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(8 + 8 + 8 + 8 + 8 + 4 + buckets.size() * (4 + 8));
+        buffer.putDouble(relativeAccuracy)
+                .putLong(zeroCount)
+                .putLong(count)
+                .putDouble(min)
+                .putDouble(max)
+                .putInt(buckets.size());
+        buckets.forEach((index, bucketCount) -> buffer.putInt(index).putLong(bucketCount));
+        return buffer.array();
+    }
+
+    public static QuantileSketch fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        QuantileSketch sketch = new QuantileSketch(buffer.getDouble());
+        sketch.zeroCount = buffer.getLong();
+        sketch.count = buffer.getLong();
+        sketch.min = buffer.getDouble();
+        sketch.max = buffer.getDouble();
+        int bucketCount = buffer.getInt();
+        for (int i = 0; i < bucketCount; i++) {
+            sketch.buckets.put(buffer.getInt(), buffer.getLong());
+        }
+        return sketch;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+}
@@ -0,0 +1,55 @@
+package com.servexa.appointment.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory rating sum and count per key, waiting to be flushed to the database.
+ *
+ * <p>Each key has a single {@link LongAdder}, which spreads concurrent updates over per-thread
+ * cells, so recording a rating never contends on a shared counter. The count lives in the high
+ * 32 bits and the sum in the low 32 bits of the same adder, so a drain always sees a matching
+ * sum and count. {@link LongAdder#sumThenReset()} moves each cell out with an atomic swap, so a
+ * rating recorded during a drain lands either in this drain or the next one and is never lost.</p>
+ *
+ * <p>Keys stay in the map after draining; removing them could drop a concurrent update.</p>
+ */
+public class RatingAccumulator<K> {
+
+    private static final long COUNT_UNIT = 1L << 32;
+    private static final long SUM_MASK = COUNT_UNIT - 1;
+
+    private final Map<K, LongAdder> cells = new ConcurrentHashMap<>();
+
+    public void record(K key, int rating) {
+        add(key, rating, 1);
+    }
+
+    public void add(K key, long sum, long count) {
+        cells.computeIfAbsent(key, ignored -> new LongAdder()).add(count * COUNT_UNIT + sum);
+    }
+
+    /** Not-yet-flushed totals for {@code key} as {sum, count}, without resetting them. */
+    public long[] pending(K key) {
+        LongAdder adder = cells.get(key);
+        return adder == null ? new long[]{0, 0} : unpack(adder.sum());
+    }
+
+    /** Resets every key and returns the drained {sum, count} totals of those that had any. */
+    public Map<K, long[]> drain() {
+        Map<K, long[]> drained = new HashMap<>();
+        cells.forEach((key, adder) -> {
+            long packed = adder.sumThenReset();
+            if (packed != 0) {
+                drained.put(key, unpack(packed));
+            }
+        });
+        return drained;
+    }
+
+    private static long[] unpack(long packed) {
+        return new long[]{packed & SUM_MASK, packed >>> 32};
+    }
+}
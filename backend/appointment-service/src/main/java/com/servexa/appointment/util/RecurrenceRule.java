@@ -0,0 +1,149 @@
+package com.servexa.appointment.util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The subset of RFC 5545 RRULE used by maintenance plans: {@code FREQ} (DAILY, WEEKLY, MONTHLY or
+ * YEARLY) with optional {@code INTERVAL}, {@code COUNT} and {@code UNTIL}, for example
+ * {@code FREQ=MONTHLY;INTERVAL=3;COUNT=8}.
+ *
+ * <p>The n-th occurrence is computed directly as {@code start + n * INTERVAL} units rather than
+ * by repeated addition, so month-end start dates do not drift and any window can be expanded
+ * without walking the series from the beginning.</p>
+ */
+public final class RecurrenceRule {
+
+    public enum Frequency {
+        DAILY(ChronoUnit.DAYS),
+        WEEKLY(ChronoUnit.WEEKS),
+        MONTHLY(ChronoUnit.MONTHS),
+        YEARLY(ChronoUnit.YEARS);
+
+        private final ChronoUnit unit;
+
+        Frequency(ChronoUnit unit) {
+            this.unit = unit;
+        }
+    }
+
+    private static final int MAX_INTERVAL = 1000;
+    private static final int MAX_OCCURRENCES = 1000;
+    private static final DateTimeFormatter UNTIL_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private final Frequency frequency;
+    private final int interval;
+    private final Integer count;
+    private final LocalDateTime until;
+
+    private RecurrenceRule(Frequency frequency, int interval, Integer count, LocalDateTime until) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.count = count;
+        this.until = until;
+    }
+
+    public static RecurrenceRule parse(String rule) {
+        if (rule == null || rule.isBlank()) {
+            throw new IllegalArgumentException("Recurrence rule is required");
+        }
+
+        Frequency frequency = null;
+        int interval = 1;
+        Integer count = null;
+        LocalDateTime until = null;
+
+        String body = rule.trim();
+        if (body.regionMatches(true, 0, "RRULE:", 0, 6)) {
+            body = body.substring(6);
+        }
+        for (String part : body.split(";")) {
+            String[] keyValue = part.split("=", 2);
+            if (keyValue.length != 2) {
+                throw new IllegalArgumentException("Malformed recurrence rule part: " + part);
+            }
+            String key = keyValue[0].trim().toUpperCase();
+            String value = keyValue[1].trim().toUpperCase();
+            try {
+                switch (key) {
+                    case "FREQ" -> frequency = Frequency.valueOf(value);
+                    case "INTERVAL" -> interval = Integer.parseInt(value);
+                    case "COUNT" -> count = Integer.parseInt(value);
+                    case "UNTIL" -> until = parseUntil(value);
+                    default -> throw new IllegalArgumentException("Unsupported recurrence rule part: " + key);
+                }
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid value for " + key + ": " + value);
+            }
+        }
+
+        if (frequency == null) {
+            throw new IllegalArgumentException("Recurrence rule must specify FREQ (DAILY, WEEKLY, MONTHLY or YEARLY)");
+        }
+        if (interval < 1 || interval > MAX_INTERVAL) {
+            throw new IllegalArgumentException("INTERVAL must be between 1 and " + MAX_INTERVAL);
+        }
+        if (count != null && count < 1) {
+            throw new IllegalArgumentException("COUNT must be positive");
+        }
+        if (count != null && until != null) {
+            throw new IllegalArgumentException("COUNT and UNTIL cannot be combined");
+        }
+        return new RecurrenceRule(frequency, interval, count, until);
+    }
+
+    /**
+     * Occurrences of a series starting at {@code start} that fall in {@code [from, to)}.
+     */
+    public List<LocalDateTime> occurrencesBetween(LocalDateTime start, LocalDateTime from, LocalDateTime to) {
+        List<LocalDateTime> occurrences = new ArrayList<>();
+        long index = 0;
+        if (from.isAfter(start)) {
+            // Jump close to the window instead of iterating from the first occurrence
+            index = Math.max(0, frequency.unit.between(start, from) / interval - 1);
+        }
+
+        while (occurrences.size() < MAX_OCCURRENCES) {
+            if (count != null && index >= count) {
+                break;
+            }
+            LocalDateTime occurrence = start.plus(index * interval, frequency.unit);
+            if ((until != null && occurrence.isAfter(until)) || !occurrence.isBefore(to)) {
+                break;
+            }
+            if (!occurrence.isBefore(from)) {
+                occurrences.add(occurrence);
+            }
+            index++;
+        }
+        return occurrences;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder rule = new StringBuilder("FREQ=").append(frequency.name());
+        if (interval != 1) {
+            rule.append(";INTERVAL=").append(interval);
+        }
+        if (count != null) {
+            rule.append(";COUNT=").append(count);
+        }
+        if (until != null) {
+            rule.append(";UNTIL=").append(until.format(UNTIL_DATE_TIME));
+        }
+        return rule.toString();
+    }
+
+    private static LocalDateTime parseUntil(String value) {
+        String trimmed = value.endsWith("Z") ? value.substring(0, value.length() - 1) : value;
+        if (trimmed.length() == 8) {
+            return LocalDate.parse(trimmed, DateTimeFormatter.BASIC_ISO_DATE).atTime(23, 59, 59);
+        }
+        return LocalDateTime.parse(trimmed, UNTIL_DATE_TIME);
+    }
+}
@@ -0,0 +1,88 @@
+-- Migration to partition appointments by workshop branch (PostgreSQL 12+)
+-- Run once in a maintenance window, before starting the branch-aware appointment service.
+
+BEGIN;
+
+-- Every existing row belongs to the original workshop
+ALTER TABLE appointments ADD COLUMN IF NOT EXISTS branch_id VARCHAR(32) NOT NULL DEFAULT 'main';
+ALTER TABLE maintenance_plans ADD COLUMN IF NOT EXISTS branch_id VARCHAR(32) NOT NULL DEFAULT 'main';
+ALTER TABLE waitlist_entries ADD COLUMN IF NOT EXISTS branch_id VARCHAR(32) NOT NULL DEFAULT 'main';
+
+-- Normally added by SearchIndexInitializer; added here too so the search indexes below can be built
+ALTER TABLE appointments ADD COLUMN IF NOT EXISTS phone_digits TEXT
+    GENERATED ALWAYS AS (regexp_replace(phone_number, '[^0-9]', '', 'g')) STORED;
+
+-- Move the old table aside and free the index names the partitioned table will use
+ALTER TABLE appointments RENAME TO appointments_unpartitioned;
+ALTER TABLE appointments_unpartitioned RENAME CONSTRAINT appointments_pkey TO appointments_unpartitioned_pkey;
+ALTER TABLE appointments_unpartitioned DROP CONSTRAINT IF EXISTS uk_appointments_plan_occurrence;
+
+-- Primary and unique keys on a partitioned table must include the partition key.
+-- INCLUDING GENERATED keeps phone_digits a generated column instead of a plain copy
+CREATE TABLE appointments (
+    LIKE appointments_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING GENERATED,
+    PRIMARY KEY (branch_id, id),
+    CONSTRAINT uk_appointments_plan_occurrence UNIQUE (branch_id, maintenance_plan_id, booking_date_time)
+) PARTITION BY LIST (branch_id);
+
+CREATE TABLE appointments_main PARTITION OF appointments FOR VALUES IN ('main');
+
+-- Catches bookings for branches that do not have their own partition yet
+CREATE TABLE appointments_default PARTITION OF appointments DEFAULT;
+
+-- Columns that can be copied between appointment tables; generated columns are recomputed on insert
+-- and Postgres rejects explicit values for them
+CREATE OR REPLACE FUNCTION appointment_copy_columns() RETURNS TEXT AS $$
+    SELECT string_agg(quote_ident(attname), ', ' ORDER BY attnum)
+    FROM pg_attribute
+    WHERE attrelid = 'appointments'::regclass AND attnum > 0 AND NOT attisdropped AND attgenerated = '';
+$$ LANGUAGE sql STABLE;
+
+DO $$
+BEGIN
+    EXECUTE format('INSERT INTO appointments (%1$s) SELECT %1$s FROM appointments_unpartitioned',
+                   appointment_copy_columns());
+END;
+$$;
+DROP TABLE appointments_unpartitioned;
+
+-- Indexes on the parent are created on every partition, including ones attached later
+CREATE INDEX idx_appointments_branch_employee_booking ON appointments (branch_id, assigned_employee_id, booking_date_time);
+CREATE INDEX idx_appointments_branch_status_booking ON appointments (branch_id, status, booking_date_time);
+CREATE INDEX idx_appointments_status_booking ON appointments (status, booking_date_time);
+
+-- Lookups by id alone (batch lookups from other services) cannot use the (branch_id, id) key
+CREATE INDEX idx_appointments_id ON appointments (id);
+
+-- The search indexes went with the old table. CONCURRENTLY is not allowed on a partitioned table,
+-- and is not needed while the service is stopped
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_appointments_full_name_trgm ON appointments USING gin (full_name gin_trgm_ops);
+CREATE INDEX idx_appointments_phone_digits_trgm ON appointments USING gin (phone_digits gin_trgm_ops);
+CREATE INDEX idx_appointments_vehicle_type_trgm ON appointments USING gin (vehicle_type gin_trgm_ops);
+CREATE INDEX idx_appointments_additional_note_trgm ON appointments USING gin (additional_note gin_trgm_ops);
+
+-- Gives a branch its own partition, moving any of its rows out of the default partition.
+-- Usage: SELECT create_appointment_branch_partition('colombo-north');
+-- Writes to appointments wait until the calling transaction commits; reads carry on except on
+-- the default partition.
+CREATE OR REPLACE FUNCTION create_appointment_branch_partition(branch TEXT) RETURNS VOID AS $$
+DECLARE
+    partition_name TEXT := 'appointments_' || replace(branch, '-', '_');
+    column_list TEXT := appointment_copy_columns();
+BEGIN
+    -- Without these, a booking for the branch could land in the default partition after the copy
+    -- and make the attach fail. Parent first, in the same order inserts take them
+    LOCK TABLE ONLY appointments IN SHARE ROW EXCLUSIVE MODE;
+    LOCK TABLE appointments_default IN ACCESS EXCLUSIVE MODE;
+
+    EXECUTE format('CREATE TABLE %I (LIKE appointments INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING GENERATED)',
+                   partition_name);
+    EXECUTE format('INSERT INTO %I (%s) SELECT %s FROM appointments_default WHERE branch_id = %L',
+                   partition_name, column_list, column_list, branch);
+    EXECUTE format('DELETE FROM appointments_default WHERE branch_id = %L', branch);
+    EXECUTE format('ALTER TABLE appointments ATTACH PARTITION %I FOR VALUES IN (%L)', partition_name, branch);
+END;
+$$ LANGUAGE plpgsql;
+
+COMMIT;
@@ -3,7 +3,11 @@ package com.servexa.appointment.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.servexa.appointment.dto.AppointmentRequest;
 import com.servexa.appointment.dto.AppointmentResponse;
+import com.servexa.appointment.service.AppointmentRescheduleService;
 import com.servexa.appointment.service.AppointmentService;
+import com.servexa.appointment.service.AppointmentTimelineService;
+import com.servexa.appointment.service.BookingAdmissionService;
+import com.servexa.appointment.service.EmployeeScheduleService;
 import com.servexa.common.dto.ApiResponse;
 import com.servexa.common.exception.ResourceNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -37,6 +41,18 @@ class AppointmentControllerTest {
     @MockBean
     private AppointmentService appointmentService;
 
+    @MockBean
+    private EmployeeScheduleService employeeScheduleService;
+
+    @MockBean
+    private AppointmentTimelineService appointmentTimelineService;
+
+    @MockBean
+    private BookingAdmissionService bookingAdmissionService;
+
+    @MockBean
+    private AppointmentRescheduleService appointmentRescheduleService;
+
     private AppointmentRequest appointmentRequest;
     private AppointmentResponse appointmentResponse;
 
@@ -76,7 +92,7 @@ class AppointmentControllerTest {
 
     @Test
     void createAppointment_Success() throws Exception {
-        when(appointmentService.createAppointment(any(AppointmentRequest.class)))
+        when(bookingAdmissionService.bookAndWait(any(AppointmentRequest.class)))
                 .thenReturn(appointmentResponse);
 
         mockMvc.perform(post("/api/appointments")
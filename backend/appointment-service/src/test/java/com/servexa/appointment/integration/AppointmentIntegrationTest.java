@@ -47,6 +47,7 @@ class AppointmentIntegrationTest {
                 .customerId("1")
                 .fullName("John Doe")
                 .phoneNumber("(555) 123-4567")
+                .vehicleId("vehicle-1")
                 .vehicleType("Toyota Corolla 2020")
                 .serviceType("Oil Change")
                 .bookingDateTime(LocalDateTime.now().plusDays(1))
@@ -122,7 +123,8 @@ class AppointmentIntegrationTest {
         // Verify in database
         Appointment updatedAppointment = appointmentRepository.findById(appointmentId).orElse(null);
         assertThat(updatedAppointment).isNotNull();
-        assertThat(updatedAppointment.getStatus()).isEqualTo("IN_PROGRESS");
+        // Assigning an employee moves the appointment to ASSIGNED
+        assertThat(updatedAppointment.getStatus()).isEqualTo("ASSIGNED");
         assertThat(updatedAppointment.getIsAssigned()).isTrue();
         assertThat(updatedAppointment.getAssignedEmployeeId()).isEqualTo("10");
     }
@@ -0,0 +1,158 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.AppointmentResponse;
+import com.servexa.appointment.entity.AppointmentDailyRollup;
+import com.servexa.appointment.entity.AppointmentDailyRollupId;
+import com.servexa.appointment.event.AppointmentChangedEvent;
+import com.servexa.appointment.repository.AppointmentDailyRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.PGConnection;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentAnalyticsServiceTest {
+
+    private static final LocalDateTime BOOKING = LocalDateTime.of(2024, 3, 4, 10, 0);
+
+    @Mock
+    private AppointmentDailyRollupRepository rollupRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    private AppointmentAnalyticsService analyticsService;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        lenient().when(dataSource.getConnection()).thenReturn(connection);
+        lenient().when(connection.isWrapperFor(PGConnection.class)).thenReturn(true);
+        analyticsService = new AppointmentAnalyticsService(rollupRepository, transactionManager, dataSource);
+    }
+
+    @Test
+    void onAppointmentChanged_CreatedAddsBookingToUnassignedBucket() {
+        analyticsService.onAppointmentChanged(AppointmentChangedEvent.created(buildResponse("PENDING", null)));
+
+        verify(rollupRepository).applyDelta(BOOKING.toLocalDate(), "Oil Change", "", 1, 0, 0, 60, 0);
+    }
+
+    @Test
+    void onAppointmentChanged_CompletionMovesCountersWithinBucket() {
+        analyticsService.onAppointmentChanged(
+                AppointmentChangedEvent.statusChanged(buildResponse("COMPLETED", "10"), "IN_PROGRESS"));
+
+        verify(rollupRepository).applyDelta(BOOKING.toLocalDate(), "Oil Change", "10", -1, 0, 0, -60, 0);
+        verify(rollupRepository).applyDelta(BOOKING.toLocalDate(), "Oil Change", "10", 1, 1, 0, 60, 60);
+    }
+
+    @Test
+    void onAppointmentChanged_AssignmentMovesBookingBetweenEmployees() {
+        analyticsService.onAppointmentChanged(
+                AppointmentChangedEvent.assigned(buildResponse("CONFIRMED", "20"), "PENDING", "10"));
+
+        verify(rollupRepository).applyDelta(BOOKING.toLocalDate(), "Oil Change", "10", -1, 0, 0, -60, 0);
+        verify(rollupRepository).applyDelta(BOOKING.toLocalDate(), "Oil Change", "20", 1, 0, 0, 60, 0);
+    }
+
+    @Test
+    void onAppointmentChanged_OpenStatusChangeLeavesRollupsUntouched() {
+        analyticsService.onAppointmentChanged(
+                AppointmentChangedEvent.statusChanged(buildResponse("CONFIRMED", "10"), "PENDING"));
+
+        verify(rollupRepository, never()).applyDelta(any(), any(), any(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void onAppointmentChanged_LocksBookingDaysInOrderBeforeApplying() {
+        AppointmentResponse moved = buildResponse("CONFIRMED", "10");
+        analyticsService.onAppointmentChanged(
+                AppointmentChangedEvent.rescheduled(moved, BOOKING.plusDays(2)));
+
+        InOrder inOrder = inOrder(rollupRepository);
+        inOrder.verify(rollupRepository).lockDayForUpdate((int) BOOKING.toLocalDate().toEpochDay());
+        inOrder.verify(rollupRepository).lockDayForUpdate((int) BOOKING.toLocalDate().plusDays(2).toEpochDay());
+        inOrder.verify(rollupRepository, times(2)).applyDelta(any(), any(), any(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void onAppointmentChanged_WithoutPostgresUpdatesBucketEntityWithoutLocks() throws SQLException {
+        when(connection.isWrapperFor(PGConnection.class)).thenReturn(false);
+        AppointmentDailyRollupId id = new AppointmentDailyRollupId(BOOKING.toLocalDate(), "Oil Change", "10");
+        AppointmentDailyRollup existing = AppointmentDailyRollup.builder().id(id).bookedCount(3).durationSum(180).build();
+        when(rollupRepository.findById(id)).thenReturn(Optional.of(existing));
+
+        analyticsService.onAppointmentChanged(
+                AppointmentChangedEvent.statusChanged(buildResponse("COMPLETED", "10"), "IN_PROGRESS"));
+
+        verify(rollupRepository, times(2)).save(existing);
+        assertThat(existing.getBookedCount()).isEqualTo(3);
+        assertThat(existing.getCompletedCount()).isEqualTo(1);
+        assertThat(existing.getCompletedDurationSum()).isEqualTo(60);
+        verify(rollupRepository, never()).lockDayForUpdate(anyInt());
+        verify(rollupRepository, never()).applyDelta(any(), any(), any(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void rebuild_RecomputesEachDayUnderItsOwnLock() {
+        LocalDate day = LocalDate.now().minusDays(3);
+        when(rollupRepository.findDaysWithData(day, day.plusDays(2), day.atStartOfDay(), day.plusDays(2).atStartOfDay()))
+                .thenReturn(List.of(day.toString(), day.plusDays(1).toString()));
+        when(rollupRepository.recomputeRange(any(), any())).thenReturn(2);
+
+        int written = analyticsService.rebuild(day, day.plusDays(2));
+
+        assertThat(written).isEqualTo(4);
+        InOrder inOrder = inOrder(rollupRepository);
+        inOrder.verify(rollupRepository).lockDayForRebuild((int) day.toEpochDay());
+        inOrder.verify(rollupRepository).deleteRange(day, day.plusDays(1));
+        inOrder.verify(rollupRepository).recomputeRange(day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+        inOrder.verify(rollupRepository).lockDayForRebuild((int) day.plusDays(1).toEpochDay());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void rebuild_CoversArchivedDaysToo() {
+        // Archived appointments are read from the cold table, so old days are rebuilt as well
+        LocalDate old = LocalDate.now().minusYears(5);
+        when(rollupRepository.findDaysWithData(old, old.plusDays(30), old.atStartOfDay(), old.plusDays(30).atStartOfDay()))
+                .thenReturn(List.of(old.toString()));
+        when(rollupRepository.recomputeRange(any(), any())).thenReturn(3);
+
+        assertThat(analyticsService.rebuild(old, old.plusDays(30))).isEqualTo(3);
+        verify(rollupRepository).recomputeRange(old.atStartOfDay(), old.plusDays(1).atStartOfDay());
+    }
+
+    private AppointmentResponse buildResponse(String status, String employeeId) {
+        AppointmentResponse response = new AppointmentResponse();
+        response.setId("appointment-1");
+        response.setServiceType("Oil Change");
+        response.setBookingDateTime(BOOKING);
+        response.setStatus(status);
+        response.setAssignedEmployeeId(employeeId);
+        response.setDuration(60);
+        return response;
+    }
+}
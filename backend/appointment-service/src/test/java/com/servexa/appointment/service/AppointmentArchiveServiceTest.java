@@ -0,0 +1,91 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.AppointmentResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class AppointmentArchiveServiceTest {
+
+    private static final String COLUMNS = "id VARCHAR(36) PRIMARY KEY, branch_id VARCHAR(32), customer_id VARCHAR(36), "
+            + "full_name VARCHAR(255), phone_number VARCHAR(32), vehicle_id VARCHAR(36), vehicle_type VARCHAR(255), "
+            + "service_type VARCHAR(255), booking_date_time TIMESTAMP, additional_note VARCHAR(1000), "
+            + "payment_method VARCHAR(64), status VARCHAR(32), is_assigned BOOLEAN, assigned_employee_id VARCHAR(36), "
+            + "duration INT, started_at TIMESTAMP, price DECIMAL(10, 2), maintenance_plan_id VARCHAR(36), "
+            + "created_at TIMESTAMP, updated_at TIMESTAMP";
+
+    private final AppointmentChangeLog changeLog = mock(AppointmentChangeLog.class);
+    private final LocalDateTime old = LocalDateTime.now().minusYears(3);
+
+    private JdbcTemplate jdbcTemplate;
+    private AppointmentArchiveService archiveService;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:archive;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE appointments (" + COLUMNS + ")");
+        jdbcTemplate.execute("CREATE TABLE appointments_archive (" + COLUMNS + ", archived_at TIMESTAMP NOT NULL)");
+        archiveService = new AppointmentArchiveService(
+                dataSource, new DataSourceTransactionManager(dataSource), changeLog, 730, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE appointments");
+        jdbcTemplate.execute("DROP TABLE appointments_archive");
+    }
+
+    @Test
+    void archiveExpired_MovesOldFinishedAppointmentsInChunks() {
+        insert("a-1", "north", "COMPLETED", old, 60);
+        insert("a-2", "main", "CANCELLED", old.plusDays(1), null);
+        insert("a-3", "main", "COMPLETED", old.plusDays(2), 45);
+        insert("open", "main", "CONFIRMED", old, 60);
+        insert("recent", "main", "COMPLETED", LocalDateTime.now().minusDays(5), 60);
+
+        assertThat(archiveService.archiveExpired()).isEqualTo(3);
+
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM appointments ORDER BY id", String.class))
+                .containsExactly("open", "recent");
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM appointments_archive ORDER BY id", String.class))
+                .containsExactly("a-1", "a-2", "a-3");
+        verify(changeLog, times(2)).recordArchived(anyCollection());
+    }
+
+    @Test
+    void findByCustomerId_ReadsArchivedRowsWithBranchAndMissingDuration() {
+        insert("a-1", "north", "COMPLETED", old, 60);
+        insert("a-2", "main", "CANCELLED", old.plusDays(1), null);
+        archiveService.archiveExpired();
+
+        List<AppointmentResponse> archived = archiveService.findByCustomerId("c-1");
+
+        assertThat(archived).extracting(AppointmentResponse::getId).containsExactly("a-2", "a-1");
+        assertThat(archived).extracting(AppointmentResponse::getBranchId).containsExactly("main", "north");
+        assertThat(archived.get(0).getDuration()).isNull();
+        assertThat(archived.get(1).getDuration()).isEqualTo(60);
+        assertThat(archiveService.findByCustomerId("c-2")).isEmpty();
+    }
+
+    private void insert(String id, String branchId, String status, LocalDateTime booking, Integer duration) {
+        jdbcTemplate.update("INSERT INTO appointments (id, branch_id, customer_id, full_name, phone_number, "
+                        + "service_type, booking_date_time, payment_method, status, is_assigned, duration, price, created_at) "
+                        + "VALUES (?, ?, 'c-1', 'Jane Doe', '555', 'Oil Change', ?, 'Cash', ?, FALSE, ?, 40.00, ?)",
+                id, branchId, Timestamp.valueOf(booking), status, duration, Timestamp.valueOf(booking.minusDays(7)));
+    }
+}
@@ -0,0 +1,236 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.AppointmentResponse;
+import com.servexa.appointment.dto.AppointmentStatusEvent;
+import com.servexa.appointment.event.AppointmentChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentEventStreamServiceTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("^id:(\\d+)$", Pattern.MULTILINE);
+
+    @Mock
+    private AppointmentStatusRelay relay;
+
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    private AppointmentEventStreamService streamService;
+
+    @BeforeEach
+    void setUp() {
+        streamService = new AppointmentEventStreamService(relay, 60000, 3, 600000, 2) {
+            @Override
+            SseEmitter createEmitter(long timeoutMs) {
+                RecordingEmitter emitter = new RecordingEmitter(timeoutMs);
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamService.shutdown();
+    }
+
+    @Test
+    void onAppointmentChanged_PublishesCommittedChangeThroughRelay() {
+        AppointmentResponse appointment = AppointmentResponse.builder()
+                .id("a-1")
+                .customerId("c-1")
+                .status("ASSIGNED")
+                .assignedEmployeeId("e-2")
+                .build();
+
+        streamService.onAppointmentChanged(AppointmentChangedEvent.assigned(appointment, "CREATED", "e-1"));
+
+        ArgumentCaptor<AppointmentStatusEvent> captor = ArgumentCaptor.forClass(AppointmentStatusEvent.class);
+        verify(relay).publish(captor.capture());
+        assertThat(captor.getValue().getAppointmentId()).isEqualTo("a-1");
+        assertThat(captor.getValue().getPreviousEmployeeId()).isEqualTo("e-1");
+    }
+
+    @Test
+    void deliver_SendsEventsToSubscriberInRelayOrder() {
+        RecordingEmitter emitter = subscribeCustomer("c-1", null);
+
+        streamService.deliver(12, event("a-1", "c-1", null));
+        streamService.deliver(10, event("a-2", "c-1", null));
+        streamService.deliver(11, event("a-3", "c-1", null));
+
+        eventually(() -> emitter.eventIds().size() == 3);
+        assertThat(emitter.eventIds()).containsExactly(12L, 10L, 11L);
+    }
+
+    @Test
+    void deliver_ReachesPreviousAndNewlyAssignedEmployees() {
+        RecordingEmitter previous = subscribeEmployee("e-1");
+        RecordingEmitter assigned = subscribeEmployee("e-2");
+        AppointmentStatusEvent reassigned = event("a-1", "c-1", "e-2");
+        reassigned.setPreviousEmployeeId("e-1");
+
+        streamService.deliver(5, reassigned);
+
+        eventually(() -> previous.eventIds().size() == 1 && assigned.eventIds().size() == 1);
+    }
+
+    @Test
+    void subscribe_ReplaysEventsAfterLastEventId() {
+        streamService.deliver(20, event("a-1", "c-1", null));
+        streamService.deliver(22, event("a-2", "c-1", null));
+        streamService.deliver(21, event("a-3", "c-1", null));
+
+        RecordingEmitter emitter = subscribeCustomer("c-1", "22");
+
+        eventually(() -> emitter.eventIds().size() == 1);
+        assertThat(emitter.eventIds()).containsExactly(21L);
+    }
+
+    @Test
+    void subscribe_AskedToResyncWhenResumingBeforeReplayBuffer() {
+        for (long id = 1; id <= 5; id++) {
+            streamService.deliver(id, event("a-" + id, "c-1", null));
+        }
+
+        RecordingEmitter emitter = subscribeCustomer("c-1", "1");
+
+        eventually(() -> emitter.sent.size() == 1);
+        assertThat(emitter.sent.get(0)).contains("event:resync");
+        assertThat(emitter.eventIds()).isEmpty();
+    }
+
+    @Test
+    void reset_ForcesResyncForEventsMissedWhileRelayWasDown() {
+        streamService.deliver(7, event("a-1", "c-1", null));
+        streamService.reset();
+
+        RecordingEmitter emitter = subscribeCustomer("c-1", "7");
+
+        eventually(() -> emitter.sent.size() == 1);
+        assertThat(emitter.sent.get(0)).contains("event:resync");
+    }
+
+    @Test
+    void completionAndTimeout_RemoveSubscriber() {
+        RecordingEmitter completed = subscribeCustomer("c-1", null);
+        RecordingEmitter timedOut = subscribeCustomer("c-1", null);
+        eventually(() -> streamService.subscriberCount("customer:c-1") == 2);
+
+        completed.completionCallback.run();
+        timedOut.timeoutCallback.run();
+
+        assertThat(streamService.subscriberCount("customer:c-1")).isZero();
+    }
+
+    @Test
+    void failedSend_DropsSubscriber() {
+        RecordingEmitter broken = subscribeCustomer("c-1", null);
+        RecordingEmitter healthy = subscribeCustomer("c-1", null);
+        broken.failSends = true;
+
+        streamService.deliver(1, event("a-1", "c-1", null));
+
+        eventually(() -> healthy.eventIds().size() == 1);
+        eventually(() -> streamService.subscriberCount("customer:c-1") == 1);
+    }
+
+    private RecordingEmitter subscribeCustomer(String customerId, String lastEventId) {
+        return (RecordingEmitter) streamService.subscribeCustomer(customerId, lastEventId);
+    }
+
+    private RecordingEmitter subscribeEmployee(String employeeId) {
+        return (RecordingEmitter) streamService.subscribeEmployee(employeeId, null);
+    }
+
+    private AppointmentStatusEvent event(String appointmentId, String customerId, String employeeId) {
+        return AppointmentStatusEvent.builder()
+                .type("STATUS_CHANGED")
+                .appointmentId(appointmentId)
+                .customerId(customerId)
+                .assignedEmployeeId(employeeId)
+                .status("IN_PROGRESS")
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static void eventually(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condition not met within 2s");
+            }
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+        private volatile boolean failSends;
+        private Runnable completionCallback;
+        private Runnable timeoutCallback;
+
+        RecordingEmitter(long timeoutMs) {
+            super(timeoutMs);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failSends) {
+                throw new IOException("Broken pipe");
+            }
+            StringBuilder text = new StringBuilder();
+            for (DataWithMediaType data : builder.build()) {
+                text.append(data.getData() instanceof String ? data.getData() : "<payload>");
+            }
+            sent.add(text.toString());
+        }
+
+        @Override
+        public synchronized void onCompletion(Runnable callback) {
+            this.completionCallback = callback;
+        }
+
+        @Override
+        public synchronized void onTimeout(Runnable callback) {
+            this.timeoutCallback = callback;
+        }
+
+        @Override
+        public synchronized void completeWithError(Throwable ex) {
+            // Nothing is attached to a container here
+        }
+
+        List<Long> eventIds() {
+            return sent.stream()
+                    .map(EVENT_ID::matcher)
+                    .filter(Matcher::find)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .toList();
+        }
+    }
+}
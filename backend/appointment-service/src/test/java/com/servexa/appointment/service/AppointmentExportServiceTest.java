@@ -0,0 +1,157 @@
+package com.servexa.appointment.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AppointmentExportServiceTest {
+
+    private static final String HEADER = "id,customer_id,full_name,phone_number,vehicle_id,vehicle_type,"
+            + "service_type,booking_date_time,payment_method,status,is_assigned,assigned_employee_id,duration,"
+            + "created_at,updated_at,additional_note";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private JdbcTemplate jdbcTemplate;
+    private AppointmentExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:export;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE appointments (id VARCHAR(36), customer_id VARCHAR(36), "
+                + "full_name VARCHAR(255), phone_number VARCHAR(32), vehicle_id VARCHAR(36), vehicle_type VARCHAR(255), "
+                + "service_type VARCHAR(255), booking_date_time TIMESTAMP, payment_method VARCHAR(64), "
+                + "status VARCHAR(32), is_assigned BOOLEAN, assigned_employee_id VARCHAR(36), duration INT, "
+                + "created_at TIMESTAMP, updated_at TIMESTAMP, additional_note VARCHAR(1000), branch_id VARCHAR(32))");
+        insert("a-2", "2024-03-02 09:00:00", "COMPLETED", "emp-1", "Check \"brakes\", tyres");
+        insert("a-1", "2024-03-01 10:30:00", "CREATED", null, null);
+        insert("a-3", "2024-04-01 08:00:00", "COMPLETED", "emp-2", "later");
+        insert("b-1", "2024-03-01 09:00:00", "CREATED", null, null, "kandy");
+        exportService = new AppointmentExportService(dataSource, new DataSourceTransactionManager(dataSource));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE appointments");
+    }
+
+    @Test
+    void exportCsv_WritesHeaderAndRowsInBookingOrderWithEmptyNulls() throws IOException {
+        String[] lines = export(AppointmentExportService.Format.CSV, null, null, null).split("\r\n");
+
+        assertThat(lines).hasSize(4);
+        assertThat(lines[0]).isEqualTo(HEADER);
+        assertThat(lines[1]).isEqualTo("a-1,c-1,Jane Doe,555,,Toyota Corolla,Oil Change,2024-03-01T10:30,Cash,"
+                + "CREATED,false,,60,2024-01-01T08:00,,");
+        assertThat(lines[2]).startsWith("a-2,").endsWith(",\"Check \"\"brakes\"\", tyres\"");
+        assertThat(lines[3]).startsWith("a-3,");
+    }
+
+    @Test
+    void exportCsv_EmptyResultStillHasHeader() throws IOException {
+        assertThat(export(AppointmentExportService.Format.CSV, null, null, "CANCELLED")).isEqualTo(HEADER + "\r\n");
+    }
+
+    @Test
+    void exportNdjson_WritesOneTypedObjectPerLine() throws IOException {
+        String[] lines = export(AppointmentExportService.Format.NDJSON, null, null, null).split("\n");
+
+        assertThat(lines).hasSize(3);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("id").asText()).isEqualTo("a-1");
+        assertThat(first.get("duration").isInt()).isTrue();
+        assertThat(first.get("is_assigned").isBoolean()).isTrue();
+        assertThat(first.get("assigned_employee_id").isNull()).isTrue();
+        assertThat(first.get("additional_note").isNull()).isTrue();
+        assertThat(first.get("booking_date_time").asText()).isEqualTo("2024-03-01T10:30");
+        assertThat(objectMapper.readTree(lines[1]).get("additional_note").asText()).isEqualTo("Check \"brakes\", tyres");
+    }
+
+    @Test
+    void exportNdjson_EmptyResultWritesNothing() throws IOException {
+        assertThat(export(AppointmentExportService.Format.NDJSON, null, null, "CANCELLED")).isEmpty();
+    }
+
+    @Test
+    void export_AppliesDateRangeInclusivelyAndStatusCaseInsensitively() throws IOException {
+        String csv = export(AppointmentExportService.Format.CSV,
+                LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 2), "completed");
+
+        assertThat(csv.split("\r\n")).hasSize(2);
+        assertThat(csv).contains("\r\na-2,").doesNotContain("a-1,").doesNotContain("a-3,");
+        assertThat(export(AppointmentExportService.Format.CSV, null, null, "ALL").split("\r\n")).hasSize(4);
+    }
+
+    @Test
+    void export_OnlyIncludesRequestedBranch() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export("kandy", AppointmentExportService.Format.CSV, null, null, null, false, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[1]).startsWith("b-1,");
+    }
+
+    @Test
+    void export_GzipRoundTrips() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export("main", AppointmentExportService.Format.CSV, null, null, null, true, out);
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            String csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertThat(csv).startsWith(HEADER + "\r\n");
+            assertThat(csv.split("\r\n")).hasSize(4);
+        }
+    }
+
+    @Test
+    void escapeCsv_PlainValueIsUnchanged() {
+        assertThat(AppointmentExportService.escapeCsv("Oil Change")).isEqualTo("Oil Change");
+    }
+
+    @Test
+    void escapeCsv_NullBecomesEmptyField() {
+        assertThat(AppointmentExportService.escapeCsv(null)).isEmpty();
+    }
+
+    @Test
+    void escapeCsv_QuotesDelimitersAndDoublesEmbeddedQuotes() {
+        assertThat(AppointmentExportService.escapeCsv("Check \"brakes\", tyres"))
+                .isEqualTo("\"Check \"\"brakes\"\", tyres\"");
+        assertThat(AppointmentExportService.escapeCsv("line one\nline two"))
+                .isEqualTo("\"line one\nline two\"");
+    }
+
+    private String export(AppointmentExportService.Format format, LocalDate from, LocalDate to, String status)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export("main", format, from, to, status, false, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private void insert(String id, String bookingDateTime, String status, String employeeId, String note) {
+        insert(id, bookingDateTime, status, employeeId, note, "main");
+    }
+
+    private void insert(String id, String bookingDateTime, String status, String employeeId, String note,
+                        String branchId) {
+        jdbcTemplate.update("INSERT INTO appointments VALUES (?, 'c-1', 'Jane Doe', '555', NULL, 'Toyota Corolla', "
+                        + "'Oil Change', CAST(? AS TIMESTAMP), 'Cash', ?, ?, ?, 60, TIMESTAMP '2024-01-01 08:00:00', NULL, ?, ?)",
+                id, bookingDateTime, status, employeeId != null, employeeId, note, branchId);
+    }
+}
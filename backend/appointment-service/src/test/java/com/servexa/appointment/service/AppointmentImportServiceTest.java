@@ -0,0 +1,143 @@
+package com.servexa.appointment.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.servexa.appointment.dto.AppointmentImportResult;
+import com.servexa.appointment.entity.Appointment;
+import com.servexa.common.dto.ApiResponse;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentImportServiceTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @Mock
+    private AppointmentAnalyticsService analyticsService;
+
+    @Mock
+    private AppointmentChangeLog changeLog;
+
+    private AppointmentImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        importService = new AppointmentImportService(entityManager, transactionManager, restTemplate,
+                objectMapper, analyticsService, changeLog);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importAppointments_BatchesVehicleLookupAndSkipsInvalidRows() throws Exception {
+        AppointmentImportService.VehicleDto vehicle = new AppointmentImportService.VehicleDto("7", "Toyota", "Camry", 2020);
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(ApiResponse.success(List.of(vehicle))));
+
+        String ndjson = row("7", "2024-01-05T09:00:00") + "\n"
+                + row("7", "2024-01-09T11:30:00") + "\n"
+                + "{\"customerId\":\"c-1\",\"fullName\":\"No Vehicle\"}\n";
+
+        AppointmentImportResult result = importService.importAppointments(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.getReceived()).isEqualTo(3);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getRejected()).isEqualTo(1);
+        assertThat(result.getVehicleLookups()).isEqualTo(1);
+        assertThat(result.getErrors()).containsExactly("Record 3: Phone number is required");
+
+        ArgumentCaptor<Appointment> persisted = ArgumentCaptor.forClass(Appointment.class);
+        verify(entityManager, times(2)).persist(persisted.capture());
+        assertThat(persisted.getAllValues()).extracting(Appointment::getVehicleType)
+                .containsOnly("Toyota Camry 2020");
+        assertThat(persisted.getAllValues()).extracting(Appointment::getStatus).containsOnly("COMPLETED");
+        verify(restTemplate, times(1)).exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class),
+                any(ParameterizedTypeReference.class));
+        verify(analyticsService).rebuild(LocalDate.of(2024, 1, 5), LocalDate.of(2024, 1, 10));
+    }
+
+    @Test
+    void importAppointments_MalformedRecordKeepsCommittedChunksAndRebuildsTheirRange() throws Exception {
+        ReflectionTestUtils.setField(importService, "chunkSize", 2);
+        String ndjson = row("Toyota", "2024-02-01T09:00:00", "7") + "\n"
+                + row("Toyota", "2024-02-03T09:00:00", "7") + "\n"
+                + row("Toyota", "2024-02-04T09:00:00", "7") + "\n"
+                + "{\"customerId\": oops\n"
+                + row("Toyota", "2024-02-09T09:00:00", "7") + "\n";
+
+        AppointmentImportResult result = importService.importAppointments(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getStoppedAtRecord()).isEqualTo(4);
+        assertThat(result.getErrors()).singleElement().asString().startsWith("Record 4: malformed JSON");
+        verify(entityManager, times(3)).persist(any(Appointment.class));
+        verify(analyticsService).rebuild(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 5));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importAppointments_SplitsVehicleLookupsAtBatchLimit() throws Exception {
+        ReflectionTestUtils.setField(importService, "chunkSize", 5000);
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(ApiResponse.success(List.of())));
+        StringBuilder ndjson = new StringBuilder();
+        for (int vehicleId = 1; vehicleId <= 1500; vehicleId++) {
+            ndjson.append(row(String.valueOf(vehicleId), "2024-01-05T09:00:00")).append('\n');
+        }
+
+        AppointmentImportResult result = importService.importAppointments(
+                new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.getVehicleLookups()).isEqualTo(2);
+        ArgumentCaptor<HttpEntity<List<Long>>> requests = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate, times(2)).exchange(anyString(), eq(HttpMethod.POST), requests.capture(),
+                any(ParameterizedTypeReference.class));
+        assertThat(requests.getAllValues()).extracting(request -> request.getBody().size()).containsExactly(1000, 500);
+    }
+
+    private String row(String vehicleType, String bookingDateTime, String vehicleId) {
+        return "{\"customerId\":\"c-1\",\"fullName\":\"Jane Doe\",\"phoneNumber\":\"0771234567\","
+                + "\"vehicleId\":\"" + vehicleId + "\",\"vehicleType\":\"" + vehicleType + "\","
+                + "\"serviceType\":\"Oil Change\",\"bookingDateTime\":\"" + bookingDateTime + "\","
+                + "\"paymentMethod\":\"CASH\",\"duration\":60}";
+    }
+
+    private String row(String vehicleId, String bookingDateTime) {
+        return "{\"customerId\":\"c-1\",\"fullName\":\"Jane Doe\",\"phoneNumber\":\"0771234567\","
+                + "\"vehicleId\":\"" + vehicleId + "\",\"serviceType\":\"Oil Change\","
+                + "\"bookingDateTime\":\"" + bookingDateTime + "\",\"paymentMethod\":\"CASH\",\"duration\":60}";
+    }
+}
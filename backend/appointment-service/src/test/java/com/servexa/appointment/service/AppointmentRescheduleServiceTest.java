@@ -0,0 +1,156 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.AppointmentResponse;
+import com.servexa.appointment.entity.Appointment;
+import com.servexa.appointment.event.AppointmentChangedEvent;
+import com.servexa.appointment.repository.AppointmentRepository;
+import com.servexa.common.branch.BranchContext;
+import com.servexa.common.client.NotificationClient;
+import com.servexa.common.client.NotificationClient.NotificationType;
+import com.servexa.common.exception.BadRequestException;
+import com.servexa.common.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentRescheduleServiceTest {
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private AppointmentService appointmentService;
+
+    @Mock
+    private NotificationClient notificationClient;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AppointmentRescheduleService rescheduleService;
+    private Appointment appointment;
+    private LocalDateTime originalTime;
+
+    @BeforeEach
+    void setUp() {
+        rescheduleService = new AppointmentRescheduleService(appointmentRepository, appointmentService,
+                notificationClient, eventPublisher, transactionManager, 16, 1000);
+        originalTime = LocalDateTime.now().plusDays(2).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        appointment = Appointment.builder()
+                .branchId("main")
+                .customerId("customer-1")
+                .serviceType("Oil Change")
+                .bookingDateTime(originalTime)
+                .status("ASSIGNED")
+                .isAssigned(true)
+                .assignedEmployeeId("emp-1")
+                .duration(60)
+                .build();
+        appointment.setId("a-1");
+        lenient().when(appointmentRepository.findByBranchIdAndId("main", "a-1")).thenReturn(Optional.of(appointment));
+        lenient().when(appointmentRepository.findByBranchIdAndIdForUpdate("main", "a-1")).thenReturn(Optional.of(appointment));
+    }
+
+    @Test
+    void reschedule_MovesSlotAndSendsOneNotification() {
+        LocalDateTime newTime = originalTime.plusHours(3);
+        Appointment adjacent = Appointment.builder().bookingDateTime(newTime.minusHours(1)).duration(60).build();
+        adjacent.setId("a-2");
+        when(appointmentRepository.findEmployeeBookingsBetween(eq("main"), eq("emp-1"), anyCollection(), any(), any()))
+                .thenReturn(List.of(adjacent));
+        when(appointmentRepository.save(any(Appointment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(appointmentService.mapToResponse(any(Appointment.class))).thenAnswer(invocation -> {
+            Appointment saved = invocation.getArgument(0);
+            return AppointmentResponse.builder().id(saved.getId()).customerId(saved.getCustomerId())
+                    .serviceType(saved.getServiceType()).bookingDateTime(saved.getBookingDateTime()).build();
+        });
+
+        AppointmentResponse response = rescheduleService.reschedule("a-1", newTime);
+
+        assertThat(response.getBookingDateTime()).isEqualTo(newTime);
+        ArgumentCaptor<AppointmentChangedEvent> event = ArgumentCaptor.forClass(AppointmentChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getType()).isEqualTo(AppointmentChangedEvent.Type.RESCHEDULED);
+        assertThat(event.getValue().getPreviousBookingDateTime()).isEqualTo(originalTime);
+        verify(notificationClient, times(1)).sendNotification(eq("customer-1"), anyString(), anyString(),
+                eq(NotificationType.APPOINTMENT_RESCHEDULED), any(), anyMap());
+        // Other instances are held off by advisory locks taken before the overlap check reads
+        InOrder inOrder = inOrder(appointmentRepository);
+        inOrder.verify(appointmentRepository).lockEmployeeDay("main|emp-1|" + originalTime.toLocalDate().minusDays(1));
+        inOrder.verify(appointmentRepository).lockEmployeeDay("main|emp-1|" + originalTime.toLocalDate());
+        inOrder.verify(appointmentRepository).findEmployeeBookingsBetween(any(), any(), anyCollection(), any(), any());
+    }
+
+    @Test
+    void reschedule_RejectsOverlapWithSameEmployee() {
+        LocalDateTime newTime = originalTime.plusHours(3);
+        Appointment clash = Appointment.builder().bookingDateTime(newTime.minusMinutes(30)).duration(60).build();
+        clash.setId("a-2");
+        when(appointmentRepository.findEmployeeBookingsBetween(eq("main"), eq("emp-1"), anyCollection(), any(), any()))
+                .thenReturn(List.of(clash));
+
+        assertThatThrownBy(() -> rescheduleService.reschedule("a-1", newTime))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("already booked");
+
+        verify(appointmentRepository, never()).save(any());
+        verifyNoInteractions(notificationClient, eventPublisher);
+    }
+
+    @Test
+    void reschedule_RejectsClosedAppointments() {
+        appointment.setStatus("COMPLETED");
+
+        assertThatThrownBy(() -> rescheduleService.reschedule("a-1", originalTime.plusDays(1)))
+                .isInstanceOf(BadRequestException.class);
+        verify(appointmentRepository, never()).save(any());
+    }
+
+    @Test
+    void reschedule_DoesNotFindAnotherBranchsAppointment() {
+        BranchContext.runAs("colombo-north", () ->
+                assertThatThrownBy(() -> rescheduleService.reschedule("a-1", originalTime.plusHours(3)))
+                        .isInstanceOf(ResourceNotFoundException.class));
+
+        verify(appointmentRepository, never()).findByBranchIdAndIdForUpdate(any(), any());
+        verify(appointmentRepository, never()).save(any());
+    }
+
+    @Test
+    void employeeDayKeys_CoverCheckedDaysAndDayLeftInOrder() {
+        LocalDateTime previous = LocalDateTime.of(2024, 3, 10, 9, 0);
+
+        assertThat(AppointmentRescheduleService.employeeDayKeys("main", "emp-1", previous,
+                LocalDateTime.of(2024, 3, 1, 23, 0), LocalDateTime.of(2024, 3, 2, 1, 0)))
+                .containsExactly("main|emp-1|2024-03-01", "main|emp-1|2024-03-02", "main|emp-1|2024-03-10");
+    }
+
+    @Test
+    void overlaps_TreatsTouchingSlotsAsFree() {
+        LocalDateTime start = originalTime;
+        LocalDateTime end = start.plusMinutes(60);
+
+        assertThat(AppointmentRescheduleService.overlaps(start, end, end, 30)).isFalse();
+        assertThat(AppointmentRescheduleService.overlaps(start, end, start.minusMinutes(30), 30)).isFalse();
+        assertThat(AppointmentRescheduleService.overlaps(start, end, start.minusMinutes(30), 31)).isTrue();
+    }
+}
@@ -0,0 +1,212 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.AppointmentSearchHit;
+import com.servexa.appointment.dto.AppointmentSearchResponse;
+import com.servexa.common.exception.BadRequestException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AppointmentSearchServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private AppointmentSearchService searchService;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:search;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // Stand-ins for the pg_trgm functions, close enough to rank like Postgres does
+        jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS similarity FOR \""
+                + Trigrams.class.getName() + ".similarity\"");
+        jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS word_similarity FOR \""
+                + Trigrams.class.getName() + ".wordSimilarity\"");
+        jdbcTemplate.execute("CREATE TABLE appointments (id VARCHAR(36), customer_id VARCHAR(36), "
+                + "full_name VARCHAR(255), phone_number VARCHAR(32), vehicle_id VARCHAR(36), vehicle_type VARCHAR(255), "
+                + "service_type VARCHAR(255), booking_date_time TIMESTAMP, status VARCHAR(32), "
+                + "assigned_employee_id VARCHAR(36), additional_note VARCHAR(1000), branch_id VARCHAR(32) DEFAULT 'main', "
+                + "phone_digits VARCHAR(32) GENERATED ALWAYS AS (REGEXP_REPLACE(phone_number, '[^0-9]', '', 'g')))");
+        searchService = new AppointmentSearchService(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE appointments");
+    }
+
+    @Test
+    void search_RejectsTermsTooShortForTrigramIndex() {
+        assertThatThrownBy(() -> searchService.search(" ab ", null, 20))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("at least 3 characters");
+    }
+
+    @Test
+    void search_RejectsMalformedCursor() {
+        assertThatThrownBy(() -> searchService.search("jane", "not a cursor", 20))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Invalid search cursor");
+    }
+
+    @Test
+    void escapeLike_EscapesWildcards() {
+        assertThat(AppointmentSearchService.escapeLike("50%_off\\")).isEqualTo("50\\%\\_off\\\\");
+    }
+
+    @Test
+    void search_RanksPrefixNameMatchesAboveOtherMatches() {
+        insert("a-1", "Marjan Perera", "555 0101", "Honda Civic", null);
+        insert("a-2", "Jane Silva", "555 0102", "Toyota Aqua", null);
+        insert("a-3", "Ravi Fernando", "555 0103", "Suzuki Alto", "Customer asked for Jane to call back");
+        insert("a-4", "Kamal Dias", "555 0104", "Nissan Leaf", null);
+
+        AppointmentSearchResponse response = searchService.search("jane", null, 20);
+
+        assertThat(response.getResults()).extracting(AppointmentSearchHit::getId).containsExactly("a-2", "a-3");
+        assertThat(response.getResults().get(0).getScore()).isGreaterThan(response.getResults().get(1).getScore());
+        assertThat(response.isHasNext()).isFalse();
+        assertThat(response.getNextCursor()).isNull();
+    }
+
+    @Test
+    void search_MatchesPhoneDigitsWhateverTheFormatting() {
+        insert("a-1", "Jane Silva", "(077) 123-4567", "Toyota Aqua", null);
+        insert("a-2", "Ravi Fernando", "077 123 4567", "Suzuki Alto", null);
+        insert("a-3", "Kamal Dias", "071 999 8888", "Nissan Leaf", null);
+
+        AppointmentSearchResponse response = searchService.search("0771234", null, 20);
+
+        assertThat(response.getResults()).extracting(AppointmentSearchHit::getId)
+                .containsExactlyInAnyOrder("a-1", "a-2");
+        assertThat(searchService.search("077-123", null, 20).getResults()).hasSize(2);
+    }
+
+    @Test
+    void search_KeysetPagesCoverEveryMatchOnceInScoreOrder() {
+        // Equal scores on purpose, so the id tie-break decides page boundaries
+        for (int i = 0; i < 7; i++) {
+            insert("b-" + i, "Nimal Jayasinghe", "555 020" + i, "Honda Fit", null);
+        }
+        insert("a-0", "Nimali Perera", "555 0300", "Honda Fit", null);
+        insert("a-1", "Saman Kumara", "555 0301", "Toyota Prius", "Nimal will collect the car");
+
+        List<AppointmentSearchHit> all = searchService.search("nimal", null, 100).getResults();
+        List<AppointmentSearchHit> paged = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            AppointmentSearchResponse page = searchService.search("nimal", cursor, 2);
+            paged.addAll(page.getResults());
+            assertThat(page.isHasNext()).isEqualTo(page.getNextCursor() != null);
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(all).hasSize(9);
+        assertThat(pages).isEqualTo(5);
+        assertThat(paged).extracting(AppointmentSearchHit::getId)
+                .containsExactlyElementsOf(all.stream().map(AppointmentSearchHit::getId).toList());
+        Set<String> ids = new HashSet<>();
+        paged.forEach(hit -> assertThat(ids.add(hit.getId())).isTrue());
+        for (int i = 1; i < paged.size(); i++) {
+            assertThat(paged.get(i).getScore()).isLessThanOrEqualTo(paged.get(i - 1).getScore());
+        }
+    }
+
+    @Test
+    void search_CursorSkipsRowsInsertedBeforeThePosition() {
+        insert("b-1", "Nimal Jayasinghe", "555 0201", "Honda Fit", null);
+        insert("b-2", "Nimal Jayasinghe", "555 0202", "Honda Fit", null);
+        insert("b-3", "Nimal Jayasinghe", "555 0203", "Honda Fit", null);
+
+        AppointmentSearchResponse first = searchService.search("nimal", null, 2);
+        // A new row that sorts onto the first page must not shift the second one
+        insert("b-0", "Nimal Jayasinghe", "555 0200", "Honda Fit", null);
+        AppointmentSearchResponse second = searchService.search("nimal", first.getNextCursor(), 2);
+
+        assertThat(first.getResults()).extracting(AppointmentSearchHit::getId).containsExactly("b-1", "b-2");
+        assertThat(second.getResults()).extracting(AppointmentSearchHit::getId).containsExactly("b-3");
+    }
+
+    @Test
+    void search_OnlyMatchesCurrentBranch() {
+        insert("a-1", "Jane Silva", "555 0101", "Toyota Aqua", null);
+        jdbcTemplate.update("INSERT INTO appointments (id, customer_id, full_name, phone_number, service_type, "
+                + "booking_date_time, status, branch_id) VALUES ('b-1', 'c-2', 'Jane Perera', '555 0201', "
+                + "'Oil Change', TIMESTAMP '2024-03-01 10:00:00', 'CREATED', 'kandy')");
+
+        assertThat(searchService.search("jane", null, 20).getResults())
+                .extracting(AppointmentSearchHit::getId).containsExactly("a-1");
+    }
+
+    private void insert(String id, String fullName, String phoneNumber, String vehicleType, String note) {
+        jdbcTemplate.update("INSERT INTO appointments (id, customer_id, full_name, phone_number, vehicle_type, "
+                        + "service_type, booking_date_time, status, additional_note) "
+                        + "VALUES (?, 'c-1', ?, ?, ?, 'Oil Change', TIMESTAMP '2024-03-01 10:00:00', 'CREATED', ?)",
+                id, fullName, phoneNumber, vehicleType, note);
+    }
+
+    /**
+     * Trigram similarity as pg_trgm computes it: words are lower-cased and padded with two
+     * leading and one trailing blank, and the score is shared trigrams over all trigrams.
+     */
+    public static final class Trigrams {
+
+        private Trigrams() {
+        }
+
+        public static Double similarity(String left, String right) {
+            if (left == null || right == null) {
+                return null;
+            }
+            Set<String> a = trigrams(left);
+            Set<String> b = trigrams(right);
+            if (a.isEmpty() || b.isEmpty()) {
+                return 0.0;
+            }
+            Set<String> shared = new HashSet<>(a);
+            shared.retainAll(b);
+            return (double) shared.size() / (a.size() + b.size() - shared.size());
+        }
+
+        // Best match of the term against any single word, which is what ranking needs here
+        public static Double wordSimilarity(String term, String text) {
+            if (term == null || text == null) {
+                return null;
+            }
+            double best = 0;
+            for (String word : text.split("[^\\p{Alnum}]+")) {
+                if (!word.isEmpty()) {
+                    best = Math.max(best, similarity(term, word));
+                }
+            }
+            return best;
+        }
+
+        private static Set<String> trigrams(String text) {
+            Set<String> trigrams = new HashSet<>();
+            for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{Alnum}]+")) {
+                if (word.isEmpty()) {
+                    continue;
+                }
+                String padded = "  " + word + " ";
+                for (int i = 0; i + 3 <= padded.length(); i++) {
+                    trigrams.add(padded.substring(i, i + 3));
+                }
+            }
+            return trigrams;
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package com.servexa.appointment.service;
 
+import com.servexa.appointment.dto.AppointmentBatchResponse;
 import com.servexa.appointment.dto.AppointmentRequest;
 import com.servexa.appointment.dto.AppointmentResponse;
+import com.servexa.appointment.dto.ServiceCatalogEntryResponse;
 import com.servexa.appointment.entity.Appointment;
+import com.servexa.appointment.event.AppointmentChangedEvent;
+import com.servexa.appointment.repository.AppointmentJobView;
 import com.servexa.appointment.repository.AppointmentRepository;
+import com.servexa.appointment.repository.AppointmentSummary;
+import com.servexa.common.exception.BadRequestException;
 import com.servexa.common.exception.ResourceNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,11 +17,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -28,6 +38,18 @@ class AppointmentServiceTest {
     @Mock
     private AppointmentRepository appointmentRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private AppointmentArchiveService appointmentArchiveService;
+
+    @Mock
+    private ServiceCatalogService catalogService;
+
+    @Mock
+    private DurationEstimateService durationEstimateService;
+
     @InjectMocks
     private AppointmentService appointmentService;
 
@@ -79,23 +101,57 @@ class AppointmentServiceTest {
         verify(appointmentRepository, times(1)).save(any(Appointment.class));
     }
 
+    @Test
+    void createAppointment_RejectsServiceTypeOutsideCatalog() {
+        when(catalogService.requireBookable("Oil Change"))
+                .thenThrow(new BadRequestException("Unknown or inactive service type: Oil Change"));
+
+        assertThatThrownBy(() -> appointmentService.createAppointment(appointmentRequest))
+                .isInstanceOf(BadRequestException.class);
+        verify(appointmentRepository, never()).save(any(Appointment.class));
+    }
+
+    @Test
+    void createAppointment_DefaultsDurationAndPriceFromCatalog() {
+        appointmentRequest.setDuration(null);
+        when(catalogService.requireBookable("Oil Change")).thenReturn(ServiceCatalogEntryResponse.builder()
+                .serviceType("oil change").displayName("Oil Change").defaultDuration(45)
+                .price(new BigDecimal("49.99")).active(true).build());
+        when(appointmentRepository.save(any(Appointment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        AppointmentResponse response = appointmentService.createAppointment(appointmentRequest);
+
+        assertThat(response.getDuration()).isEqualTo(45);
+        assertThat(response.getPrice()).isEqualByComparingTo("49.99");
+    }
+
+    @Test
+    void createAppointment_SizesSlotFromLearnedEstimate() {
+        when(durationEstimateService.slotMinutes("Oil Change", "Toyota Corolla 2020")).thenReturn(75);
+        when(appointmentRepository.save(any(Appointment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        AppointmentResponse response = appointmentService.createAppointment(appointmentRequest);
+
+        assertThat(response.getDuration()).isEqualTo(75);
+    }
+
     @Test
     void getAppointmentById_Success() {
         String appointmentId = "test-id-1";
         appointment.setId(appointmentId);
-        when(appointmentRepository.findById(appointmentId)).thenReturn(Optional.of(appointment));
+        when(appointmentRepository.findByBranchIdAndId("main", appointmentId)).thenReturn(Optional.of(appointment));
 
         AppointmentResponse response = appointmentService.getAppointmentById(appointmentId);
 
         assertThat(response).isNotNull();
         assertThat(response.getId()).isEqualTo(appointmentId);
-        verify(appointmentRepository, times(1)).findById(appointmentId);
+        verify(appointmentRepository, times(1)).findByBranchIdAndId("main", appointmentId);
     }
 
     @Test
     void getAppointmentById_NotFound() {
         String nonExistentId = "non-existent-id";
-        when(appointmentRepository.findById(nonExistentId)).thenReturn(Optional.empty());
+        when(appointmentRepository.findByBranchIdAndId("main", nonExistentId)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> appointmentService.getAppointmentById(nonExistentId))
                 .isInstanceOf(ResourceNotFoundException.class)
@@ -106,13 +162,33 @@ class AppointmentServiceTest {
     void getAppointmentsByCustomerId_Success() {
         appointment.setId("test-id-1");
         List<Appointment> appointments = Arrays.asList(appointment);
-        when(appointmentRepository.findByCustomerId("uuid-customer-123")).thenReturn(appointments);
+        when(appointmentRepository.findSummariesByCustomerId("uuid-customer-123")).thenReturn(project(appointments, AppointmentSummary.class));
 
         List<AppointmentResponse> responses = appointmentService.getAppointmentsByCustomerId("uuid-customer-123");
 
         assertThat(responses).hasSize(1);
         assertThat(responses.get(0).getCustomerId()).isEqualTo("uuid-customer-123");
-        verify(appointmentRepository, times(1)).findByCustomerId("uuid-customer-123");
+        assertThat(responses.get(0).getAdditionalNote()).isNull();
+        verify(appointmentRepository, times(1)).findSummariesByCustomerId("uuid-customer-123");
+    }
+
+    @Test
+    void getAppointmentsByCustomerId_MergesArchivedAppointments() {
+        appointment.setId("test-id-1");
+        AppointmentResponse archivedCopy = AppointmentResponse.builder()
+                .id("test-id-1").customerId("uuid-customer-123").status("COMPLETED").build();
+        AppointmentResponse archived = AppointmentResponse.builder()
+                .id("old-id").customerId("uuid-customer-123").status("COMPLETED")
+                .bookingDateTime(LocalDateTime.now().minusYears(3)).additionalNote("archived note").build();
+        when(appointmentRepository.findSummariesByCustomerId("uuid-customer-123"))
+                .thenReturn(project(Arrays.asList(appointment), AppointmentSummary.class));
+        when(appointmentArchiveService.findByCustomerId("uuid-customer-123")).thenReturn(Arrays.asList(archivedCopy, archived));
+
+        List<AppointmentResponse> responses = appointmentService.getAppointmentsByCustomerId("uuid-customer-123");
+
+        assertThat(responses).extracting(AppointmentResponse::getId).containsExactly("test-id-1", "old-id");
+        assertThat(responses.get(0).getStatus()).isEqualTo(appointment.getStatus());
+        assertThat(responses.get(1).getAdditionalNote()).isNull();
     }
 
     @Test
@@ -121,47 +197,48 @@ class AppointmentServiceTest {
         appointment.setAssignedEmployeeId("10");
         appointment.setIsAssigned(true);
         List<Appointment> appointments = Arrays.asList(appointment);
-        when(appointmentRepository.findByAssignedEmployeeId("10")).thenReturn(appointments);
+        when(appointmentRepository.findJobViewsByBranchIdAndAssignedEmployeeId("main", "10")).thenReturn(project(appointments, AppointmentJobView.class));
 
         List<AppointmentResponse> responses = appointmentService.getAppointmentsByEmployeeId("10");
 
         assertThat(responses).hasSize(1);
         assertThat(responses.get(0).getAssignedEmployeeId()).isEqualTo("10");
-        verify(appointmentRepository, times(1)).findByAssignedEmployeeId("10");
+        assertThat(responses.get(0).getAdditionalNote()).isEqualTo("Please check brakes");
+        verify(appointmentRepository, times(1)).findJobViewsByBranchIdAndAssignedEmployeeId("main", "10");
     }
 
     @Test
     void getUnassignedAppointments_Success() {
         appointment.setId("test-id-1");
         List<Appointment> appointments = Arrays.asList(appointment);
-        when(appointmentRepository.findByIsAssigned(false)).thenReturn(appointments);
+        when(appointmentRepository.findSummariesByBranchIdAndIsAssigned("main", false)).thenReturn(project(appointments, AppointmentSummary.class));
 
         List<AppointmentResponse> responses = appointmentService.getUnassignedAppointments();
 
         assertThat(responses).hasSize(1);
         assertThat(responses.get(0).getIsAssigned()).isFalse();
-        verify(appointmentRepository, times(1)).findByIsAssigned(false);
+        verify(appointmentRepository, times(1)).findSummariesByBranchIdAndIsAssigned("main", false);
     }
 
     @Test
     void updateAppointmentStatus_Success() {
         String appointmentId = "test-id-1";
         appointment.setId(appointmentId);
-        when(appointmentRepository.findById(appointmentId)).thenReturn(Optional.of(appointment));
+        when(appointmentRepository.findByBranchIdAndId("main", appointmentId)).thenReturn(Optional.of(appointment));
         when(appointmentRepository.save(any(Appointment.class))).thenReturn(appointment);
 
         AppointmentResponse response = appointmentService.updateAppointmentStatus(appointmentId, "IN_PROGRESS");
 
         assertThat(response).isNotNull();
         assertThat(appointment.getStatus()).isEqualTo("IN_PROGRESS");
-        verify(appointmentRepository, times(1)).findById(appointmentId);
+        verify(appointmentRepository, times(1)).findByBranchIdAndId("main", appointmentId);
         verify(appointmentRepository, times(1)).save(appointment);
     }
 
     @Test
     void updateAppointmentStatus_NotFound() {
         String nonExistentId = "non-existent-id";
-        when(appointmentRepository.findById(nonExistentId)).thenReturn(Optional.empty());
+        when(appointmentRepository.findByBranchIdAndId("main", nonExistentId)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> appointmentService.updateAppointmentStatus(nonExistentId, "IN_PROGRESS"))
                 .isInstanceOf(ResourceNotFoundException.class)
@@ -172,7 +249,7 @@ class AppointmentServiceTest {
     void assignEmployee_Success() {
         String appointmentId = "test-id-1";
         appointment.setId(appointmentId);
-        when(appointmentRepository.findById(appointmentId)).thenReturn(Optional.of(appointment));
+        when(appointmentRepository.findByBranchIdAndId("main", appointmentId)).thenReturn(Optional.of(appointment));
         when(appointmentRepository.save(any(Appointment.class))).thenReturn(appointment);
 
         AppointmentResponse response = appointmentService.assignEmployee(appointmentId, "10");
@@ -180,17 +257,41 @@ class AppointmentServiceTest {
         assertThat(response).isNotNull();
         assertThat(appointment.getAssignedEmployeeId()).isEqualTo("10");
         assertThat(appointment.getIsAssigned()).isTrue();
-        verify(appointmentRepository, times(1)).findById(appointmentId);
+        verify(appointmentRepository, times(1)).findByBranchIdAndId("main", appointmentId);
         verify(appointmentRepository, times(1)).save(appointment);
+        verify(eventPublisher, times(1)).publishEvent(any(AppointmentChangedEvent.class));
     }
 
     @Test
     void assignEmployee_AppointmentNotFound() {
         String nonExistentId = "non-existent-id";
-        when(appointmentRepository.findById(nonExistentId)).thenReturn(Optional.empty());
+        when(appointmentRepository.findByBranchIdAndId("main", nonExistentId)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> appointmentService.assignEmployee(nonExistentId, "10"))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessage("Appointment not found with ID: " + nonExistentId);
     }
+
+    @Test
+    void getAppointmentsByIds_PreservesRequestOrderAndReportsMissing() {
+        Appointment first = Appointment.builder().serviceType("Oil Change").status("CREATED").isAssigned(false).build();
+        first.setId("id-1");
+        Appointment second = Appointment.builder().serviceType("Brake Service").status("ASSIGNED").isAssigned(true).build();
+        second.setId("id-2");
+        when(appointmentRepository.findAllById(any())).thenReturn(Arrays.asList(first, second));
+
+        AppointmentBatchResponse response = appointmentService.getAppointmentsByIds(
+                Arrays.asList("id-2", "missing", "id-1", "id-2"));
+
+        assertThat(response.getAppointments()).extracting(AppointmentResponse::getId).containsExactly("id-2", "id-1");
+        assertThat(response.getNotFound()).containsExactly("missing");
+        verify(appointmentRepository, times(1)).findAllById(any());
+    }
+
+    private static <T> List<T> project(List<Appointment> appointments, Class<T> view) {
+        SpelAwareProxyProjectionFactory factory = new SpelAwareProxyProjectionFactory();
+        return appointments.stream()
+                .map(appointment -> factory.createProjection(view, appointment))
+                .collect(Collectors.toList());
+    }
 }
\ No newline at end of file
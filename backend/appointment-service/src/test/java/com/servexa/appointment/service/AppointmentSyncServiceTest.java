@@ -0,0 +1,133 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.AppointmentChangesResponse;
+import com.servexa.appointment.dto.AppointmentResponse;
+import com.servexa.appointment.entity.Appointment;
+import com.servexa.appointment.entity.AppointmentChange;
+import com.servexa.appointment.event.AppointmentChangedEvent;
+import com.servexa.appointment.repository.AppointmentChangeRepository;
+import com.servexa.appointment.repository.AppointmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentSyncServiceTest {
+
+    @Mock
+    private AppointmentChangeRepository changeRepository;
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private AppointmentService appointmentService;
+
+    @Mock
+    private AppointmentChangeLog changeLog;
+
+    private AppointmentSyncService syncService;
+
+    @BeforeEach
+    void setUp() {
+        syncService = new AppointmentSyncService(changeRepository, appointmentRepository, appointmentService, changeLog,
+                2000);
+    }
+
+    @Test
+    void getEmployeeChanges_WithoutCursorReturnsFullListAndHighWaterMark() {
+        when(changeLog.databaseNow()).thenReturn(LocalDateTime.of(2024, 3, 1, 10, 0, 5));
+        when(changeRepository.findHighWaterMark(any(LocalDateTime.class))).thenReturn(42L);
+        when(appointmentService.getAppointmentsByEmployeeId("10"))
+                .thenReturn(List.of(AppointmentResponse.builder().id("a-1").build()));
+
+        AppointmentChangesResponse response = syncService.getEmployeeChanges("10", null, 100);
+
+        assertThat(response.isFullResync()).isTrue();
+        assertThat(response.getCursor()).isEqualTo(42L);
+        assertThat(response.getAppointments()).extracting(AppointmentResponse::getId).containsExactly("a-1");
+        verify(changeRepository, never()).findChangesAfter(any(), any(), anyLong(), any(), any());
+        // Settled relative to the database clock, not this JVM's
+        verify(changeRepository).findHighWaterMark(LocalDateTime.of(2024, 3, 1, 10, 0, 3));
+    }
+
+    @Test
+    void getEmployeeChanges_CollapsesChangesAndReturnsTombstones() {
+        when(changeLog.databaseNow()).thenReturn(LocalDateTime.now());
+        when(changeRepository.findLowestSeq()).thenReturn(1L);
+        when(changeRepository.findChangesAfter(eq("EMPLOYEE"), eq("10"), eq(5L), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(
+                        change(6, "a-1", "UPSERT"),
+                        change(7, "a-2", "UPSERT"),
+                        change(8, "a-1", "UPSERT"),
+                        change(9, "a-2", "DELETE"),
+                        change(10, "a-3", "UPSERT")));
+        Appointment current = Appointment.builder().customerId("c-1").build();
+        current.setId("a-1");
+        when(appointmentRepository.findAllById(anyIterable())).thenReturn(List.of(current));
+        when(appointmentService.mapToResponse(current)).thenReturn(AppointmentResponse.builder().id("a-1").build());
+
+        AppointmentChangesResponse response = syncService.getEmployeeChanges("10", 5L, 4);
+
+        // Page of four: a-1 twice and a-2 upserted then deleted; a-3 is left for the next call
+        assertThat(response.getAppointments()).extracting(AppointmentResponse::getId).containsExactly("a-1");
+        assertThat(response.getDeletedIds()).containsExactly("a-2");
+        assertThat(response.getCursor()).isEqualTo(9L);
+        assertThat(response.isHasMore()).isTrue();
+        assertThat(response.isFullResync()).isFalse();
+    }
+
+    @Test
+    void getCustomerChanges_CursorOlderThanRetainedFeedForcesResync() {
+        when(changeLog.databaseNow()).thenReturn(LocalDateTime.now());
+        when(changeRepository.findLowestSeq()).thenReturn(500L);
+        when(changeRepository.findHighWaterMark(any(LocalDateTime.class))).thenReturn(900L);
+        when(appointmentService.getAppointmentsByCustomerId("c-1")).thenReturn(List.of());
+
+        AppointmentChangesResponse response = syncService.getCustomerChanges("c-1", 12L, 100);
+
+        assertThat(response.isFullResync()).isTrue();
+        assertThat(response.getCursor()).isEqualTo(900L);
+    }
+
+    @Test
+    void changeLog_ReassignmentTombstonesPreviousEmployee() {
+        AppointmentResponse reassigned = AppointmentResponse.builder()
+                .id("a-1").customerId("c-1").assignedEmployeeId("20").status("ASSIGNED").build();
+
+        List<AppointmentChange> entries = AppointmentChangeLog.entriesFor(
+                AppointmentChangedEvent.assigned(reassigned, "ASSIGNED", "10"));
+
+        assertThat(entries).extracting(AppointmentChange::getScope, AppointmentChange::getScopeKey,
+                        AppointmentChange::getChangeType)
+                .containsExactly(
+                        tuple("CUSTOMER", "c-1", "UPSERT"),
+                        tuple("EMPLOYEE", "20", "UPSERT"),
+                        tuple("EMPLOYEE", "10", "DELETE"));
+    }
+
+    private AppointmentChange change(long seq, String appointmentId, String changeType) {
+        return AppointmentChange.builder()
+                .seq(seq)
+                .scope("EMPLOYEE")
+                .scopeKey("10")
+                .appointmentId(appointmentId)
+                .changeType(changeType)
+                .changedAt(LocalDateTime.now().minusMinutes(1))
+                .build();
+    }
+}
@@ -0,0 +1,36 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.StageDurationResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class AppointmentTimelineServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 5, 1, 9, 0);
+
+    @Test
+    void stageAccumulator_UsesFirstArrivalInEachStatusPerAppointment() {
+        AppointmentTimelineService.StageAccumulator accumulator = new AppointmentTimelineService.StageAccumulator();
+        accumulator.accept("a1", "Oil Change", "CREATED", T0);
+        accumulator.accept("a1", "Oil Change", "ASSIGNED", T0.plusMinutes(30));
+        accumulator.accept("a1", "Oil Change", "ASSIGNED", T0.plusMinutes(45));
+        accumulator.accept("a1", "Oil Change", "in_progress", T0.plusMinutes(60));
+        accumulator.accept("a1", "Oil Change", "COMPLETED", T0.plusMinutes(120));
+        accumulator.accept("a2", "Oil Change", "CREATED", T0);
+        accumulator.accept("a2", "Oil Change", "CANCELLED", T0.plusMinutes(5));
+        accumulator.finish();
+
+        List<StageDurationResponse> durations = accumulator.toResponses();
+
+        assertThat(durations).extracting(StageDurationResponse::getStage).containsExactly(
+                "CREATED_TO_ASSIGNED", "ASSIGNED_TO_IN_PROGRESS", "IN_PROGRESS_TO_COMPLETED", "CREATED_TO_COMPLETED");
+        assertThat(durations).allSatisfy(duration -> assertThat(duration.getCount()).isEqualTo(1));
+        assertThat(durations.get(0).getP50Minutes()).isCloseTo(30, within(0.5));
+        assertThat(durations.get(3).getP95Minutes()).isCloseTo(120, within(1.5));
+    }
+}
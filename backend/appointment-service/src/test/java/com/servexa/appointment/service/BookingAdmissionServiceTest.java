@@ -0,0 +1,207 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.AppointmentRequest;
+import com.servexa.appointment.dto.AppointmentResponse;
+import com.servexa.appointment.dto.BookingTicketResponse;
+import com.servexa.appointment.entity.BookingTicket;
+import com.servexa.appointment.repository.BookingTicketRepository;
+import com.servexa.common.exception.BadRequestException;
+import com.servexa.common.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingAdmissionServiceTest {
+
+    @Mock
+    private AppointmentService appointmentService;
+
+    @Mock
+    private BookingTicketRepository ticketRepository;
+
+    private BookingAdmissionService admissionService;
+
+    @AfterEach
+    void tearDown() {
+        admissionService.shutdown();
+    }
+
+    @Test
+    void submit_ReturnsExistingTicketForResubmittedPendingBooking() {
+        admissionService = new BookingAdmissionService(appointmentService, ticketRepository, 10, 3, 1, 1000, 60000);
+
+        BookingTicketResponse first = admissionService.submit(request("customer-1"));
+        BookingTicketResponse second = admissionService.submit(request("customer-2"));
+        BookingTicketResponse duplicate = admissionService.submit(request("customer-1"));
+
+        assertThat(duplicate.getTicketId()).isEqualTo(first.getTicketId());
+        assertThat(first.getStatus()).isEqualTo("QUEUED");
+        assertThat(first.getPosition()).isEqualTo(1);
+        assertThat(second.getPosition()).isEqualTo(2);
+    }
+
+    @Test
+    void submit_QueuesDifferentBookingBySameCustomerSeparately() {
+        admissionService = new BookingAdmissionService(appointmentService, ticketRepository, 10, 3, 1, 1000, 60000);
+        AppointmentRequest other = request("customer-1");
+        other.setServiceType("Brake Inspection");
+
+        BookingTicketResponse first = admissionService.submit(request("customer-1"));
+        BookingTicketResponse second = admissionService.submit(other);
+
+        assertThat(second.getTicketId()).isNotEqualTo(first.getTicketId());
+        assertThat(second.getPosition()).isEqualTo(2);
+        verify(ticketRepository, times(2)).save(any(BookingTicket.class));
+    }
+
+    @Test
+    void submit_ReturnsTicketQueuedOnAnotherReplica() {
+        BookingTicket remote = BookingTicket.builder()
+                .id("ticket-remote")
+                .customerId("customer-1")
+                .status("QUEUED")
+                .submittedAt(LocalDateTime.now())
+                .build();
+        when(ticketRepository.findFirstByCustomerIdAndFingerprintAndStatus(eq("customer-1"), anyString(), eq("QUEUED")))
+                .thenReturn(Optional.of(remote));
+        admissionService = new BookingAdmissionService(appointmentService, ticketRepository, 10, 3, 1, 1000, 60000);
+
+        BookingTicketResponse ticket = admissionService.submit(request("customer-1"));
+
+        assertThat(ticket.getTicketId()).isEqualTo("ticket-remote");
+        verify(ticketRepository, never()).save(any(BookingTicket.class));
+    }
+
+    @Test
+    void getTicket_ReadsTicketAcceptedByAnotherReplica() {
+        AppointmentResponse booked = AppointmentResponse.builder().id("appointment-1").customerId("customer-1").build();
+        when(ticketRepository.findById("ticket-remote")).thenReturn(Optional.of(BookingTicket.builder()
+                .id("ticket-remote")
+                .customerId("customer-1")
+                .status("BOOKED")
+                .appointmentId("appointment-1")
+                .submittedAt(LocalDateTime.now())
+                .completedAt(LocalDateTime.now())
+                .build()));
+        when(appointmentService.getAppointmentById("appointment-1")).thenReturn(booked);
+        admissionService = new BookingAdmissionService(appointmentService, ticketRepository, 10, 3, 1, 1000, 60000);
+
+        BookingTicketResponse ticket = admissionService.getTicket("ticket-remote");
+
+        assertThat(ticket.getStatus()).isEqualTo("BOOKED");
+        assertThat(ticket.getAppointment()).isEqualTo(booked);
+    }
+
+    @Test
+    void submit_RejectsBeyondQueueCapacity() {
+        admissionService = new BookingAdmissionService(appointmentService, ticketRepository, 1, 3, 1, 1000, 60000);
+        admissionService.submit(request("customer-1"));
+
+        assertThatThrownBy(() -> admissionService.submit(request("customer-2")))
+                .isInstanceOf(ServiceUnavailableException.class);
+        // The rejected customer is not left holding a dead ticket
+        assertThatThrownBy(() -> admissionService.submit(request("customer-2")))
+                .isInstanceOf(ServiceUnavailableException.class);
+    }
+
+    @Test
+    void submit_RejectsCustomerBeyondPerCustomerLimit() {
+        admissionService = new BookingAdmissionService(appointmentService, ticketRepository, 10, 2, 1, 1000, 60000);
+        admissionService.submit(request("customer-1", 9));
+        admissionService.submit(request("customer-1", 10));
+
+        assertThatThrownBy(() -> admissionService.submit(request("customer-1", 11)))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .hasMessageContaining("2 bookings in progress");
+        // Other customers still get in while the queue has room
+        assertThat(admissionService.submit(request("customer-2")).getStatus()).isEqualTo("QUEUED");
+    }
+
+    @Test
+    void submit_PlacesOtherCustomerBehindOnlyFirstBookingOfBusyCustomer() {
+        admissionService = new BookingAdmissionService(appointmentService, ticketRepository, 10, 3, 1, 1000, 60000);
+        admissionService.submit(request("customer-1", 9));
+        admissionService.submit(request("customer-1", 10));
+        BookingTicketResponse third = admissionService.submit(request("customer-1", 11));
+
+        BookingTicketResponse other = admissionService.submit(request("customer-2"));
+
+        assertThat(other.getPosition()).isEqualTo(2);
+        assertThat(admissionService.getTicket(third.getTicketId()).getPosition()).isEqualTo(4);
+    }
+
+    @Test
+    void start_ServesCustomersRoundRobin() {
+        List<String> served = Collections.synchronizedList(new ArrayList<>());
+        when(appointmentService.createAppointment(any(AppointmentRequest.class))).thenAnswer(invocation -> {
+            AppointmentRequest booked = invocation.getArgument(0);
+            served.add(booked.getCustomerId());
+            return AppointmentResponse.builder().customerId(booked.getCustomerId()).build();
+        });
+        admissionService = new BookingAdmissionService(appointmentService, ticketRepository, 10, 3, 1, 1000, 60000);
+        admissionService.submit(request("customer-1", 9));
+        admissionService.submit(request("customer-1", 10));
+        admissionService.submit(request("customer-1", 11));
+        admissionService.submit(request("customer-2"));
+
+        admissionService.start();
+
+        verify(appointmentService, timeout(2000).times(4)).createAppointment(any(AppointmentRequest.class));
+        assertThat(served).containsExactly("customer-1", "customer-2", "customer-1", "customer-1");
+    }
+
+    @Test
+    void bookAndWait_ReturnsAppointmentBookedByWorker() {
+        AppointmentResponse booked = AppointmentResponse.builder().id("appointment-1").customerId("customer-1").build();
+        when(appointmentService.createAppointment(any(AppointmentRequest.class))).thenReturn(booked);
+        admissionService = new BookingAdmissionService(appointmentService, ticketRepository, 10, 3, 2, 5000, 60000);
+        admissionService.start();
+
+        assertThat(admissionService.bookAndWait(request("customer-1"))).isEqualTo(booked);
+        verify(ticketRepository).complete(anyString(), eq("BOOKED"), eq("appointment-1"), isNull(), any());
+    }
+
+    @Test
+    void bookAndWait_RethrowsBookingFailure() {
+        when(appointmentService.createAppointment(any(AppointmentRequest.class)))
+                .thenThrow(new BadRequestException("Slot is no longer available"));
+        admissionService = new BookingAdmissionService(appointmentService, ticketRepository, 10, 3, 1, 5000, 60000);
+        admissionService.start();
+
+        assertThatThrownBy(() -> admissionService.bookAndWait(request("customer-1")))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Slot is no longer available");
+    }
+
+    private AppointmentRequest request(String customerId) {
+        return request(customerId, 10);
+    }
+
+    private AppointmentRequest request(String customerId, int hour) {
+        return AppointmentRequest.builder()
+                .customerId(customerId)
+                .fullName("John Doe")
+                .phoneNumber("(555) 123-4567")
+                .vehicleId("vehicle-1")
+                .serviceType("Oil Change")
+                .bookingDateTime(LocalDate.now().plusDays(1).atTime(hour, 0))
+                .paymentMethod("Cash at Service Center")
+                .duration(60)
+                .build();
+    }
+}
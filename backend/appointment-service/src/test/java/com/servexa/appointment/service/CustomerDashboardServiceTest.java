@@ -0,0 +1,111 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.AppointmentResponse;
+import com.servexa.appointment.dto.CustomerDashboardResponse;
+import com.servexa.appointment.dto.CustomerStatisticsResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerDashboardServiceTest {
+
+    private static final String TOKEN = "Bearer token";
+
+    @Mock
+    private AppointmentService appointmentService;
+
+    @Mock
+    private CustomerStatisticsService statisticsService;
+
+    private final AtomicInteger remoteCalls = new AtomicInteger();
+
+    private CustomerDashboardService service(ExchangeFunction exchange) {
+        return new CustomerDashboardService(appointmentService, statisticsService,
+                WebClient.builder().exchangeFunction(exchange),
+                "http://auth", "http://vehicle", "http://notification", 200, 500, 60000);
+    }
+
+    private Mono<ClientResponse> respond(ClientRequest request) {
+        remoteCalls.incrementAndGet();
+        String body = switch (request.url().getHost()) {
+            case "auth" -> "{\"data\":{\"id\":\"c-1\",\"email\":\"c@servexa.com\"}}";
+            case "vehicle" -> "{\"data\":[{\"id\":1},{\"id\":2}]}";
+            default -> "{\"data\":3}";
+        };
+        return Mono.just(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build());
+    }
+
+    @Test
+    void getDashboard_AssemblesAllSectionsAndCachesCompleteView() {
+        when(appointmentService.getAppointmentsByCustomerId("c-1"))
+                .thenReturn(List.of(AppointmentResponse.builder().id("a-1").build()));
+        when(statisticsService.getCustomerStatistics("c-1"))
+                .thenReturn(CustomerStatisticsResponse.builder().totalVehicles(0).totalServices(1).build());
+        CustomerDashboardService dashboardService = service(this::respond);
+
+        CustomerDashboardResponse dashboard = dashboardService.getDashboard("c-1", TOKEN);
+
+        assertThat(dashboard.isComplete()).isTrue();
+        assertThat(dashboard.getProfile().path("email").asText()).isEqualTo("c@servexa.com");
+        assertThat(dashboard.getVehicles()).hasSize(2);
+        assertThat(dashboard.getAppointments()).hasSize(1);
+        assertThat(dashboard.getStatistics().getTotalVehicles()).isEqualTo(2);
+        assertThat(dashboard.getUnreadNotifications()).isEqualTo(3L);
+
+        assertThat(dashboardService.getDashboard("c-1", TOKEN)).isSameAs(dashboard);
+        assertThat(remoteCalls.get()).isEqualTo(3);
+        verify(appointmentService, times(1)).getAppointmentsByCustomerId("c-1");
+    }
+
+    @Test
+    void getDashboard_ServesPartialViewWhenSourceTimesOut() {
+        when(appointmentService.getAppointmentsByCustomerId("c-1")).thenReturn(List.of());
+        when(statisticsService.getCustomerStatistics("c-1")).thenReturn(new CustomerStatisticsResponse());
+        CustomerDashboardService dashboardService = service(request ->
+                "vehicle".equals(request.url().getHost()) ? Mono.never() : respond(request));
+
+        long started = System.currentTimeMillis();
+        CustomerDashboardResponse dashboard = dashboardService.getDashboard("c-1", TOKEN);
+
+        assertThat(System.currentTimeMillis() - started).isLessThan(2000);
+        assertThat(dashboard.getUnavailableSections()).containsExactly(CustomerDashboardService.VEHICLES);
+        assertThat(dashboard.getVehicles()).isNull();
+        assertThat(dashboard.getUnreadNotifications()).isEqualTo(3L);
+
+        // Partial views are not cached, so the next load retries
+        dashboardService.getDashboard("c-1", TOKEN);
+        verify(appointmentService, times(2)).getAppointmentsByCustomerId("c-1");
+    }
+
+    @Test
+    void getDashboard_SkipsCallerScopedSectionsWithoutToken() {
+        when(appointmentService.getAppointmentsByCustomerId("c-1")).thenReturn(List.of());
+        when(statisticsService.getCustomerStatistics("c-1")).thenReturn(new CustomerStatisticsResponse());
+        CustomerDashboardService dashboardService = service(this::respond);
+
+        CustomerDashboardResponse dashboard = dashboardService.getDashboard("c-1", null);
+
+        assertThat(dashboard.getUnavailableSections())
+                .containsExactly(CustomerDashboardService.NOTIFICATIONS, CustomerDashboardService.PROFILE);
+        assertThat(remoteCalls.get()).isEqualTo(1);
+    }
+}
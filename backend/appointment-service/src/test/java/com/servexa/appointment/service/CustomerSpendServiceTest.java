@@ -0,0 +1,106 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.AppointmentResponse;
+import com.servexa.appointment.event.AppointmentChangedEvent;
+import com.servexa.appointment.repository.CustomerSpendRepository;
+import com.servexa.appointment.repository.CustomerSpendRepository.SpendTotals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerSpendServiceTest {
+
+    @Mock
+    private CustomerSpendRepository spendRepository;
+
+    @Mock
+    private ServiceCatalogService catalogService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CustomerSpendService spendService;
+
+    @BeforeEach
+    void setUp() {
+        spendService = new CustomerSpendService(spendRepository, catalogService, transactionManager, 2);
+    }
+
+    @Test
+    void onAppointmentChanged_CompletionAddsSnapshottedPrice() {
+        spendService.onAppointmentChanged(
+                AppointmentChangedEvent.statusChanged(buildResponse("a-1", "COMPLETED", "75.50"), "IN_PROGRESS"));
+
+        InOrder inOrder = inOrder(spendRepository);
+        inOrder.verify(spendRepository).lockCustomer("customer-1");
+        inOrder.verify(spendRepository).applyDelta("customer-1", new BigDecimal("75.50"), 1);
+    }
+
+    @Test
+    void onAppointmentChanged_LeavingCompletedSubtractsPrice() {
+        spendService.onAppointmentChanged(
+                AppointmentChangedEvent.statusChanged(buildResponse("a-1", "CANCELLED", "75.50"), "COMPLETED"));
+
+        verify(spendRepository).applyDelta("customer-1", new BigDecimal("-75.50"), -1);
+    }
+
+    @Test
+    void onAppointmentChanged_OpenStatusChangeLeavesTotalsUntouched() {
+        spendService.onAppointmentChanged(
+                AppointmentChangedEvent.statusChanged(buildResponse("a-1", "IN_PROGRESS", "75.50"), "CREATED"));
+
+        verify(spendRepository, never()).applyDelta(any(), any(), anyLong());
+        verify(spendRepository, never()).lockCustomer(any());
+    }
+
+    @Test
+    void reconcile_OverwritesTotalsBatchByBatchAndZeroesCustomersWithoutCompletions() {
+        SpendTotals first = mock(SpendTotals.class);
+        when(first.getCustomerId()).thenReturn("customer-1");
+        when(first.getTotalSpent()).thenReturn(new BigDecimal("140.00"));
+        when(first.getCompletedCount()).thenReturn(2L);
+        SpendTotals third = mock(SpendTotals.class);
+        when(third.getCustomerId()).thenReturn("customer-3");
+        when(third.getTotalSpent()).thenReturn(new BigDecimal("40.00"));
+        when(third.getCompletedCount()).thenReturn(1L);
+        when(spendRepository.findCustomerIdsAfter("", 2)).thenReturn(List.of("customer-1", "customer-2"));
+        when(spendRepository.findCustomerIdsAfter("customer-2", 2)).thenReturn(List.of("customer-3"));
+        when(spendRepository.findCustomerIdsAfter("customer-3", 2)).thenReturn(List.of());
+        when(spendRepository.sumCompleted(eq(List.of("customer-1", "customer-2")), any())).thenReturn(List.of(first));
+        when(spendRepository.sumCompleted(eq(List.of("customer-3")), any())).thenReturn(List.of(third));
+
+        assertThat(spendService.reconcile()).isEqualTo(3);
+
+        verify(spendRepository).lockCustomers(List.of("customer-1", "customer-2"));
+        verify(spendRepository).lockCustomers(List.of("customer-3"));
+        verify(spendRepository).overwrite("customer-1", new BigDecimal("140.00"), 2);
+        verify(spendRepository).overwrite("customer-2", BigDecimal.ZERO, 0);
+        verify(spendRepository).overwrite("customer-3", new BigDecimal("40.00"), 1);
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    private AppointmentResponse buildResponse(String id, String status, String price) {
+        return AppointmentResponse.builder()
+                .id(id)
+                .customerId("customer-1")
+                .serviceType("Oil Change")
+                .bookingDateTime(LocalDateTime.of(2024, 3, 4, 10, 0))
+                .status(status)
+                .duration(60)
+                .price(new BigDecimal(price))
+                .build();
+    }
+}
@@ -0,0 +1,108 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.AppointmentResponse;
+import com.servexa.appointment.dto.DurationEstimateResponse;
+import com.servexa.appointment.entity.DurationSketch;
+import com.servexa.appointment.event.AppointmentChangedEvent;
+import com.servexa.appointment.repository.DurationSketchRepository;
+import com.servexa.appointment.util.QuantileSketch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DurationEstimateServiceTest {
+
+    @Mock
+    private DurationSketchRepository sketchRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DurationEstimateService estimateService;
+
+    @BeforeEach
+    void setUp() {
+        estimateService = new DurationEstimateService(sketchRepository, transactionManager, 5);
+    }
+
+    @Test
+    void flush_MergesIntoStoredSketchAndPublishesEstimates() {
+        QuantileSketch stored = new QuantileSketch(0.02);
+        for (int i = 0; i < 10; i++) {
+            stored.add(60);
+        }
+        when(sketchRepository.findForUpdate("oil change")).thenReturn(Optional.of(DurationSketch.builder()
+                .sketchKey("oil change").sketch(stored.toBytes()).sampleCount(10).build()));
+        when(sketchRepository.findForUpdate("oil change|toyota corolla")).thenReturn(Optional.empty());
+
+        for (int i = 0; i < 10; i++) {
+            estimateService.record("Oil Change", "Toyota Corolla 2020", 30);
+        }
+        estimateService.flush();
+
+        ArgumentCaptor<DurationSketch> saved = ArgumentCaptor.forClass(DurationSketch.class);
+        verify(sketchRepository, times(2)).save(saved.capture());
+        assertThat(saved.getAllValues()).extracting(DurationSketch::getSampleCount).containsExactlyInAnyOrder(20L, 10L);
+
+        DurationEstimateResponse byModel = estimateService.estimate("oil change", "Toyota Corolla 2018");
+        assertThat(byModel.getVehicleModel()).isEqualTo("toyota corolla");
+        assertThat(byModel.getP90Minutes()).isBetween(30, 31);
+
+        // Other models fall back to the service type, which includes the older, slower history
+        DurationEstimateResponse byService = estimateService.estimate("Oil Change", "Honda Civic 2019");
+        assertThat(byService.getVehicleModel()).isNull();
+        assertThat(byService.getSampleCount()).isEqualTo(20);
+        assertThat(estimateService.slotMinutes("Oil Change", "Honda Civic 2019")).isBetween(60, 62);
+    }
+
+    @Test
+    void estimate_RequiresMinimumSamples() {
+        when(sketchRepository.findForUpdate(anyString())).thenReturn(Optional.empty());
+        for (int i = 0; i < 4; i++) {
+            estimateService.record("Brake Service", null, 90);
+        }
+        estimateService.flush();
+
+        assertThat(estimateService.estimate("Brake Service", null)).isNull();
+        assertThat(estimateService.slotMinutes("Brake Service", null)).isNull();
+    }
+
+    @Test
+    void onAppointmentChanged_RecordsOnlyTimedCompletions() {
+        LocalDateTime startedAt = LocalDateTime.now().minusMinutes(45);
+        AppointmentResponse completed = AppointmentResponse.builder()
+                .id("a-1").serviceType("Oil Change").vehicleType("Vehicle ID: 7").status("COMPLETED")
+                .startedAt(startedAt).build();
+        AppointmentResponse untimed = AppointmentResponse.builder()
+                .id("a-2").serviceType("Oil Change").status("COMPLETED").build();
+        when(sketchRepository.findForUpdate(anyString())).thenReturn(Optional.empty());
+
+        estimateService.onAppointmentChanged(AppointmentChangedEvent.statusChanged(completed, "IN_PROGRESS"));
+        estimateService.onAppointmentChanged(AppointmentChangedEvent.statusChanged(untimed, "IN_PROGRESS"));
+        estimateService.flush();
+
+        // One sample, and only at service level: the vehicle placeholder has no model
+        verify(sketchRepository, times(1)).save(any(DurationSketch.class));
+        verify(sketchRepository).findForUpdate("oil change");
+    }
+
+    @Test
+    void vehicleModel_DropsYearAndPlaceholders() {
+        assertThat(DurationEstimateService.vehicleModel("Toyota  Corolla 2020")).isEqualTo("toyota corolla");
+        assertThat(DurationEstimateService.vehicleModel("Vehicle ID: 12")).isNull();
+        assertThat(DurationEstimateService.vehicleModel(null)).isNull();
+    }
+}
@@ -0,0 +1,192 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.AppointmentResponse;
+import com.servexa.appointment.dto.EmployeeJobResponse;
+import com.servexa.appointment.entity.Appointment;
+import com.servexa.appointment.event.AppointmentChangedEvent;
+import com.servexa.appointment.repository.AppointmentRepository;
+import com.servexa.common.branch.BranchContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeScheduleServiceTest {
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    private EmployeeScheduleService employeeScheduleService;
+
+    private Appointment later;
+    private Appointment sooner;
+
+    @BeforeEach
+    void setUp() {
+        employeeScheduleService = new EmployeeScheduleService(appointmentRepository, 60000);
+        later = buildAppointment("job-2", LocalDateTime.now().plusHours(5));
+        sooner = buildAppointment("job-1", LocalDateTime.now().plusHours(1));
+    }
+
+    @Test
+    void getNextJobs_LoadsOnceAndOrdersByBookingTime() {
+        when(appointmentRepository.findOpenJobsForEmployee(eq("main"), eq("10"), anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(Arrays.asList(later, sooner));
+
+        List<EmployeeJobResponse> first = employeeScheduleService.getNextJobs("10", 10);
+        List<EmployeeJobResponse> second = employeeScheduleService.getNextJobs("10", 1);
+
+        assertThat(first).extracting(EmployeeJobResponse::getId).containsExactly("job-1", "job-2");
+        assertThat(second).extracting(EmployeeJobResponse::getId).containsExactly("job-1");
+        verify(appointmentRepository, times(1)).findOpenJobsForEmployee(eq("main"), eq("10"), anyCollection(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void onAppointmentChanged_CompletedJobLeavesQueue() {
+        when(appointmentRepository.findOpenJobsForEmployee(eq("main"), eq("10"), anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(Arrays.asList(later, sooner));
+        employeeScheduleService.getNextJobs("10", 10);
+
+        AppointmentResponse completed = toResponse(sooner);
+        completed.setStatus("COMPLETED");
+        employeeScheduleService.onAppointmentChanged(AppointmentChangedEvent.statusChanged(completed, "IN_PROGRESS"));
+
+        assertThat(employeeScheduleService.getNextJobs("10", 10))
+                .extracting(EmployeeJobResponse::getId)
+                .containsExactly("job-2");
+    }
+
+    @Test
+    void onAppointmentChanged_ReassignmentMovesJobBetweenQueues() {
+        when(appointmentRepository.findOpenJobsForEmployee(eq("main"), eq("10"), anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(Arrays.asList(later, sooner));
+        when(appointmentRepository.findOpenJobsForEmployee(eq("main"), eq("20"), anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        employeeScheduleService.getNextJobs("10", 10);
+        employeeScheduleService.getNextJobs("20", 10);
+
+        AppointmentResponse reassigned = toResponse(later);
+        reassigned.setAssignedEmployeeId("20");
+        employeeScheduleService.onAppointmentChanged(AppointmentChangedEvent.assigned(reassigned, "ASSIGNED", "10"));
+
+        assertThat(employeeScheduleService.getNextJobs("10", 10))
+                .extracting(EmployeeJobResponse::getId)
+                .containsExactly("job-1");
+        assertThat(employeeScheduleService.getNextJobs("20", 10))
+                .extracting(EmployeeJobResponse::getId)
+                .containsExactly("job-2");
+    }
+
+    @Test
+    void getNextJobs_CachesLoadDespiteChangesToOtherEmployees() {
+        Appointment otherJob = buildAppointment("job-9", LocalDateTime.now().plusHours(3));
+        otherJob.setAssignedEmployeeId("20");
+        when(appointmentRepository.findOpenJobsForEmployee(eq("main"), eq("10"), anyCollection(), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> {
+                    employeeScheduleService.onAppointmentChanged(AppointmentChangedEvent.created(toResponse(otherJob)));
+                    return Arrays.asList(later, sooner);
+                });
+
+        employeeScheduleService.getNextJobs("10", 10);
+        employeeScheduleService.getNextJobs("10", 10);
+
+        verify(appointmentRepository, times(1)).findOpenJobsForEmployee(eq("main"), eq("10"), anyCollection(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void getNextJobs_DoesNotCacheLoadThatOverlappedOwnChange() {
+        AppointmentResponse completed = toResponse(sooner);
+        completed.setStatus("COMPLETED");
+        when(appointmentRepository.findOpenJobsForEmployee(eq("main"), eq("10"), anyCollection(), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> {
+                    // Committed after the load read its rows, so the result still has job-1 open
+                    employeeScheduleService.onAppointmentChanged(AppointmentChangedEvent.statusChanged(completed, "IN_PROGRESS"));
+                    return Arrays.asList(later, sooner);
+                })
+                .thenReturn(List.of(later));
+
+        employeeScheduleService.getNextJobs("10", 10);
+
+        assertThat(employeeScheduleService.getNextJobs("10", 10))
+                .extracting(EmployeeJobResponse::getId)
+                .containsExactly("job-2");
+    }
+
+    @Test
+    void queuesAreScopedByBranch() {
+        Appointment northJob = buildAppointment("job-3", LocalDateTime.now().plusHours(2));
+        northJob.setBranchId("north");
+        when(appointmentRepository.findOpenJobsForEmployee(eq("main"), eq("10"), anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(Arrays.asList(later, sooner));
+        when(appointmentRepository.findOpenJobsForEmployee(eq("north"), eq("10"), anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.of(northJob));
+        employeeScheduleService.getNextJobs("10", 10);
+        BranchContext.runAs("north", () -> employeeScheduleService.getNextJobs("10", 10));
+
+        AppointmentResponse completed = toResponse(northJob);
+        completed.setStatus("COMPLETED");
+        employeeScheduleService.onAppointmentChanged(AppointmentChangedEvent.statusChanged(completed, "IN_PROGRESS"));
+
+        assertThat(employeeScheduleService.getNextJobs("10", 10))
+                .extracting(EmployeeJobResponse::getId)
+                .containsExactly("job-1", "job-2");
+        BranchContext.runAs("north", () -> assertThat(employeeScheduleService.getNextJobs("10", 10)).isEmpty());
+    }
+
+    @Test
+    void expiredQueueReloadsChangesMadeElsewhere() {
+        // TTL of zero: every read goes back to the database
+        EmployeeScheduleService readThrough = new EmployeeScheduleService(appointmentRepository, 0);
+        when(appointmentRepository.findOpenJobsForEmployee(eq("main"), eq("10"), anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.of(later))
+                .thenReturn(Arrays.asList(later, sooner));
+
+        assertThat(readThrough.getNextJobs("10", 10)).extracting(EmployeeJobResponse::getId).containsExactly("job-2");
+        // job-1 was assigned through another replica; no local event arrives for it
+        assertThat(readThrough.getNextJobs("10", 10)).extracting(EmployeeJobResponse::getId)
+                .containsExactly("job-1", "job-2");
+    }
+
+    private Appointment buildAppointment(String id, LocalDateTime bookingDateTime) {
+        Appointment appointment = Appointment.builder()
+                .customerId("uuid-customer-123")
+                .fullName("John Doe")
+                .phoneNumber("(555) 123-4567")
+                .vehicleType("Toyota Corolla 2020")
+                .serviceType("Oil Change")
+                .bookingDateTime(bookingDateTime)
+                .paymentMethod("Cash at Service Center")
+                .status("ASSIGNED")
+                .isAssigned(true)
+                .assignedEmployeeId("10")
+                .duration(60)
+                .build();
+        appointment.setId(id);
+        return appointment;
+    }
+
+    private AppointmentResponse toResponse(Appointment appointment) {
+        return AppointmentResponse.builder()
+                .id(appointment.getId())
+                .branchId(appointment.getBranchId())
+                .fullName(appointment.getFullName())
+                .serviceType(appointment.getServiceType())
+                .bookingDateTime(appointment.getBookingDateTime())
+                .status(appointment.getStatus())
+                .assignedEmployeeId(appointment.getAssignedEmployeeId())
+                .duration(appointment.getDuration())
+                .build();
+    }
+}
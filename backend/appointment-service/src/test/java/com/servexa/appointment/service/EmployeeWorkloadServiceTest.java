@@ -0,0 +1,45 @@
+package com.servexa.appointment.service;
+
+import com.servexa.common.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class EmployeeWorkloadServiceTest {
+
+    private final EmployeeWorkloadService workloadService = new EmployeeWorkloadService(
+            mock(DataSource.class), 30000, "08:00", "18:00", 30);
+
+    @Test
+    void busyMinutePrefix_CountsOverlapsOnceAndClipsToWorkingDay() {
+        List<int[]> intervals = List.of(
+                new int[]{-30, 30},  // starts before the working day
+                new int[]{10, 40},   // overlaps the first job
+                new int[]{580, 700}  // runs past the end of the day
+        );
+
+        long[] busyPrefix = EmployeeWorkloadService.busyMinutePrefix(intervals, 600);
+
+        assertThat(busyPrefix[600]).isEqualTo(40 + 20);
+        double[] slots = EmployeeWorkloadService.slotUtilization(busyPrefix, 30);
+        assertThat(slots).hasSize(20);
+        assertThat(slots[0]).isEqualTo(1.0);
+        assertThat(slots[1]).isEqualTo(10.0 / 30);
+        assertThat(slots[10]).isZero();
+        assertThat(slots[19]).isEqualTo(20.0 / 30);
+    }
+
+    @Test
+    void getWorkload_RejectsRangesOverAMonth() {
+        assertThatThrownBy(() -> workloadService.getWorkload(
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 1), null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("limited to 31 days");
+    }
+}
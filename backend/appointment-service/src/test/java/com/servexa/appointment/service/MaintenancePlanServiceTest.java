@@ -0,0 +1,213 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.AppointmentResponse;
+import com.servexa.appointment.dto.MaintenancePlanRequest;
+import com.servexa.appointment.dto.MaintenancePlanResponse;
+import com.servexa.appointment.dto.UpcomingOccurrenceResponse;
+import com.servexa.appointment.entity.Appointment;
+import com.servexa.appointment.entity.MaintenancePlan;
+import com.servexa.appointment.repository.AppointmentRepository;
+import com.servexa.appointment.repository.MaintenancePlanRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MaintenancePlanServiceTest {
+
+    @Mock
+    private MaintenancePlanRepository planRepository;
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private AppointmentService appointmentService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private MaintenancePlanService maintenancePlanService;
+
+    @Test
+    void createPlan_BooksOnlyFutureOccurrencesUpToHorizon() {
+        LocalDateTime now = LocalDateTime.now();
+        when(planRepository.save(any(MaintenancePlan.class))).thenAnswer(invocation -> {
+            MaintenancePlan plan = invocation.getArgument(0);
+            plan.setId("plan-1");
+            return plan;
+        });
+        when(appointmentRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        MaintenancePlanRequest request = buildRequest("FREQ=WEEKLY", now.minusWeeks(3).withNano(0));
+        MaintenancePlanResponse response = maintenancePlanService.createPlan(request);
+
+        List<Appointment> booked = captureBooked();
+        LocalDateTime horizon = LocalDate.now().plusDays(31).atStartOfDay();
+        assertThat(booked).isNotEmpty();
+        assertThat(booked).allSatisfy(appointment -> {
+            assertThat(appointment.getBookingDateTime()).isAfterOrEqualTo(now);
+            assertThat(appointment.getBookingDateTime()).isBefore(horizon);
+            assertThat(appointment.getStatus()).isEqualTo("CREATED");
+            assertThat(appointment.getMaintenancePlanId()).isEqualTo("plan-1");
+        });
+        assertThat(booked.size()).isBetween(4, 5);
+        assertThat(response.getExpandedUntil()).isEqualTo(horizon);
+    }
+
+    @Test
+    void expandNextBatch_StalePlanSkipsOccurrencesThatAlreadyPassed() {
+        LocalDateTime now = LocalDateTime.now();
+        MaintenancePlan plan = buildPlan("FREQ=DAILY", now.minusDays(60));
+        plan.setExpandedUntil(now.minusDays(10));
+        when(planRepository.findDueForExpansion(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(plan));
+        when(appointmentRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        int processed = maintenancePlanService.expandNextBatch();
+
+        assertThat(processed).isEqualTo(1);
+        List<Appointment> booked = captureBooked();
+        assertThat(booked).extracting(Appointment::getBookingDateTime).allSatisfy(bookingDateTime ->
+                assertThat(bookingDateTime).isAfterOrEqualTo(now));
+        assertThat(booked.get(0).getBookingDateTime()).isBeforeOrEqualTo(now.plusDays(1));
+        assertThat(plan.getExpandedUntil()).isEqualTo(LocalDate.now().plusDays(31).atStartOfDay());
+        verify(planRepository).saveAll(List.of(plan));
+    }
+
+    @Test
+    void expandNextBatch_ContinuesFromExpandedUntil() {
+        LocalDateTime expandedUntil = LocalDate.now().plusDays(20).atStartOfDay();
+        MaintenancePlan plan = buildPlan("FREQ=DAILY", LocalDate.now().minusDays(30).atTime(9, 0));
+        plan.setExpandedUntil(expandedUntil);
+        when(planRepository.findDueForExpansion(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(plan));
+        when(appointmentRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        maintenancePlanService.expandNextBatch();
+
+        List<Appointment> booked = captureBooked();
+        assertThat(booked).hasSize(11);
+        assertThat(booked.get(0).getBookingDateTime()).isEqualTo(expandedUntil.withHour(9));
+    }
+
+    @Test
+    void expandNextBatch_NothingDueReturnsZero() {
+        when(planRepository.findDueForExpansion(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of());
+
+        assertThat(maintenancePlanService.expandNextBatch()).isZero();
+        verify(appointmentRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void getUpcoming_AddsVirtualOccurrencesOnlyBeyondExpansionAndNow() {
+        LocalDateTime now = LocalDateTime.now();
+        MaintenancePlan plan = buildPlan("FREQ=DAILY", LocalDate.now().minusDays(5).atTime(9, 0));
+        plan.setExpandedUntil(LocalDate.now().plusDays(2).atStartOfDay());
+        when(planRepository.findByCustomerIdAndIsActiveTrue("c-1")).thenReturn(List.of(plan));
+        when(appointmentRepository
+                .findByCustomerIdAndBookingDateTimeGreaterThanEqualAndBookingDateTimeLessThanOrderByBookingDateTime(
+                        eq("c-1"), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+
+        List<UpcomingOccurrenceResponse> upcoming =
+                maintenancePlanService.getUpcoming("c-1", LocalDate.now().minusDays(7), LocalDate.now().plusDays(4));
+
+        assertThat(upcoming).extracting(UpcomingOccurrenceResponse::getBookingDateTime).containsExactly(
+                LocalDate.now().plusDays(2).atTime(9, 0),
+                LocalDate.now().plusDays(3).atTime(9, 0),
+                LocalDate.now().plusDays(4).atTime(9, 0));
+        assertThat(upcoming).allSatisfy(occurrence -> {
+            assertThat(occurrence.isVirtual()).isTrue();
+            assertThat(occurrence.getBookingDateTime()).isAfter(now);
+        });
+    }
+
+    @Test
+    void getUpcoming_StalePlanDoesNotShowPastOccurrences() {
+        LocalDateTime now = LocalDateTime.now();
+        MaintenancePlan plan = buildPlan("FREQ=DAILY", LocalDate.now().minusDays(5).atTime(0, 0));
+        when(planRepository.findByCustomerIdAndIsActiveTrue("c-1")).thenReturn(List.of(plan));
+        when(appointmentRepository
+                .findByCustomerIdAndBookingDateTimeGreaterThanEqualAndBookingDateTimeLessThanOrderByBookingDateTime(
+                        eq("c-1"), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+
+        List<UpcomingOccurrenceResponse> upcoming =
+                maintenancePlanService.getUpcoming("c-1", LocalDate.now().minusDays(5), LocalDate.now().plusDays(1));
+
+        assertThat(upcoming).extracting(UpcomingOccurrenceResponse::getBookingDateTime)
+                .allSatisfy(bookingDateTime -> assertThat(bookingDateTime).isAfterOrEqualTo(now))
+                .containsExactly(LocalDate.now().plusDays(1).atStartOfDay());
+    }
+
+    @Test
+    void cancelPlan_CancelsPendingOccurrences() {
+        MaintenancePlan plan = buildPlan("FREQ=WEEKLY", LocalDateTime.now());
+        Appointment pending = Appointment.builder().status("CREATED").maintenancePlanId("plan-1").build();
+        when(planRepository.findById("plan-1")).thenReturn(Optional.of(plan));
+        when(planRepository.save(plan)).thenReturn(plan);
+        when(appointmentService.mapToResponse(pending)).thenReturn(AppointmentResponse.builder().id("a-1").build());
+        when(appointmentRepository.findByMaintenancePlanIdAndStatusAndBookingDateTimeAfter(
+                eq("plan-1"), eq("CREATED"), any(LocalDateTime.class))).thenReturn(List.of(pending));
+
+        MaintenancePlanResponse response = maintenancePlanService.cancelPlan("plan-1");
+
+        assertThat(response.isActive()).isFalse();
+        assertThat(pending.getStatus()).isEqualTo("CANCELLED");
+        verify(eventPublisher).publishEvent(any(Object.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Appointment> captureBooked() {
+        ArgumentCaptor<List<Appointment>> captor = ArgumentCaptor.forClass(List.class);
+        verify(appointmentRepository).saveAll(captor.capture());
+        return captor.getValue();
+    }
+
+    private MaintenancePlan buildPlan(String rule, LocalDateTime start) {
+        MaintenancePlan plan = MaintenancePlan.builder()
+                .branchId("main")
+                .customerId("c-1")
+                .fullName("Jane Doe")
+                .phoneNumber("0771234567")
+                .vehicleId("7")
+                .serviceType("Oil Change")
+                .paymentMethod("CASH")
+                .duration(60)
+                .recurrenceRule(rule)
+                .startDateTime(start)
+                .build();
+        plan.setId("plan-1");
+        return plan;
+    }
+
+    private MaintenancePlanRequest buildRequest(String rule, LocalDateTime start) {
+        MaintenancePlanRequest request = new MaintenancePlanRequest();
+        request.setCustomerId("c-1");
+        request.setFullName("Jane Doe");
+        request.setPhoneNumber("0771234567");
+        request.setVehicleId("7");
+        request.setServiceType("Oil Change");
+        request.setPaymentMethod("CASH");
+        request.setDuration(60);
+        request.setRecurrenceRule(rule);
+        request.setStartDateTime(start);
+        return request;
+    }
+}
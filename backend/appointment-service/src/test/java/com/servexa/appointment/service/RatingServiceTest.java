@@ -0,0 +1,111 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.RatingRequest;
+import com.servexa.appointment.dto.RatingSummaryResponse;
+import com.servexa.appointment.entity.Appointment;
+import com.servexa.appointment.entity.AppointmentRating;
+import com.servexa.appointment.entity.RatingAggregate;
+import com.servexa.appointment.entity.RatingAggregateId;
+import com.servexa.appointment.repository.AppointmentRatingRepository;
+import com.servexa.appointment.repository.AppointmentRepository;
+import com.servexa.appointment.repository.RatingAggregateRepository;
+import com.servexa.common.exception.BadRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RatingServiceTest {
+
+    @Mock
+    private AppointmentRatingRepository ratingRepository;
+
+    @Mock
+    private RatingAggregateRepository aggregateRepository;
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RatingService ratingService;
+    private Appointment appointment;
+
+    @BeforeEach
+    void setUp() {
+        ratingService = new RatingService(ratingRepository, aggregateRepository, appointmentRepository,
+                transactionManager);
+        appointment = Appointment.builder()
+                .customerId("customer-1")
+                .serviceType("Oil Change")
+                .assignedEmployeeId("employee-7")
+                .status("COMPLETED")
+                .build();
+        appointment.setId("appointment-1");
+    }
+
+    @Test
+    void submit_ServesAverageBeforeAndAfterFlush() {
+        when(appointmentRepository.findById("appointment-1")).thenReturn(Optional.of(appointment));
+        when(ratingRepository.saveAndFlush(any(AppointmentRating.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        RatingAggregateId employeeKey = new RatingAggregateId(RatingService.SCOPE_EMPLOYEE, "employee-7");
+        when(aggregateRepository.findById(employeeKey))
+                .thenReturn(Optional.of(RatingAggregate.builder().id(employeeKey).ratingSum(9).ratingCount(3).build()));
+
+        ratingService.submit(request(5));
+
+        RatingSummaryResponse summary = ratingService.getEmployeeSummary("employee-7");
+        assertThat(summary.getRatingCount()).isEqualTo(4);
+        assertThat(summary.getAverageRating()).isEqualTo(3.5);
+
+        ratingService.flush();
+
+        verify(aggregateRepository).applyDelta(RatingService.SCOPE_EMPLOYEE, "employee-7", 5, 1);
+        verify(aggregateRepository).applyDelta(RatingService.SCOPE_SERVICE_TYPE, "oil change", 5, 1);
+        verify(aggregateRepository).applyDelta(RatingService.SCOPE_CUSTOMER, "customer-1", 5, 1);
+        assertThat(ratingService.getEmployeeSummary("employee-7").getRatingCount()).isEqualTo(3);
+    }
+
+    @Test
+    void submit_RejectsAppointmentsThatAreNotCompleted() {
+        appointment.setStatus("IN_PROGRESS");
+        when(appointmentRepository.findById("appointment-1")).thenReturn(Optional.of(appointment));
+
+        assertThatThrownBy(() -> ratingService.submit(request(4)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Only completed appointments can be rated");
+        verify(ratingRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void flush_RequeuesDeltasWhenTheWriteFails() {
+        when(appointmentRepository.findById("appointment-1")).thenReturn(Optional.of(appointment));
+        when(ratingRepository.saveAndFlush(any(AppointmentRating.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        ratingService.submit(request(4));
+        doThrow(new IllegalStateException("database unavailable"))
+                .when(aggregateRepository).applyDelta(any(), any(), anyLong(), anyLong());
+
+        ratingService.flush();
+
+        assertThat(ratingService.getCustomerSummary("customer-1").getRatingCount()).isEqualTo(1);
+    }
+
+    private RatingRequest request(int rating) {
+        return RatingRequest.builder()
+                .appointmentId("appointment-1")
+                .customerId("customer-1")
+                .rating(rating)
+                .build();
+    }
+}
@@ -0,0 +1,109 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.ServiceCatalogEntryResponse;
+import com.servexa.appointment.entity.ServiceCatalogEntry;
+import com.servexa.appointment.repository.ServiceCatalogRepository;
+import com.servexa.common.exception.BadRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceCatalogServiceTest {
+
+    @Mock
+    private ServiceCatalogRepository catalogRepository;
+
+    private ServiceCatalogService catalogService;
+
+    @BeforeEach
+    void setUp() {
+        catalogService = new ServiceCatalogService(catalogRepository, new BigDecimal("100"));
+    }
+
+    @Test
+    void emptyCatalog_AcceptsAnyServiceTypeAtDefaultPrice() {
+        when(catalogRepository.fingerprint()).thenReturn("0@");
+        when(catalogRepository.findAll()).thenReturn(List.of());
+        catalogService.reload();
+
+        assertThat(catalogService.requireBookable("Anything")).isNull();
+        assertThat(catalogService.priceFor("Anything")).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    void reload_ServesEntriesFromSnapshotWithoutFurtherQueries() {
+        when(catalogRepository.fingerprint()).thenReturn("2@t1");
+        when(catalogRepository.findAll()).thenReturn(List.of(
+                entry("oil change", 45, "49.99", true), entry("detailing", 180, "150.00", false)));
+        catalogService.reload();
+        clearInvocations(catalogRepository);
+
+        ServiceCatalogEntryResponse oilChange = catalogService.requireBookable("  Oil Change ");
+
+        assertThat(oilChange.getDefaultDuration()).isEqualTo(45);
+        assertThat(catalogService.priceFor("OIL CHANGE")).isEqualByComparingTo("49.99");
+        assertThat(catalogService.getSnapshot().getEntries())
+                .extracting(ServiceCatalogEntryResponse::getServiceType)
+                .containsExactly("detailing", "oil change");
+        assertThatThrownBy(() -> catalogService.requireBookable("Detailing"))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> catalogService.requireBookable("Tyre Rotation"))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(catalogRepository);
+    }
+
+    @Test
+    void etag_IsStableForSameContentAndChangesWithContent() {
+        when(catalogRepository.fingerprint()).thenReturn("1@t1", "1@t2", "1@t3");
+        when(catalogRepository.findAll()).thenReturn(
+                List.of(entry("oil change", 45, "49.99", true)),
+                List.of(entry("oil change", 45, "49.99", true)),
+                List.of(entry("oil change", 60, "49.99", true)));
+
+        catalogService.reload();
+        String first = catalogService.getSnapshot().getEtag();
+        catalogService.reload();
+        String same = catalogService.getSnapshot().getEtag();
+        catalogService.reload();
+        String changed = catalogService.getSnapshot().getEtag();
+
+        assertThat(first).startsWith("\"").endsWith("\"");
+        assertThat(same).isEqualTo(first);
+        assertThat(changed).isNotEqualTo(first);
+    }
+
+    @Test
+    void refreshIfChanged_ReloadsOnlyWhenFingerprintMoves() {
+        when(catalogRepository.fingerprint()).thenReturn("1@t1", "1@t1", "2@t2", "2@t2");
+        when(catalogRepository.findAll()).thenReturn(List.of(entry("oil change", 45, "49.99", true)));
+        catalogService.reload();
+
+        catalogService.refreshIfChanged();
+        verify(catalogRepository, times(1)).findAll();
+
+        catalogService.refreshIfChanged();
+        verify(catalogRepository, times(2)).findAll();
+    }
+
+    private ServiceCatalogEntry entry(String serviceType, int duration, String price, boolean active) {
+        return ServiceCatalogEntry.builder()
+                .serviceType(serviceType)
+                .displayName(serviceType)
+                .defaultDuration(duration)
+                .bayType("LIFT")
+                .baysRequired(1)
+                .price(new BigDecimal(price))
+                .active(active)
+                .build();
+    }
+}
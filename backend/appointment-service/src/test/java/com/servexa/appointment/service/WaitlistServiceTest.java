@@ -0,0 +1,210 @@
+package com.servexa.appointment.service;
+
+import com.servexa.appointment.dto.AppointmentRequest;
+import com.servexa.appointment.dto.AppointmentResponse;
+import com.servexa.appointment.dto.WaitlistEntryResponse;
+import com.servexa.appointment.dto.WaitlistRequest;
+import com.servexa.appointment.entity.WaitlistEntry;
+import com.servexa.appointment.event.AppointmentChangedEvent;
+import com.servexa.appointment.repository.WaitlistEntryRepository;
+import com.servexa.common.branch.BranchContext;
+import com.servexa.common.client.NotificationClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WaitlistServiceTest {
+
+    @Mock
+    private WaitlistEntryRepository waitlistRepository;
+
+    @Mock
+    private AppointmentService appointmentService;
+
+    @Mock
+    private NotificationClient notificationClient;
+
+    @Mock
+    private ServiceCatalogService catalogService;
+
+    @InjectMocks
+    private WaitlistService waitlistService;
+
+    private final Map<String, WaitlistEntry> stored = new HashMap<>();
+    private final LocalDate slotDate = LocalDate.now().plusDays(3);
+
+    @BeforeEach
+    void setUp() {
+        when(waitlistRepository.save(any(WaitlistEntry.class))).thenAnswer(invocation -> {
+            WaitlistEntry entry = invocation.getArgument(0);
+            if (entry.getId() == null) {
+                entry.setId("w" + (stored.size() + 1));
+                entry.setCreatedAt(LocalDateTime.now().plusSeconds(stored.size()));
+            }
+            stored.put(entry.getId(), entry);
+            return entry;
+        });
+        lenient().when(waitlistRepository.findByIdForUpdate(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(stored.get(invocation.<String>getArgument(0))));
+        // Mirrors the query: WAITING rows for the branch, day and service type, oldest first
+        lenient().when(waitlistRepository.findNextWaitingForUpdate(anyString(), any(LocalDate.class), anyString(),
+                        any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    String branchId = invocation.getArgument(0);
+                    LocalDate date = invocation.getArgument(1);
+                    String serviceType = invocation.<String>getArgument(2).toLowerCase(Locale.ROOT);
+                    return stored.values().stream()
+                            .filter(entry -> "WAITING".equals(entry.getStatus()))
+                            .filter(entry -> branchId.equals(entry.getBranchId()))
+                            .filter(entry -> date.equals(entry.getDesiredDate()))
+                            .filter(entry -> serviceType.equals(entry.getServiceType().trim().toLowerCase(Locale.ROOT)))
+                            .sorted(Comparator.comparing(WaitlistEntry::getCreatedAt))
+                            .limit(invocation.<Pageable>getArgument(3).getPageSize())
+                            .toList();
+                });
+    }
+
+    @Test
+    void cancellation_OffersSlotToLongestWaitingLiveEntry() {
+        String first = waitlistService.join(request("Oil Change")).getId();
+        String second = waitlistService.join(request("oil change")).getId();
+        waitlistService.join(request("Brake Service"));
+        waitlistService.leave(first);
+
+        LocalDateTime slot = slotDate.atTime(10, 0);
+        waitlistService.onAppointmentChanged(cancelled("Oil Change", slot));
+
+        WaitlistEntry offered = stored.get(second);
+        assertThat(offered.getStatus()).isEqualTo("OFFERED");
+        assertThat(offered.getOfferedSlot()).isEqualTo(slot);
+        assertThat(offered.getOfferExpiresAt()).isAfter(LocalDateTime.now());
+        assertThat(stored.get("w3").getStatus()).isEqualTo("WAITING");
+        verify(notificationClient).sendNotification(eq("c-1"), anyString(), anyString(), any(), any(), any());
+    }
+
+    @Test
+    void cancellation_WithNobodyWaitingOffersNothing() {
+        waitlistService.join(request("Brake Service"));
+
+        waitlistService.onAppointmentChanged(cancelled("Oil Change", slotDate.atTime(10, 0)));
+
+        assertThat(stored.get("w1").getStatus()).isEqualTo("WAITING");
+        verifyNoInteractions(notificationClient);
+    }
+
+    @Test
+    void cancellation_OnlyOffersSlotToCustomersOfSameBranch() {
+        String elsewhere = joinAt("colombo-north", request("Oil Change"));
+        String local = waitlistService.join(request("Oil Change")).getId();
+
+        waitlistService.onAppointmentChanged(cancelled("Oil Change", slotDate.atTime(10, 0)));
+
+        assertThat(stored.get(elsewhere).getStatus()).isEqualTo("WAITING");
+        assertThat(stored.get(local).getStatus()).isEqualTo("OFFERED");
+    }
+
+    @Test
+    void expireOffers_MovesExpiredOfferToNextInLine() {
+        String first = waitlistService.join(request("Oil Change")).getId();
+        String second = waitlistService.join(request("Oil Change")).getId();
+        LocalDateTime slot = slotDate.atTime(9, 0);
+        waitlistService.onAppointmentChanged(cancelled("Oil Change", slot));
+        WaitlistEntry offered = stored.get(first);
+        offered.setOfferExpiresAt(LocalDateTime.now().minusMinutes(1));
+        when(waitlistRepository.findExpiredOffersForUpdate(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(offered));
+
+        waitlistService.expireOffers();
+
+        assertThat(stored.get(first).getStatus()).isEqualTo("EXPIRED");
+        assertThat(stored.get(second).getStatus()).isEqualTo("OFFERED");
+        assertThat(stored.get(second).getOfferedSlot()).isEqualTo(slot);
+    }
+
+    @Test
+    void accept_BooksIntoBranchEntryWaitsAt() {
+        String entryId = joinAt("colombo-north", request("Oil Change"));
+        AppointmentResponse cancelled = cancelled("Oil Change", slotDate.atTime(14, 30)).getAppointment();
+        cancelled.setBranchId("colombo-north");
+        waitlistService.onAppointmentChanged(AppointmentChangedEvent.statusChanged(cancelled, "CREATED"));
+        String[] bookedBranch = new String[1];
+        when(appointmentService.createAppointment(any(AppointmentRequest.class))).thenAnswer(invocation -> {
+            bookedBranch[0] = BranchContext.current();
+            return AppointmentResponse.builder().id("a-9").build();
+        });
+
+        waitlistService.accept(entryId);
+
+        assertThat(bookedBranch[0]).isEqualTo("colombo-north");
+    }
+
+    @Test
+    void accept_BooksOfferedSlot() {
+        String entryId = waitlistService.join(request("Oil Change")).getId();
+        LocalDateTime slot = slotDate.atTime(14, 30);
+        waitlistService.onAppointmentChanged(cancelled("Oil Change", slot));
+        when(appointmentService.createAppointment(any(AppointmentRequest.class)))
+                .thenReturn(AppointmentResponse.builder().id("a-9").build());
+
+        WaitlistEntryResponse accepted = waitlistService.accept(entryId);
+
+        ArgumentCaptor<AppointmentRequest> booked = ArgumentCaptor.forClass(AppointmentRequest.class);
+        verify(appointmentService).createAppointment(booked.capture());
+        assertThat(booked.getValue().getBookingDateTime()).isEqualTo(slot);
+        assertThat(booked.getValue().getVehicleId()).isEqualTo("v-1");
+        assertThat(accepted.getStatus()).isEqualTo("ACCEPTED");
+        assertThat(accepted.getAppointmentId()).isEqualTo("a-9");
+    }
+
+    private String joinAt(String branchId, WaitlistRequest request) {
+        String[] id = new String[1];
+        BranchContext.runAs(branchId, () -> id[0] = waitlistService.join(request).getId());
+        return id[0];
+    }
+
+    private WaitlistRequest request(String serviceType) {
+        return WaitlistRequest.builder()
+                .customerId("c-1")
+                .fullName("Jane Doe")
+                .phoneNumber("0771234567")
+                .vehicleId("v-1")
+                .serviceType(serviceType)
+                .paymentMethod("CASH")
+                .duration(60)
+                .desiredDate(slotDate)
+                .build();
+    }
+
+    private AppointmentChangedEvent cancelled(String serviceType, LocalDateTime slot) {
+        AppointmentResponse appointment = AppointmentResponse.builder()
+                .id("a-1")
+                .branchId(BranchContext.DEFAULT_BRANCH)
+                .customerId("c-2")
+                .serviceType(serviceType)
+                .bookingDateTime(slot)
+                .status("CANCELLED")
+                .build();
+        return AppointmentChangedEvent.statusChanged(appointment, "CREATED");
+    }
+}
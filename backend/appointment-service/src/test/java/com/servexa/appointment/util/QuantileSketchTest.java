@@ -0,0 +1,60 @@
+package com.servexa.appointment.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class QuantileSketchTest {
+
+    @Test
+    void quantile_StaysWithinRelativeAccuracy() {
+        QuantileSketch sketch = new QuantileSketch(0.01);
+        for (int value = 1; value <= 10_000; value++) {
+            sketch.add(value);
+        }
+
+        assertThat(sketch.getCount()).isEqualTo(10_000);
+        assertThat(sketch.quantile(0.5)).isCloseTo(5_000, within(5_000 * 0.01));
+        assertThat(sketch.quantile(0.95)).isCloseTo(9_500, within(9_500 * 0.01));
+        assertThat(sketch.quantile(1.0)).isEqualTo(10_000);
+    }
+
+    @Test
+    void merge_MatchesSketchOfCombinedValues() {
+        QuantileSketch left = new QuantileSketch(0.01);
+        QuantileSketch right = new QuantileSketch(0.01);
+        QuantileSketch combined = new QuantileSketch(0.01);
+        for (int value = 0; value < 2_000; value++) {
+            (value % 2 == 0 ? left : right).add(value * 3.5);
+            combined.add(value * 3.5);
+        }
+
+        left.merge(right);
+
+        assertThat(left.getCount()).isEqualTo(combined.getCount());
+        assertThat(left.quantile(0.5)).isEqualTo(combined.quantile(0.5));
+        assertThat(left.quantile(0.95)).isEqualTo(combined.quantile(0.95));
+    }
+
+    @Test
+    void fromBytes_RoundTripsAndStaysMergeable() {
+        QuantileSketch sketch = new QuantileSketch(0.02);
+        for (int value = 1; value <= 500; value++) {
+            sketch.add(value * 0.5);
+        }
+
+        QuantileSketch restored = QuantileSketch.fromBytes(sketch.toBytes());
+        restored.merge(QuantileSketch.fromBytes(new QuantileSketch(0.02).toBytes()));
+
+        assertThat(restored.getCount()).isEqualTo(sketch.getCount());
+        assertThat(restored.quantile(0.5)).isEqualTo(sketch.quantile(0.5));
+        assertThat(restored.quantile(0.9)).isEqualTo(sketch.quantile(0.9));
+        assertThat(restored.getMax()).isEqualTo(sketch.getMax());
+    }
+
+    @Test
+    void quantile_EmptySketchIsNaN() {
+        assertThat(new QuantileSketch(0.02).quantile(0.5)).isNaN();
+    }
+}
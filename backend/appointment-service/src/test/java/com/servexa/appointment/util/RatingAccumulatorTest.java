@@ -0,0 +1,62 @@
+package com.servexa.appointment.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RatingAccumulatorTest {
+
+    @Test
+    void drain_ReturnsMatchingSumAndCountThenResets() {
+        RatingAccumulator<String> accumulator = new RatingAccumulator<>();
+        accumulator.record("employee-1", 5);
+        accumulator.record("employee-1", 3);
+        accumulator.record("employee-2", 4);
+
+        assertThat(accumulator.pending("employee-1")).containsExactly(8, 2);
+
+        Map<String, long[]> drained = accumulator.drain();
+
+        assertThat(drained.get("employee-1")).containsExactly(8, 2);
+        assertThat(drained.get("employee-2")).containsExactly(4, 1);
+        assertThat(accumulator.pending("employee-1")).containsExactly(0, 0);
+        assertThat(accumulator.drain()).isEmpty();
+    }
+
+    @Test
+    void drain_LosesNothingRecordedConcurrently() throws Exception {
+        RatingAccumulator<String> accumulator = new RatingAccumulator<>();
+        int threads = 8;
+        int ratingsPerThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < ratingsPerThread; i++) {
+                    accumulator.record("employee-1", 1 + i % 5);
+                }
+                done.countDown();
+            });
+        }
+
+        long sum = 0;
+        long count = 0;
+        while (done.getCount() > 0) {
+            long[] totals = accumulator.drain().getOrDefault("employee-1", new long[]{0, 0});
+            sum += totals[0];
+            count += totals[1];
+        }
+        long[] remaining = accumulator.drain().getOrDefault("employee-1", new long[]{0, 0});
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(count + remaining[1]).isEqualTo((long) threads * ratingsPerThread);
+        assertThat(sum + remaining[0]).isEqualTo((long) threads * ratingsPerThread * 3);
+    }
+}
@@ -0,0 +1,56 @@
+package com.servexa.appointment.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RecurrenceRuleTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 31, 9, 0);
+
+    @Test
+    void occurrencesBetween_MonthlyKeepsMonthEndWithoutDrift() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=MONTHLY;INTERVAL=3");
+
+        List<LocalDateTime> occurrences = rule.occurrencesBetween(START, START, LocalDateTime.of(2025, 1, 1, 0, 0));
+
+        assertThat(occurrences).containsExactly(
+                LocalDateTime.of(2024, 1, 31, 9, 0),
+                LocalDateTime.of(2024, 4, 30, 9, 0),
+                LocalDateTime.of(2024, 7, 31, 9, 0),
+                LocalDateTime.of(2024, 10, 31, 9, 0));
+    }
+
+    @Test
+    void occurrencesBetween_WindowFarFromStartHonoursCount() {
+        RecurrenceRule rule = RecurrenceRule.parse("RRULE:FREQ=WEEKLY;INTERVAL=2;COUNT=30");
+
+        List<LocalDateTime> occurrences = rule.occurrencesBetween(START,
+                LocalDateTime.of(2025, 2, 1, 0, 0), LocalDateTime.of(2026, 1, 1, 0, 0));
+
+        assertThat(occurrences).first().isEqualTo(START.plusWeeks(54));
+        assertThat(occurrences).last().isEqualTo(START.plusWeeks(58));
+    }
+
+    @Test
+    void occurrencesBetween_StopsAtUntil() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=DAILY;UNTIL=20240202");
+
+        assertThat(rule.occurrencesBetween(START, START, START.plusYears(1))).hasSize(3);
+        assertThat(rule.toString()).isEqualTo("FREQ=DAILY;UNTIL=20240202T235959");
+    }
+
+    @Test
+    void parse_RejectsUnsupportedRules() {
+        assertThatThrownBy(() -> RecurrenceRule.parse("INTERVAL=2"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RecurrenceRule.parse("FREQ=HOURLY"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RecurrenceRule.parse("FREQ=MONTHLY;BYDAY=MO"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,73 @@
+package com.servexa.common.branch;
+
+import java.util.concurrent.Callable;
+import java.util.regex.Pattern;
+
+/**
+ * Per-thread record of the workshop branch the current request acts for. Set from the
+ * {@link #HEADER} request header by {@link BranchContextFilter}; code running outside a request
+ * (schedulers, queue workers) sees {@link #DEFAULT_BRANCH} unless it uses {@link #callAs}.
+ */
+public final class BranchContext {
+
+    public static final String HEADER = "X-Branch-Id";
+    public static final String DEFAULT_BRANCH = "main";
+
+    private static final Pattern VALID_BRANCH = Pattern.compile("[a-z0-9][a-z0-9_-]{0,31}");
+
+    private static final ThreadLocal<String> BRANCH = new ThreadLocal<>();
+
+    private BranchContext() {
+    }
+
+    public static String current() {
+        String branch = BRANCH.get();
+        return branch != null ? branch : DEFAULT_BRANCH;
+    }
+
+    /** Normalises a branch id to lower case, or returns null when it is not a valid id. */
+    public static String normalize(String branchId) {
+        if (branchId == null) {
+            return null;
+        }
+        String normalized = branchId.trim().toLowerCase();
+        return VALID_BRANCH.matcher(normalized).matches() ? normalized : null;
+    }
+
+    /** Runs {@code action} with {@code branchId} as the current branch, restoring the previous one after. */
+    public static <T> T callAs(String branchId, Callable<T> action) throws Exception {
+        String previous = BRANCH.get();
+        BRANCH.set(branchId);
+        try {
+            return action.call();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    public static void runAs(String branchId, Runnable action) {
+        String previous = BRANCH.get();
+        BRANCH.set(branchId);
+        try {
+            action.run();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    static void begin(String branchId) {
+        BRANCH.set(branchId);
+    }
+
+    static void clear() {
+        BRANCH.remove();
+    }
+
+    private static void restore(String previous) {
+        if (previous == null) {
+            BRANCH.remove();
+        } else {
+            BRANCH.set(previous);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.servexa.common.branch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.servexa.common.dto.ApiResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds the {@link BranchContext#HEADER} header to {@link BranchContext} for the duration of
+ * the request. Requests without the header act for {@link BranchContext#DEFAULT_BRANCH};
+ * malformed branch ids are rejected with 400 before reaching a controller.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class BranchContextFilter extends OncePerRequestFilter {
+
+    private final ObjectMapper objectMapper;
+
+    public BranchContextFilter(ObjectProvider<ObjectMapper> objectMapper) {
+        this.objectMapper = objectMapper.getIfAvailable(() -> new ObjectMapper().findAndRegisterModules());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(BranchContext.HEADER);
+        String branchId = header == null || header.isBlank() ? BranchContext.DEFAULT_BRANCH : BranchContext.normalize(header);
+        if (branchId == null) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    ApiResponse.error(BranchContext.HEADER + " must be 1 to 32 letters, digits, '-' or '_'"));
+            return;
+        }
+
+        BranchContext.begin(branchId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            BranchContext.clear();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.servexa.common.client;
+
+import com.servexa.common.dto.ApiResponse;
+import com.servexa.common.exception.ResourceNotFoundException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks up appointments from the appointment service. Single-ID lookups made within
+ * {@code services.appointment-service.batch-window-ms} of each other are coalesced into one
+ * {@code POST /api/appointments/batch} call, so fanning out over a list of deep links costs one
+ * round trip and one {@code IN} query instead of one of each per appointment. A batch is sent
+ * when its window closes or as soon as it reaches {@code max-batch-size}, whichever comes first;
+ * either way it is handed off exactly once and the next lookup opens a fresh window.
+ *
+ * <p>Appointments are returned as JSON maps so callers do not depend on appointment-service
+ * DTOs.</p>
+ */
+@Slf4j
+@Component
+public class AppointmentClient {
+
+    private static final ParameterizedTypeReference<ApiResponse<BatchResult>> BATCH_RESPONSE =
+            new ParameterizedTypeReference<>() {};
+
+    private final RestTemplate restTemplate;
+    private final ScheduledExecutorService flushExecutor;
+    private final Object lock = new Object();
+    private Map<String, CompletableFuture<Map<String, Object>>> pending = new LinkedHashMap<>();
+    // Window timer of the current batch, cancelled if the batch fills up first
+    private ScheduledFuture<?> scheduledFlush;
+
+    @Value("${services.appointment-service.url:http://localhost:8083}")
+    private String appointmentServiceUrl;
+
+    @Value("${services.appointment-service.batch-window-ms:5}")
+    private long batchWindowMs = 5;
+
+    @Value("${services.appointment-service.max-batch-size:100}")
+    private int maxBatchSize = 100;
+
+    public AppointmentClient(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(2, runnable -> {
+            Thread thread = new Thread(runnable, "appointment-client-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        this.flushExecutor = executor;
+    }
+
+    /**
+     * Completes with the appointment as a JSON map, or exceptionally with
+     * {@link ResourceNotFoundException} if it does not exist. Concurrent requests for the same
+     * ID within a window share one result.
+     */
+    public CompletableFuture<Map<String, Object>> getAppointment(String id) {
+        synchronized (lock) {
+            CompletableFuture<Map<String, Object>> existing = pending.get(id);
+            if (existing != null) {
+                return existing;
+            }
+            CompletableFuture<Map<String, Object>> result = new CompletableFuture<>();
+            pending.put(id, result);
+            if (pending.size() >= maxBatchSize) {
+                Map<String, CompletableFuture<Map<String, Object>>> full = takeBatch();
+                try {
+                    flushExecutor.execute(() -> send(full));
+                } catch (RejectedExecutionException e) {
+                    fail(full, e);
+                }
+            } else if (pending.size() == 1) {
+                Map<String, CompletableFuture<Map<String, Object>>> window = pending;
+                try {
+                    scheduledFlush = flushExecutor.schedule(() -> flush(window), batchWindowMs, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    fail(takeBatch(), e);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Fetches the given appointments in one call, in request order; missing IDs are skipped.
+     */
+    public List<Map<String, Object>> getAppointments(List<String> ids) {
+        BatchResult result = fetch(ids);
+        return result.getAppointments() != null ? result.getAppointments() : List.of();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdownNow();
+    }
+
+    /**
+     * Window timer for {@code window}; does nothing if that batch was already sent because it
+     * filled up, so a stale timer never cuts the following batch's window short.
+     */
+    private void flush(Map<String, CompletableFuture<Map<String, Object>>> window) {
+        Map<String, CompletableFuture<Map<String, Object>>> batch;
+        synchronized (lock) {
+            if (pending != window || pending.isEmpty()) {
+                return;
+            }
+            batch = takeBatch();
+        }
+        send(batch);
+    }
+
+    // Caller holds the lock
+    private Map<String, CompletableFuture<Map<String, Object>>> takeBatch() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        Map<String, CompletableFuture<Map<String, Object>>> batch = pending;
+        pending = new LinkedHashMap<>();
+        return batch;
+    }
+
+    private void send(Map<String, CompletableFuture<Map<String, Object>>> batch) {
+        try {
+            BatchResult result = fetch(new ArrayList<>(batch.keySet()));
+            if (result.getAppointments() != null) {
+                for (Map<String, Object> appointment : result.getAppointments()) {
+                    CompletableFuture<Map<String, Object>> future = batch.get(String.valueOf(appointment.get("id")));
+                    if (future != null) {
+                        future.complete(appointment);
+                    }
+                }
+            }
+            batch.forEach((id, future) -> future.completeExceptionally(
+                    new ResourceNotFoundException("Appointment not found with ID: " + id)));
+            log.debug("Resolved {} coalesced appointment lookups in one call", batch.size());
+        } catch (Exception e) {
+            log.error("Batched appointment lookup failed for {} IDs", batch.size(), e);
+            fail(batch, e);
+        }
+    }
+
+    private static void fail(Map<String, CompletableFuture<Map<String, Object>>> batch, Exception e) {
+        batch.values().forEach(future -> future.completeExceptionally(e));
+    }
+
+    private BatchResult fetch(List<String> ids) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<ApiResponse<BatchResult>> response = restTemplate.exchange(
+                appointmentServiceUrl + "/api/appointments/batch",
+                HttpMethod.POST,
+                new HttpEntity<>(ids, headers),
+                BATCH_RESPONSE);
+
+        ApiResponse<BatchResult> body = response.getBody();
+        if (body == null || body.getData() == null) {
+            throw new IllegalStateException("Empty response from appointment batch lookup");
+        }
+        return body.getData();
+    }
+
+    @lombok.Data
+    static class BatchResult {
+        private List<Map<String, Object>> appointments;
+        private List<String> notFound;
+    }
+}
@@ -29,7 +29,11 @@ public class NotificationClient {
                                NotificationType type, NotificationPriority priority,
                                Map<String, String> metadata) {
         try {
-            String url = notificationServiceUrl + "/api/notifications";
+            // HIGH and URGENT are stored before the call returns, so a failed write is logged here.
+            // The rest are fire-and-forget: the service acknowledges, queues and group-commits them,
+            // and one lost with a notification-service restart is not reported back
+            boolean async = priority != NotificationPriority.HIGH && priority != NotificationPriority.URGENT;
+            String url = notificationServiceUrl + "/api/notifications" + (async ? "?async=true" : "");
             
             NotificationRequest request = NotificationRequest.builder()
                     .userId(userId)
@@ -73,6 +77,7 @@ public class NotificationClient {
         APPOINTMENT_REMINDER,
         APPOINTMENT_CANCELLED,
         APPOINTMENT_UPDATED,
+        APPOINTMENT_RESCHEDULED,
         VEHICLE_ADDED,
         VEHICLE_SERVICE_DUE,
         SERVICE_COMPLETED,
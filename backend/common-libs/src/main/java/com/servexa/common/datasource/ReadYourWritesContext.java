@@ -0,0 +1,58 @@
+package com.servexa.common.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Per-thread record of when the current caller last wrote. Reads issued before
+ * {@code primaryUntil} are served by the primary so a client always sees its own writes,
+ * even if the replicas have not replayed them yet. The deadline travels between requests
+ * in a cookie managed by {@link ReadYourWritesFilter}.
+ */
+public final class ReadYourWritesContext {
+
+    public static final String COOKIE_NAME = "SERVEXA_PRIMARY_UNTIL";
+
+    private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+
+    private ReadYourWritesContext() {
+    }
+
+    static void begin(long primaryUntil, HttpServletResponse response) {
+        State state = STATE.get();
+        state.primaryUntil = primaryUntil;
+        state.response = response;
+    }
+
+    static void clear() {
+        STATE.remove();
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return System.currentTimeMillis() < STATE.get().primaryUntil;
+    }
+
+    static void markWrite(long stickinessMs) {
+        State state = STATE.get();
+        long now = System.currentTimeMillis();
+        state.primaryUntil = now + stickinessMs;
+
+        HttpServletResponse response = state.response;
+        // One cookie per request is enough; later writes in the same request only move the deadline slightly
+        if (response != null && !state.cookieSent && !response.isCommitted()) {
+            Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(state.primaryUntil));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (stickinessMs + 999) / 1000));
+            response.addCookie(cookie);
+            state.cookieSent = true;
+        }
+    }
+
+    private static class State {
+
+        private long primaryUntil;
+        private HttpServletResponse response;
+        private boolean cookieSent;
+    }
+}
@@ -0,0 +1,88 @@
+package com.servexa.common.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured data source with a primary/replica router when
+ * {@code servexa.datasource.replica.urls} lists one or more replica JDBC URLs. Without that
+ * property nothing here is created and services keep a single primary pool.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "servexa.datasource.replica", name = "urls")
+@Slf4j
+public class ReplicaDataSourceConfiguration {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment,
+                                 @Value("${servexa.datasource.replica.urls}") List<String> replicaUrls,
+                                 @Value("${servexa.datasource.replica.username:${spring.datasource.username:}}") String replicaUsername,
+                                 @Value("${servexa.datasource.replica.password:${spring.datasource.password:}}") String replicaPassword,
+                                 @Value("${servexa.datasource.replica.maximum-pool-size:10}") int replicaPoolSize,
+                                 @Value("${servexa.datasource.replica.max-lag-ms:1000}") long maxLagMs,
+                                 @Value("${servexa.datasource.replica.read-your-writes-ms:5000}") long stickinessMs,
+                                 @Value("${servexa.datasource.replica.lag-check-interval-ms:1000}") long lagCheckIntervalMs) {
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        pools.add(primary);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            String url = replicaUrls.get(i).trim();
+            if (url.isEmpty()) {
+                continue;
+            }
+            HikariDataSource replica = new HikariDataSource();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+            replica.setJdbcUrl(url);
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setReadOnly(true);
+            replica.setPoolName("replica-" + i);
+            pools.add(replica);
+            replicas.put("replica-" + i, replica);
+        }
+
+        log.info("Routing read-only transactions across {} replica(s), max lag {} ms", replicas.size(), maxLagMs);
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas, maxLagMs, stickinessMs, lagCheckIntervalMs);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter() {
+        return new ReadYourWritesFilter();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (routingDataSource != null) {
+            routingDataSource.close();
+        }
+        pools.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,202 @@
+package com.servexa.common.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections for read-only transactions to streaming replicas and everything else to the
+ * primary.
+ *
+ * <p>Routing is decided when the physical connection is fetched, so this data source must sit
+ * behind a {@code LazyConnectionDataSourceProxy}; by then the transaction's read-only flag is
+ * known. Replicas are picked round-robin among those whose replay lag is under
+ * {@code maxLagMs}, as measured by a background check. When none qualifies, when a replica
+ * refuses a connection, or when the caller wrote recently (see {@link ReadYourWritesContext}),
+ * the read goes to the primary instead. Only a read-write transaction that actually commits
+ * pins the caller to the primary; rolled-back work and plain connection fetches do not.</p>
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    // Zero when the replica has replayed everything it received, otherwise time since the last replayed commit
+    private static final String LAG_QUERY =
+            "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagMs;
+    private final long stickinessMs;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final ScheduledExecutorService lagChecker;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicaDataSources,
+                                    long maxLagMs, long stickinessMs, long lagCheckIntervalMs) {
+        this.primary = primary;
+        this.maxLagMs = maxLagMs;
+        this.stickinessMs = stickinessMs;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicaDataSources.forEach((name, dataSource) -> {
+            targets.put(name, dataSource);
+            replicas.add(new Replica(name, dataSource));
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        this.lagChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.lagChecker.scheduleWithFixedDelay(this::checkReplicas, 0, lagCheckIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Replica replica = route();
+        return replica != null ? replica.name : PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = route();
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.dataSource.getConnection();
+        } catch (SQLException e) {
+            replica.markUnavailable(e);
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Replica replica = route();
+        if (replica == null) {
+            return primary.getConnection(username, password);
+        }
+        try {
+            return replica.dataSource.getConnection(username, password);
+        } catch (SQLException e) {
+            replica.markUnavailable(e);
+            return primary.getConnection(username, password);
+        }
+    }
+
+    @Override
+    public void close() {
+        lagChecker.shutdownNow();
+    }
+
+    private Replica route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            pinAfterCommit();
+            return null;
+        }
+        if (ReadYourWritesContext.isPinnedToPrimary() || replicas.isEmpty()) {
+            return null;
+        }
+
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica candidate = replicas.get((start + i) % replicas.size());
+            if (candidate.available) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    // At most once per transaction; the synchronization list only holds the current (not suspended) one's
+    private void pinAfterCommit() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PinOnCommit) {
+                return;
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new PinOnCommit(stickinessMs));
+    }
+
+    void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                long lagMs = rs.next() ? (long) rs.getDouble(1) : Long.MAX_VALUE;
+                replica.update(lagMs <= maxLagMs, lagMs);
+            } catch (Exception e) {
+                replica.markUnavailable(e);
+            }
+        }
+    }
+
+    private static class PinOnCommit implements TransactionSynchronization {
+
+        private final long stickinessMs;
+
+        PinOnCommit(long stickinessMs) {
+            this.stickinessMs = stickinessMs;
+        }
+
+        @Override
+        public void afterCommit() {
+            ReadYourWritesContext.markWrite(stickinessMs);
+        }
+    }
+
+    private static class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean available;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        void update(boolean withinLag, long lagMs) {
+            if (withinLag != available) {
+                if (withinLag) {
+                    log.info("Replica {} back in rotation (lag {} ms)", name, lagMs);
+                } else {
+                    log.warn("Replica {} lagging by {} ms, routing its reads to the primary", name, lagMs);
+                }
+            }
+            available = withinLag;
+        }
+
+        void markUnavailable(Exception e) {
+            if (available) {
+                log.warn("Replica {} unavailable, routing its reads to the primary: {}", name, e.getMessage());
+            }
+            available = false;
+        }
+    }
+}
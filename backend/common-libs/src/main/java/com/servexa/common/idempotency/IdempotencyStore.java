@@ -0,0 +1,317 @@
+package com.servexa.common.idempotency;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Remembers responses by idempotency key for {@code servexa.idempotency.ttl-hours}.
+ *
+ * <p>Completed responses live in the {@code idempotency_keys} table so every instance of a
+ * service sees them, fronted by a bounded in-memory LRU so a retry that lands on the same
+ * instance is answered without touching the database. A key is claimed with an
+ * {@code IN_PROGRESS} row before the request runs; duplicates arriving meanwhile wait for the
+ * first request on a local future, or poll the table when the owner is another instance.
+ * Without a {@code DataSource} the store runs in memory only.</p>
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+    public enum Outcome {
+        OWNER,
+        REPLAY,
+        FINGERPRINT_MISMATCH,
+        IN_PROGRESS
+    }
+
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, StoredResponse> recent;
+    private final ScheduledExecutorService purger;
+
+    @Value("${servexa.idempotency.ttl-hours:24}")
+    private long ttlHours = 24;
+
+    @Value("${servexa.idempotency.wait-timeout-ms:30000}")
+    private long waitTimeoutMs = 30000;
+
+    // An IN_PROGRESS row older than this belongs to a request that died; it may be taken over
+    @Value("${servexa.idempotency.stale-claim-ms:120000}")
+    private long staleClaimMs = 120000;
+
+    public IdempotencyStore(ObjectProvider<DataSource> dataSource,
+                            @Value("${servexa.idempotency.memory-entries:10000}") int memoryEntries) {
+        DataSource available = dataSource.getIfAvailable();
+        this.jdbcTemplate = available != null ? new JdbcTemplate(available) : null;
+        this.recent = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > memoryEntries;
+            }
+        });
+        this.purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "idempotency-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    void initialize() {
+        if (jdbcTemplate == null) {
+            log.info("No DataSource available, idempotency keys are kept in memory only");
+            return;
+        }
+        try {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS idempotency_keys (" +
+                    "idempotency_key VARCHAR(512) PRIMARY KEY, " +
+                    "fingerprint VARCHAR(64) NOT NULL, " +
+                    "status VARCHAR(16) NOT NULL, " +
+                    "response_status INTEGER, " +
+                    "content_type VARCHAR(255), " +
+                    "response_headers TEXT, " +
+                    "response_body TEXT, " +
+                    "created_at TIMESTAMP NOT NULL, " +
+                    "expires_at TIMESTAMP NOT NULL)");
+        } catch (DataAccessException e) {
+            log.warn("Could not create idempotency_keys table: {}", e.getMessage());
+        }
+        purger.scheduleWithFixedDelay(this::purgeExpired, 1, 1, TimeUnit.HOURS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        purger.shutdownNow();
+    }
+
+    /**
+     * Resolves what to do with a request carrying {@code key}. On {@link Outcome#OWNER} the caller
+     * must finish with {@link #complete} or {@link #release}; on {@link Outcome#REPLAY} the stored
+     * response is returned through {@code replay[0]}.
+     */
+    public Outcome acquire(String key, String fingerprint, StoredResponse[] replay) {
+        long deadline = System.currentTimeMillis() + waitTimeoutMs;
+        while (true) {
+            StoredResponse cached = recent.get(key);
+            if (cached != null && !cached.isExpired()) {
+                return replayOrMismatch(cached, fingerprint, replay);
+            }
+
+            CompletableFuture<Void> claim = new CompletableFuture<>();
+            CompletableFuture<Void> existing = inFlight.putIfAbsent(key, claim);
+            if (existing != null) {
+                if (!await(existing, deadline)) {
+                    return Outcome.IN_PROGRESS;
+                }
+                continue;
+            }
+
+            if (jdbcTemplate == null) {
+                return Outcome.OWNER;
+            }
+            try {
+                Row row = findRow(key);
+                if (row != null && "COMPLETED".equals(row.status)) {
+                    recent.put(key, row.response);
+                    finish(key, claim);
+                    return replayOrMismatch(row.response, fingerprint, replay);
+                }
+                if (row != null && !row.response.getFingerprint().equals(fingerprint)) {
+                    finish(key, claim);
+                    return Outcome.FINGERPRINT_MISMATCH;
+                }
+                if (claimRow(key, fingerprint)) {
+                    return Outcome.OWNER;
+                }
+            } catch (DataAccessException e) {
+                log.warn("Idempotency table unavailable, deduplicating in memory only: {}", e.getMessage());
+                return Outcome.OWNER;
+            }
+
+            // Another instance holds the key; poll until it finishes
+            finish(key, claim);
+            if (System.currentTimeMillis() >= deadline) {
+                return Outcome.IN_PROGRESS;
+            }
+            sleep(POLL_INTERVAL_MS);
+            if (Thread.currentThread().isInterrupted()) {
+                return Outcome.IN_PROGRESS;
+            }
+        }
+    }
+
+    public void complete(String key, String fingerprint, int status, String contentType,
+                         Map<String, List<String>> headers, String body) {
+        StoredResponse response = new StoredResponse(fingerprint, status, contentType, headers, body,
+                Instant.now().plus(ttlHours, ChronoUnit.HOURS));
+        recent.put(key, response);
+        if (jdbcTemplate != null) {
+            try {
+                jdbcTemplate.update("UPDATE idempotency_keys SET status = 'COMPLETED', response_status = ?, " +
+                                "content_type = ?, response_headers = ?, response_body = ?, expires_at = ? " +
+                                "WHERE idempotency_key = ?",
+                        status, contentType, encodeHeaders(headers), body, Timestamp.from(response.getExpiresAt()), key);
+            } catch (DataAccessException e) {
+                log.warn("Failed to persist idempotent response for key {}: {}", key, e.getMessage());
+            }
+        }
+        finish(key, inFlight.get(key));
+    }
+
+    // Gives the key back after a failed request so a retry can run it again
+    public void release(String key) {
+        if (jdbcTemplate != null) {
+            try {
+                jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ? AND status = 'IN_PROGRESS'", key);
+            } catch (DataAccessException e) {
+                log.warn("Failed to release idempotency key {}: {}", key, e.getMessage());
+            }
+        }
+        finish(key, inFlight.get(key));
+    }
+
+    private Outcome replayOrMismatch(StoredResponse stored, String fingerprint, StoredResponse[] replay) {
+        if (!stored.getFingerprint().equals(fingerprint)) {
+            return Outcome.FINGERPRINT_MISMATCH;
+        }
+        replay[0] = stored;
+        return Outcome.REPLAY;
+    }
+
+    private boolean claimRow(String key, String fingerprint) {
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ? AND (expires_at < ? " +
+                        "OR (status = 'IN_PROGRESS' AND created_at < ?))",
+                key, now, Timestamp.from(Instant.now().minusMillis(staleClaimMs)));
+        try {
+            jdbcTemplate.update("INSERT INTO idempotency_keys (idempotency_key, fingerprint, status, created_at, expires_at) " +
+                            "VALUES (?, ?, 'IN_PROGRESS', ?, ?)",
+                    key, fingerprint, now, Timestamp.from(Instant.now().plus(ttlHours, ChronoUnit.HOURS)));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private Row findRow(String key) {
+        List<Row> rows = jdbcTemplate.query("SELECT fingerprint, status, response_status, content_type, " +
+                        "response_headers, response_body, expires_at FROM idempotency_keys " +
+                        "WHERE idempotency_key = ? AND expires_at >= ?",
+                (rs, rowNum) -> new Row(rs.getString("status"), new StoredResponse(
+                        rs.getString("fingerprint"),
+                        rs.getInt("response_status"),
+                        rs.getString("content_type"),
+                        decodeHeaders(rs.getString("response_headers")),
+                        rs.getString("response_body"),
+                        rs.getTimestamp("expires_at").toInstant())),
+                key, Timestamp.from(Instant.now()));
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    // One "Name: value" per line; header values cannot contain line breaks
+    static String encodeHeaders(Map<String, List<String>> headers) {
+        if (headers == null || headers.isEmpty()) {
+            return null;
+        }
+        StringBuilder encoded = new StringBuilder();
+        headers.forEach((name, values) -> values.forEach(value ->
+                encoded.append(name).append(": ").append(value).append('\n')));
+        return encoded.toString();
+    }
+
+    static Map<String, List<String>> decodeHeaders(String encoded) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        if (encoded == null) {
+            return headers;
+        }
+        for (String line : encoded.split("\n")) {
+            int separator = line.indexOf(": ");
+            if (separator > 0) {
+                headers.computeIfAbsent(line.substring(0, separator), name -> new ArrayList<>())
+                        .add(line.substring(separator + 2));
+            }
+        }
+        return headers;
+    }
+
+    private void purgeExpired() {
+        try {
+            int purged = jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at < ?", Timestamp.from(Instant.now()));
+            log.debug("Purged {} expired idempotency keys", purged);
+        } catch (DataAccessException e) {
+            log.warn("Failed to purge expired idempotency keys: {}", e.getMessage());
+        }
+        synchronized (recent) {
+            recent.values().removeIf(StoredResponse::isExpired);
+        }
+    }
+
+    private void finish(String key, CompletableFuture<Void> claim) {
+        if (claim != null && inFlight.remove(key, claim)) {
+            claim.complete(null);
+        }
+    }
+
+    private boolean await(CompletableFuture<Void> future, long deadline) {
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+            return false;
+        }
+        try {
+            future.get(remaining, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class Row {
+
+        private final String status;
+        private final StoredResponse response;
+
+        Row(String status, StoredResponse response) {
+            this.status = status;
+            this.response = response;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.servexa.common.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A completed response kept for an idempotency key, together with the fingerprint of the
+ * request that produced it. Only the headers a client acts on are kept (see
+ * {@link IdempotencyFilter#REPLAYED_HEADERS}).
+ */
+@Getter
+@AllArgsConstructor
+public class StoredResponse {
+
+    private final String fingerprint;
+    private final int status;
+    private final String contentType;
+    private final Map<String, List<String>> headers;
+    private final String body;
+    private final Instant expiresAt;
+
+    boolean isExpired() {
+        return Instant.now().isAfter(expiresAt);
+    }
+}
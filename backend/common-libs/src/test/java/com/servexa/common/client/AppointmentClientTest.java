@@ -0,0 +1,140 @@
+package com.servexa.common.client;
+
+import com.servexa.common.dto.ApiResponse;
+import com.servexa.common.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AppointmentClientTest {
+
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private final List<List<String>> posts = new CopyOnWriteArrayList<>();
+    private final Set<String> existing = Set.of("a-1", "a-2", "a-3", "a-4", "a-5", "a-6");
+
+    private AppointmentClient client;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class),
+                any(ParameterizedTypeReference.class))).thenAnswer(invocation -> {
+                    List<String> ids = (List<String>) invocation.<HttpEntity<?>>getArgument(2).getBody();
+                    posts.add(ids);
+                    AppointmentClient.BatchResult result = new AppointmentClient.BatchResult();
+                    result.setAppointments(ids.stream()
+                            .filter(existing::contains)
+                            .map(id -> Map.<String, Object>of("id", id))
+                            .toList());
+                    result.setNotFound(ids.stream().filter(id -> !existing.contains(id)).toList());
+                    return ResponseEntity.ok(ApiResponse.success(result));
+                });
+        client = new AppointmentClient(restTemplate);
+        ReflectionTestUtils.setField(client, "appointmentServiceUrl", "http://appointments");
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.shutdown();
+    }
+
+    @Test
+    void concurrentLookups_AreSentAsOnePost() throws Exception {
+        ReflectionTestUtils.setField(client, "batchWindowMs", 200L);
+        List<String> ids = List.of("a-1", "a-2", "a-3", "a-2", "missing", "a-4");
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(ids.size());
+        List<Future<CompletableFuture<Map<String, Object>>>> calls = new ArrayList<>();
+        try {
+            for (String id : ids) {
+                calls.add(callers.submit(() -> {
+                    start.await();
+                    return client.getAppointment(id);
+                }));
+            }
+            start.countDown();
+
+            List<CompletableFuture<Map<String, Object>>> results = new ArrayList<>();
+            for (Future<CompletableFuture<Map<String, Object>>> call : calls) {
+                results.add(call.get(5, TimeUnit.SECONDS));
+            }
+            for (int i = 0; i < ids.size(); i++) {
+                CompletableFuture<Map<String, Object>> result = results.get(i);
+                if (ids.get(i).equals("missing")) {
+                    assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                            .isInstanceOf(ExecutionException.class)
+                            .hasCauseInstanceOf(ResourceNotFoundException.class);
+                } else {
+                    assertThat(result.get(5, TimeUnit.SECONDS)).containsEntry("id", ids.get(i));
+                }
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertThat(posts).hasSize(1);
+        assertThat(posts.get(0)).containsExactlyInAnyOrder("a-1", "a-2", "a-3", "missing", "a-4");
+    }
+
+    @Test
+    void fullBatch_IsSentAtOnceAndNextBatchKeepsItsWholeWindow() throws Exception {
+        ReflectionTestUtils.setField(client, "batchWindowMs", 400L);
+        ReflectionTestUtils.setField(client, "maxBatchSize", 3);
+
+        List<CompletableFuture<Map<String, Object>>> first = List.of(
+                client.getAppointment("a-1"), client.getAppointment("a-2"), client.getAppointment("a-3"));
+        CompletableFuture.allOf(first.toArray(CompletableFuture[]::new)).get(200, TimeUnit.MILLISECONDS);
+        assertThat(posts).hasSize(1);
+
+        Thread.sleep(250);
+        CompletableFuture<Map<String, Object>> next = client.getAppointment("a-4");
+        // Past the first batch's window but inside the new one: its timer must not send a-4 early
+        Thread.sleep(250);
+        assertThat(next).isNotDone();
+        assertThat(posts).hasSize(1);
+
+        assertThat(next.get(2, TimeUnit.SECONDS)).containsEntry("id", "a-4");
+        assertThat(posts).containsExactly(List.of("a-1", "a-2", "a-3"), List.of("a-4"));
+    }
+
+    @Test
+    void lookupsBeyondMaxBatchSize_StartANewBatch() throws Exception {
+        ReflectionTestUtils.setField(client, "batchWindowMs", 50L);
+        ReflectionTestUtils.setField(client, "maxBatchSize", 2);
+
+        List<CompletableFuture<Map<String, Object>>> results = new ArrayList<>();
+        for (String id : List.of("a-1", "a-2", "a-3", "a-4", "a-5")) {
+            results.add(client.getAppointment(id));
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(2, TimeUnit.SECONDS);
+
+        assertThat(posts).containsExactlyInAnyOrder(List.of("a-1", "a-2"), List.of("a-3", "a-4"), List.of("a-5"));
+    }
+}
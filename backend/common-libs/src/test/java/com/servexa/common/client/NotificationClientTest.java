@@ -0,0 +1,53 @@
+package com.servexa.common.client;
+
+import com.servexa.common.client.NotificationClient.NotificationPriority;
+import com.servexa.common.client.NotificationClient.NotificationType;
+import com.servexa.common.dto.ApiResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationClientTest {
+
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+
+    private NotificationClient client;
+
+    @BeforeEach
+    void setUp() {
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(ApiResponse.class)))
+                .thenReturn(ResponseEntity.ok(ApiResponse.success(null)));
+        client = new NotificationClient(restTemplate);
+        ReflectionTestUtils.setField(client, "notificationServiceUrl", "http://notifications");
+    }
+
+    @Test
+    void sendNotification_HighPriorityIsStoredSynchronously() {
+        client.sendNotification("customer-1", "Appointment Cancelled", "Cancelled",
+                NotificationType.APPOINTMENT_CANCELLED, NotificationPriority.HIGH, Map.of());
+
+        verify(restTemplate).exchange(eq("http://notifications/api/notifications"), eq(HttpMethod.POST),
+                any(HttpEntity.class), eq(ApiResponse.class));
+    }
+
+    @Test
+    void sendNotification_NormalPriorityIsQueued() {
+        client.sendNotification("customer-1", "Service Started", "In progress", NotificationType.APPOINTMENT_UPDATED);
+
+        verify(restTemplate).exchange(eq("http://notifications/api/notifications?async=true"), eq(HttpMethod.POST),
+                any(HttpEntity.class), eq(ApiResponse.class));
+    }
+}
@@ -0,0 +1,62 @@
+package com.servexa.common.datasource;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadYourWritesContextTest {
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWritesContext.clear();
+    }
+
+    @Test
+    void markWrite_PinsToPrimaryAndSetsCookieOncePerRequest() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ReadYourWritesContext.begin(0L, response);
+
+        ReadYourWritesContext.markWrite(5000);
+        ReadYourWritesContext.markWrite(5000);
+
+        assertThat(ReadYourWritesContext.isPinnedToPrimary()).isTrue();
+        assertThat(response.getCookies()).hasSize(1);
+        Cookie cookie = response.getCookie(ReadYourWritesContext.COOKIE_NAME);
+        assertThat(cookie.getMaxAge()).isEqualTo(5);
+        assertThat(Long.parseLong(cookie.getValue())).isGreaterThan(System.currentTimeMillis());
+    }
+
+    @Test
+    void markWrite_StickinessExpires() throws InterruptedException {
+        ReadYourWritesContext.begin(0L, null);
+
+        ReadYourWritesContext.markWrite(30);
+        assertThat(ReadYourWritesContext.isPinnedToPrimary()).isTrue();
+
+        Thread.sleep(60);
+        assertThat(ReadYourWritesContext.isPinnedToPrimary()).isFalse();
+    }
+
+    @Test
+    void markWrite_SkipsCookieOnceResponseIsCommitted() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setCommitted(true);
+        ReadYourWritesContext.begin(0L, response);
+
+        ReadYourWritesContext.markWrite(5000);
+
+        assertThat(ReadYourWritesContext.isPinnedToPrimary()).isTrue();
+        assertThat(response.getCookies()).isEmpty();
+    }
+
+    @Test
+    void clear_ForgetsDeadline() {
+        ReadYourWritesContext.begin(System.currentTimeMillis() + 60000, null);
+        ReadYourWritesContext.clear();
+
+        assertThat(ReadYourWritesContext.isPinnedToPrimary()).isFalse();
+    }
+}
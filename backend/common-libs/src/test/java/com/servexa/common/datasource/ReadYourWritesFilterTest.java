@@ -0,0 +1,58 @@
+package com.servexa.common.datasource;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadYourWritesFilterTest {
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter();
+
+    @Test
+    void doFilter_RestoresDeadlineFromCookieForRequestOnly() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(ReadYourWritesContext.COOKIE_NAME,
+                Long.toString(System.currentTimeMillis() + 60000)));
+        AtomicBoolean pinnedDuringRequest = new AtomicBoolean();
+
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> pinnedDuringRequest.set(ReadYourWritesContext.isPinnedToPrimary()));
+
+        assertThat(pinnedDuringRequest).isTrue();
+        assertThat(ReadYourWritesContext.isPinnedToPrimary()).isFalse();
+    }
+
+    @Test
+    void doFilter_ExpiredOrMalformedCookieReadsFromReplicas() throws Exception {
+        AtomicBoolean pinned = new AtomicBoolean(true);
+
+        MockHttpServletRequest expired = new MockHttpServletRequest();
+        expired.setCookies(new Cookie(ReadYourWritesContext.COOKIE_NAME,
+                Long.toString(System.currentTimeMillis() - 1000)));
+        filter.doFilter(expired, new MockHttpServletResponse(),
+                (req, res) -> pinned.set(ReadYourWritesContext.isPinnedToPrimary()));
+        assertThat(pinned).isFalse();
+
+        pinned.set(true);
+        MockHttpServletRequest malformed = new MockHttpServletRequest();
+        malformed.setCookies(new Cookie(ReadYourWritesContext.COOKIE_NAME, "soon"));
+        filter.doFilter(malformed, new MockHttpServletResponse(),
+                (req, res) -> pinned.set(ReadYourWritesContext.isPinnedToPrimary()));
+        assertThat(pinned).isFalse();
+    }
+
+    @Test
+    void doFilter_WriteDuringRequestSetsCookieOnResponse() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest(), response,
+                (req, res) -> ReadYourWritesContext.markWrite(5000));
+
+        assertThat(response.getCookie(ReadYourWritesContext.COOKIE_NAME)).isNotNull();
+    }
+}
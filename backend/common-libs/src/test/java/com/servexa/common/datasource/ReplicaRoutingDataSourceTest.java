@@ -0,0 +1,159 @@
+package com.servexa.common.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replicaConnection;
+
+    @Mock
+    private Statement lagStatement;
+
+    @Mock
+    private ResultSet lagResult;
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        lenient().when(primary.getConnection()).thenReturn(primaryConnection);
+        lenient().when(replica.getConnection()).thenReturn(replicaConnection);
+        lenient().when(replicaConnection.createStatement()).thenReturn(lagStatement);
+        lenient().when(lagStatement.executeQuery(anyString())).thenReturn(lagResult);
+        lenient().when(lagResult.next()).thenReturn(true);
+
+        routingDataSource = new ReplicaRoutingDataSource(primary, Map.of("replica-0", replica), 1000, 5000, 60000);
+        // Let the initial background lag check finish, up to closing its connection, so it does not
+        // touch the mocks while a test stubs them; the next one is a minute away
+        verify(replicaConnection, timeout(2000)).close();
+        ReadYourWritesContext.begin(0L, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        routingDataSource.close();
+        ReadYourWritesContext.clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clear();
+        }
+    }
+
+    @Test
+    void readOnlyTransaction_RoutesToReplicaWithinLag() throws SQLException {
+        replicaLagMs(0);
+        beginTransaction(true);
+
+        assertThat(routingDataSource.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void readWriteTransaction_RoutesToPrimary() throws SQLException {
+        replicaLagMs(0);
+        beginTransaction(false);
+
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void laggingReplica_FallsBackToPrimary() throws SQLException {
+        replicaLagMs(5000);
+        beginTransaction(true);
+
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void refusedReplicaConnection_FallsBackToPrimaryAndLeavesRotation() throws SQLException {
+        replicaLagMs(0);
+        beginTransaction(true);
+        clearInvocations(replica);
+        when(replica.getConnection()).thenThrow(new SQLException("connection refused"));
+
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+        verify(replica, times(1)).getConnection();
+    }
+
+    @Test
+    void writeTransaction_PinsCallerToPrimaryOnlyAfterCommit() throws SQLException {
+        replicaLagMs(0);
+        beginTransaction(false);
+
+        routingDataSource.getConnection();
+        routingDataSource.getConnection();
+
+        assertThat(ReadYourWritesContext.isPinnedToPrimary()).isFalse();
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSize(1);
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        TransactionSynchronizationManager.clear();
+        beginTransaction(true);
+
+        assertThat(ReadYourWritesContext.isPinnedToPrimary()).isTrue();
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void rolledBackWriteTransaction_DoesNotPinCaller() throws SQLException {
+        replicaLagMs(0);
+        beginTransaction(false);
+
+        routingDataSource.getConnection();
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+        TransactionSynchronizationManager.clear();
+        beginTransaction(true);
+
+        assertThat(ReadYourWritesContext.isPinnedToPrimary()).isFalse();
+        assertThat(routingDataSource.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void connectionOutsideTransaction_DoesNotPinCaller() throws SQLException {
+        replicaLagMs(0);
+
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(ReadYourWritesContext.isPinnedToPrimary()).isFalse();
+    }
+
+    private void replicaLagMs(double lagMs) throws SQLException {
+        lenient().when(lagResult.getDouble(1)).thenReturn(lagMs);
+        routingDataSource.checkReplicas();
+    }
+
+    private void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+}
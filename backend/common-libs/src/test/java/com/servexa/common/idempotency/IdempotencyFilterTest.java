@@ -0,0 +1,147 @@
+package com.servexa.common.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyFilterTest {
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private IdempotencyFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        IdempotencyStore store = new IdempotencyStore(beans.getBeanProvider(DataSource.class), 100);
+        filter = new IdempotencyFilter(store, beans.getBeanProvider(ObjectMapper.class));
+    }
+
+    @Test
+    void replay_RestoresStatusBodyAndLocationHeader() throws Exception {
+        MockHttpServletResponse first = perform(post("/api/vehicles", "key-1", "{\"a\":1}"));
+        MockHttpServletResponse retry = perform(post("/api/vehicles", "key-1", "{\"a\":1}"));
+
+        assertThat(executions).hasValue(1);
+        assertThat(first.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+        assertThat(retry.getStatus()).isEqualTo(201);
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(retry.getHeader("Location")).isEqualTo("/api/vehicles/42");
+        assertThat(retry.getHeader("Set-Cookie")).isNull();
+        assertThat(retry.getContentAsString()).isEqualTo("{\"id\":42}");
+    }
+
+    @Test
+    void anonymousCallers_WithDifferentClientIdsDoNotShareKeys() throws Exception {
+        MockHttpServletRequest alice = post("/api/vehicles", "key-1", "{\"a\":1}");
+        alice.addHeader(IdempotencyFilter.CLIENT_HEADER, "client-a");
+        MockHttpServletRequest bob = post("/api/vehicles", "key-1", "{\"a\":1}");
+        bob.addHeader(IdempotencyFilter.CLIENT_HEADER, "client-b");
+
+        perform(alice);
+        MockHttpServletResponse response = perform(bob);
+
+        assertThat(executions).hasValue(2);
+        assertThat(response.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+    }
+
+    @Test
+    void anonymousCallers_WithoutClientIdAreScopedByAddress() throws Exception {
+        MockHttpServletRequest first = post("/api/vehicles", "key-1", "{\"a\":1}");
+        first.setRemoteAddr("10.0.0.1");
+        MockHttpServletRequest second = post("/api/vehicles", "key-1", "{\"a\":1}");
+        second.setRemoteAddr("10.0.0.2");
+
+        perform(first);
+        perform(second);
+
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void authEndpoints_AreNeverDeduplicated() throws Exception {
+        perform(post("/api/auth/login", "key-1", "{\"a\":1}"));
+        MockHttpServletResponse retry = perform(post("/api/auth/login", "key-1", "{\"a\":1}"));
+
+        assertThat(executions).hasValue(2);
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+    }
+
+    @Test
+    void cachedBody_SupportsAsyncReadListener() throws Exception {
+        AtomicBoolean allRead = new AtomicBoolean();
+        StringBuilder received = new StringBuilder();
+
+        filter.doFilter(post("/api/vehicles", "key-1", "{\"a\":1}"), new MockHttpServletResponse(), (req, res) -> {
+            ServletInputStream input = req.getInputStream();
+            input.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    byte[] buffer = new byte[64];
+                    int read;
+                    while (input.isReady() && (read = input.read(buffer)) != -1) {
+                        received.append(new String(buffer, 0, read, StandardCharsets.UTF_8));
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allRead.set(true);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    throw new AssertionError(t);
+                }
+            });
+        });
+
+        assertThat(received.toString()).isEqualTo("{\"a\":1}");
+        assertThat(allRead).isTrue();
+    }
+
+    @Test
+    void headers_RoundTripThroughStoredEncoding() {
+        Map<String, List<String>> headers = Map.of("Link", List.of("</a>; rel=next", "</b>; rel=prev"));
+
+        assertThat(IdempotencyStore.decodeHeaders(IdempotencyStore.encodeHeaders(headers))).isEqualTo(headers);
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> {
+            executions.incrementAndGet();
+            HttpServletResponse http = (HttpServletResponse) res;
+            http.setStatus(201);
+            http.setContentType("application/json");
+            http.setHeader("Location", "/api/vehicles/42");
+            http.setHeader("Set-Cookie", "session=abc");
+            http.getOutputStream().write("{\"id\":42}".getBytes(StandardCharsets.UTF_8));
+        });
+        return response;
+    }
+
+    private MockHttpServletRequest post(String uri, String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.addHeader(IdempotencyFilter.HEADER, key);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -3,10 +3,13 @@ package com.servexa.notification;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import com.servexa.common.datasource.ReplicaDataSourceConfiguration;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 import org.springframework.web.client.RestTemplate;
 
 @SpringBootApplication(exclude = {SecurityAutoConfiguration.class})
+@Import(ReplicaDataSourceConfiguration.class)
 public class NotificationServiceApplication {
     
     public static void main(String[] args) {
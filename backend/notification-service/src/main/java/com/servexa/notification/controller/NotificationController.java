@@ -2,6 +2,7 @@ package com.servexa.notification.controller;
 
 import com.servexa.common.dto.ApiResponse;
 import com.servexa.notification.dto.*;
+import com.servexa.notification.service.NotificationIngestService;
 import com.servexa.notification.service.NotificationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -12,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/notifications")
@@ -20,10 +22,18 @@ import java.util.List;
 public class NotificationController {
     
     private final NotificationService notificationService;
+    private final NotificationIngestService notificationIngestService;
     
     @PostMapping
     public ResponseEntity<ApiResponse<NotificationResponse>> createNotification(
-            @Valid @RequestBody NotificationRequest request) {
+            @Valid @RequestBody NotificationRequest request,
+            @RequestParam(defaultValue = "false") boolean async) {
+        if (async) {
+            // Validated here; written by the ingest writers in a group commit
+            notificationIngestService.submit(request);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success(null, "Notification accepted"));
+        }
         NotificationResponse response = notificationService.createNotification(request);
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.success(response, "Notification created successfully"));
@@ -44,6 +54,11 @@ public class NotificationController {
         return ResponseEntity.ok(ApiResponse.success(notifications, "Notifications retrieved successfully"));
     }
     
+    @GetMapping("/ingest/stats")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> getIngestStats() {
+        return ResponseEntity.ok(ApiResponse.success(notificationIngestService.getStats(), "Ingest stats retrieved"));
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<NotificationResponse>> getNotificationById(@PathVariable Long id) {
         NotificationResponse response = notificationService.getNotificationById(id);
@@ -0,0 +1,277 @@
+package com.servexa.notification.service;
+
+import com.servexa.common.exception.ServiceUnavailableException;
+import com.servexa.notification.dto.NotificationRequest;
+import com.servexa.notification.model.NotificationPriority;
+import com.servexa.notification.model.NotificationStatus;
+import com.servexa.notification.model.NotificationType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Asynchronous ingestion path for {@code POST /api/notifications?async=true}. Requests are
+ * validated by the controller, placed on one of three bounded priority lanes and acknowledged
+ * immediately; writer threads drain the lanes and group-commit each batch with one multi-row
+ * insert for the notifications and one for their metadata, so throughput follows the batch size
+ * rather than the commit latency.
+ *
+ * <p>URGENT and HIGH requests go to the first lane, LOW priority and PROMOTION types to the last.
+ * Batches are filled lane by lane in priority order, so a promotion backlog never delays an
+ * urgent notification; the lower lanes keep a small reserved share of every batch so they still
+ * drain under sustained high-priority load. A full lane rejects with 503 rather than blocking
+ * the request thread.</p>
+ *
+ * <p>Ids are reserved from the table's identity sequence before the insert, so the metadata rows
+ * can reference them without relying on the row order of a RETURNING clause.</p>
+ */
+@Service
+@Slf4j
+public class NotificationIngestService {
+
+    private static final int HIGH = 0;
+    private static final int NORMAL = 1;
+    private static final int LOW = 2;
+
+    private static final String[] LANE_NAMES = {"high", "normal", "low"};
+
+    private final NotificationService notificationService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int reservedShare;
+    private final long lingerMs;
+    private final int writerThreads;
+
+    private final List<BlockingQueue<NotificationRequest>> lanes = new ArrayList<>(3);
+    private final ReentrantLock signalLock = new ReentrantLock();
+    private final Condition available = signalLock.newCondition();
+    private final List<Thread> writers = new ArrayList<>();
+    private final AtomicLong written = new AtomicLong();
+    private volatile boolean running;
+
+    public NotificationIngestService(
+            NotificationService notificationService,
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            @Value("${notification.ingest.high-capacity:2000}") int highCapacity,
+            @Value("${notification.ingest.normal-capacity:10000}") int normalCapacity,
+            @Value("${notification.ingest.low-capacity:20000}") int lowCapacity,
+            @Value("${notification.ingest.batch-size:500}") int batchSize,
+            @Value("${notification.ingest.linger-ms:5}") long lingerMs,
+            @Value("${notification.ingest.writer-threads:2}") int writerThreads) {
+        this.notificationService = notificationService;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.reservedShare = Math.max(1, batchSize / 8);
+        this.lingerMs = lingerMs;
+        this.writerThreads = writerThreads;
+        lanes.add(new ArrayBlockingQueue<>(highCapacity));
+        lanes.add(new ArrayBlockingQueue<>(normalCapacity));
+        lanes.add(new ArrayBlockingQueue<>(lowCapacity));
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int i = 0; i < writerThreads; i++) {
+            Thread writer = new Thread(this::drainLoop, "notification-writer-" + i);
+            writer.setDaemon(true);
+            writer.start();
+            writers.add(writer);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        signal();
+        for (Thread writer : writers) {
+            writer.join(10000);
+        }
+        int remaining = lanes.stream().mapToInt(BlockingQueue::size).sum();
+        if (remaining > 0) {
+            log.warn("Notification writers stopped with {} notifications still queued", remaining);
+        }
+    }
+
+    public void submit(NotificationRequest request) {
+        if (request.getPriority() == null) {
+            request.setPriority(NotificationPriority.NORMAL);
+        }
+        int lane = laneFor(request);
+        if (!running || !lanes.get(lane).offer(request)) {
+            throw new ServiceUnavailableException(
+                    "Notification queue is full (" + LANE_NAMES[lane] + " priority), retry shortly", 1);
+        }
+        signal();
+    }
+
+    public Map<String, Long> getStats() {
+        return Map.of(
+                "highQueued", (long) lanes.get(HIGH).size(),
+                "normalQueued", (long) lanes.get(NORMAL).size(),
+                "lowQueued", (long) lanes.get(LOW).size(),
+                "written", written.get());
+    }
+
+    private static int laneFor(NotificationRequest request) {
+        NotificationPriority priority = request.getPriority();
+        if (priority == NotificationPriority.URGENT || priority == NotificationPriority.HIGH) {
+            return HIGH;
+        }
+        if (priority == NotificationPriority.LOW || request.getType() == NotificationType.PROMOTION) {
+            return LOW;
+        }
+        return NORMAL;
+    }
+
+    private void drainLoop() {
+        List<NotificationRequest> batch = new ArrayList<>(batchSize);
+        while (running || !isEmpty()) {
+            try {
+                if (isEmpty()) {
+                    awaitWork();
+                    continue;
+                }
+                if (lanes.get(HIGH).isEmpty() && totalQueued() < batchSize && lingerMs > 0) {
+                    // Nothing urgent: give producers a moment so the commit covers a fuller batch
+                    Thread.sleep(lingerMs);
+                }
+                fillBatch(batch);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Notification writer failed on a batch of {}", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void fillBatch(List<NotificationRequest> batch) {
+        // Lower lanes are guaranteed a small share so sustained urgent traffic cannot starve them
+        int reservedForLower = (lanes.get(NORMAL).isEmpty() ? 0 : reservedShare)
+                + (lanes.get(LOW).isEmpty() ? 0 : reservedShare);
+        lanes.get(HIGH).drainTo(batch, Math.max(reservedShare, batchSize - reservedForLower));
+        int reservedForLow = lanes.get(LOW).isEmpty() ? 0 : reservedShare;
+        lanes.get(NORMAL).drainTo(batch, Math.max(0, batchSize - batch.size() - reservedForLow));
+        lanes.get(LOW).drainTo(batch, batchSize - batch.size());
+        // Top up with whatever arrived in the higher lanes while draining
+        lanes.get(HIGH).drainTo(batch, batchSize - batch.size());
+        lanes.get(NORMAL).drainTo(batch, batchSize - batch.size());
+    }
+
+    void write(List<NotificationRequest> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(tx -> insertBatch(batch));
+            written.addAndGet(batch.size());
+            log.debug("Group-committed {} notifications", batch.size());
+        } catch (RuntimeException e) {
+            // One bad row must not drop its neighbours; fall back to individual inserts
+            log.warn("Batch insert of {} notifications failed, retrying one by one: {}", batch.size(), e.getMessage());
+            for (NotificationRequest request : batch) {
+                try {
+                    notificationService.createNotification(request);
+                    written.incrementAndGet();
+                } catch (RuntimeException rowError) {
+                    log.error("Dropping notification for user {}: {}", request.getUserId(), rowError.getMessage());
+                }
+            }
+        }
+    }
+
+    private void insertBatch(List<NotificationRequest> batch) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT nextval(pg_get_serial_sequence('notifications', 'id')) FROM generate_series(1, ?)",
+                Long.class, batch.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO notifications (id, user_id, title, message, type, status, priority, created_at) VALUES ");
+        List<Object> params = new ArrayList<>(batch.size() * 8);
+        StringBuilder metadataSql = new StringBuilder(
+                "INSERT INTO notification_metadata (notification_id, key, value) VALUES ");
+        List<Object> metadataParams = new ArrayList<>();
+
+        for (int i = 0; i < batch.size(); i++) {
+            NotificationRequest request = batch.get(i);
+            Long id = ids.get(i);
+            sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?, ?, ?, ?)");
+            params.add(id);
+            params.add(request.getUserId());
+            params.add(request.getTitle());
+            params.add(request.getMessage());
+            params.add(request.getType().name());
+            params.add(NotificationStatus.UNREAD.name());
+            params.add(request.getPriority().name());
+            params.add(now);
+
+            if (request.getMetadata() != null) {
+                for (Map.Entry<String, String> entry : request.getMetadata().entrySet()) {
+                    metadataSql.append(metadataParams.isEmpty() ? "" : ", ").append("(?, ?, ?)");
+                    metadataParams.add(id);
+                    metadataParams.add(entry.getKey());
+                    metadataParams.add(entry.getValue());
+                }
+            }
+        }
+
+        jdbcTemplate.update(sql.toString(), params.toArray());
+        if (!metadataParams.isEmpty()) {
+            jdbcTemplate.update(metadataSql.toString(), metadataParams.toArray());
+        }
+    }
+
+    private void awaitWork() throws InterruptedException {
+        signalLock.lock();
+        try {
+            if (isEmpty() && running) {
+                available.await(1, TimeUnit.SECONDS);
+            }
+        } finally {
+            signalLock.unlock();
+        }
+    }
+
+    private void signal() {
+        signalLock.lock();
+        try {
+            available.signalAll();
+        } finally {
+            signalLock.unlock();
+        }
+    }
+
+    private boolean isEmpty() {
+        return totalQueued() == 0;
+    }
+
+    private int totalQueued() {
+        return lanes.get(HIGH).size() + lanes.get(NORMAL).size() + lanes.get(LOW).size();
+    }
+}
@@ -0,0 +1,128 @@
+package com.servexa.notification.service;
+
+import com.servexa.notification.dto.NotificationRequest;
+import com.servexa.notification.model.NotificationPriority;
+import com.servexa.notification.model.NotificationType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationIngestServiceTest {
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private NotificationIngestService ingestService;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        ingestService.stop();
+    }
+
+    @Test
+    void fillBatch_TakesHigherLanesFirstRegardlessOfArrival() {
+        ingestService = start(8);
+        ingestService.submit(request("low-1", NotificationPriority.LOW, NotificationType.SYSTEM));
+        ingestService.submit(request("promo-1", NotificationPriority.NORMAL, NotificationType.PROMOTION));
+        ingestService.submit(request("normal-1", NotificationPriority.NORMAL, NotificationType.APPOINTMENT_RESCHEDULED));
+        ingestService.submit(request("urgent-1", NotificationPriority.URGENT, NotificationType.SYSTEM));
+        ingestService.submit(request("normal-2", null, NotificationType.APPOINTMENT_RESCHEDULED));
+        ingestService.submit(request("high-1", NotificationPriority.HIGH, NotificationType.APPOINTMENT_CANCELLATION));
+
+        List<NotificationRequest> batch = new ArrayList<>();
+        ingestService.fillBatch(batch);
+
+        assertThat(batch).extracting(NotificationRequest::getUserId)
+                .containsExactly("urgent-1", "high-1", "normal-1", "normal-2", "low-1", "promo-1");
+    }
+
+    @Test
+    void fillBatch_LowerLanesKeepReservedShareUnderSustainedHighLoad() {
+        ingestService = start(8);
+        for (int i = 0; i < 20; i++) {
+            ingestService.submit(request("high-" + i, NotificationPriority.HIGH, NotificationType.SYSTEM));
+        }
+        ingestService.submit(request("normal-1", NotificationPriority.NORMAL, NotificationType.SYSTEM));
+        ingestService.submit(request("low-1", NotificationPriority.LOW, NotificationType.SYSTEM));
+
+        List<NotificationRequest> batch = new ArrayList<>();
+        ingestService.fillBatch(batch);
+
+        // One slot each out of eight is held back for the lower lanes
+        assertThat(batch).hasSize(8);
+        assertThat(batch).extracting(NotificationRequest::getUserId).endsWith("normal-1", "low-1");
+        assertThat(ingestService.getStats()).containsEntry("highQueued", 14L)
+                .containsEntry("normalQueued", 0L)
+                .containsEntry("lowQueued", 0L);
+    }
+
+    @Test
+    void fillBatch_HighLaneTakesWholeBatchWhenLowerLanesAreEmpty() {
+        ingestService = start(8);
+        for (int i = 0; i < 10; i++) {
+            ingestService.submit(request("high-" + i, NotificationPriority.HIGH, NotificationType.SYSTEM));
+        }
+
+        List<NotificationRequest> batch = new ArrayList<>();
+        ingestService.fillBatch(batch);
+
+        assertThat(batch).hasSize(8);
+        assertThat(ingestService.getStats()).containsEntry("highQueued", 2L);
+    }
+
+    @Test
+    void write_FallsBackToRowByRowInsertsWhenBatchFails() throws SQLException {
+        when(dataSource.getConnection()).thenThrow(new SQLException("connection refused"));
+        when(notificationService.createNotification(any(NotificationRequest.class)))
+                .thenReturn(null)
+                .thenThrow(new IllegalArgumentException("bad row"))
+                .thenReturn(null);
+        ingestService = start(8);
+        List<NotificationRequest> batch = List.of(
+                request("user-1", NotificationPriority.NORMAL, NotificationType.SYSTEM),
+                request("bad", NotificationPriority.NORMAL, NotificationType.SYSTEM),
+                request("user-2", NotificationPriority.NORMAL, NotificationType.SYSTEM));
+
+        ingestService.write(batch);
+
+        // The failing row is dropped on its own; its neighbours are still stored
+        verify(notificationService, times(3)).createNotification(any(NotificationRequest.class));
+        assertThat(ingestService.getStats()).containsEntry("written", 2L);
+    }
+
+    // No writer threads, so the lanes only move when the test drains them
+    private NotificationIngestService start(int batchSize) {
+        NotificationIngestService service = new NotificationIngestService(notificationService, dataSource,
+                transactionManager, 100, 100, 100, batchSize, 0, 0);
+        service.start();
+        return service;
+    }
+
+    private NotificationRequest request(String userId, NotificationPriority priority, NotificationType type) {
+        return NotificationRequest.builder()
+                .userId(userId)
+                .title("Title")
+                .message("Message")
+                .type(type)
+                .priority(priority)
+                .build();
+    }
+}
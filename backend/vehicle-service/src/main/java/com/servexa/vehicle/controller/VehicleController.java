@@ -1,6 +1,7 @@
 package com.servexa.vehicle.controller;
 
 import com.servexa.common.dto.ApiResponse;
+import com.servexa.common.exception.BadRequestException;
 import com.servexa.vehicle.dto.VehicleRequest;
 import com.servexa.vehicle.dto.VehicleResponse;
 import com.servexa.vehicle.service.VehicleService;
@@ -52,6 +53,17 @@ public class VehicleController {
         );
     }
     
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<List<VehicleResponse>>> getVehiclesByIds(@RequestBody List<Long> ids) {
+        if (ids.size() > 1000) {
+            throw new BadRequestException("At most 1000 vehicle IDs can be requested at once");
+        }
+        List<VehicleResponse> vehicles = vehicleService.getVehiclesByIds(ids);
+        return ResponseEntity.ok(
+                ApiResponse.success(vehicles, "Vehicles fetched successfully")
+        );
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<VehicleResponse>> updateVehicle(
             @PathVariable Long id,
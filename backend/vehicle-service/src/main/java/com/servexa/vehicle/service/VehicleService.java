@@ -83,6 +83,14 @@ public class VehicleService {
         return mapToResponse(vehicle);
     }
     
+    @Transactional(readOnly = true)
+    public List<VehicleResponse> getVehiclesByIds(List<Long> ids) {
+        log.info("Fetching {} vehicles by ID", ids.size());
+        return vehicleRepository.findAllById(ids).stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+    
     public VehicleResponse updateVehicle(Long id, VehicleRequest request) {
         log.info("Updating vehicle with ID: {}", id);
         
@@ -53,6 +53,35 @@ class VehicleIntegrationTest {
                 vehicleRequest.setImageUrl("http://example.com/image.jpg");
         }
 
+        @Test
+        void testIdempotentCreateReplaysStoredResponse() throws Exception {
+                String body = objectMapper.writeValueAsString(vehicleRequest);
+
+                mockMvc.perform(post("/api/vehicles")
+                                .header("Idempotency-Key", "create-abc123")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body))
+                                .andExpect(status().isCreated())
+                                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+
+                mockMvc.perform(post("/api/vehicles")
+                                .header("Idempotency-Key", "create-abc123")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body))
+                                .andExpect(status().isCreated())
+                                .andExpect(header().string("Idempotent-Replayed", "true"))
+                                .andExpect(jsonPath("$.data.registrationNumber", is("ABC123")));
+
+                assertThat(vehicleRepository.findAll()).hasSize(1);
+
+                vehicleRequest.setRegistrationNumber("XYZ789");
+                mockMvc.perform(post("/api/vehicles")
+                                .header("Idempotency-Key", "create-abc123")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(vehicleRequest)))
+                                .andExpect(status().isUnprocessableEntity());
+        }
+
         @Test
         void testValidationErrors() throws Exception {
                 // Test missing registration number
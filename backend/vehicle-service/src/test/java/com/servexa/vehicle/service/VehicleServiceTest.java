@@ -102,6 +102,16 @@ class VehicleServiceTest {
                 any(NotificationType.class));
     }
 
+    @Test
+    void getVehiclesByIds_ReturnsFoundVehicles() {
+        when(vehicleRepository.findAllById(Arrays.asList(1L, 2L, 99L)))
+                .thenReturn(Arrays.asList(vehicle, createSecondVehicle()));
+
+        List<VehicleResponse> responses = vehicleService.getVehiclesByIds(Arrays.asList(1L, 2L, 99L));
+
+        assertThat(responses).extracting(VehicleResponse::getRegistrationNumber).containsExactly("ABC123", "XYZ789");
+    }
+
     @Test
     void getVehiclesByCustomerId_Success() {
         List<Vehicle> vehicles = Arrays.asList(vehicle, createSecondVehicle());
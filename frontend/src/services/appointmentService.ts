@@ -35,6 +35,24 @@ interface AppointmentResponse {
 }
 
 class AppointmentService {
+  private async waitForBooking(ticketId: string): Promise<AppointmentResponse> {
+    for (;;) {
+      const response = await axios.get(
+        getApiUrl("appointment", `${API_PATHS.appointments}/queue/${ticketId}`),
+        this.getAuthHeaders()
+      );
+      const ticket = response.data.data;
+      if (ticket.status === "BOOKED") {
+        return ticket.appointment;
+      }
+      if (ticket.status === "FAILED") {
+        throw new Error(ticket.error || "Booking failed");
+      }
+      const delay = Math.min(Math.max(ticket.estimatedWaitMs ?? 1000, 500), 5000);
+      await new Promise((resolve) => setTimeout(resolve, delay));
+    }
+  }
+
   private getAuthHeaders() {
     const token = authService.getStoredToken();
     if (!token) {
@@ -99,6 +117,11 @@ class AppointmentService {
         this.getAuthHeaders()
       );
 
+      // 202 means the booking is still queued; poll its ticket until a worker finishes it
+      if (response.status === 202) {
+        return await this.waitForBooking(response.data.data.ticketId);
+      }
+
       return response.data.data;
     } catch (error) {
       console.error("Error creating appointment:", error);
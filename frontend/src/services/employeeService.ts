@@ -143,19 +143,17 @@ class EmployeeService {
 
       console.log("Fetching appointments for employee:", userId);
 
-      // Fetch all appointments and filter by assignedEmployeeId on the client side
-      const response = await axios.get(`${API_URL}/api/appointments`, {
-        headers: getAuthHeaders(),
-      });
+      // The employee list carries each job's note, unlike the general appointment lists
+      const response = await axios.get(
+        `${API_URL}/api/appointments/employee/${userId}`,
+        {
+          headers: getAuthHeaders(),
+        }
+      );
 
       console.log("Appointments response:", response.data);
 
-      const appointments: AppointmentResponse[] = response.data.data || [];
-
-      // Filter appointments assigned to current user
-      const myAppointments = appointments.filter(
-        (appointment) => appointment.assignedEmployeeId === userId
-      );
+      const myAppointments: AppointmentResponse[] = response.data.data || [];
 
       console.log(
         `Found ${myAppointments.length} appointments assigned to user ${userId}`